@@ -0,0 +1,65 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete AI turn, from rack to committed move, on the seeded position after
+ * the opening. The turn runs inside {@link Model#simulate()} and is rolled back, so every
+ * invocation sees the same board and rack. The shared {@link MoveCache} is emptied before
+ * each turn, or every invocation after the first would be a lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AiTurnBenchmark {
+    @Param({"15", "31", "51", "101"})
+    public int boardSize;
+
+    private Model model;
+    private AiPlayer ai;
+
+    /**
+     * Builds the position and checks that it is the AI player's turn.
+     */
+    @Setup
+    public void setUp() {
+        model = BenchmarkPositions.afterOpening(boardSize);
+        ai = (AiPlayer) model.getCurrentPlayer();
+    }
+
+    /**
+     * Empties the shared move cache, so the turn searches the position again.
+     */
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        MoveCache.shared().clear();
+    }
+
+    /**
+     * Plays one AI turn and rolls it back.
+     *
+     * @return whether the AI found a move
+     */
+    @Benchmark
+    public boolean play() {
+        try (Model.Simulation ignored = model.simulate()) {
+            return ai.play();
+        }
+    }
+}
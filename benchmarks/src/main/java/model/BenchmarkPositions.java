@@ -0,0 +1,82 @@
+package model;
+
+/**
+ * Builds the fixed, seeded game positions the benchmarks run against.
+ * Every position is created with {@link Model#create(int, String, long)}, so the same seed
+ * and board size always give the same racks and the same board.
+ */
+final class BenchmarkPositions {
+    /**
+     * The seed used for every benchmark position.
+     */
+    static final long SEED = 20240101L;
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Creates a game with one human and one AI player where the human has played CATS
+     * across the centre. It is the AI player's turn.
+     *
+     * @param boardSize the size of the board
+     * @return the model
+     */
+    static Model afterOpening(int boardSize) {
+        Model model = Model.create(boardSize, null, SEED);
+        model.addPlayer(new Player("Human"));
+        model.addAiPlayers(1);
+
+        int center = boardSize / 2;
+        setRack(model.getCurrentPlayer(), "CATSEIO");
+        placeAcross(model, "CATS", center, center - 1);
+        if (!model.submitWord()) {
+            throw new IllegalStateException("Opening move was rejected");
+        }
+        model.nextTurn();
+        return model;
+    }
+
+    /**
+     * Replaces a player's rack.
+     *
+     * @param player  the player
+     * @param letters the new rack, one tile per letter
+     */
+    static void setRack(Player player, String letters) {
+        player.tiles.clear();
+        for (char letter : letters.toCharArray()) {
+            player.tiles.add(letter);
+        }
+    }
+
+    /**
+     * Places a word from the current player's rack, left to right.
+     *
+     * @param model the model
+     * @param word  the letters to place
+     * @param row   the row of the first letter
+     * @param col   the column of the first letter
+     */
+    static void placeAcross(Model model, String word, int row, int col) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!model.placeTile(word.charAt(i), row, col + i)) {
+                throw new IllegalStateException("Could not place " + word.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Places tiles above and below the C of the opening word, making a three letter
+     * word down through it.
+     *
+     * @param model  a model created by {@link #afterOpening(int)}
+     * @param above  the letter to place above the C
+     * @param below  the letter to place below the C
+     */
+    static void placeThroughC(Model model, char above, char below) {
+        int center = model.getBoardSize() / 2;
+        if (!model.placeTile(above, center - 1, center - 1) || !model.placeTile(below, center + 1, center - 1)) {
+            throw new IllegalStateException("Could not place " + above + " and " + below);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the dictionary and looking words up in it, through the game and in each
+ * of the ways the words can be held.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexiconBenchmark {
+    private Model model;
+
+    /**
+     * Creates the game whose dictionary is queried.
+     */
+    @Setup
+    public void setUp() {
+        model = Model.create(15, null, BenchmarkPositions.SEED);
+    }
+
+    /**
+     * Reads the word list from disk.
+     *
+     * @return the loaded words
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Set<String> load() {
+        return Model.loadWordList(Model.WORDLIST_PATH);
+    }
+
+    /**
+     * Looks up a word that is in the dictionary.
+     *
+     * @return the lookup result
+     */
+    @Benchmark
+    public boolean validateWordHit() {
+        return model.validateWord("QUIXOTIC");
+    }
+
+    /**
+     * Looks up a word that is not in the dictionary.
+     *
+     * @return the lookup result
+     */
+    @Benchmark
+    public boolean validateWordMiss() {
+        return model.validateWord("QUIXOTIX");
+    }
+
+    /**
+     * Looks up a word that is in the dictionary, held as the benchmark's parameter says.
+     *
+     * @param words the dictionary
+     * @return the lookup result
+     */
+    @Benchmark
+    public boolean containsHit(Words words) {
+        return words.contains("QUIXOTIC");
+    }
+
+    /**
+     * Looks up a word that is not in the dictionary but shares a long prefix with one.
+     *
+     * @param words the dictionary
+     * @return the lookup result
+     */
+    @Benchmark
+    public boolean containsMiss(Words words) {
+        return words.contains("QUIXOTIX");
+    }
+
+    /**
+     * The shipped word list in one of the forms it can take: a hash set of strings, the
+     * off-heap trie, or the succinct LOUDS trie.
+     */
+    @State(Scope.Benchmark)
+    public static class Words {
+        @Param({"hashSet", "offHeap", "louds"})
+        public String format;
+
+        private Set<String> set;
+
+        /**
+         * Builds the dictionary and prints what it occupies.
+         */
+        @Setup
+        public void setUp() {
+            switch (format) {
+                case "hashSet" -> set = new HashSet<>(Model.loadWordList(Model.WORDLIST_PATH));
+                case "offHeap" -> {
+                    OffHeapLexicon lexicon = OffHeapLexicon.shared();
+                    System.out.printf("%n%d nodes in %d bytes%n", lexicon.getNodeCount(), lexicon.getByteSize());
+                    set = new LexiconWords(lexicon);
+                }
+                case "louds" -> {
+                    LoudsLexicon lexicon = LoudsLexicon.of(Model.loadWordList(Model.WORDLIST_PATH));
+                    System.out.printf("%n%d nodes in %d bytes%n", lexicon.getNodeCount(), lexicon.getByteSize());
+                    set = new LexiconWords(lexicon);
+                }
+                default -> throw new IllegalArgumentException(format);
+            }
+        }
+
+        private boolean contains(String word) {
+            return set.contains(word);
+        }
+    }
+}
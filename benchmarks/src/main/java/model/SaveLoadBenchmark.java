@@ -0,0 +1,92 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and loading a game the way the controller does, with Java serialization,
+ * but to memory so disk speed does not enter into it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveLoadBenchmark {
+    @Param({"15", "31", "51", "101"})
+    public int boardSize;
+
+    private Model model;
+    private byte[] saved;
+
+    /**
+     * Builds the position and a saved copy of it.
+     *
+     * @throws IOException if the model cannot be serialized
+     */
+    @Setup
+    public void setUp() throws IOException {
+        model = BenchmarkPositions.afterOpening(boardSize);
+        saved = save();
+    }
+
+    /**
+     * Saves the game.
+     *
+     * @return the saved bytes
+     * @throws IOException if the model cannot be serialized
+     */
+    @Benchmark
+    public byte[] save() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(model);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Loads the saved game.
+     *
+     * @return the loaded model
+     * @throws IOException            if the bytes cannot be read
+     * @throws ClassNotFoundException if a saved class is missing
+     */
+    @Benchmark
+    public Model load() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(saved))) {
+            return (Model) in.readObject();
+        }
+    }
+
+    /**
+     * Saves the game and loads it back.
+     *
+     * @return the loaded model
+     * @throws IOException            if the model cannot be serialized or read
+     * @throws ClassNotFoundException if a saved class is missing
+     */
+    @Benchmark
+    public Model roundTrip() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(save()))) {
+            return (Model) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures word extraction, scoring and full move submission on the second turn of a
+ * seeded game, where the move plays ACE down through the C of the opening word.
+ * Submissions run inside {@link Model#simulate()}, so every invocation starts from the
+ * same position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+    @Param({"15", "31", "51", "101"})
+    public int boardSize;
+
+    private Model placed;
+    private Model model;
+    private List<String> words;
+
+    /**
+     * Builds one game with ACE already placed, for the read-only benchmarks, and one with
+     * nothing placed yet, for the submission benchmarks.
+     */
+    @Setup
+    public void setUp() {
+        placed = BenchmarkPositions.afterOpening(boardSize);
+        BenchmarkPositions.setRack(placed.getCurrentPlayer(), "AEXQRST");
+        BenchmarkPositions.placeThroughC(placed, 'A', 'E');
+        words = placed.getAllNewWords();
+
+        model = BenchmarkPositions.afterOpening(boardSize);
+        BenchmarkPositions.setRack(model.getCurrentPlayer(), "AEXQRST");
+    }
+
+    /**
+     * Collects the words formed by the placed tiles.
+     *
+     * @return the new words
+     */
+    @Benchmark
+    public List<String> getAllNewWords() {
+        return placed.getAllNewWords();
+    }
+
+    /**
+     * Scores the words formed by the placed tiles.
+     *
+     * @return the score
+     */
+    @Benchmark
+    public int calculateTotalScore() {
+        return placed.calculateTotalScore(words);
+    }
+
+    /**
+     * Places and submits a valid move.
+     *
+     * @return whether the move was accepted
+     */
+    @Benchmark
+    public boolean submitWordAccept() {
+        try (Model.Simulation ignored = model.simulate()) {
+            BenchmarkPositions.placeThroughC(model, 'A', 'E');
+            return model.submitWord();
+        }
+    }
+
+    /**
+     * Places and submits a move that forms a word not in the dictionary.
+     *
+     * @return whether the move was accepted
+     */
+    @Benchmark
+    public boolean submitWordReject() {
+        try (Model.Simulation ignored = model.simulate()) {
+            BenchmarkPositions.placeThroughC(model, 'X', 'Q');
+            return model.submitWord();
+        }
+    }
+}
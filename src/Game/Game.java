@@ -1,6 +1,8 @@
 package Game;
 
 import controller.Controller;
+import model.BoardConfigLoader;
+import model.LatencyMetrics;
 import model.Model;
 import model.Player;
 import view.View;
@@ -8,7 +10,6 @@ import view.View;
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
-import java.util.Objects;
 
 public class Game {
 
@@ -32,9 +33,8 @@ public class Game {
         // Add dropdown for board configuration files
         panel.add(new JLabel("Select board configuration:"));
         JComboBox<String> boardConfigDropdown = new JComboBox<>();
-        File configDir = new File("src/model");
-        for (File file : Objects.requireNonNull(configDir.listFiles((dir, name) -> name.endsWith(".xml")))) {
-            boardConfigDropdown.addItem(file.getPath());
+        for (String configPath : BoardConfigLoader.listConfigs(new File("src/model"))) {
+            boardConfigDropdown.addItem(configPath);
         }
         panel.add(boardConfigDropdown);
 
@@ -56,6 +56,9 @@ public class Game {
         boolean timerMode = timerModeCheckBox.isSelected();
         String boardConfigPath = (String) boardConfigDropdown.getSelectedItem();
 
+        // Publish operation latencies over JMX
+        LatencyMetrics.install();
+
         // Initialize the model
         Model model = Model.getInstance(boardSize, boardConfigPath);
         model.setTimerMode(timerMode);
@@ -0,0 +1,345 @@
+package Game;
+
+import model.AiPlayer;
+import model.LatencyMetrics;
+import model.Model;
+import model.ModelObserver;
+import model.Player;
+import model.TileBag;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Command-line front end that runs a game without Swing, for servers, scripts and load tests.
+ * Nothing here touches AWT, so it starts on a headless JVM.
+ * <p>
+ * Options:
+ * <pre>
+ *   --size N       board size (default 15, even sizes are rounded up like the GUI does)
+ *   --config PATH  board configuration XML file (default: built-in premium squares)
+ *   --humans N     number of human (scripted) players (default 1)
+ *   --ai N         number of AI players, at most 5 (default 1)
+ *   --ai-first     seat the AI players before the humans, so an AI opens the game
+ *   --seed N       seed for the tile bag and AI players (default: random)
+ *   --script PATH  read commands from a file instead of standard input
+ * </pre>
+ * Commands, one per line; each is answered with one or more lines starting with a keyword:
+ * <pre>
+ *   place LETTER ROW COL   place a tile from the current player's rack; ?E plays a blank as E
+ *   submit                 submit the placed tiles
+ *   skip                   return placed tiles and pass the turn
+ *   board | rack | status  print the board (blanks in lower case), the rack (blanks as ?) or the scores
+ *   quit                   end the session
+ * </pre>
+ * AI players move automatically whenever it is their turn, until it is a human's turn again.
+ * An AI seated first opens the game as soon as the session starts, and with no human players
+ * the AI players play the whole game.
+ */
+public class HeadlessGame {
+    private final Model model;
+    private final PrintStream out;
+    private String lastMessage = "";
+
+    /**
+     * Constructs a headless session around a model.
+     *
+     * @param model the model to drive
+     * @param out   where responses are written
+     */
+    public HeadlessGame(Model model, PrintStream out) {
+        this.model = model;
+        this.out = out;
+        model.addObserver(new ModelObserver() {
+            @Override
+            public void update(String message, Model m) {
+                lastMessage = message;
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        int boardSize = 15;
+        String configPath = null;
+        int humans = 1;
+        int aiPlayers = 1;
+        boolean aiFirst = false;
+        Long seed = null;
+        String scriptPath = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--ai-first":
+                    aiFirst = true;
+                    continue; // takes no value
+                case "--size":
+                    boardSize = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--config":
+                    configPath = require(args[i], value);
+                    break;
+                case "--humans":
+                    humans = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--ai":
+                    aiPlayers = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(require(args[i], value));
+                    break;
+                case "--script":
+                    scriptPath = require(args[i], value);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                    return;
+            }
+            i++;
+        }
+
+        if (boardSize % 2 == 0) {
+            boardSize += 1;
+        }
+        aiPlayers = Math.min(aiPlayers, 5);
+
+        // keep protocol output clean: engine diagnostics printed with System.out go to stderr
+        PrintStream protocol = System.out;
+        System.setOut(System.err);
+
+        LatencyMetrics.install();
+        Model model = Model.create(boardSize, configPath, seed != null ? seed : System.nanoTime());
+        if (aiFirst) {
+            model.addAiPlayers(aiPlayers);
+        }
+        for (int i = 1; i <= humans; i++) {
+            model.addPlayer(new Player("Player " + i));
+        }
+        if (!aiFirst) {
+            model.addAiPlayers(aiPlayers);
+        }
+        if (model.getPlayers().isEmpty()) {
+            System.err.println("At least one player is required.");
+            System.exit(2);
+        }
+
+        HeadlessGame game = new HeadlessGame(model, protocol);
+        try (BufferedReader in = scriptPath != null
+                ? new BufferedReader(new FileReader(scriptPath))
+                : new BufferedReader(new InputStreamReader(System.in))) {
+            game.run(in);
+        }
+    }
+
+    /**
+     * Reads and executes commands until the input ends, a quit command arrives or the game is over.
+     *
+     * @param in the command source
+     * @throws IOException if reading fails
+     */
+    public void run(BufferedReader in) throws IOException {
+        if (!afterTurn()) {
+            out.flush();
+            return; // no human players, and the AI players have played the game out
+        }
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (!execute(line)) {
+                break;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Executes one command.
+     *
+     * @param line the command line
+     * @return false when the session should end
+     */
+    public boolean execute(String line) {
+        String[] parts = line.split("\\s+");
+        switch (parts[0].toLowerCase()) {
+            case "place":
+                place(parts);
+                return true;
+            case "submit":
+                return submit();
+            case "skip":
+                return skip();
+            case "board":
+                printBoard();
+                return true;
+            case "rack":
+                out.println("rack " + rackString(model.getCurrentPlayer()));
+                return true;
+            case "status":
+                printStatus();
+                return true;
+            case "quit":
+                out.println("bye");
+                return false;
+            default:
+                out.println("error unknown command " + parts[0]);
+                return true;
+        }
+    }
+
+    /**
+     * Handles the place command.
+     *
+     * @param parts the command and its arguments
+     */
+    private void place(String[] parts) {
+        boolean blank = parts.length == 4 && parts[1].length() == 2 && parts[1].charAt(0) == '?';
+        if (parts.length != 4 || (parts[1].length() != 1 && !blank)) {
+            out.println("error usage: place LETTER ROW COL");
+            return;
+        }
+        try {
+            char tile = blank
+                    ? Character.toLowerCase(parts[1].charAt(1))
+                    : Character.toUpperCase(parts[1].charAt(0));
+            int row = Integer.parseInt(parts[2]);
+            int col = Integer.parseInt(parts[3]);
+            out.println(model.placeTile(tile, row, col) ? "ok" : "error cannot place " + tile + " at " + row + " " + col);
+        } catch (NumberFormatException e) {
+            out.println("error row and column must be numbers");
+        }
+    }
+
+    /**
+     * Handles the submit command, mirroring the GUI's submit button.
+     *
+     * @return false if the game ended
+     */
+    private boolean submit() {
+        Player player = model.getCurrentPlayer();
+        int scoreBefore = player.getScore();
+        if (!model.submitWord()) {
+            out.println("rejected " + lastMessage);
+            return true;
+        }
+        out.println("accepted " + (player.getScore() - scoreBefore));
+        model.nextTurn();
+        return afterTurn();
+    }
+
+    /**
+     * Handles the skip command, mirroring the GUI's skip button.
+     *
+     * @return false if the game ended
+     */
+    private boolean skip() {
+        if (model.isFirstTurn()) {
+            out.println("error the first word must be played before skipping");
+            return true;
+        }
+        model.restorePlayerTiles();
+        model.nextTurn();
+        out.println("skipped");
+        return afterTurn();
+    }
+
+    /**
+     * Lets AI players move until it is a human's turn, then reports the game state. The game
+     * also ends when every player in turn has passed, which only AI players can do in a row,
+     * or when no AI can open it.
+     *
+     * @return false if the game ended
+     */
+    private boolean afterTurn() {
+        int passes = 0;
+        while (!model.isGameOver() && passes < model.getPlayers().size()) {
+            if (!model.getCurrentPlayer().isAi()) {
+                printStatus();
+                return true;
+            }
+            AiPlayer ai = (AiPlayer) model.getCurrentPlayer();
+            int scoreBefore = ai.getScore();
+            if (ai.play()) {
+                out.println("ai " + ai.getName() + " scored " + (ai.getScore() - scoreBefore));
+                passes = 0;
+            } else {
+                out.println("ai " + ai.getName() + " skipped");
+                passes++;
+            }
+            model.nextTurn();
+        }
+        out.println("gameover");
+        printScores();
+        return false;
+    }
+
+    /**
+     * Prints whose turn it is, their rack and the scores.
+     */
+    private void printStatus() {
+        Player player = model.getCurrentPlayer();
+        out.println("turn " + player.getName() + " rack " + rackString(player) + " bag " + model.getRemainingTiles());
+        printScores();
+    }
+
+    /**
+     * Prints every player's score.
+     */
+    private void printScores() {
+        List<Player> players = model.getPlayers();
+        for (Player player : players) {
+            out.println("score " + player.getName() + " " + player.getScore());
+        }
+    }
+
+    /**
+     * Prints the board, one row per line, with '.' for empty squares.
+     */
+    private void printBoard() {
+        char[][] board = model.getBoardState();
+        StringBuilder row = new StringBuilder(board.length);
+        for (char[] cells : board) {
+            row.setLength(0);
+            for (char c : cells) {
+                row.append(c == '\0' ? '.' : c);
+            }
+            out.println("row " + row);
+        }
+    }
+
+    /**
+     * Formats a player's rack.
+     *
+     * @param player the player
+     * @return the rack letters
+     */
+    private static String rackString(Player player) {
+        StringBuilder rack = new StringBuilder();
+        for (Character tile : player.getTiles()) {
+            rack.append(tile == TileBag.BLANK ? '?' : tile);
+        }
+        return rack.toString();
+    }
+
+    /**
+     * Checks that an option has a value.
+     *
+     * @param option the option name
+     * @param value  the value, or null if the arguments ended
+     * @return the value
+     */
+    private static String require(String option, String value) {
+        if (value == null) {
+            System.err.println("Missing value for " + option);
+            System.exit(2);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,47 @@
+package Game;
+
+import model.Model;
+import model.Player;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class HeadlessGameTest {
+
+    @Test
+    public void testAiSeatedFirstOpensTheGame() throws IOException {
+        Model model = Model.create(15, null, 5);
+        model.addAiPlayers(1);
+        model.addPlayer(new Player("Player 1"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HeadlessGame game = new HeadlessGame(model, new PrintStream(out, true));
+        game.run(new BufferedReader(new StringReader("")));
+
+        String output = out.toString();
+        assertTrue(output, output.startsWith("ai AI 1 scored "));
+        assertTrue(output, output.contains("turn Player 1"));
+        assertFalse(model.isFirstTurn());
+        assertTrue(model.isCenterCovered());
+        assertTrue(game.execute("skip")); // passing is allowed once the game is open
+        assertTrue(out.toString(), out.toString().contains("skipped"));
+    }
+
+    @Test
+    public void testAiPlayersPlayAGameWithoutHumans() throws IOException {
+        Model model = Model.create(15, null, 3);
+        model.addAiPlayers(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HeadlessGame(model, new PrintStream(out, true)).run(new BufferedReader(new StringReader("")));
+
+        String output = out.toString();
+        assertTrue(output, output.startsWith("ai AI 1 scored "));
+        assertTrue(output, output.contains("gameover"));
+        assertFalse(model.isFirstTurn());
+    }
+}
@@ -1,27 +1,46 @@
 package controller;
 
 import model.AiPlayer;
+import model.LatencyMetrics;
 import model.Model;
 import model.Player;
 import view.View;
 import model.Position;
+import model.TileBag;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The Controller class handles the game logic and user interactions.
  */
 public class Controller {
+    private static final long TURN_MILLIS = 30_000;
+    private static final String SAVE_FILE = "game_save.ser";
+
     private Model model;
     private View view;
     private Character selectedPlayerChar;
     private JButton selectedPlayerTileBtn;
-    private TimerTask timerTask;
+    private final Deque<Character> undoneTiles = new ArrayDeque<>(); // tiles as they were on the board, last undone first
+    private TurnClock turnClock;
+
+    // clock updates are handed to the Swing thread through these, so a tick does not allocate a lambda
+    private volatile long timerSeconds;
+    private final AtomicBoolean timerLabelUpdatePending = new AtomicBoolean();
+    private final Runnable updateTimerLabel = () -> {
+        timerLabelUpdatePending.set(false);
+        view.getTimerLabel().setText("Timer: " + timerSeconds + "s");
+    };
+    private final Runnable turnTimedOut = () -> {
+        view.showMessage("Time's up! Next player's turn.");
+        onSkipTurnClicked();
+    };
 
     /**
      * Constructs a Controller with the specified model and view.
@@ -44,15 +63,8 @@ public class Controller {
         view.getUndoButton().addActionListener(e -> onUndoButtonClicked());
         view.getRedoButton().addActionListener(e -> onRedoButtonClicked());
 
-        // Loop through each cell button in the board and add action listener to each board cell button
-        for (int row = 0; row < model.getBoardSize(); row++) {
-            for (int col = 0; col < model.getBoardSize(); col++) {
-                JButton cellButton = view.getBoardCellButton(row, col);
-                final int currentRow = row;
-                final int currentCol = col;
-                cellButton.addActionListener(e -> onBoardCellClicked(currentRow, currentCol, (JButton) e.getSource()));
-            }
-        }
+        // Board clicks are hit-tested by the board component and arrive as (row, col)
+        view.getBoardComponent().addCellClickListener(this::onBoardCellClicked);
 
         // Add action listeners to player tile rack buttons
         for (JButton tileButton : view.getPlayerTiles()) {
@@ -62,28 +74,46 @@ public class Controller {
         if (model.isTimerMode()) {
             startTimer();
         }
+        if (!model.getPlayers().isEmpty()) {
+            handleAITurn(); // an AI in the first seat opens the game
+        }
     }
 
     /**
      * Handles the event when the save button is clicked.
      */
     private void onSaveButtonClicked() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream("game_save.ser"))) {
+        long start = System.nanoTime();
+        SaveLoadEvent event = new SaveLoadEvent();
+        event.begin();
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
             out.writeObject(model);
+            LatencyMetrics.record(LatencyMetrics.Operation.SAVE, start);
+            event.succeeded = true;
+            event.end();
             view.showMessage("Game saved successfully!");
         } catch (IOException e) {
             view.showMessage("Error saving game: " + e.getMessage());
         }
+        commitSaveLoadEvent(event, "save");
     }
 
     /**
      * Handles the event when the load button is clicked.
      */
     private void onLoadButtonClicked() {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream("game_save.ser"))) {
+        SaveLoadEvent event = new SaveLoadEvent();
+        event.begin();
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(SAVE_FILE))) {
             model = (Model) in.readObject();
+            event.succeeded = true;
+            event.end();
             model.addObserver(view); // Reattach the view as an observer
             view.update("initialize", model);
+            stopTimer(); // the clock belonged to the game that was replaced
+            if (model.isTimerMode()) {
+                startTimer();
+            }
             view.showMessage("Game loaded successfully!");
         } catch (FileNotFoundException e) {
             view.showMessage("Save file not found. Please ensure the save file exists.");
@@ -92,6 +122,23 @@ public class Controller {
         } catch (IOException | ClassNotFoundException e) {
             view.showMessage("Error loading game: " + e.getMessage());
         }
+        commitSaveLoadEvent(event, "load");
+    }
+
+    /**
+     * Fills in and commits a save or load flight recorder event, if it is being recorded.
+     *
+     * @param event     the event, begun before the file was opened
+     * @param operation "save" or "load"
+     */
+    private void commitSaveLoadEvent(SaveLoadEvent event, String operation) {
+        if (event.shouldCommit()) {
+            event.setGame(model);
+            event.operation = operation;
+            event.file = SAVE_FILE;
+            event.bytes = new File(SAVE_FILE).length();
+            event.commit();
+        }
     }
 
 
@@ -114,13 +161,20 @@ public class Controller {
     /**
      * Handles the event when a board cell is clicked.
      *
-     * @param row        the row of the board cell
-     * @param col        the column of the board cell
-     * @param cellButton the board cell button
+     * @param row the row of the board cell
+     * @param col the column of the board cell
      */
-    public void onBoardCellClicked(int row, int col, JButton cellButton) {
+    public void onBoardCellClicked(int row, int col) {
         if (selectedPlayerChar != null) {
-            if (model.placeTile(selectedPlayerChar, row, col)) {
+            char tile = selectedPlayerChar;
+            if (tile == TileBag.BLANK) {
+                Character letter = view.askBlankLetter();
+                if (letter == null) {
+                    return; // the player changed their mind
+                }
+                tile = Character.toLowerCase(letter);
+            }
+            if (model.placeTile(tile, row, col)) {
                 selectedPlayerTileBtn.setBackground(Color.GRAY); // unhighlight the selected tile
                 selectedPlayerTileBtn.setEnabled(false); // disable the selected tile
                 selectedPlayerChar = null;
@@ -177,9 +231,10 @@ public class Controller {
         Position lastPositionPlayed = currentPlayer.history.removeLast();
         Character lastTilePlayed = model.removeCurrentPlacementTile(lastPositionPlayed);
         currentPlayer.undoHistory.add(lastPositionPlayed);
+        undoneTiles.push(lastTilePlayed); // a blank keeps the letter it was given
         model.removeTileFromBoard(lastPositionPlayed.row, lastPositionPlayed.col);
-        currentPlayer.addTile(lastTilePlayed);
-        view.enableTile(lastTilePlayed);
+        currentPlayer.addTile(TileBag.rackTile(lastTilePlayed));
+        view.enableTile(TileBag.rackTile(lastTilePlayed));
     }
 
     /**
@@ -189,8 +244,10 @@ public class Controller {
         Player currentPlayer = model.getCurrentPlayer();
         Position lastUndoPosition = currentPlayer.undoHistory.removeLast();
         Character lastUndoTile = currentPlayer.tiles.removeLast();
+        Character undone = undoneTiles.isEmpty() ? lastUndoTile : undoneTiles.pop();
+        Character boardTile = TileBag.rackTile(undone) == lastUndoTile ? undone : lastUndoTile;
         currentPlayer.history.add(lastUndoPosition);
-        model.addTileToBoard(lastUndoTile, lastUndoPosition.row, lastUndoPosition.col);
+        model.addTileToBoard(boardTile, lastUndoPosition.row, lastUndoPosition.col);
         view.disableTile(lastUndoTile);
     }
 
@@ -208,6 +265,7 @@ public class Controller {
      * Ends the game and displays the final scores.
      */
     private void endGame() {
+        stopTimer();
         List<Player> players = model.getPlayers();
         StringBuilder finalScores = new StringBuilder("Game Over! Final Scores:\n");
         for (Player player : players) {
@@ -217,21 +275,32 @@ public class Controller {
     }
 
     /**
-     * Handles the AI player's turn.
+     * Lets AI players move until it is a human's turn. An AI whose turn comes first opens the
+     * game, from the opening book if one is loaded. AI players stop once every player in turn
+     * has passed, so a game without humans cannot pass forever.
      */
     private void handleAITurn() {
-        if (model.isFirstTurn()) {
-            return;
-        }
         // silence pop up messages.
         model.toggleDisplayMessages();
 
-        while (model.getCurrentPlayer().isAi()) {
+        int passes = 0;
+        while (model.getCurrentPlayer().isAi() && passes < model.getPlayers().size()) {
             AiPlayer aiPlayer = (AiPlayer) model.getCurrentPlayer();
-            if (!(aiPlayer.play())) {
+            // one composite refresh for the whole AI turn instead of one per tile
+            boolean played;
+            Model.Batch batch = model.batch();
+            try {
+                played = aiPlayer.play();
+                model.nextTurn();
+            } finally {
+                batch.close();
+            }
+            if (!played) {
                 view.showMessage(aiPlayer.getName() + " skipped their turn.");
+                passes++;
+            } else {
+                passes = 0;
             }
-            model.nextTurn();
             reenablePlayerTiles();
             if (model.isGameOver()) {
                 endGame();
@@ -244,32 +313,47 @@ public class Controller {
     }
 
 
+    /**
+     * Starts the turn clock for the current player, creating it on first use.
+     * All games share the scheduler thread of {@link TurnClockService}.
+     */
     private void startTimer() {
-        Timer timer = new Timer();
-        timerTask = new TimerTask() {
-            int timeRemaining = 30;
-
-            @Override
-            public void run() {
-                if (timeRemaining > 0) {
-                    timeRemaining--;
-                    SwingUtilities.invokeLater(() -> view.getTimerLabel().setText("Timer: " + timeRemaining + "s"));
-                } else {
-                    SwingUtilities.invokeLater(() -> {
-                        view.showMessage("Time's up! Next player's turn.");
-                        onSkipTurnClicked();
-                    });
-                    cancel();
+        if (turnClock == null) {
+            turnClock = TurnClock.perTurn(model.getPlayers().size(), TURN_MILLIS, new TurnClock.Listener() {
+                @Override
+                public void onTick(int player, long remainingSeconds) {
+                    timerSeconds = remainingSeconds;
+                    if (timerLabelUpdatePending.compareAndSet(false, true)) {
+                        SwingUtilities.invokeLater(updateTimerLabel);
+                    }
                 }
-            }
-        };
-        timer.scheduleAtFixedRate(timerTask, 0, 1000);
+
+                @Override
+                public void onTimeout(int player) {
+                    SwingUtilities.invokeLater(turnTimedOut);
+                }
+            });
+        }
+        turnClock.switchTo(model.getCurrentPlayerIndex());
     }
 
+    /**
+     * Restarts the turn clock for the player whose turn it now is, unless the game is over.
+     */
     private void resetTimer() {
-        if (timerTask != null) {
-            timerTask.cancel();
+        if (!model.isGameOver()) {
+            startTimer();
+        }
+    }
+
+    /**
+     * Stops the turn clock, so no more ticks or timeouts reach a game that has ended or been
+     * replaced.
+     */
+    private void stopTimer() {
+        if (turnClock != null) {
+            turnClock.stop();
+            turnClock = null;
         }
-        startTimer();
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package controller;
 
 import model.Model;
+import model.MoveCache;
+import model.MoveRecord;
 import model.Player;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
@@ -141,4 +143,43 @@ public class ControllerTests {
         assertTrue(playerTiles.contains('T'));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testUndoAndRedoReturnToCachedPositions() {
+        Model game = Model.create(15, null, 4);
+        Player player = new Player("Player 1");
+        game.addPlayer(player);
+        player.getTiles().clear();
+        for (char tile : "CATSEIR".toCharArray()) {
+            player.addTile(tile);
+        }
+        View gameView = new View(15);
+        game.addObserver(gameView);
+        gameView.update("initialize", game);
+        new Controller(game, gameView);
+        MoveCache cache = new MoveCache(64 << 20);
+
+        long empty = game.getBoardHash();
+        List<MoveRecord> moves = cache.moves(game);
+        assertEquals(1, cache.getMisses());
+
+        assertTrue(game.placeTile('C', 7, 7));
+        long placed = game.getBoardHash();
+        assertNotEquals(empty, placed);
+
+        // undo puts the tile back on the rack and the board back to the cached position
+        gameView.getUndoButton().doClick();
+        assertEquals(empty, game.getBoardHash());
+        assertSame(moves, cache.moves(game));
+        assertEquals(1, cache.getHits());
+
+        // redo lays the tile again, which is the board with it, not the cached one
+        gameView.getRedoButton().doClick();
+        assertEquals('C', game.getBoardState()[7][7]);
+        assertEquals(placed, game.getBoardHash());
+
+        gameView.getUndoButton().doClick();
+        assertSame(moves, cache.moves(game));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
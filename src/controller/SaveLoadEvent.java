@@ -0,0 +1,28 @@
+package controller;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import model.GameFlightEvent;
+
+/**
+ * Recorded when a game is saved to or loaded from disk.
+ */
+@Name("scrabble.SaveLoad")
+@Label("Save or Load Game")
+@Description("Serialization of the game to or from a save file")
+class SaveLoadEvent extends GameFlightEvent {
+    @Label("Operation")
+    String operation;
+
+    @Label("File")
+    String file;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,191 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the time of one game's players, ticked by the shared {@link TurnClockService}.
+ * Time is accounted with {@link System#nanoTime()}, so wall clock changes do not affect it.
+ * <p>
+ * Two modes are supported. A per-turn clock gives every turn the same allowance, which is
+ * how timer mode has always worked. A chess clock gives each player a time bank that only
+ * runs during their own turns and grows by an increment after every completed turn.
+ */
+public class TurnClock {
+
+    /**
+     * Receives clock events on the scheduler thread. Implementations should hand work off
+     * to their own thread rather than block the shared scheduler.
+     */
+    public interface Listener {
+        /**
+         * Called when the active player's remaining time crosses a whole second.
+         *
+         * @param player           the index of the active player
+         * @param remainingSeconds the whole seconds left on the player's clock
+         */
+        void onTick(int player, long remainingSeconds);
+
+        /**
+         * Called once when the active player runs out of time. The clock stops until the
+         * next call to {@link #switchTo(int)}.
+         *
+         * @param player the index of the player whose time ran out
+         */
+        void onTimeout(int player);
+    }
+
+    private final long[] bankNanos;
+    private final long allowanceNanos;
+    private final long incrementNanos;
+    private final boolean resetEachTurn;
+    private final Listener listener;
+
+    private int activePlayer = -1;
+    private long turnStartedAt;
+    private long lastReportedSeconds = -1;
+    private boolean running;
+
+    private TurnClock(int players, long allowanceMillis, long incrementMillis, boolean resetEachTurn, Listener listener) {
+        this.bankNanos = new long[players];
+        this.allowanceNanos = TimeUnit.MILLISECONDS.toNanos(allowanceMillis);
+        this.incrementNanos = TimeUnit.MILLISECONDS.toNanos(incrementMillis);
+        this.resetEachTurn = resetEachTurn;
+        this.listener = listener;
+        Arrays.fill(bankNanos, allowanceNanos);
+    }
+
+    /**
+     * Creates a clock that gives every turn the same amount of time.
+     *
+     * @param players    the number of players
+     * @param turnMillis the time allowed per turn
+     * @param listener   the listener to notify
+     * @return the clock, not yet running
+     */
+    public static TurnClock perTurn(int players, long turnMillis, Listener listener) {
+        return new TurnClock(players, turnMillis, 0, true, listener);
+    }
+
+    /**
+     * Creates a chess-style clock where each player has a time bank.
+     *
+     * @param players         the number of players
+     * @param bankMillis      the starting time bank of each player
+     * @param incrementMillis the time added to a player's bank after each of their turns
+     * @param listener        the listener to notify
+     * @return the clock, not yet running
+     */
+    public static TurnClock chess(int players, long bankMillis, long incrementMillis, Listener listener) {
+        return new TurnClock(players, bankMillis, incrementMillis, false, listener);
+    }
+
+    /**
+     * Ends the active player's turn, if any, and starts the given player's time.
+     * Registers the clock with the shared service the first time it is called.
+     *
+     * @param player the index of the player whose turn starts
+     */
+    public void switchTo(int player) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (running && activePlayer >= 0) {
+                bankNanos[activePlayer] = Math.max(0, bankNanos[activePlayer] - (now - turnStartedAt)) + incrementNanos;
+            }
+            if (resetEachTurn) {
+                bankNanos[player] = allowanceNanos;
+            }
+            activePlayer = player;
+            turnStartedAt = now;
+            lastReportedSeconds = -1;
+            running = true;
+        }
+        TurnClockService.getInstance().register(this);
+    }
+
+    /**
+     * Stops the clock and removes it from the shared service.
+     */
+    public void stop() {
+        synchronized (this) {
+            running = false;
+        }
+        TurnClockService.getInstance().unregister(this);
+    }
+
+    /**
+     * Gets the time a player has left. For the active player this includes the running turn.
+     *
+     * @param player the index of the player
+     * @return the remaining time in milliseconds
+     */
+    public synchronized long getRemainingMillis(int player) {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos(player, System.nanoTime()));
+    }
+
+    /**
+     * Gets the number of players the clock keeps time for.
+     *
+     * @return the number of players
+     */
+    public int getPlayerCount() {
+        return bankNanos.length;
+    }
+
+    /**
+     * Checks whether the clock is running.
+     *
+     * @return true while a player's time is running
+     */
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Advances the clock; called by the service on every tick.
+     *
+     * @param now the current {@link System#nanoTime()} value
+     */
+    void tick(long now) {
+        int player;
+        long seconds;
+        boolean timedOut;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            long remaining = remainingNanos(activePlayer, now);
+            player = activePlayer;
+            timedOut = remaining == 0;
+            // round up, so a fresh 30s turn shows 30 until a full second has passed
+            seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            if (timedOut) {
+                running = false;
+                bankNanos[player] = 0;
+            } else if (seconds == lastReportedSeconds) {
+                return;
+            }
+            lastReportedSeconds = seconds;
+        }
+        if (timedOut) {
+            listener.onTimeout(player);
+        } else {
+            listener.onTick(player, seconds);
+        }
+    }
+
+    /**
+     * Computes a player's remaining time. Callers must hold the clock's lock.
+     *
+     * @param player the index of the player
+     * @param now    the current {@link System#nanoTime()} value
+     * @return the remaining time in nanoseconds, never negative
+     */
+    private long remainingNanos(int player, long now) {
+        long bank = bankNanos[player];
+        if (running && player == activePlayer) {
+            bank -= now - turnStartedAt;
+        }
+        return Math.max(0, bank);
+    }
+}
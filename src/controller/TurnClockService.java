@@ -0,0 +1,98 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives every {@link TurnClock} in the process from a single scheduler thread.
+ * One periodic task walks the registered clocks on each tick, so the number of threads
+ * stays constant no matter how many timed games are running. The tick itself does not
+ * allocate: clocks are kept in a copy-on-write array that is walked by index.
+ */
+public final class TurnClockService {
+    /**
+     * How often registered clocks are checked.
+     */
+    public static final long TICK_MILLIS = 100;
+
+    private static final TurnClockService INSTANCE = new TurnClockService();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private volatile TurnClock[] clocks = new TurnClock[0];
+
+    private TurnClockService() {
+        scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "turn-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the shared service.
+     *
+     * @return the turn clock service
+     */
+    public static TurnClockService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the number of clocks currently registered.
+     *
+     * @return the number of clocks
+     */
+    public int getClockCount() {
+        return clocks.length;
+    }
+
+    /**
+     * Starts ticking a clock.
+     *
+     * @param clock the clock to register
+     */
+    synchronized void register(TurnClock clock) {
+        for (TurnClock registered : clocks) {
+            if (registered == clock) {
+                return;
+            }
+        }
+        TurnClock[] updated = Arrays.copyOf(clocks, clocks.length + 1);
+        updated[clocks.length] = clock;
+        clocks = updated;
+    }
+
+    /**
+     * Stops ticking a clock.
+     *
+     * @param clock the clock to remove
+     */
+    synchronized void unregister(TurnClock clock) {
+        for (int i = 0; i < clocks.length; i++) {
+            if (clocks[i] == clock) {
+                TurnClock[] updated = new TurnClock[clocks.length - 1];
+                System.arraycopy(clocks, 0, updated, 0, i);
+                System.arraycopy(clocks, i + 1, updated, i, clocks.length - i - 1);
+                clocks = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs on the scheduler thread: advances every registered clock.
+     */
+    private void tick() {
+        TurnClock[] current = clocks;
+        long now = System.nanoTime();
+        for (int i = 0; i < current.length; i++) {
+            try {
+                current[i].tick(now);
+            } catch (RuntimeException e) {
+                System.err.println("Turn clock listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TurnClockTest {
+
+    private static final TurnClock.Listener IGNORE = new TurnClock.Listener() {
+        @Override
+        public void onTick(int player, long remainingSeconds) {
+        }
+
+        @Override
+        public void onTimeout(int player) {
+        }
+    };
+
+    @Test
+    public void testChessClockKeepsSeparateBanksWithIncrement() throws InterruptedException {
+        TurnClock clock = TurnClock.chess(2, 10_000, 2_000, IGNORE);
+        clock.switchTo(0);
+        Thread.sleep(200);
+        clock.switchTo(1);
+
+        long first = clock.getRemainingMillis(0);
+        assertTrue("Player 0 should have spent time and gained the increment: " + first, first > 11_000 && first < 11_850);
+        assertTrue("Player 1 has not spent anything yet", clock.getRemainingMillis(1) > 9_900);
+        clock.stop();
+    }
+
+    @Test
+    public void testTimeoutFiresOnce() throws InterruptedException {
+        CountDownLatch timedOut = new CountDownLatch(1);
+        TurnClock clock = TurnClock.perTurn(2, 150, new TurnClock.Listener() {
+            @Override
+            public void onTick(int player, long remainingSeconds) {
+            }
+
+            @Override
+            public void onTimeout(int player) {
+                timedOut.countDown();
+            }
+        });
+        clock.switchTo(1);
+
+        assertTrue(timedOut.await(2, TimeUnit.SECONDS));
+        assertFalse(clock.isRunning());
+        assertEquals(0, clock.getRemainingMillis(1));
+        clock.stop();
+    }
+
+    @Test
+    public void testManyClocksShareOneThread() {
+        int threadsBefore = Thread.activeCount();
+        List<TurnClock> clocks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            TurnClock clock = TurnClock.perTurn(2, 30_000, IGNORE);
+            clock.switchTo(0);
+            clocks.add(clock);
+        }
+
+        assertTrue(TurnClockService.getInstance().getClockCount() >= 1000);
+        assertTrue("Clocks must not start threads of their own", Thread.activeCount() <= threadsBefore + 1);
+        for (TurnClock clock : clocks) {
+            clock.stop();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package model;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every AI turn, from the start of the search to the committed move.
+ */
+@Name("scrabble.AiSearch")
+@Label("AI Search")
+@Description("Candidate generation and placement search of an AI turn")
+class AiSearchEvent extends GameFlightEvent {
+    @Label("Player")
+    String player;
+
+    @Label("Rack")
+    String rack;
+
+    @Label("Candidates")
+    @Description("Legal moves the move generator found")
+    int candidates;
+
+    @Label("Candidates Tried")
+    int tried;
+
+    @Label("Word Played")
+    String word;
+
+    @Label("Best Score")
+    @Description("Score of the word played, or -1 if the AI passed")
+    int bestScore = -1;
+}
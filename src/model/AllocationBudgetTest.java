@@ -0,0 +1,130 @@
+package model;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the engine's hot paths stay within their allocation budgets, measured with
+ * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}.
+ * Each operation is repeated until the JIT has compiled it, and the lowest per-call figure of
+ * several rounds is compared with the budget, so a failure means the code itself allocates
+ * rather than that it has not been compiled yet.
+ */
+public class AllocationBudgetTest {
+    private static final int CALLS_PER_ROUND = 20_000;
+    private static final int ROUNDS = 30;
+
+    private com.sun.management.ThreadMXBean threads;
+    private Model model;
+    private List<String> words;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // CATS across the centre, then ACE placed down through the C
+        model = Model.create(15, null, 7);
+        Player player = new Player("Player 1");
+        model.addPlayer(player);
+        setRack(player, "CATS");
+        for (int i = 0; i < 4; i++) {
+            assertTrue(model.placeTile("CATS".charAt(i), 7, 6 + i));
+        }
+        assertTrue(model.submitWord());
+        setRack(player, "AEXQRST");
+        assertTrue(model.placeTile('A', 6, 6));
+        assertTrue(model.placeTile('E', 8, 6));
+        words = model.getAllNewWords();
+        assertEquals(List.of("ACE"), words);
+    }
+
+    @Test
+    public void testValidateWordDoesNotAllocate() {
+        assertBudget("validateWord", 0, () -> {
+            if (!model.validateWord("ACE") || model.validateWord("XCQ")) {
+                throw new AssertionError();
+            }
+        });
+    }
+
+    @Test
+    public void testScoringDoesNotAllocate() {
+        int expected = model.calculateTotalScore(words);
+        assertBudget("calculateTotalScore", 0, () -> {
+            if (model.calculateTotalScore(words) != expected) {
+                throw new AssertionError();
+            }
+        });
+    }
+
+    @Test
+    public void testMoveGenerationBudget() {
+        model.restorePlayerTiles(); // the generator searches from a board with no tiles placed
+        MoveGenerator generator = new MoveGenerator(model);
+        MoveRecord expected = generator.best();
+        // about 210 KB a search, against 1.6 MB for the permutations of a seven-tile rack the AI once built
+        assertBudget("MoveGenerator.best", 320_000, () -> {
+            if (!generator.best().equals(expected)) {
+                throw new AssertionError();
+            }
+        });
+    }
+
+    @Test
+    public void testApplyUndoBudget() {
+        Player player = model.getCurrentPlayer();
+        assertBudget("simulated place and undo", 2_048, () -> {
+            Model.Simulation simulation = model.simulate();
+            try {
+                player.addTile('S');
+                model.placeTile('S', 7, 10);
+            } finally {
+                simulation.close();
+            }
+        });
+        assertEquals('\0', model.getBoardState()[7][10]);
+    }
+
+    /**
+     * Fails if an operation allocates more than its budget per call once compiled.
+     *
+     * @param name   the operation, for the failure message
+     * @param budget the bytes each call may allocate
+     * @param op     the operation
+     */
+    private void assertBudget(String name, long budget, Runnable op) {
+        int calls = budget > 100_000 ? CALLS_PER_ROUND / 100 : CALLS_PER_ROUND;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && best > budget; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                op.run();
+            }
+            long after = threads.getCurrentThreadAllocatedBytes();
+            best = Math.min(best, (after - before) / calls);
+        }
+        assertTrue(name + " allocates " + best + " bytes per call, budget is " + budget, best <= budget);
+    }
+
+    /**
+     * Replaces a player's rack.
+     *
+     * @param player  the player
+     * @param letters the new rack, one tile per letter
+     */
+    private static void setRack(Player player, String letters) {
+        player.tiles.clear();
+        for (char letter : letters.toCharArray()) {
+            player.tiles.add(letter);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers model events to another observer on its own virtual thread, so a slow consumer
+ * (a logger, a spectator stream, the UI) never holds up the thread that changes the model.
+ * Events wait in a bounded, lock-free queue. What happens when the queue is full is decided
+ * by the {@link OverflowPolicy}. Delivery lag, the time from notification to delivery, is
+ * measured for each event.
+ * <p>
+ * The delegate reads the model from the delivery thread while the game may be changing it,
+ * so it should rely on the event contents rather than on the model's current state.
+ */
+public final class AsyncObserver implements ModelObserver, AutoCloseable {
+
+    /**
+     * What to do with a new event when the subscriber's queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Merge everything still queued, plus the new event, into one composite event.
+         */
+        COALESCE,
+        /**
+         * Discard the oldest queued event to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Wait until the subscriber catches up. This is the only policy that can make the
+         * game wait on a consumer.
+         */
+        BLOCK
+    }
+
+    private final ModelObserver delegate;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ConcurrentLinkedQueue<Envelope> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread deliveryThread;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+    private volatile Thread blockedProducer;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile long lastLagNanos;
+
+    /**
+     * Constructs an asynchronous wrapper around an observer and starts its delivery thread.
+     *
+     * @param delegate the observer to deliver events to
+     * @param capacity the maximum number of events waiting for delivery
+     * @param policy   what to do when the queue is full
+     */
+    public AsyncObserver(ModelObserver delegate, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.deliveryThread = Thread.ofVirtual().name("model-observer-" + delegate.getClass().getSimpleName()).start(this::deliverLoop);
+    }
+
+    /**
+     * Queues a message for delivery.
+     *
+     * @param message the message
+     * @param m       the model
+     */
+    @Override
+    public void update(String message, Model m) {
+        modelChanged(ModelEvent.of(message, -1), m);
+    }
+
+    /**
+     * Queues an event for delivery, applying the overflow policy if the queue is full.
+     * Returns without waiting unless the policy is {@link OverflowPolicy#BLOCK}.
+     *
+     * @param event the event
+     * @param m     the model
+     */
+    @Override
+    public void modelChanged(ModelEvent event, Model m) {
+        if (closed) {
+            return;
+        }
+        Envelope envelope = new Envelope(event, m, System.nanoTime());
+        while (!tryEnqueue(envelope)) {
+            switch (policy) {
+                case COALESCE:
+                    envelope = coalesceWith(envelope);
+                    break;
+                case DROP_OLDEST:
+                    if (poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                    break;
+                case BLOCK:
+                    blockedProducer = Thread.currentThread();
+                    if (size.get() >= capacity && !closed) {
+                        LockSupport.parkNanos(this, 1_000_000L);
+                    }
+                    blockedProducer = null;
+                    if (closed) {
+                        return;
+                    }
+                    break;
+            }
+        }
+        if (waiting) {
+            LockSupport.unpark(deliveryThread);
+        }
+    }
+
+    /**
+     * Stops the delivery thread. Events still queued are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(deliveryThread);
+        Thread producer = blockedProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Gets the observer events are delivered to.
+     *
+     * @return the delegate observer
+     */
+    public ModelObserver getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Gets the number of events waiting for delivery.
+     *
+     * @return the queue length
+     */
+    public int getQueueLength() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of events delivered so far.
+     *
+     * @return the delivered count
+     */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Gets the number of events discarded by {@link OverflowPolicy#DROP_OLDEST}.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of events merged into composites by {@link OverflowPolicy#COALESCE}.
+     *
+     * @return the coalesced count
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the delivery lag of the most recently delivered event.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * Gets the largest delivery lag seen so far.
+     *
+     * @return the lag in nanoseconds
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos.get();
+    }
+
+    /**
+     * Gets the average delivery lag.
+     *
+     * @return the average lag in nanoseconds, or 0 if nothing was delivered yet
+     */
+    public long getAverageLagNanos() {
+        long count = delivered.get();
+        return count == 0 ? 0 : totalLagNanos.get() / count;
+    }
+
+    /**
+     * Reserves a slot and queues the envelope.
+     *
+     * @param envelope the envelope to queue
+     * @return false if the queue was full
+     */
+    private boolean tryEnqueue(Envelope envelope) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        queue.offer(envelope);
+        return true;
+    }
+
+    /**
+     * Takes the oldest queued envelope, if any.
+     *
+     * @return the envelope, or null if the queue is empty
+     */
+    private Envelope poll() {
+        Envelope envelope = queue.poll();
+        if (envelope != null) {
+            size.decrementAndGet();
+            Thread producer = blockedProducer;
+            if (producer != null) {
+                LockSupport.unpark(producer);
+            }
+        }
+        return envelope;
+    }
+
+    /**
+     * Drains the queue and merges its events with the new one into a single envelope.
+     * The merged envelope keeps the earliest enqueue time, so its lag covers the oldest event.
+     *
+     * @param newest the envelope that did not fit
+     * @return the merged envelope
+     */
+    private Envelope coalesceWith(Envelope newest) {
+        List<ModelEvent> events = new ArrayList<>();
+        long enqueuedAt = newest.enqueuedAt;
+        Envelope queued;
+        while ((queued = poll()) != null) {
+            events.add(queued.event);
+            enqueuedAt = Math.min(enqueuedAt, queued.enqueuedAt);
+        }
+        if (events.isEmpty()) {
+            return newest;
+        }
+        events.add(newest.event);
+        coalesced.addAndGet(events.size() - 1);
+        return new Envelope(ModelEvent.composite(events), newest.model, enqueuedAt);
+    }
+
+    /**
+     * Runs on the delivery thread: hands queued events to the delegate until closed.
+     */
+    private void deliverLoop() {
+        while (!closed) {
+            Envelope envelope = poll();
+            if (envelope == null) {
+                waiting = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+                continue;
+            }
+
+            try {
+                envelope.deliverTo(delegate);
+            } catch (RuntimeException e) {
+                System.err.println("Observer " + delegate + " failed: " + e.getMessage());
+            }
+
+            long lag = System.nanoTime() - envelope.enqueuedAt;
+            lastLagNanos = lag;
+            totalLagNanos.addAndGet(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+            delivered.incrementAndGet();
+        }
+    }
+
+    /**
+     * A queued event with the time it was queued.
+     */
+    private static final class Envelope {
+        private final ModelEvent event;
+        private final Model model;
+        private final long enqueuedAt;
+
+        private Envelope(ModelEvent event, Model model, long enqueuedAt) {
+            this.event = event;
+            this.model = model;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private void deliverTo(ModelObserver observer) {
+            observer.modelChanged(event, model);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncObserverTest {
+
+    /**
+     * An observer that blocks until released, standing in for a slow consumer.
+     */
+    private static class SlowObserver implements ModelObserver {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger events = new AtomicInteger();
+
+        @Override
+        public void update(String message, Model m) {
+        }
+
+        @Override
+        public void modelChanged(ModelEvent event, Model m) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.addAndGet(event.getEvents().size());
+        }
+    }
+
+    @Test
+    public void testSlowObserverDoesNotBlockProducer() {
+        SlowObserver slow = new SlowObserver();
+        try (AsyncObserver async = new AsyncObserver(slow, 4, AsyncObserver.OverflowPolicy.DROP_OLDEST)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                async.modelChanged(ModelEvent.of("board", 0), null);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue("Producer should not wait on the consumer, took " + elapsedMillis + "ms", elapsedMillis < 1000);
+            assertTrue(async.getQueueLength() <= 4);
+            assertTrue(async.getDroppedCount() > 0);
+            slow.release.countDown();
+        }
+    }
+
+    @Test
+    public void testCoalesceKeepsEveryEvent() throws InterruptedException {
+        SlowObserver slow = new SlowObserver();
+        try (AsyncObserver async = new AsyncObserver(slow, 2, AsyncObserver.OverflowPolicy.COALESCE)) {
+            for (int i = 0; i < 50; i++) {
+                async.modelChanged(ModelEvent.of("board", 0), null);
+            }
+            assertTrue(async.getQueueLength() <= 2);
+            slow.release.countDown();
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (slow.events.get() < 50 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("Coalesced events should all reach the observer", 50, slow.events.get());
+            assertTrue(async.getCoalescedCount() > 0);
+            assertTrue(async.getMaxLagNanos() > 0);
+        }
+    }
+}
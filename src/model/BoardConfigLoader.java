@@ -0,0 +1,315 @@
+package model;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads board configuration XML files into {@link PremiumGrid} objects.
+ * Files are read with a streaming StAX parser and the compiled result is cached by path,
+ * so every game using the same configuration shares one grid. A cached entry is reused
+ * until the file's modification time or length changes.
+ */
+public final class BoardConfigLoader {
+    private static final Map<Path, CachedConfig> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Integer, PremiumGrid> DEFAULTS = new ConcurrentHashMap<>();
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private BoardConfigLoader() {
+    }
+
+    /**
+     * Loads the premium grid described by the given XML file.
+     * Problems with the file are reported on standard output, matching the messages
+     * of the previous DOM loader, and null is returned so the caller can use its defaults.
+     *
+     * @param xmlFileName the path to the XML configuration file, or null for the defaults
+     * @param boardSize   the size of the board the configuration must describe
+     * @return the premium grid, or null if no file was given or it is missing or invalid
+     */
+    public static PremiumGrid load(String xmlFileName, int boardSize) {
+        if (xmlFileName == null) {
+            return null; // no file asked for: the defaults are what the caller wants
+        }
+        if (!new File(xmlFileName).exists()) {
+            System.out.println("XML configuration file not found. Using default configuration.");
+            return null;
+        }
+
+        CachedConfig config;
+        try {
+            config = lookup(Path.of(xmlFileName));
+        } catch (IOException e) {
+            System.out.println("Failed to parse or validate XML. Using defaults.");
+            return null;
+        }
+
+        if (config.error != null) {
+            System.out.println(config.error);
+            return null;
+        }
+        if (config.grid.getSize() != boardSize) {
+            System.out.println("Warning: XML board size (" + config.grid.getSize() + ") does not match expected Model board size (" + boardSize + "). Using defaults.");
+            return null;
+        }
+        return config.grid;
+    }
+
+    /**
+     * Lists the board configuration files in a directory and warms the cache with them,
+     * so that choosing one later does not parse it again.
+     *
+     * @param dir the directory to scan
+     * @return the paths of the XML files in the directory, sorted by name
+     */
+    public static List<String> listConfigs(File dir) {
+        List<String> paths = new ArrayList<>();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".xml"));
+        if (files == null) {
+            return paths;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            try {
+                lookup(file.toPath());
+            } catch (IOException e) {
+                continue; // unreadable files are not offered
+            }
+            paths.add(file.getPath());
+        }
+        return paths;
+    }
+
+    /**
+     * Gets the standard 15x15 premium layout, clipped to the given board size.
+     * One grid is built per board size and shared afterwards.
+     *
+     * @param boardSize the size of the board
+     * @return the default premium grid
+     */
+    public static PremiumGrid defaultGrid(int boardSize) {
+        return DEFAULTS.computeIfAbsent(boardSize, BoardConfigLoader::buildDefaultGrid);
+    }
+
+    /**
+     * Drops every cached configuration.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Gets the cached configuration for a file, parsing it again if it changed on disk.
+     *
+     * @param path the path of the file
+     * @return the cached configuration
+     * @throws IOException if the file attributes cannot be read
+     */
+    private static CachedConfig lookup(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        long length = attributes.size();
+
+        CachedConfig cached = CACHE.get(key);
+        if (cached != null && cached.modified == modified && cached.length == length) {
+            return cached;
+        }
+        CachedConfig parsed = parse(key, modified, length);
+        CACHE.put(key, parsed);
+        return parsed;
+    }
+
+    /**
+     * Parses and validates a board configuration file.
+     *
+     * @param path     the path of the file
+     * @param modified the modification time the result is valid for
+     * @param length   the file length the result is valid for
+     * @return the parsed configuration, holding either a grid or an error message
+     */
+    private static CachedConfig parse(Path path, long modified, long length) {
+        int size = -1;
+        boolean hasPremiumSquares = false;
+        // row, col and type of every square, in document order
+        List<int[]> squares = new ArrayList<>();
+
+        try (InputStream in = Files.newInputStream(path)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "size":
+                            String text = reader.getElementText().trim();
+                            if (size < 0) {
+                                size = Integer.parseInt(text);
+                            }
+                            break;
+                        case "premiumSquares":
+                            hasPremiumSquares = true;
+                            break;
+                        case "square":
+                            String rowStr = attribute(reader, "row");
+                            String colStr = attribute(reader, "col");
+                            String type = attribute(reader, "type");
+                            if (rowStr.isEmpty() || colStr.isEmpty() || type.isEmpty()) {
+                                return CachedConfig.invalid(modified, length, "Invalid square definition: Missing row/col/type. Using defaults.");
+                            }
+                            byte premium = typeOf(type);
+                            if (premium == PremiumGrid.NONE) {
+                                return CachedConfig.invalid(modified, length, "Unknown premium type: " + type + ". Using defaults.");
+                            }
+                            squares.add(new int[]{Integer.parseInt(rowStr), Integer.parseInt(colStr), premium});
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (Exception e) {
+            return CachedConfig.invalid(modified, length, "Failed to parse or validate XML. Using defaults.");
+        }
+
+        if (size < 0) {
+            return CachedConfig.invalid(modified, length, "No <size> element found in XML. Using defaults.");
+        }
+        if (!hasPremiumSquares) {
+            return CachedConfig.invalid(modified, length, "No <premiumSquares> element found. Using defaults.");
+        }
+
+        byte[] cells = new byte[size * size];
+        for (int[] square : squares) {
+            int row = square[0];
+            int col = square[1];
+            if (row < 0 || row >= size || col < 0 || col >= size) {
+                return CachedConfig.invalid(modified, length, "Square (" + row + "," + col + ") is out of board range. Using defaults.");
+            }
+            if (cells[row * size + col] != PremiumGrid.NONE) {
+                return CachedConfig.invalid(modified, length, "Square (" + row + "," + col + ") defined multiple times. Using defaults.");
+            }
+            cells[row * size + col] = (byte) square[2];
+        }
+        return new CachedConfig(modified, length, new PremiumGrid(size, cells), null);
+    }
+
+    /**
+     * Reads an attribute of the current element.
+     *
+     * @param reader the reader positioned on a start element
+     * @param name   the name of the attribute
+     * @return the attribute value, or an empty string if it is absent
+     */
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Maps a premium type name from the XML file to its grid value.
+     *
+     * @param type the type name
+     * @return the grid value, or {@link PremiumGrid#NONE} if the name is unknown
+     */
+    private static byte typeOf(String type) {
+        switch (type) {
+            case "TW":
+                return PremiumGrid.TRIPLE_WORD;
+            case "DW":
+                return PremiumGrid.DOUBLE_WORD;
+            case "TL":
+                return PremiumGrid.TRIPLE_LETTER;
+            case "DL":
+                return PremiumGrid.DOUBLE_LETTER;
+            default:
+                return PremiumGrid.NONE;
+        }
+    }
+
+    /**
+     * Builds the standard premium layout for a board size.
+     *
+     * @param boardSize the size of the board
+     * @return the default premium grid
+     */
+    private static PremiumGrid buildDefaultGrid(int boardSize) {
+        byte[] cells = new byte[boardSize * boardSize];
+        int[][] tripleWord = {{0, 0}, {0, 7}, {0, 14}, {7, 0}, {7, 14}, {14, 0}, {14, 7}, {14, 14}};
+        int[][] doubleWord = {{1, 1}, {2, 2}, {3, 3}, {4, 4}, {10, 10}, {11, 11}, {12, 12}, {13, 13},
+                {1, 13}, {2, 12}, {3, 11}, {4, 10}, {10, 4}, {11, 3}, {12, 2}, {13, 1}};
+        int[][] tripleLetter = {{1, 5}, {1, 9}, {5, 1}, {5, 5}, {5, 9}, {5, 13}, {9, 1}, {9, 5}, {9, 9}, {9, 13},
+                {13, 5}, {13, 9}};
+        int[][] doubleLetter = {{0, 3}, {0, 11}, {2, 6}, {2, 8}, {3, 0}, {3, 14}, {6, 2}, {6, 6}, {6, 8}, {6, 12},
+                {8, 2}, {8, 6}, {8, 8}, {8, 12}, {11, 0}, {11, 3}, {11, 11}, {11, 14}, {12, 6}, {12, 8}, {14, 3},
+                {14, 11}};
+        fill(cells, boardSize, tripleWord, PremiumGrid.TRIPLE_WORD);
+        fill(cells, boardSize, doubleWord, PremiumGrid.DOUBLE_WORD);
+        fill(cells, boardSize, tripleLetter, PremiumGrid.TRIPLE_LETTER);
+        fill(cells, boardSize, doubleLetter, PremiumGrid.DOUBLE_LETTER);
+        return new PremiumGrid(boardSize, cells);
+    }
+
+    /**
+     * Marks the given squares with a premium type, skipping squares outside the board.
+     *
+     * @param cells     the row-major cells to fill
+     * @param boardSize the size of the board
+     * @param squares   the row and column of each square
+     * @param type      the premium type to set
+     */
+    private static void fill(byte[] cells, int boardSize, int[][] squares, byte type) {
+        for (int[] square : squares) {
+            if (square[0] < boardSize && square[1] < boardSize) {
+                cells[square[0] * boardSize + square[1]] = type;
+            }
+        }
+    }
+
+    /**
+     * Creates the StAX factory, with DTDs and external entities disabled.
+     *
+     * @return the input factory
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * The outcome of parsing one configuration file: either a grid or an error message.
+     */
+    private static final class CachedConfig {
+        private final long modified;
+        private final long length;
+        private final PremiumGrid grid;
+        private final String error;
+
+        private CachedConfig(long modified, long length, PremiumGrid grid, String error) {
+            this.modified = modified;
+            this.length = length;
+            this.grid = grid;
+            this.error = error;
+        }
+
+        private static CachedConfig invalid(long modified, long length, String error) {
+            return new CachedConfig(modified, length, null, error);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Which cells of a board hold a tile, as one bit per cell, kept both row by row and column by
+ * column so that a run of cells along either is a few whole-word operations: checking that a
+ * stretch is filled, finding where a run of tiles begins or ends, or whether anything lies
+ * next to a stretch never looks at the cells one by one.
+ * <p>
+ * It also keeps the number of tiles in each row and column and the bounding box of all of
+ * them, and lists the runs of tiles in a line, so work that only matters near the tiles (move
+ * generation, finding where a word can touch the board, repainting) can skip the empty rest
+ * of a large board: its cost follows the tiles played, not the area of the board.
+ * <p>
+ * The {@link Model} keeps its index in step with the board through every write.
+ */
+final class BoardIndex {
+    private final int size;
+    private final int words; // longs per row or column
+    private final long[] rows; // the bits of row r are rows[r * words .. (r + 1) * words)
+    private final long[] cols;
+    private final int[] rowCounts;
+    private final int[] colCounts;
+    private int tiles;
+    // the bounding box of the tiles, empty (first after last) when there are none
+    private int firstRow;
+    private int lastRow = -1;
+    private int firstCol;
+    private int lastCol = -1;
+
+    /**
+     * Constructs an index of an empty board.
+     *
+     * @param size the number of cells a side
+     */
+    BoardIndex(int size) {
+        this.size = size;
+        this.words = (size + 63) >>> 6;
+        this.rows = new long[size * words];
+        this.cols = new long[size * words];
+        this.rowCounts = new int[size];
+        this.colCounts = new int[size];
+        this.firstRow = size;
+        this.firstCol = size;
+    }
+
+    /**
+     * Marks a cell as holding a tile or not.
+     *
+     * @param row      the row
+     * @param col      the column
+     * @param occupied true if the cell holds a tile
+     */
+    void set(int row, int col, boolean occupied) {
+        if (occupied == isOccupied(row, col)) {
+            return;
+        }
+        rows[row * words + (col >>> 6)] ^= 1L << col;
+        cols[col * words + (row >>> 6)] ^= 1L << row;
+        int change = occupied ? 1 : -1;
+        tiles += change;
+        rowCounts[row] += change;
+        colCounts[col] += change;
+        if (occupied) {
+            firstRow = Math.min(firstRow, row);
+            lastRow = Math.max(lastRow, row);
+            firstCol = Math.min(firstCol, col);
+            lastCol = Math.max(lastCol, col);
+            return;
+        }
+        // a box only shrinks from the edge a tile left, past the lines that are now empty
+        while (firstRow <= lastRow && rowCounts[firstRow] == 0) {
+            firstRow++;
+        }
+        while (lastRow >= firstRow && rowCounts[lastRow] == 0) {
+            lastRow--;
+        }
+        while (firstCol <= lastCol && colCounts[firstCol] == 0) {
+            firstCol++;
+        }
+        while (lastCol >= firstCol && colCounts[lastCol] == 0) {
+            lastCol--;
+        }
+        if (tiles == 0) {
+            firstRow = firstCol = size;
+            lastRow = lastCol = -1;
+        }
+    }
+
+    /**
+     * Checks whether a cell holds a tile. Cells off the board hold none.
+     *
+     * @param row the row
+     * @param col the column
+     * @return true if it does
+     */
+    boolean isOccupied(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return false;
+        }
+        return (rows[row * words + (col >>> 6)] & 1L << col) != 0;
+    }
+
+    /**
+     * Gets the number of tiles on the board.
+     *
+     * @return the tile count
+     */
+    int getTileCount() {
+        return tiles;
+    }
+
+    /**
+     * Gets the number of tiles in a row or column.
+     *
+     * @param across true for a row, false for a column
+     * @param line   the row or column
+     * @return the tile count
+     */
+    int getTileCount(boolean across, int line) {
+        return across ? rowCounts[line] : colCounts[line];
+    }
+
+    /**
+     * Gets the first row or column holding a tile.
+     *
+     * @param across true for the first row, false for the first column
+     * @return the row or column, or the board size if there are no tiles
+     */
+    int getFirst(boolean across) {
+        return across ? firstRow : firstCol;
+    }
+
+    /**
+     * Gets the last row or column holding a tile.
+     *
+     * @param across true for the last row, false for the last column
+     * @return the row or column, or -1 if there are no tiles
+     */
+    int getLast(boolean across) {
+        return across ? lastRow : lastCol;
+    }
+
+    /**
+     * Lists the runs of tiles in a row or column.
+     *
+     * @param across true for a row, false for a column
+     * @param line   the row or column
+     * @return the first and last cell of each run in turn, in order along the line
+     */
+    int[] getIntervals(boolean across, int line) {
+        int count = getTileCount(across, line);
+        if (count == 0) {
+            return new int[0];
+        }
+        long[] bits = across ? rows : cols;
+        int base = line * words;
+        int[] intervals = new int[2 * count]; // no more runs than tiles
+        int n = 0;
+        int pos = 0;
+        while (pos < size) {
+            // the next tile at or after pos
+            int word = pos >>> 6;
+            long taken = bits[base + word] & (-1L << (pos & 63));
+            while (taken == 0 && ++word < words) {
+                taken = bits[base + word];
+            }
+            if (taken == 0) {
+                break;
+            }
+            int start = (word << 6) + Long.numberOfTrailingZeros(taken);
+            int end = runEnd(across, line, start);
+            intervals[n++] = start;
+            intervals[n++] = end;
+            pos = end + 2; // the cell after a run is empty
+        }
+        return n == intervals.length ? intervals : Arrays.copyOf(intervals, n);
+    }
+
+    /**
+     * Gets the number of cells a side.
+     *
+     * @return the size
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Counts the tiles in a stretch of a row or column.
+     *
+     * @param across true for a row, false for a column
+     * @param line   the row or column
+     * @param from   the first cell, clipped to the board
+     * @param to     the last cell, inclusive, clipped to the board
+     * @return the count
+     */
+    int count(boolean across, int line, int from, int to) {
+        if (line < 0 || line >= size) {
+            return 0;
+        }
+        long[] bits = across ? rows : cols;
+        int base = line * words;
+        from = Math.max(from, 0);
+        to = Math.min(to, size - 1);
+        int count = 0;
+        for (int word = from >>> 6; from <= to && word <= to >>> 6; word++) {
+            count += Long.bitCount(bits[base + word] & mask(word, from, to));
+        }
+        return count;
+    }
+
+    /**
+     * Checks that every cell of a stretch of a row or column holds a tile.
+     *
+     * @param across true for a row, false for a column
+     * @param line   the row or column
+     * @param from   the first cell
+     * @param to     the last cell, inclusive
+     * @return true if the stretch is filled and on the board
+     */
+    boolean isFilled(boolean across, int line, int from, int to) {
+        return from >= 0 && to < size && count(across, line, from, to) == to - from + 1;
+    }
+
+    /**
+     * Finds the first cell of the run of tiles that ends just before a cell.
+     *
+     * @param across true for a row, false for a column
+     * @param line   the row or column
+     * @param pos    the cell
+     * @return the start of the run, or pos if the cell before it is empty
+     */
+    int runStart(boolean across, int line, int pos) {
+        long[] bits = across ? rows : cols;
+        int base = line * words;
+        int i = pos - 1;
+        while (i >= 0) {
+            int word = i >>> 6;
+            // the empty cells at or before i in this word
+            long empty = ~bits[base + word] & (-1L >>> (63 - (i & 63)));
+            if (empty != 0) {
+                return (word << 6) + 63 - Long.numberOfLeadingZeros(empty) + 1;
+            }
+            i = (word << 6) - 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the last cell of the run of tiles that starts just after a cell.
+     *
+     * @param across true for a row, false for a column
+     * @param line   the row or column
+     * @param pos    the cell
+     * @return the end of the run, inclusive, or pos if the cell after it is empty
+     */
+    int runEnd(boolean across, int line, int pos) {
+        long[] bits = across ? rows : cols;
+        int base = line * words;
+        int i = pos + 1;
+        while (i < size) {
+            int word = i >>> 6;
+            // the empty cells at or after i in this word
+            long empty = ~bits[base + word] & (-1L << (i & 63));
+            if (empty != 0) {
+                return Math.min((word << 6) + Long.numberOfTrailingZeros(empty), size) - 1;
+            }
+            i = (word + 1) << 6;
+        }
+        return size - 1;
+    }
+
+    /**
+     * Masks the bits of one word that fall between two cells, inclusive.
+     */
+    private static long mask(int word, int from, int to) {
+        long low = from > word << 6 ? -1L << (from & 63) : -1L;
+        long high = to < (word << 6) + 63 ? -1L >>> (63 - (to & 63)) : -1L;
+        return low & high;
+    }
+}
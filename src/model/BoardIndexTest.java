@@ -0,0 +1,123 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BoardIndexTest {
+
+    @Test
+    public void testIndexRunsCrossWordBoundaries() {
+        BoardIndex index = new BoardIndex(201);
+        for (int col = 60; col <= 130; col++) {
+            index.set(100, col, true);
+        }
+        assertEquals(71, index.getTileCount());
+        assertEquals(60, index.runStart(true, 100, 131));
+        assertEquals(130, index.runEnd(true, 100, 59));
+        assertEquals(60, index.runStart(true, 100, 100));
+        assertEquals(130, index.runEnd(true, 100, 64));
+        assertEquals(59, index.runStart(true, 100, 59)); // nothing before it
+        assertTrue(index.isFilled(true, 100, 60, 130));
+        assertFalse(index.isFilled(true, 100, 59, 130));
+        assertEquals(71, index.count(true, 100, -5, 300));
+        assertEquals(1, index.count(false, 127, 0, 200));
+        assertTrue(index.isOccupied(100, 127));
+        assertFalse(index.isOccupied(-1, 127));
+
+        index.set(100, 200, true);
+        assertEquals(200, index.runEnd(true, 100, 199));
+        assertEquals(200, index.runStart(true, 100, 200));
+        index.set(100, 200, false);
+        index.set(100, 200, false);
+        assertEquals(71, index.getTileCount());
+    }
+
+    @Test
+    public void testBoundsAndIntervalsFollowTheTiles() {
+        BoardIndex index = new BoardIndex(201);
+        assertEquals(201, index.getFirst(true));
+        assertEquals(-1, index.getLast(false));
+        for (int col : new int[]{3, 4, 5, 63, 64, 65, 66, 200}) {
+            index.set(10, col, true);
+        }
+        index.set(150, 64, true);
+        assertArrayEquals(new int[]{3, 5, 63, 66, 200, 200}, index.getIntervals(true, 10));
+        assertArrayEquals(new int[]{10, 10, 150, 150}, index.getIntervals(false, 64));
+        assertArrayEquals(new int[0], index.getIntervals(true, 11));
+        assertEquals(3, index.getTileCount(false, 64) + index.getTileCount(false, 65));
+        assertBounds(index, 10, 3, 150, 200);
+
+        index.set(150, 64, false);
+        index.set(10, 200, false);
+        index.set(10, 3, false);
+        assertBounds(index, 10, 4, 10, 66);
+        for (int col : new int[]{4, 5, 63, 64, 65, 66}) {
+            index.set(10, col, false);
+        }
+        assertBounds(index, 201, 201, -1, -1);
+    }
+
+    @Test
+    public void testMegaBoardStaysInStep() {
+        Model game = Model.create(201, null, 11);
+        game.addAiPlayers(2);
+        assertNull(game.getTileBounds());
+        assertTrue(game.applyMove(new MoveGenerator(game).best()));
+        for (int turn = 0; turn < 10; turn++) {
+            int moves = game.getMoveLog().size();
+            Model.Simulation simulation = game.simulate();
+            try {
+                ((AiPlayer) game.getCurrentPlayer()).play(); // probed and rolled back
+            } finally {
+                simulation.close();
+            }
+            assertEquals(scan(game), game.getOccupiedCells());
+            ((AiPlayer) game.getCurrentPlayer()).play();
+            game.nextTurn();
+            assertEquals(moves + 1, game.getMoveLog().size());
+            assertEquals(scan(game), game.getOccupiedCells());
+        }
+        int[] bounds = game.getTileBounds();
+        for (Position cell : scan(game)) {
+            assertTrue(cell.row >= bounds[0] && cell.col >= bounds[1] && cell.row <= bounds[2] && cell.col <= bounds[3]);
+        }
+
+        List<MoveRecord> moves = new MoveGenerator(game).generate();
+        assertFalse(moves.isEmpty());
+        for (int i = 0; i < moves.size(); i += Math.max(1, moves.size() / 200)) {
+            Model.Simulation simulation = game.simulate();
+            try {
+                assertTrue(moves.get(i).toString(), game.applyMove(moves.get(i)));
+            } finally {
+                simulation.close();
+            }
+        }
+    }
+
+    private static void assertBounds(BoardIndex index, int firstRow, int firstCol, int lastRow, int lastCol) {
+        assertEquals(firstRow, index.getFirst(true));
+        assertEquals(firstCol, index.getFirst(false));
+        assertEquals(lastRow, index.getLast(true));
+        assertEquals(lastCol, index.getLast(false));
+    }
+
+    /**
+     * Lists the occupied cells by looking at every cell of the board.
+     */
+    private static List<Position> scan(Model game) {
+        char[][] board = game.getBoardState();
+        List<Position> cells = new ArrayList<>();
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                if (board[row][col] != '\0') {
+                    cells.add(new Position(row, col));
+                }
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,147 @@
+package model;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Reviews a finished game move by move, reporting for each move the best move its player
+ * could have made instead and the equity lost by not making it.
+ * <p>
+ * The game is read from its move log, which is saved with it and records the rack every move
+ * was made from. Each move is analysed on its own model rebuilt from the earlier moves, so the
+ * moves are independent and are spread over a pool with one thread per core; results are
+ * handed to a listener as they complete, in whatever order that is. Searches go through the
+ * {@link MoveCache#shared() shared move cache}, so analysing a game played by AI players in
+ * the same process finds most positions already searched.
+ */
+public final class GameAnalyzer implements AutoCloseable {
+    private final ExecutorService pool;
+
+    /**
+     * Constructs an analyzer with one thread per core.
+     */
+    public GameAnalyzer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an analyzer with the given number of threads.
+     *
+     * @param threads the number of moves analysed at once
+     */
+    public GameAnalyzer(int threads) {
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Analyses every move of a game. The game is read before this returns and is not touched
+     * afterwards.
+     *
+     * @param game     the game
+     * @param listener called on a pool thread with each move's analysis as soon as it is ready
+     * @return the analyses in move order, once every move is done
+     */
+    public CompletableFuture<List<MoveAnalysis>> analyze(Model game, Consumer<? super MoveAnalysis> listener) {
+        List<MoveRecord> log = List.copyOf(game.getMoveLog());
+        List<String> names = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            names.add(player.getName());
+        }
+        int boardSize = game.getBoardSize();
+        PremiumGrid grid = game.getPremiumGrid();
+
+        List<CompletableFuture<MoveAnalysis>> moves = new ArrayList<>(log.size());
+        for (int i = 0; i < log.size(); i++) {
+            int index = i;
+            String name = log.get(i).getPlayerIndex() < names.size()
+                    ? names.get(log.get(i).getPlayerIndex()) : "Player " + (log.get(i).getPlayerIndex() + 1);
+            moves.add(CompletableFuture.supplyAsync(() -> analyzeMove(boardSize, grid, log, index, name), pool)
+                    .whenComplete((analysis, failure) -> {
+                        if (analysis != null) {
+                            listener.accept(analysis);
+                        }
+                    }));
+        }
+        return CompletableFuture.allOf(moves.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<MoveAnalysis> analyses = new ArrayList<>(moves.size());
+            for (CompletableFuture<MoveAnalysis> move : moves) {
+                analyses.add(move.join());
+            }
+            return Collections.unmodifiableList(analyses);
+        });
+    }
+
+    /**
+     * Analyses every move of a game and waits for the result.
+     *
+     * @param game the game
+     * @return the analyses in move order
+     */
+    public List<MoveAnalysis> analyze(Model game) {
+        return analyze(game, analysis -> { }).join();
+    }
+
+    /**
+     * Analyses one move on a model of its own.
+     */
+    private static MoveAnalysis analyzeMove(int boardSize, PremiumGrid grid, List<MoveRecord> log, int index,
+                                            String name) {
+        MoveRecord played = log.get(index);
+        if (played.getRack().length == 0) {
+            return new MoveAnalysis(played, null, name, 0); // logged without its rack, so nothing to compare
+        }
+        // AI moves were searched through the same cache, so their positions are found there
+        MoveCache.Best best = MoveCache.shared().search(Model.position(boardSize, grid, log, index, name));
+        return new MoveAnalysis(played, best.move(), name, best.moveCount());
+    }
+
+    /**
+     * Stops the pool; analyses still running are abandoned.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Prints the analysis of a saved game, move by move as each finishes and then in order
+     * with each player's total equity lost.
+     *
+     * @param args the save file, {@code game_save.ser} by default
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        String file = args.length > 0 ? args[0] : "game_save.ser";
+        Model game;
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+            game = (Model) in.readObject();
+        }
+        try (GameAnalyzer analyzer = new GameAnalyzer()) {
+            long start = System.nanoTime();
+            List<MoveAnalysis> analyses = analyzer.analyze(game, analysis -> System.out.println("  " + analysis)).join();
+            System.out.println();
+            int[] lost = new int[game.getPlayers().size()];
+            for (MoveAnalysis analysis : analyses) {
+                System.out.println(analysis.getPlayed() + "  best " + analysis.getBest() + "  lost " + analysis.getEquityLoss());
+                if (analysis.getPlayed().getPlayerIndex() < lost.length) {
+                    lost[analysis.getPlayed().getPlayerIndex()] += analysis.getEquityLoss();
+                }
+            }
+            for (int i = 0; i < lost.length; i++) {
+                System.out.println(game.getPlayers().get(i).getName() + " lost " + lost[i] + " points of equity");
+            }
+            System.out.printf("%d moves analysed in %d ms%n", analyses.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GameAnalyzerTest {
+
+    @Test
+    public void testReportsEquityLostPerMove() throws Exception {
+        Model game = Model.create(15, null, 3);
+        game.addAiPlayers(2);
+        // a two letter opening leaves the best opening move on the table
+        String opening = shortestWordFromRack(game);
+        for (int i = 0; i < opening.length(); i++) {
+            assertTrue(game.placeTile(opening.charAt(i), 7, 7 + i));
+        }
+        assertTrue(game.submitWord());
+        game.nextTurn();
+        for (int turn = 0; turn < 24; turn++) {
+            ((AiPlayer) game.getCurrentPlayer()).play();
+            game.nextTurn();
+        }
+        List<MoveRecord> moves = game.getMoveLog();
+        assertEquals(25, moves.size());
+
+        ConcurrentLinkedQueue<MoveAnalysis> streamed = new ConcurrentLinkedQueue<>();
+        List<MoveAnalysis> analyses;
+        long start = System.nanoTime();
+        try (GameAnalyzer analyzer = new GameAnalyzer()) {
+            analyses = analyzer.analyze(game, streamed::add).get(60, TimeUnit.SECONDS);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue("analysis took " + millis + " ms", millis < 30_000);
+
+        assertEquals(moves.size(), analyses.size());
+        assertEquals(moves.size(), streamed.size());
+        for (int i = 0; i < analyses.size(); i++) {
+            MoveAnalysis analysis = analyses.get(i);
+            assertSame(moves.get(i), analysis.getPlayed());
+            assertTrue(analysis.toString(), analysis.getEquityLoss() >= 0);
+            assertTrue(analysis.getBest().getScore() >= analysis.getPlayed().getScore());
+            assertEquals(analysis.getPlayed().getPlayerIndex(), analysis.getBest().getPlayerIndex());
+            if (analysis.getPlayed().isPass()) {
+                assertEquals(analysis.getBest().getScore(), analysis.getEquityLoss());
+            }
+        }
+        MoveAnalysis first = analyses.get(0);
+        assertTrue(first.toString(), first.getEquityLoss() > 0);
+        assertTrue(first.getCandidates() > 1);
+    }
+
+    @Test
+    public void testBestMoveIsLegalInItsPosition() {
+        Model game = Model.create(15, null, 8);
+        game.addAiPlayers(2);
+        String opening = shortestWordFromRack(game);
+        for (int i = 0; i < opening.length(); i++) {
+            assertTrue(game.placeTile(opening.charAt(i), 7, 7 + i));
+        }
+        assertTrue(game.submitWord());
+        game.nextTurn();
+
+        // the second player's best reply, applied to the real game, scores what the generator said
+        MoveRecord best = new MoveGenerator(game).best();
+        assertNotNull(best);
+        int before = game.getCurrentPlayer().getScore();
+        assertTrue(best.toString(), game.applyMove(best));
+        assertEquals(before + best.getScore(), game.getPlayers().get(best.getPlayerIndex()).getScore());
+    }
+
+    private static String shortestWordFromRack(Model game) {
+        String shortest = null;
+        for (String word : game.getWordList()) {
+            if (word.length() < 2 || (shortest != null && word.length() >= shortest.length())) {
+                continue;
+            }
+            List<Character> left = new ArrayList<>(game.getCurrentPlayer().getTiles());
+            boolean fits = true;
+            for (int i = 0; i < word.length() && fits; i++) {
+                fits = left.remove((Character) word.charAt(i));
+            }
+            if (fits) {
+                shortest = word;
+            }
+        }
+        assertNotNull(shortest);
+        return shortest;
+    }
+}
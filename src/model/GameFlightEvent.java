@@ -0,0 +1,36 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the game's Java Flight Recorder events. Every event carries the game id and
+ * turn number, so a pause or allocation spike in a recording can be matched to the move
+ * that was being made.
+ * <p>
+ * Events follow the usual JFR pattern: {@code begin()} before the work, then fill in the
+ * fields and {@code commit()} only if {@code shouldCommit()} returns true. When no recording
+ * has the event enabled, {@code shouldCommit()} is false, nothing is formatted and the event
+ * object is optimized away by the JIT.
+ */
+@Category("Scrabble")
+@StackTrace(false)
+public abstract class GameFlightEvent extends Event {
+    @Label("Game Id")
+    protected long gameId;
+
+    @Label("Turn")
+    protected int turn;
+
+    /**
+     * Copies the game id and turn number from a model.
+     *
+     * @param model the game the event belongs to
+     */
+    public void setGame(Model model) {
+        this.gameId = model.getGameId();
+        this.turn = model.getTurnNumber();
+    }
+}
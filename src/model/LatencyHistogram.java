@@ -0,0 +1,197 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * Values are counted in log-linear buckets: every power of two is split into 16 equal
+ * buckets, so any reported percentile is within about 6% of the true value, from single
+ * nanoseconds up to centuries, in a fixed 8 KB array. Recording is one atomic increment on a
+ * bucket plus a striped counter, and never allocates or blocks, so it can stay on in
+ * production and be called from any thread.
+ * <p>
+ * Reads walk the buckets while writers keep recording, so a percentile taken during heavy
+ * recording reflects some moment during the read rather than a single instant.
+ */
+public final class LatencyHistogram implements LatencyHistogramMXBean {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;       // values below this are exact
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;       // buckets per power of two above it
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param name the name of the operation being timed
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the operation being timed.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one latency. Negative values are counted as zero.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     *
+     * @param startNanos the reading taken when the operation started
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the latency at a percentile.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding that percentile, in nanoseconds,
+     * or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (double) n / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getPercentileMicros(50);
+    }
+
+    @Override
+    public double getP90Micros() {
+        return getPercentileMicros(90);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getPercentileMicros(99);
+    }
+
+    @Override
+    public double getP999Micros() {
+        return getPercentileMicros(99.9);
+    }
+
+    @Override
+    public double getPercentileMicros(double percentile) {
+        return getPercentileNanos(percentile) / 1_000.0;
+    }
+
+    /**
+     * Clears all recorded values. Values recorded while the reset runs may be kept or lost.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * Formats the count, mean, percentiles and maximum on one line.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("%-14s count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                name, getCount(), getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(), getP999Micros(), getMaxMicros());
+    }
+
+    /**
+     * Finds the bucket a value is counted in.
+     *
+     * @param value a non-negative value
+     * @return the bucket index
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // keep the top SUB_BUCKET_BITS bits: the value is then between 16 and 31 times 2^shift
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) ((value >>> shift) - HALF_SUB_BUCKETS);
+    }
+
+    /**
+     * Gets the largest value counted in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the largest value
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long mantissa = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        long next = (mantissa + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
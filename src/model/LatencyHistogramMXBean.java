@@ -0,0 +1,70 @@
+package model;
+
+/**
+ * The management interface of a {@link LatencyHistogram}, one per recorded operation.
+ * Registered under {@code scrabble:type=Latency,operation=<name>} by
+ * {@link LatencyMetrics#registerMBeans()}.
+ */
+public interface LatencyHistogramMXBean {
+    /**
+     * Gets the number of recorded calls.
+     *
+     * @return the call count
+     */
+    long getCount();
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Gets the largest recorded latency.
+     *
+     * @return the maximum in microseconds
+     */
+    double getMaxMicros();
+
+    /**
+     * Gets the median latency.
+     *
+     * @return the 50th percentile in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the 90th percentile latency.
+     *
+     * @return the 90th percentile in microseconds
+     */
+    double getP90Micros();
+
+    /**
+     * Gets the 99th percentile latency.
+     *
+     * @return the 99th percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Gets the 99.9th percentile latency.
+     *
+     * @return the 99.9th percentile in microseconds
+     */
+    double getP999Micros();
+
+    /**
+     * Gets any percentile.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency at that percentile in microseconds
+     */
+    double getPercentileMicros(double percentile);
+
+    /**
+     * Clears all recorded values.
+     */
+    void reset();
+}
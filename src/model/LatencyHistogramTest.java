@@ -0,0 +1,112 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverValuesWithBoundedError() {
+        long[] values = {0, 1, 31, 32, 33, 1_000, 123_456, 10_000_000_000L, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long high = LatencyHistogram.highestValueIn(bucket);
+            assertTrue("bucket of " + value + " ends below it", high >= value);
+            assertTrue("bucket of " + value + " is too wide", high - value <= Math.max(0, value / 16));
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.highestValueIn(bucket - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.0, histogram.getP50Micros(), 500.0 / 16);
+        assertEquals(990.0, histogram.getP99Micros(), 990.0 / 16);
+        assertEquals(1000.0, histogram.getMaxMicros(), 0.0);
+        assertEquals(500.5, histogram.getMeanMicros(), 0.001);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getP99Micros(), 0.0);
+    }
+
+    @Test
+    public void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(99_999.0 / 1_000, histogram.getMaxMicros(), 0.0);
+    }
+
+    @Test
+    public void testSimulatedProbesAreNotRecorded() {
+        Model game = Model.create(15, null, 1);
+        Player player = new Player("Probe");
+        game.addPlayer(player);
+        player.getTiles().clear();
+        player.addTile('C');
+        player.addTile('A');
+        player.addTile('T');
+        LatencyHistogram validate = LatencyMetrics.get(LatencyMetrics.Operation.VALIDATE_WORD);
+        LatencyHistogram score = LatencyMetrics.get(LatencyMetrics.Operation.SCORE);
+        long validated = validate.getCount();
+        long scored = score.getCount();
+
+        Model.Simulation simulation = game.simulate();
+        try {
+            game.placeTile('C', 7, 7);
+            game.placeTile('A', 7, 8);
+            game.placeTile('T', 7, 9);
+            assertTrue(game.submitWord());
+        } finally {
+            simulation.close();
+        }
+        assertEquals(validated, validate.getCount());
+        assertEquals(scored, score.getCount());
+
+        game.placeTile('C', 7, 7);
+        game.placeTile('A', 7, 8);
+        game.placeTile('T', 7, 9);
+        assertTrue(game.submitWord());
+        assertEquals(validated + 1, validate.getCount());
+        assertEquals(scored + 1, score.getCount());
+    }
+
+    @Test
+    public void testCommittedAiTurnsAreRecorded() {
+        Model game = Model.create(15, null, 3);
+        game.addAiPlayers(2);
+        LatencyHistogram submit = LatencyMetrics.get(LatencyMetrics.Operation.SUBMIT_WORD);
+        LatencyHistogram place = LatencyMetrics.get(LatencyMetrics.Operation.PLACE_TILE);
+        long submitted = submit.getCount();
+        long placed = place.getCount();
+
+        // the AI lays its move inside a simulation and commits it
+        assertTrue(((AiPlayer) game.getCurrentPlayer()).play());
+        assertFalse(game.isSimulating());
+        assertEquals(submitted + 1, submit.getCount());
+        assertEquals(placed + game.getMoveLog().getFirst().getTileCount(), place.getCount());
+    }
+}
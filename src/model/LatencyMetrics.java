@@ -0,0 +1,163 @@
+package model;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide latency histograms for the game's main operations.
+ * Recording is always on; each call costs two {@link System#nanoTime()} readings and a few
+ * uncontended atomic updates. The histograms can be published over JMX with
+ * {@link #registerMBeans()} and written out periodically with {@link #startDump}.
+ * <p>
+ * Running a game with {@code -Dscrabble.latency.dumpSeconds=N} prints a summary to standard
+ * error every N seconds (see {@link #install()}).
+ */
+public final class LatencyMetrics {
+
+    /**
+     * The timed operations.
+     */
+    public enum Operation {
+        PLACE_TILE("placeTile"),
+        SUBMIT_WORD("submitWord"),
+        VALIDATE_WORD("validateWord"),
+        SCORE("score"),
+        AI_MOVE("aiMove"),
+        REPAINT("repaint"),
+        SAVE("save");
+
+        private final String displayName;
+
+        Operation(String displayName) {
+            this.displayName = displayName;
+        }
+
+        /**
+         * Gets the name used in JMX object names and dumps.
+         *
+         * @return the name
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[Operation.values().length];
+
+    static {
+        for (Operation operation : Operation.values()) {
+            HISTOGRAMS[operation.ordinal()] = new LatencyHistogram(operation.getDisplayName());
+        }
+    }
+
+    private static ScheduledExecutorService dumper;
+    private static boolean registered;
+
+    private LatencyMetrics() {
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     *
+     * @param operation  the operation that finished
+     * @param startNanos the reading taken when it started
+     */
+    public static void record(Operation operation, long startNanos) {
+        HISTOGRAMS[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the histogram of an operation.
+     *
+     * @param operation the operation
+     * @return its histogram
+     */
+    public static LatencyHistogram get(Operation operation) {
+        return HISTOGRAMS[operation.ordinal()];
+    }
+
+    /**
+     * Clears every histogram.
+     */
+    public static void resetAll() {
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Formats every histogram that has recorded at least one call, one per line.
+     *
+     * @return the summary
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder("Latency:");
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            if (histogram.getCount() > 0) {
+                text.append(System.lineSeparator()).append("  ").append(histogram);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Registers every histogram with the platform MBean server as
+     * {@code scrabble:type=Latency,operation=<name>}. Calling it again has no effect.
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (LatencyHistogram histogram : HISTOGRAMS) {
+                ObjectName name = new ObjectName("scrabble:type=Latency,operation=" + histogram.getName());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(histogram, name);
+                }
+            }
+            registered = true;
+        } catch (JMException e) {
+            System.err.println("Could not register latency MBeans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts writing {@link #dump()} to a stream at a fixed rate on a daemon thread.
+     * Only one dump runs at a time; starting another replaces it.
+     *
+     * @param out           where to write
+     * @param periodSeconds the time between dumps
+     * @return the scheduled dump, which can be cancelled
+     */
+    public static synchronized ScheduledFuture<?> startDump(PrintStream out, long periodSeconds) {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return dumper.scheduleAtFixedRate(() -> out.println(dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registers the MBeans and, if {@code scrabble.latency.dumpSeconds} is set to a positive
+     * number, starts a periodic dump to standard error. Called by the game's entry points.
+     */
+    public static void install() {
+        registerMBeans();
+        long period = Long.getLong("scrabble.latency.dumpSeconds", 0);
+        if (period > 0) {
+            startDump(System.err, period);
+        }
+    }
+}
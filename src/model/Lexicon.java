@@ -0,0 +1,119 @@
+package model;
+
+/**
+ * A dictionary that can be walked letter by letter. Words are upper case A to Z. Nodes are
+ * numbered from {@link #root()}; each node stands for the prefix spelled on the way to it and
+ * has its outgoing edges in alphabetical order, so a depth-first walk meets words in
+ * alphabetical order. Implementations are read-only and safe to share between threads.
+ */
+public interface Lexicon {
+    /**
+     * The node returned for a letter with no edge.
+     */
+    int NONE = -1;
+
+    /**
+     * Gets the node of the empty prefix.
+     *
+     * @return the root node
+     */
+    int root();
+
+    /**
+     * Gets the number of edges leaving a node.
+     *
+     * @param node the node
+     * @return the edge count
+     */
+    int edgeCount(int node);
+
+    /**
+     * Gets the letter of an edge.
+     *
+     * @param node the node
+     * @param edge the index of the edge, from 0 to {@link #edgeCount(int)} - 1
+     * @return the letter
+     */
+    char edgeLetter(int node, int edge);
+
+    /**
+     * Gets the node an edge leads to.
+     *
+     * @param node the node
+     * @param edge the index of the edge
+     * @return the child node
+     */
+    int edgeTarget(int node, int edge);
+
+    /**
+     * Checks whether the prefix of a node is a word.
+     *
+     * @param node the node
+     * @return true if the prefix is a word
+     */
+    boolean isWord(int node);
+
+    /**
+     * Gets the number of words.
+     *
+     * @return the word count
+     */
+    int size();
+
+    /**
+     * Follows the edge for a letter.
+     *
+     * @param node   the node
+     * @param letter the letter
+     * @return the child node, or {@link #NONE} if no word continues with that letter
+     */
+    default int child(int node, char letter) {
+        int count = edgeCount(node);
+        for (int edge = 0; edge < count; edge++) {
+            char found = edgeLetter(node, edge);
+            if (found == letter) {
+                return edgeTarget(node, edge);
+            }
+            if (found > letter) {
+                break;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks whether a word is in the dictionary.
+     *
+     * @param word the word, upper case
+     * @return true if the word is in the dictionary
+     */
+    default boolean contains(CharSequence word) {
+        int node = find(word);
+        return node != NONE && isWord(node);
+    }
+
+    /**
+     * Checks whether any word in the dictionary starts with a prefix. Every word is a prefix
+     * of itself.
+     *
+     * @param prefix the prefix, upper case
+     * @return true if some word starts with it
+     */
+    default boolean isPrefix(CharSequence prefix) {
+        return find(prefix) != NONE;
+    }
+
+    /**
+     * Follows the edges for the letters of a prefix from the root.
+     *
+     * @param prefix the prefix
+     * @return the node of the prefix, or {@link #NONE} if no word starts with it
+     */
+    default int find(CharSequence prefix) {
+        int node = root();
+        for (int i = 0; i < prefix.length() && node != NONE; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node;
+    }
+}
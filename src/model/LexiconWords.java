@@ -0,0 +1,102 @@
+package model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The words of a {@link Lexicon} seen as a read-only set, so code written against a set of
+ * words can use a lexicon without a copy of its words on the heap. Looking a word up walks the
+ * lexicon; iterating spells the words out one at a time, in alphabetical order.
+ */
+final class LexiconWords extends AbstractSet<String> {
+    private final Lexicon lexicon;
+
+    /**
+     * Constructs the set of a lexicon's words.
+     *
+     * @param lexicon the lexicon
+     */
+    LexiconWords(Lexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    /**
+     * Gets the lexicon the words are read from.
+     *
+     * @return the lexicon
+     */
+    Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String word && lexicon.contains(word);
+    }
+
+    @Override
+    public int size() {
+        return lexicon.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            // the path from the root: the node at each depth and the next edge to take from it
+            private int[] nodes = new int[16];
+            private int[] edges = new int[16];
+            private char[] letters = new char[16];
+            private int depth = 0;
+            private String next;
+
+            {
+                nodes[0] = lexicon.root();
+                next = lexicon.isWord(nodes[0]) ? "" : advance();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String word = next;
+                next = advance();
+                return word;
+            }
+
+            /**
+             * Walks on, depth first, to the next node that ends a word.
+             */
+            private String advance() {
+                while (depth >= 0) {
+                    int node = nodes[depth];
+                    if (edges[depth] == lexicon.edgeCount(node)) {
+                        depth--;
+                        continue;
+                    }
+                    int edge = edges[depth]++;
+                    if (depth + 1 == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+                        edges = Arrays.copyOf(edges, 2 * edges.length);
+                        letters = Arrays.copyOf(letters, 2 * letters.length);
+                    }
+                    letters[depth] = lexicon.edgeLetter(node, edge);
+                    depth++;
+                    nodes[depth] = lexicon.edgeTarget(node, edge);
+                    edges[depth] = 0;
+                    if (lexicon.isWord(nodes[depth])) {
+                        return new String(letters, 0, depth);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+}
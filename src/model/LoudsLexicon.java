@@ -0,0 +1,306 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A {@link Lexicon} in as little memory as a trie can take: a succinct LOUDS (level-order unary
+ * degree sequence) encoding, for devices where even the flat trie is too big.
+ * <p>
+ * Nodes are numbered level by level, root first, so the children of a node get consecutive
+ * numbers. The shape of the trie is one bit string: for each node in that order, a one for
+ * each child and then a zero, two bits a node in all. Node {@code i}'s ones start just after
+ * the {@code i}-th zero, and as the ones before them number the children of the nodes before
+ * it, the child of the one at position {@code p} is node {@code p - i + 1}: finding a node's
+ * edges takes one select over the zeros, and its children need no rank at all. Selects are
+ * answered from the position of every 64th zero and a few word-sized bit counts. Each node but
+ * the root also keeps the letter of the edge into it, in five bits, and one bit for whether it
+ * ends a word, for about nine bits a node with the select samples.
+ * <p>
+ * Following an edge costs a select where the flat tries read an array, so walking this
+ * lexicon is slower than walking those; it is the one to choose when memory matters more. A
+ * lexicon never changes once built and can be shared by any number of threads.
+ */
+public final class LoudsLexicon implements Lexicon {
+    private static final int MAGIC = 0x4C4F5544; // "LOUD"
+    private static final short VERSION = 1;
+    private static final int SAMPLE = 64; // zeros between select samples
+    private static final int LABELS_PER_WORD = 12; // five bits each, so none straddles two longs
+
+    private final long[] shape; // bit p of the sequence is bit p % 64 of shape[p / 64]
+    private final long[] labels; // letter - 'A' of the edge into node n, at n - 1
+    private final long[] words; // one bit a node
+    private final int[] zeroSamples; // the position of zero number SAMPLE * k
+    private final int nodeCount;
+    private final int size;
+
+    private LoudsLexicon(long[] shape, long[] labels, long[] words, int nodeCount, int size) {
+        this.shape = shape;
+        this.labels = labels;
+        this.words = words;
+        this.nodeCount = nodeCount;
+        this.size = size;
+        // one zero ends each node, so there are nodeCount of them
+        this.zeroSamples = new int[(nodeCount + SAMPLE - 1) / SAMPLE];
+        int zeros = 0;
+        for (int p = 0; zeros < nodeCount; p++) {
+            if ((shape[p >>> 6] & 1L << p) == 0) {
+                if (zeros % SAMPLE == 0) {
+                    zeroSamples[zeros / SAMPLE] = p;
+                }
+                zeros++;
+            }
+        }
+    }
+
+    /**
+     * Encodes a lexicon, walking it level by level.
+     *
+     * @param source the lexicon to encode
+     * @return the encoding
+     */
+    public static LoudsLexicon copyOf(Lexicon source) {
+        int[] queue = new int[1024];
+        queue[0] = source.root();
+        int tail = 1;
+        long[] shape = new long[64];
+        int bits = 0;
+        long[] labels = new long[64];
+        long[] words = new long[64];
+        for (int head = 0; head < tail; head++) {
+            int node = queue[head];
+            if (source.isWord(node)) {
+                words = set(words, head);
+            }
+            int edges = source.edgeCount(node);
+            for (int edge = 0; edge < edges; edge++) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, 2 * tail);
+                }
+                labels = putLabel(labels, tail - 1, source.edgeLetter(node, edge) - 'A');
+                queue[tail++] = source.edgeTarget(node, edge);
+                shape = set(shape, bits++);
+            }
+            bits++; // the zero that ends the node
+        }
+        return new LoudsLexicon(Arrays.copyOf(shape, (bits + 63) >>> 6),
+                Arrays.copyOf(labels, (tail - 1 + LABELS_PER_WORD - 1) / LABELS_PER_WORD),
+                Arrays.copyOf(words, (tail + 63) >>> 6), tail, source.size());
+    }
+
+    /**
+     * Builds the encoding of a word list. Empty words and words holding anything but the
+     * letters A to Z are left out.
+     *
+     * @param wordList the words, upper case
+     * @return the lexicon
+     */
+    public static LoudsLexicon of(Collection<String> wordList) {
+        return copyOf(new TrieLexicon(wordList)); // the flat trie is garbage once encoded
+    }
+
+    /**
+     * Reads an encoding written by {@link #write(Path)}, without building any trie on the way.
+     *
+     * @param file the file
+     * @return the lexicon
+     * @throws IOException if the file cannot be read or is not a LOUDS lexicon
+     */
+    public static LoudsLexicon read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("Not a LOUDS lexicon");
+            }
+            int size = in.readInt();
+            int nodeCount = in.readInt();
+            long[] shape = readLongs(in, (2 * nodeCount - 1 + 63) >>> 6);
+            long[] labels = readLongs(in, (nodeCount - 1 + LABELS_PER_WORD - 1) / LABELS_PER_WORD);
+            long[] words = readLongs(in, (nodeCount + 63) >>> 6);
+            return new LoudsLexicon(shape, labels, words, nodeCount, size);
+        }
+    }
+
+    /**
+     * Writes the encoding to a file that {@link #read(Path)} can load.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(size);
+            out.writeInt(nodeCount);
+            for (long[] bits : new long[][]{shape, labels, words}) {
+                for (long word : bits) {
+                    out.writeLong(word);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int root() {
+        return 0;
+    }
+
+    @Override
+    public int edgeCount(int node) {
+        int start = start(node);
+        return nextZero(start) - start;
+    }
+
+    @Override
+    public char edgeLetter(int node, int edge) {
+        return (char) ('A' + label(start(node) - node + edge + 1));
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return start(node) - node + edge + 1;
+    }
+
+    @Override
+    public boolean isWord(int node) {
+        return (words[node >>> 6] & 1L << node) != 0;
+    }
+
+    @Override
+    public int child(int node, char letter) {
+        int start = start(node);
+        int low = start - node + 1; // the first child
+        int high = low + nextZero(start) - start - 1; // the last
+        int wanted = letter - 'A';
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int found = label(mid);
+            if (found < wanted) {
+                low = mid + 1;
+            } else if (found > wanted) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return NONE;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of nodes in the trie.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the number of bytes the encoding takes, select samples included.
+     *
+     * @return the byte count
+     */
+    public long getByteSize() {
+        return 8L * (shape.length + labels.length + words.length) + 4L * zeroSamples.length;
+    }
+
+    /**
+     * Finds where a node's ones begin: just after the zero that ends the node before it.
+     */
+    private int start(int node) {
+        return node == 0 ? 0 : select0(node - 1) + 1;
+    }
+
+    /**
+     * Finds the position of a zero in the bit string.
+     *
+     * @param k the number of zeros before it
+     */
+    private int select0(int k) {
+        int pos = zeroSamples[k / SAMPLE];
+        int skip = k % SAMPLE; // zeros to pass after the sampled one
+        int word = pos >>> 6;
+        long zeros = ~shape[word] & (-1L << pos);
+        while (true) {
+            int count = Long.bitCount(zeros);
+            if (skip < count) {
+                return (word << 6) + selectInWord(zeros, skip);
+            }
+            skip -= count;
+            zeros = ~shape[++word];
+        }
+    }
+
+    /**
+     * Finds the first zero at or after a position.
+     */
+    private int nextZero(int pos) {
+        int word = pos >>> 6;
+        long zeros = ~shape[word] & (-1L << pos);
+        while (zeros == 0) {
+            zeros = ~shape[++word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(zeros);
+    }
+
+    /**
+     * Finds the position of a set bit in a word, a byte at a time and then a bit at a time.
+     *
+     * @param bits the word
+     * @param skip the number of set bits before it
+     */
+    private static int selectInWord(long bits, int skip) {
+        int shift = 0;
+        int count;
+        while (skip >= (count = Long.bitCount(bits >>> shift & 0xFF))) {
+            skip -= count;
+            shift += 8;
+        }
+        long rest = bits >>> shift;
+        for (; skip > 0; skip--) {
+            rest &= rest - 1;
+        }
+        return shift + Long.numberOfTrailingZeros(rest);
+    }
+
+    private int label(int node) {
+        int index = node - 1;
+        return (int) (labels[index / LABELS_PER_WORD] >>> (5 * (index % LABELS_PER_WORD))) & 0x1F;
+    }
+
+    private static long[] set(long[] bits, int bit) {
+        if (bit >>> 6 >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(2 * bits.length, (bit >>> 6) + 1));
+        }
+        bits[bit >>> 6] |= 1L << bit;
+        return bits;
+    }
+
+    private static long[] putLabel(long[] labels, int index, int letter) {
+        if (index / LABELS_PER_WORD >= labels.length) {
+            labels = Arrays.copyOf(labels, Math.max(2 * labels.length, index / LABELS_PER_WORD + 1));
+        }
+        labels[index / LABELS_PER_WORD] |= (long) letter << (5 * (index % LABELS_PER_WORD));
+        return labels;
+    }
+
+    private static long[] readLongs(DataInputStream in, int count) throws IOException {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+}
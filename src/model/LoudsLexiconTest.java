@@ -0,0 +1,102 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LoudsLexiconTest {
+
+    @Test
+    public void testHoldsTheWordListInAFewBitsANode() {
+        Set<String> words = Model.sharedWordList();
+        LoudsLexicon louds = LoudsLexicon.copyOf(OffHeapLexicon.shared());
+        assertEquals(OffHeapLexicon.shared().getNodeCount(), louds.getNodeCount());
+        assertEquals(words.size(), louds.size());
+        // two bits of shape, five of letter and one word bit, plus the select samples
+        assertTrue(louds.getByteSize() + " bytes", 8 * louds.getByteSize() <= 9L * louds.getNodeCount() + 256);
+
+        assertEquals(new ArrayList<>(words), new ArrayList<>(new LexiconWords(louds)));
+        for (String word : words) {
+            assertTrue(word, louds.contains(word));
+            assertTrue(word, louds.isPrefix(word.substring(0, word.length() / 2)));
+            assertFalse(word, louds.contains(word + "QX"));
+        }
+        assertFalse(louds.contains("cat"));
+        assertFalse(louds.isPrefix("QX"));
+        assertTrue(louds.isPrefix(""));
+    }
+
+    @Test
+    public void testMatchesTheFlatTrie() {
+        List<String> sample = List.of("CAT", "CAR", "CA", "DOG", "do-g", "", "ZYZZYVA", "AA");
+        TrieLexicon trie = new TrieLexicon(sample);
+        LoudsLexicon louds = LoudsLexicon.copyOf(trie);
+        assertEquals(trie.size(), louds.size());
+        assertEquals(trie.getNodeCount(), louds.getNodeCount());
+        assertEquals(List.of("AA", "CA", "CAR", "CAT", "DOG", "ZYZZYVA"), new ArrayList<>(new LexiconWords(louds)));
+        int ca = louds.find("CA");
+        assertEquals(2, louds.edgeCount(ca));
+        assertEquals('R', louds.edgeLetter(ca, 0));
+        assertEquals(louds.child(ca, 'T'), louds.edgeTarget(ca, 1));
+        assertTrue(louds.isWord(ca));
+        assertEquals(Lexicon.NONE, louds.child(ca, 'B'));
+        assertTrue(louds.isPrefix("ZYZ"));
+        assertFalse(louds.contains("ZYZ"));
+        assertTrue(new LexiconWords(LoudsLexicon.of(List.of())).isEmpty());
+    }
+
+    @Test
+    public void testEncodesAListWithNoShortWords() {
+        // every word ends on the fourth level, so the first word bit lies beyond twice what
+        // the array starts with
+        List<String> sample = new ArrayList<>();
+        for (char a = 'A'; a <= 'Z'; a++) {
+            for (char b = 'A'; b <= 'Z'; b++) {
+                for (char c = 'A'; c <= 'Z'; c++) {
+                    sample.add("" + a + b + c + 'Q');
+                }
+            }
+        }
+        LoudsLexicon louds = LoudsLexicon.of(sample);
+        assertEquals(sample.size(), louds.size());
+        assertEquals(sample, new ArrayList<>(new LexiconWords(louds)));
+        assertFalse(louds.contains("ZZZ"));
+        assertTrue(louds.isPrefix("ZZZ"));
+    }
+
+    @Test
+    public void testGeneratesTheSameMoves() {
+        Model game = Model.create(15, null, 5);
+        game.addAiPlayers(2);
+        LoudsLexicon louds = LoudsLexicon.copyOf(OffHeapLexicon.shared());
+        for (int turn = 0; turn < 6; turn++) {
+            assertEquals(new MoveGenerator(game).generate(), new MoveGenerator(game, louds).generate());
+            assertTrue(game.applyMove(new MoveGenerator(game, louds).best()));
+            game.nextTurn();
+        }
+    }
+
+    @Test
+    public void testFileRoundTrip() throws IOException {
+        Path file = Files.createTempFile("lexicon", ".louds");
+        try {
+            LoudsLexicon louds = LoudsLexicon.of(List.of("QI", "QAT", "XI", "ZA", "ZAX"));
+            louds.write(file);
+            LoudsLexicon read = LoudsLexicon.read(file);
+            assertEquals(louds.getByteSize(), read.getByteSize());
+            assertEquals(List.of("QAT", "QI", "XI", "ZA", "ZAX"), new ArrayList<>(new LexiconWords(read)));
+
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+            assertThrows(IOException.class, () -> LoudsLexicon.read(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,13 +1,8 @@
 package model;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -19,23 +14,39 @@ public class Model implements Serializable {
 
     private static Model instance;
 
+    // per-move diagnostics on standard output; off unless run with -Dscrabble.debug=true
+    private static final boolean DEBUG = Boolean.getBoolean("scrabble.debug");
+    // relative to the working directory, so the game is started from the project root
+    static final String WORDLIST_PATH = "src/model/wordlist.txt";
+    private static final AtomicLong NEXT_GAME_ID = new AtomicLong(1);
+    private static Set<String> sharedWordList; // loaded once and shared by every game in the process
+    private static Lexicon sharedLexicon;
+
     private final char[][] board;
     private final List<Player> players;
     private int currentPlayerIndex;
     private final TileBag tileBag;
+    private Random random; // not final so saves from before seeding can be given one on load
     private transient List<ModelObserver> observers; // Marked as transient
-    private final Set<String> wordlist;
+    private transient int batchDepth;
+    private transient List<ModelEvent> pendingEvents;
+    private transient Deque<SimulationFrame> simulations;
+    private transient List<ModelEvent> simulationEvents;
+    private transient LatencyLog simulationLatencies; // recorded if the outermost simulation commits
+    private transient List<SubmitWordEvent> simulationSubmits;
+    private transient BoardLog boardLog;
+    private transient long boardHash; // see getBoardHash()
+    private transient BoardIndex boardIndex; // which cells hold a tile, kept with the board
+    private transient Set<String> wordlist; // not saved; reloaded from the word list file on load
     private final int boardSize;
     private final Map<Position, Character> currentTurnPlacements;
     private boolean isFirstTurn;
     private boolean displayMessages = true; // whether to notify observers
     private boolean timerMode;
-
-
-    private final Set<Position> TRIPLE_WORD_SCORE = new HashSet<>();
-    private final Set<Position> DOUBLE_WORD_SCORE = new HashSet<>();
-    private final Set<Position> TRIPLE_LETTER_SCORE = new HashSet<>();
-    private final Set<Position> DOUBLE_LETTER_SCORE = new HashSet<>();
+    private long gameId; // identifies the game in diagnostics; not final so old saves can be given one
+    private int turnNumber = 1;
+    private List<MoveRecord> moveLog = new ArrayList<>(); // not final so old saves can be given one
+    private PremiumGrid premiumGrid; // shared with every game on the same board configuration
 
     /**
      * Initializes the game model with the specified board size.
@@ -44,15 +55,29 @@ public class Model implements Serializable {
      * @param boardConfigPath the path to the board configuration XML file
      */
     private Model(int boardSize, String boardConfigPath) {
+        this(boardSize, boardConfigPath, new Random());
+    }
+
+    /**
+     * Initializes the game model with the specified board size and source of randomness.
+     *
+     * @param boardSize       the size of the board (e.g., 15 for a 15x15 board)
+     * @param boardConfigPath the path to the board configuration XML file
+     * @param random          the random source for the tile bag and AI players
+     */
+    private Model(int boardSize, String boardConfigPath, Random random) {
         this.boardSize = boardSize;
         this.board = new char[boardSize][boardSize];
         this.players = new ArrayList<>();
         this.currentPlayerIndex = 0;
-        this.tileBag = new TileBag();
+        this.random = random;
+        this.tileBag = new TileBag(random);
         this.observers = new ArrayList<>();
-        this.wordlist = loadWordList("src/model/wordlist.txt");
+        initTransientState();
+        this.wordlist = sharedWordList();
         this.currentTurnPlacements = new HashMap<>();
         this.isFirstTurn = true;
+        this.gameId = NEXT_GAME_ID.getAndIncrement();
         loadBoardConfigFromXML(boardConfigPath);
 
     }
@@ -60,223 +85,34 @@ public class Model implements Serializable {
     /**
      * Loads the board configuration from an XML file.
      * If the file is invalid or not found, default configurations are loaded instead.
+     * Parsed configurations are cached by {@link BoardConfigLoader}, so games using the same
+     * file share one premium grid.
      *
      * @param xmlFileName the path to the XML configuration file
      */
     void loadBoardConfigFromXML(String xmlFileName) {
-        File xmlFile = new File(xmlFileName);
-        if (!xmlFile.exists()) {
-            System.out.println("XML configuration file not found. Using default configuration.");
+        PremiumGrid grid = BoardConfigLoader.load(xmlFileName, boardSize);
+        if (grid == null) {
             loadDefaultPremiumSquares();
             return;
         }
-
-        try {
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(xmlFile);
-
-            doc.getDocumentElement().normalize();
-
-            // Validate the presence of <size>
-            NodeList sizeList = doc.getElementsByTagName("size");
-            if (sizeList.getLength() == 0) {
-                System.out.println("No <size> element found in XML. Using defaults.");
-                loadDefaultPremiumSquares();
-                return;
-            }
-
-            int xmlSize = Integer.parseInt(sizeList.item(0).getTextContent().trim());
-            if (xmlSize != this.boardSize) {
-                System.out.println("Warning: XML board size (" + xmlSize + ") does not match expected Model board size (" + boardSize + "). Using defaults.");
-                loadDefaultPremiumSquares();
-                return;
-            }
-
-            // Validate the presence of <premiumSquares>
-            NodeList premiumSquaresList = doc.getElementsByTagName("premiumSquares");
-            if (premiumSquaresList.getLength() == 0) {
-                System.out.println("No <premiumSquares> element found. Using defaults.");
-                loadDefaultPremiumSquares();
-                return;
-            }
-
-            NodeList squares = doc.getElementsByTagName("square");
-            // Temporary sets to hold data before we finalize them
-            Set<Position> tempTW = new HashSet<>();
-            Set<Position> tempDW = new HashSet<>();
-            Set<Position> tempTL = new HashSet<>();
-            Set<Position> tempDL = new HashSet<>();
-
-            boolean validationFailed = false;
-
-            for (int i = 0; i < squares.getLength(); i++) {
-                Element squareElement = (Element) squares.item(i);
-                String rowStr = squareElement.getAttribute("row");
-                String colStr = squareElement.getAttribute("col");
-                String type = squareElement.getAttribute("type");
-
-                // Validate attributes
-                if (rowStr.isEmpty() || colStr.isEmpty() || type.isEmpty()) {
-                    System.out.println("Invalid square definition: Missing row/col/type. Using defaults.");
-                    validationFailed = true;
-                    break;
-                }
-
-                int row = Integer.parseInt(rowStr);
-                int col = Integer.parseInt(colStr);
-
-                // Check range
-                if (row < 0 || row >= boardSize || col < 0 || col >= boardSize) {
-                    System.out.println("Square (" + row + "," + col + ") is out of board range. Using defaults.");
-                    validationFailed = true;
-                    break;
-                }
-
-                // Check type validity
-                Position pos = new Position(row, col);
-                switch (type) {
-                    case "TW":
-                        // Check no overlap
-                        if (tempDW.contains(pos) || tempTL.contains(pos) || tempDL.contains(pos) || tempTW.contains(pos)) {
-                            System.out.println("Square (" + row + "," + col + ") defined multiple times. Using defaults.");
-                            validationFailed = true;
-                        } else {
-                            tempTW.add(pos);
-                        }
-                        break;
-                    case "DW":
-                        if (tempTW.contains(pos) || tempTL.contains(pos) || tempDL.contains(pos) || tempDW.contains(pos)) {
-                            System.out.println("Square (" + row + "," + col + ") defined multiple times. Using defaults.");
-                            validationFailed = true;
-                        } else {
-                            tempDW.add(pos);
-                        }
-                        break;
-                    case "TL":
-                        if (tempTW.contains(pos) || tempDW.contains(pos) || tempDL.contains(pos) || tempTL.contains(pos)) {
-                            System.out.println("Square (" + row + "," + col + ") defined multiple times. Using defaults.");
-                            validationFailed = true;
-                        } else {
-                            tempTL.add(pos);
-                        }
-                        break;
-                    case "DL":
-                        if (tempTW.contains(pos) || tempDW.contains(pos) || tempTL.contains(pos) || tempDL.contains(pos)) {
-                            System.out.println("Square (" + row + "," + col + ") defined multiple times. Using defaults.");
-                            validationFailed = true;
-                        } else {
-                            tempDL.add(pos);
-                        }
-                        break;
-                    default:
-                        System.out.println("Unknown premium type: " + type + ". Using defaults.");
-                        validationFailed = true;
-                        break;
-                }
-
-                if (validationFailed) {
-                    break;
-                }
-            }
-
-            if (validationFailed) {
-                loadDefaultPremiumSquares();
-            } else {
-                // Assign to actual sets only after successful validation
-                TRIPLE_WORD_SCORE.clear();
-                DOUBLE_WORD_SCORE.clear();
-                TRIPLE_LETTER_SCORE.clear();
-                DOUBLE_LETTER_SCORE.clear();
-
-                TRIPLE_WORD_SCORE.addAll(tempTW);
-                DOUBLE_WORD_SCORE.addAll(tempDW);
-                TRIPLE_LETTER_SCORE.addAll(tempTL);
-                DOUBLE_LETTER_SCORE.addAll(tempDL);
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.out.println("Failed to parse or validate XML. Using defaults.");
-            loadDefaultPremiumSquares();
-        }
+        applyPremiumGrid(grid);
     }
 
     /**
      * Loads default premium squares if validation fails or XML not found.
      */
     private void loadDefaultPremiumSquares() {
-        // Clear existing sets
-        TRIPLE_WORD_SCORE.clear();
-        DOUBLE_WORD_SCORE.clear();
-        TRIPLE_LETTER_SCORE.clear();
-        DOUBLE_LETTER_SCORE.clear();
-
-        // Populate TRIPLE_WORD_SCORE
-        TRIPLE_WORD_SCORE.add(new Position(0, 0));
-        TRIPLE_WORD_SCORE.add(new Position(0, 7));
-        TRIPLE_WORD_SCORE.add(new Position(0, 14));
-        TRIPLE_WORD_SCORE.add(new Position(7, 0));
-        TRIPLE_WORD_SCORE.add(new Position(7, 14));
-        TRIPLE_WORD_SCORE.add(new Position(14, 0));
-        TRIPLE_WORD_SCORE.add(new Position(14, 7));
-        TRIPLE_WORD_SCORE.add(new Position(14, 14));
-
-        // Populate DOUBLE_WORD_SCORE
-        DOUBLE_WORD_SCORE.add(new Position(1, 1));
-        DOUBLE_WORD_SCORE.add(new Position(2, 2));
-        DOUBLE_WORD_SCORE.add(new Position(3, 3));
-        DOUBLE_WORD_SCORE.add(new Position(4, 4));
-        DOUBLE_WORD_SCORE.add(new Position(10, 10));
-        DOUBLE_WORD_SCORE.add(new Position(11, 11));
-        DOUBLE_WORD_SCORE.add(new Position(12, 12));
-        DOUBLE_WORD_SCORE.add(new Position(13, 13));
-        DOUBLE_WORD_SCORE.add(new Position(1, 13));
-        DOUBLE_WORD_SCORE.add(new Position(2, 12));
-        DOUBLE_WORD_SCORE.add(new Position(3, 11));
-        DOUBLE_WORD_SCORE.add(new Position(4, 10));
-        DOUBLE_WORD_SCORE.add(new Position(10, 4));
-        DOUBLE_WORD_SCORE.add(new Position(11, 3));
-        DOUBLE_WORD_SCORE.add(new Position(12, 2));
-        DOUBLE_WORD_SCORE.add(new Position(13, 1));
-
-        // Populate TRIPLE_LETTER_SCORE
-        TRIPLE_LETTER_SCORE.add(new Position(1, 5));
-        TRIPLE_LETTER_SCORE.add(new Position(1, 9));
-        TRIPLE_LETTER_SCORE.add(new Position(5, 1));
-        TRIPLE_LETTER_SCORE.add(new Position(5, 5));
-        TRIPLE_LETTER_SCORE.add(new Position(5, 9));
-        TRIPLE_LETTER_SCORE.add(new Position(5, 13));
-        TRIPLE_LETTER_SCORE.add(new Position(9, 1));
-        TRIPLE_LETTER_SCORE.add(new Position(9, 5));
-        TRIPLE_LETTER_SCORE.add(new Position(9, 9));
-        TRIPLE_LETTER_SCORE.add(new Position(9, 13));
-        TRIPLE_LETTER_SCORE.add(new Position(13, 5));
-        TRIPLE_LETTER_SCORE.add(new Position(13, 9));
-
-        // Populate DOUBLE_LETTER_SCORE
-        DOUBLE_LETTER_SCORE.add(new Position(0, 3));
-        DOUBLE_LETTER_SCORE.add(new Position(0, 11));
-        DOUBLE_LETTER_SCORE.add(new Position(2, 6));
-        DOUBLE_LETTER_SCORE.add(new Position(2, 8));
-        DOUBLE_LETTER_SCORE.add(new Position(3, 0));
-        DOUBLE_LETTER_SCORE.add(new Position(3, 14));
-        DOUBLE_LETTER_SCORE.add(new Position(6, 2));
-        DOUBLE_LETTER_SCORE.add(new Position(6, 6));
-        DOUBLE_LETTER_SCORE.add(new Position(6, 8));
-        DOUBLE_LETTER_SCORE.add(new Position(6, 12));
-        DOUBLE_LETTER_SCORE.add(new Position(8, 2));
-        DOUBLE_LETTER_SCORE.add(new Position(8, 6));
-        DOUBLE_LETTER_SCORE.add(new Position(8, 8));
-        DOUBLE_LETTER_SCORE.add(new Position(8, 12));
-        DOUBLE_LETTER_SCORE.add(new Position(11, 0));
-        DOUBLE_LETTER_SCORE.add(new Position(11, 3));
-        DOUBLE_LETTER_SCORE.add(new Position(11, 11));
-        DOUBLE_LETTER_SCORE.add(new Position(11, 14));
-        DOUBLE_LETTER_SCORE.add(new Position(12, 6));
-        DOUBLE_LETTER_SCORE.add(new Position(12, 8));
-        DOUBLE_LETTER_SCORE.add(new Position(14, 3));
-        DOUBLE_LETTER_SCORE.add(new Position(14, 11));
+        applyPremiumGrid(BoardConfigLoader.defaultGrid(boardSize));
+    }
+
+    /**
+     * Makes the given grid the active premium layout.
+     *
+     * @param grid the premium grid to use
+     */
+    private void applyPremiumGrid(PremiumGrid grid) {
+        this.premiumGrid = grid;
     }
 
 
@@ -290,6 +126,42 @@ public class Model implements Serializable {
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         this.observers = new ArrayList<>(); // Reinitialize transient field
+        this.wordlist = sharedWordList();
+        initTransientState();
+        if (this.random == null) {
+            this.random = new Random();
+        }
+        if (this.gameId == 0) {
+            this.gameId = NEXT_GAME_ID.getAndIncrement();
+            this.turnNumber = 1;
+        }
+        if (this.moveLog == null) {
+            this.moveLog = new ArrayList<>(); // saved before moves were logged
+        }
+        if (this.premiumGrid == null) {
+            loadDefaultPremiumSquares(); // saved with the premium squares as sets of positions
+        }
+    }
+
+    /**
+     * Creates the transient bookkeeping used for batching and simulation, and the hash and
+     * occupancy index of the board.
+     */
+    private void initTransientState() {
+        this.pendingEvents = new ArrayList<>();
+        this.simulations = new ArrayDeque<>();
+        this.simulationEvents = new ArrayList<>();
+        this.simulationLatencies = new LatencyLog();
+        this.simulationSubmits = new ArrayList<>();
+        this.boardLog = new BoardLog();
+        this.boardHash = 0;
+        this.boardIndex = new BoardIndex(boardSize);
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                boardHash ^= cellHash(row, col, board[row][col]);
+                boardIndex.set(row, col, board[row][col] != '\0');
+            }
+        }
     }
 
     /**
@@ -305,6 +177,65 @@ public class Model implements Serializable {
         return instance;
     }
 
+    /**
+     * Creates a new, independent game model. Unlike {@link #getInstance(int, String)} this does
+     * not touch the singleton, so several games can run in the same process. Games created with
+     * the same seed draw the same tiles in the same order.
+     *
+     * @param boardSize       the size of the board
+     * @param boardConfigPath the path to the board configuration XML file
+     * @param seed            the seed for the tile bag and AI players
+     * @return the new model
+     */
+    public static Model create(int boardSize, String boardConfigPath, long seed) {
+        return new Model(boardSize, boardConfigPath, new Random(seed));
+    }
+
+    /**
+     * Rebuilds the position a logged move was made from: the tiles of every earlier move on
+     * the board and the mover, in their seat, holding the rack they moved from. Other seats are
+     * empty. Used to look for the moves a player could have made instead.
+     *
+     * @param boardSize the size of the board
+     * @param grid      the premium layout of the game
+     * @param log       the game's move log
+     * @param index     the index of the move in the log
+     * @param name      the mover's name
+     * @return a new model at that position
+     */
+    static Model position(int boardSize, PremiumGrid grid, List<MoveRecord> log, int index, String name) {
+        Model position = new Model(boardSize, null, new Random(0));
+        position.applyPremiumGrid(grid);
+        for (int i = 0; i < index; i++) {
+            MoveRecord earlier = log.get(i);
+            for (int t = 0; t < earlier.getTileCount(); t++) {
+                position.setCell(earlier.getRow(t), earlier.getCol(t), earlier.getLetter(t));
+                position.isFirstTurn = false;
+            }
+        }
+        MoveRecord move = log.get(index);
+        for (int i = 0; i < move.getPlayerIndex(); i++) {
+            position.players.add(new Player("Player " + (i + 1))); // keeps the mover's seat number
+        }
+        Player mover = new Player(name);
+        for (char tile : move.getRack()) {
+            mover.addTile(tile);
+        }
+        position.players.add(mover);
+        position.currentPlayerIndex = move.getPlayerIndex();
+        position.turnNumber = move.getTurn();
+        return position;
+    }
+
+    /**
+     * Gets the random source shared by the tile bag and AI players of this game.
+     *
+     * @return the random source
+     */
+    Random getRandom() {
+        return random;
+    }
+
     /**
      * Resets the singleton instance of the model.
      */
@@ -313,17 +244,50 @@ public class Model implements Serializable {
     }
 
     /**
-     * Loads a word list from a file.
+     * Gets the dictionary shared by all games, loading it on first use. The words are read
+     * from the {@link #sharedLexicon() shared lexicon}, so no game or AI player holds a copy of
+     * them.
+     *
+     * @return the read-only set of upper case words
+     */
+    static synchronized Set<String> sharedWordList() {
+        if (sharedWordList == null) {
+            sharedWordList = new LexiconWords(sharedLexicon());
+        }
+        return sharedWordList;
+    }
+
+    /**
+     * Gets the lexicon that games, move generators and word finders look words up in. It is
+     * the {@link OffHeapLexicon#shared() off-heap trie} unless {@code -Dscrabble.lexicon.format=louds}
+     * asks for the smaller and slower {@link LoudsLexicon}, built from the word list on first use.
+     *
+     * @return the shared lexicon
+     */
+    static synchronized Lexicon sharedLexicon() {
+        if (sharedLexicon == null) {
+            if ("louds".equals(System.getProperty("scrabble.lexicon.format"))) {
+                sharedLexicon = LoudsLexicon.of(loadWordList(WORDLIST_PATH));
+            } else {
+                sharedLexicon = OffHeapLexicon.shared();
+            }
+        }
+        return sharedLexicon;
+    }
+
+    /**
+     * Loads a word list from a file. Words are stored in upper case, like the tiles, so that
+     * words read off the board can be looked up without being converted.
      *
      * @param fileName the name of the file to load
      * @return a set of words loaded from the file
      */
-    private Set<String> loadWordList(String fileName) {
+    static Set<String> loadWordList(String fileName) {
         Set<String> words = new HashSet<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                words.add(line.trim().toLowerCase());
+                words.add(line.trim().toUpperCase(Locale.ROOT));
             }
         } catch (IOException e) {
             System.err.println("Error loading dictionary: " + e.getMessage());
@@ -348,7 +312,7 @@ public class Model implements Serializable {
      */
     public void addAiPlayers(int numAiPlayers) {
         for (int i = 0; i < numAiPlayers; i++) {
-            AiPlayer aiPlayer = new AiPlayer("AI " + (i + 1), getWordList(), this);
+            AiPlayer aiPlayer = new AiPlayer("AI " + (i + 1), this);
             aiPlayer.replenishTiles(tileBag);
             players.add(aiPlayer);
 
@@ -356,7 +320,8 @@ public class Model implements Serializable {
     }
 
     /**
-     * Places a tile on the board at the specified position.
+     * Places a tile on the board at the specified position. To play a blank, pass the letter
+     * it stands for in lower case.
      *
      * @param tile the tile to place
      * @param row  the row to place the tile
@@ -364,9 +329,27 @@ public class Model implements Serializable {
      * @return true if the tile was placed, false otherwise
      */
     public boolean placeTile(char tile, int row, int col) {
+        long start = System.nanoTime();
+        try {
+            return placeTileUntimed(tile, row, col);
+        } finally {
+            recordLatency(LatencyMetrics.Operation.PLACE_TILE, start);
+        }
+    }
 
-        // check if the player has the tile
-        if (!(getCurrentPlayer().hasTile(tile))) {
+    /**
+     * Places a tile on the board; the body of {@link #placeTile(char, int, int)}.
+     *
+     * @param tile the tile to place
+     * @param row  the row to place the tile
+     * @param col  the column to place the tile
+     * @return true if the tile was placed, false otherwise
+     */
+    private boolean placeTileUntimed(char tile, int row, int col) {
+
+        // check if the player has the tile; a blank is placed as the lower case letter it stands for
+        char rackTile = TileBag.rackTile(tile);
+        if (tile == TileBag.BLANK || !(getCurrentPlayer().hasTile(rackTile))) {
             return false;
         }
 
@@ -380,11 +363,12 @@ public class Model implements Serializable {
             return false;
         }
 
-        board[row][col] = tile;
-        getCurrentPlayer().history.add(new Position(row, col));
-        currentTurnPlacements.put(new Position(row, col), tile);
-        getCurrentPlayer().removeTile(tile);
-        notifyObservers("tilePlaced");
+        Position position = new Position(row, col);
+        setCell(row, col, tile);
+        getCurrentPlayer().history.add(position);
+        currentTurnPlacements.put(position, tile);
+        getCurrentPlayer().removeTile(rackTile);
+        notifyObservers(ModelEvent.of("tilePlaced", currentPlayerIndex, List.of(position), List.of(), List.of(tile)));
         return true;
     }
 
@@ -403,22 +387,47 @@ public class Model implements Serializable {
      * @return true if the word placements are valid, false otherwise
      */
     public boolean submitWord() {
-        if (!isFirstTurn && !hasAdjacentTiles()) {
-            restorePlayerTiles(); // Undo invalid move
-            notifyObservers("noAdjacentTiles");
-            System.out.println("No adjacent tiles");
-            return false;
+        long start = System.nanoTime();
+        SubmitWordEvent event = new SubmitWordEvent();
+        event.begin();
+        int tilesPlaced = currentTurnPlacements.size();
+        try {
+            return submitWordUntimed(event);
+        } finally {
+            recordLatency(LatencyMetrics.Operation.SUBMIT_WORD, start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setGame(this);
+                event.words = String.join(",", event.wordList);
+                event.tilesPlaced = tilesPlaced;
+                if (simulations.isEmpty()) {
+                    event.commit();
+                } else {
+                    simulationSubmits.add(event); // committed when the simulation ends
+                }
+            }
         }
+    }
 
-
-        List<String> newWords = getAllNewWords();
-        //System.out.println(newWords);
-        if (newWords.isEmpty()) {
-            //revertPlacements();  // should this be here? adding it
-            restorePlayerTiles();
-            notifyObservers("noWordFound");
-            System.out.println("No words found");
-            return false; // No tiles placed
+    /**
+     * Submits the current word placements; the body of {@link #submitWord()}.
+     *
+     * @param event the flight recorder event describing the submission
+     * @return true if the word placements are valid, false otherwise
+     */
+    private boolean submitWordUntimed(SubmitWordEvent event) {
+        // the rules of placement are checked first, so an illegal play costs no lookups
+        Placement placement = checkPlacement();
+        List<String> newWords = placement.getWords();
+        event.wordList = newWords;
+        if (!placement.isLegal()) {
+            restorePlayerTiles(); // Undo invalid move
+            event.outcome = placement.getProblem();
+            notifyObservers(placement.getProblem());
+            if (DEBUG) {
+                System.out.println("Illegal placement: " + placement.getProblem());
+            }
+            return false;
         }
 
         // Validate all new words
@@ -426,134 +435,57 @@ public class Model implements Serializable {
             if (!validateWord(word)) {
                 //revertPlacements();  // should this be here? adding it
                 restorePlayerTiles();
+                event.outcome = "invalidWord";
                 notifyObservers("invalidWord");
-                System.out.println("Invalid word: " + word);
+                if (DEBUG) {
+                    System.out.println("Invalid word: " + word);
+                }
                 return false; // At least one word is invalid
             }
         }
-
-        // Check if this was the first turn and validate center coverage
-        if (isFirstTurn) {
-            if (!coversCenter()) {
-                // Invalid first move; revert placements
-
-                //revertPlacements();
-                restorePlayerTiles();
-                clearPlacements();
-                notifyObservers("centerNotCovered");
-                System.out.println("Center not covered");
-
-                return false;
-            }
-            isFirstTurn = false; // First turn completed
-        }
+        isFirstTurn = false; // First turn completed
 
         // All words are valid, calculate total score
         int totalScore = calculateTotalScore(newWords);
 
 
         getCurrentPlayer().addScore(totalScore);
+        event.valid = true;
+        event.outcome = "wordSubmitted";
+        event.score = totalScore;
+
+        List<Character> rack = getCurrentPlayer().getTiles();
+        moveLog.add(MoveRecord.play(turnNumber, currentPlayerIndex, currentTurnPlacements, totalScore, rack));
 
         // After validation, replenish player's tiles
+        int rackSizeBefore = rack.size();
         getCurrentPlayer().replenishTiles(tileBag);
-
+        List<Character> drawn = new ArrayList<>(rack.subList(rackSizeBefore, rack.size()));
 
         // Clear current turn placements
         clearPlacements();
-        notifyObservers("wordSubmitted");
+        notifyObservers(ModelEvent.scored("wordSubmitted", currentPlayerIndex, drawn, totalScore));
         return true;
     }
 
 
     /**
-     * Checks if there are adjacent tiles to the current turn's placements.
+     * Gets all new words formed by the current turn's placements: the main word along the line
+     * of the play first, then the cross-words.
      *
-     * @return true if there are adjacent tiles, false otherwise
-     */
-    private boolean hasAdjacentTiles() {
-        for (Position pos : currentTurnPlacements.keySet()) {
-            int row = pos.row;
-            int col = pos.col;
-
-            if (isValidPosition(row - 1, col) && board[row - 1][col] != '\0' && !currentTurnPlacements.containsKey(new Position(row - 1, col))) {
-                return true;
-            }
-
-            if (isValidPosition(row + 1, col) && board[row + 1][col] != '\0' && !currentTurnPlacements.containsKey(new Position(row + 1, col))) {
-                return true;
-            }
-
-            if (isValidPosition(row, col - 1) && board[row][col - 1] != '\0' && !currentTurnPlacements.containsKey(new Position(row, col - 1))) {
-                return true;
-            }
-
-            if (isValidPosition(row, col + 1) && board[row][col + 1] != '\0' && !currentTurnPlacements.containsKey(new Position(row, col + 1))) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-
-    /**
-     * Gets all new words formed by the current turn's placements.
-     *
-     * @return a list of new words
+     * @return a list of new words, empty if the placements are not a legal play
      */
     public List<String> getAllNewWords() {
-        List<String> newWords = new ArrayList<>();
-        Set<String> uniqueWords = new HashSet<>();
-
-        for (Position pos : currentTurnPlacements.keySet()) {
-            // Check horizontal word
-            String horizontalWord = getWordAtPosition(pos.row, pos.col, true);
-            if (horizontalWord.length() > 1 && !uniqueWords.contains(horizontalWord)) {
-                newWords.add(horizontalWord);
-                uniqueWords.add(horizontalWord);
-            }
-
-            // Check vertical word
-            String verticalWord = getWordAtPosition(pos.row, pos.col, false);
-            if (verticalWord.length() > 1 && !uniqueWords.contains(verticalWord)) {
-                newWords.add(verticalWord);
-                uniqueWords.add(verticalWord);
-            }
-        }
-
-        return newWords;
+        return checkPlacement().getWords();
     }
 
     /**
-     * Gets the word at the specified position in the given direction.
+     * Checks the rules of placement for the current turn's placements, without the dictionary.
      *
-     * @param row          the row of the starting position
-     * @param col          the column of the starting position
-     * @param isHorizontal true if the word is horizontal, false if it is vertical
-     * @return the word at the specified position
+     * @return the outcome, with the words the placements make if they are a legal play
      */
-    private String getWordAtPosition(int row, int col, boolean isHorizontal) {
-        StringBuilder word = new StringBuilder();
-        int deltaRow = isHorizontal ? 0 : -1;
-        int deltaCol = isHorizontal ? -1 : 0;
-
-        // Move to the start of the word
-        int currentRow = row;
-        int currentCol = col;
-        while (isValidPosition(currentRow + deltaRow, currentCol + deltaCol) && board[currentRow + deltaRow][currentCol + deltaCol] != '\0') {
-            currentRow += deltaRow;
-            currentCol += deltaCol;
-        }
-
-        // Move forward and build the word
-        deltaRow = isHorizontal ? 0 : 1;
-        deltaCol = isHorizontal ? 1 : 0;
-        while (isValidPosition(currentRow, currentCol) && board[currentRow][currentCol] != '\0') {
-            word.append(board[currentRow][currentCol]);
-            currentRow += deltaRow;
-            currentCol += deltaCol;
-        }
-
-        return word.toString();
+    Placement checkPlacement() {
+        return Placement.check(board, boardIndex, currentTurnPlacements.keySet(), isFirstTurn);
     }
 
     /**
@@ -563,7 +495,11 @@ public class Model implements Serializable {
      * @return true if the word is valid, false otherwise
      */
     public boolean validateWord(String word) {
-        return wordlist.contains(word.toLowerCase());
+        long start = System.nanoTime();
+        // toUpperCase returns the same string when it is already upper case, as board words are
+        boolean valid = wordlist.contains(word.toUpperCase(Locale.ROOT));
+        recordLatency(LatencyMetrics.Operation.VALIDATE_WORD, start);
+        return valid;
     }
 
     /**
@@ -571,7 +507,7 @@ public class Model implements Serializable {
      *
      * @return the word list
      */
-    private Set<String> getWordList() {
+    Set<String> getWordList() {
         return wordlist;
     }
 
@@ -582,63 +518,67 @@ public class Model implements Serializable {
      * @return the total score
      */
     public int calculateTotalScore(List<String> words) {
-        int total = 0;
+        long start = System.nanoTime();
+        int total = scoreWords(words);
+        recordLatency(LatencyMetrics.Operation.SCORE, start);
+        return total;
+    }
 
-        if (words == null || words.isEmpty()) {
-            return total; // No words formed
+    /**
+     * Records the latency of an operation. Inside a simulation the latency is held back and
+     * recorded only if the outermost simulation commits, so probes that are rolled back leave
+     * the histograms alone while moves that are kept, like an AI player's, are counted.
+     *
+     * @param operation the operation that finished
+     * @param start     the {@link System#nanoTime()} reading taken when it started
+     */
+    private void recordLatency(LatencyMetrics.Operation operation, long start) {
+        if (simulations.isEmpty()) {
+            LatencyMetrics.record(operation, start);
+        } else {
+            simulationLatencies.add(operation, System.nanoTime() - start);
         }
+    }
 
-        Set<Position> processedPositions = new HashSet<>(); // Track tiles already processed
-
-        for (String word : words) {
-            int wordScore = 0;
-            int wordMultiplier = 1;
-
-            for (Position pos : currentTurnPlacements.keySet()) {
-                if (processedPositions.contains(pos)) {
-                    continue; // Skip already processed positions
-                }
-
-                char tile = currentTurnPlacements.get(pos);
-                int letterScore = getTileScore(tile);
-                int originalLetterScore = letterScore; // Save the original score for comparison
-
-                // Apply premium letter scores
-                String premiumEffect = "None";
-                if (DOUBLE_LETTER_SCORE.contains(pos)) {
-                    letterScore *= 2; // Double Letter Score
-                    premiumEffect = "Double Letter Score (2×LS)";
-                } else if (TRIPLE_LETTER_SCORE.contains(pos)) {
-                    letterScore *= 3; // Triple Letter Score
-                    premiumEffect = "Triple Letter Score (3×LS)";
-                }
-
-                // Print individual tile details
-                System.out.printf("Tile: %c, Position: (%d, %d), Base Score: %d, Premium: %s, Final Letter Score: %d%n", tile, pos.row, pos.col, originalLetterScore, premiumEffect, letterScore);
-
-                wordScore += letterScore; // Add letter score to the word's total score
-
-                // Apply premium word multipliers
-                if (DOUBLE_WORD_SCORE.contains(pos)) {
-                    wordMultiplier *= 2; // Double Word Score
-                    System.out.printf("Tile: %c at (%d, %d) contributes to Double Word Score (2×WS)%n", tile, pos.row, pos.col);
-                } else if (TRIPLE_WORD_SCORE.contains(pos)) {
-                    wordMultiplier *= 3; // Triple Word Score
-                    System.out.printf("Tile: %c at (%d, %d) contributes to Triple Word Score (3×WS)%n", tile, pos.row, pos.col);
-                }
+    /**
+     * Scores a list of words; the body of {@link #calculateTotalScore(List)}.
+     *
+     * @param words the list of words to calculate the score for
+     * @return the total score
+     */
+    private int scoreWords(List<String> words) {
+        if (words == null || words.isEmpty()) {
+            return 0; // No words formed
+        }
 
-                // Mark this position as processed
-                processedPositions.add(pos);
+        // Only the tiles placed this turn score, and each of them only once, so all of them
+        // are credited to the first word; later words add nothing.
+        // Premiums are read from the grid, so scoring allocates nothing.
+        int wordScore = 0;
+        int wordMultiplier = 1;
+        for (Map.Entry<Position, Character> placement : currentTurnPlacements.entrySet()) {
+            Position pos = placement.getKey();
+            char tile = placement.getValue();
+            int letterMultiplier = premiumGrid.letterMultiplier(pos.row, pos.col);
+            int letterScore = getTileScore(tile) * letterMultiplier;
+            wordScore += letterScore; // Add letter score to the word's total score
+            wordMultiplier *= premiumGrid.wordMultiplier(pos.row, pos.col);
+
+            // Print individual tile details
+            if (DEBUG) {
+                System.out.printf("Tile: %c, Position: (%d, %d), Letter Multiplier: %d, Word Multiplier: %d, Final Letter Score: %d%n",
+                        tile, pos.row, pos.col, letterMultiplier, premiumGrid.wordMultiplier(pos.row, pos.col), letterScore);
             }
+        }
 
-            // Print word-specific details
-            System.out.printf("Word: %s, Word Score Before Multiplier: %d, Word Multiplier: %d, Final Word Score: %d%n", word, wordScore, wordMultiplier, wordScore * wordMultiplier);
-
-            // Apply the word multiplier to the word's total score
-            total += wordScore * wordMultiplier;
+        // Print word-specific details
+        if (DEBUG) {
+            System.out.printf("Word: %s, Word Score Before Multiplier: %d, Word Multiplier: %d, Final Word Score: %d%n",
+                    words.get(0), wordScore, wordMultiplier, wordScore * wordMultiplier);
         }
 
-        return total;
+        // Apply the word multiplier to the word's total score
+        return wordScore * wordMultiplier;
     }
 
     /**
@@ -658,13 +598,17 @@ public class Model implements Serializable {
     }
 
     /**
-     * Gets the score for a tile based on Scrabble letter values.
+     * Gets the score for a tile based on Scrabble letter values. Blanks, written in lower case,
+     * score nothing.
      *
      * @param tile the tile to get the score for
      * @return the score for the tile
      */
-    private int getTileScore(char tile) {
-        switch (Character.toUpperCase(tile)) {
+    static int getTileScore(char tile) {
+        if (TileBag.isBlank(tile)) {
+            return 0;
+        }
+        switch (tile) {
             case 'A':
             case 'E':
             case 'I':
@@ -726,21 +670,11 @@ public class Model implements Serializable {
      */
     private void revertPlacements() {
         for (Position pos : currentTurnPlacements.keySet()) {
-            board[pos.row][pos.col] = '\0';
+            setCell(pos.row, pos.col, '\0');
         }
         clearPlacements();
     }
 
-    /**
-     * Checks if the first word covers the center of the board.
-     *
-     * @return true if the center is covered, false otherwise
-     */
-    private boolean coversCenter() {
-        int center = boardSize / 2;
-        return board[center][center] != '\0';
-    }
-
     /**
      * Gets the current game board state.
      *
@@ -759,6 +693,34 @@ public class Model implements Serializable {
         return players.get(currentPlayerIndex);
     }
 
+    /**
+     * Gets the index of the current player in the player list.
+     *
+     * @return the current player's index
+     */
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    /**
+     * Gets the identifier of this game, unique within the process. Diagnostics such as flight
+     * recorder events carry it so activity from concurrent games can be told apart.
+     *
+     * @return the game id
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Gets the number of the current turn, starting at 1 and counting every player's turn.
+     *
+     * @return the turn number
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
     /**
      * Moves to the next player's turn.
      */
@@ -768,12 +730,62 @@ public class Model implements Serializable {
             return;
         }
 
+        if (moveLog.isEmpty() || moveLog.getLast().getTurn() != turnNumber) {
+            List<Character> rack = new ArrayList<>(getCurrentPlayer().getTiles());
+            rack.addAll(currentTurnPlacements.values());
+            moveLog.add(MoveRecord.pass(turnNumber, currentPlayerIndex, rack)); // the turn ends without a word
+        }
         currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        turnNumber++;
         getCurrentPlayer().undoHistory.clear();
         getCurrentPlayer().history.clear();
         notifyObservers("nextTurn");
     }
 
+    /**
+     * Gets the moves made so far, one record per ended turn, in order.
+     *
+     * @return the move log, which cannot be modified
+     */
+    public List<MoveRecord> getMoveLog() {
+        return Collections.unmodifiableList(moveLog);
+    }
+
+    /**
+     * Replays a move recorded by another model created with the same seed and players, and
+     * ends the turn. Nothing changes if the move is not legal here or scores differently,
+     * which means the two games have diverged.
+     *
+     * @param move the move to apply
+     * @return true if the move was applied
+     */
+    public boolean applyMove(MoveRecord move) {
+        if (move.getPlayerIndex() != currentPlayerIndex || !currentTurnPlacements.isEmpty()) {
+            return false;
+        }
+        if (move.isPass()) {
+            if (isFirstTurn) {
+                return false;
+            }
+            nextTurn();
+            return true;
+        }
+        try (Simulation simulation = simulate()) {
+            int scoreBefore = getCurrentPlayer().getScore();
+            for (int i = 0; i < move.getTileCount(); i++) {
+                if (!placeTile(move.getLetter(i), move.getRow(i), move.getCol(i))) {
+                    return false;
+                }
+            }
+            if (!submitWord() || getCurrentPlayer().getScore() - scoreBefore != move.getScore()) {
+                return false;
+            }
+            nextTurn();
+            simulation.commit();
+            return true;
+        }
+    }
+
     /**
      * Checks if the game is over.
      *
@@ -807,11 +819,414 @@ public class Model implements Serializable {
     }
 
     /**
-     * Notifies all observers that the model has changed.
+     * Removes an observer from the model.
+     *
+     * @param observer the observer to remove
+     */
+    public void removeObserver(ModelObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Notifies all observers of a change that carries no cell, rack or score details.
+     *
+     * @param eventType the type of the change
      */
     private void notifyObservers(String eventType) {
+        notifyObservers(ModelEvent.of(eventType, currentPlayerIndex));
+    }
+
+    /**
+     * Notifies all observers that the model has changed.
+     * Inside a batch the event is held back and merged into the batch's composite event.
+     *
+     * @param event the event describing the change
+     */
+    private void notifyObservers(ModelEvent event) {
+        if (!simulations.isEmpty()) {
+            simulationEvents.add(event);
+            return;
+        }
+        if (batchDepth > 0) {
+            pendingEvents.add(event);
+            return;
+        }
         for (ModelObserver observer : observers) {
-            observer.update(eventType, this);
+            observer.modelChanged(event, this);
+        }
+    }
+
+    /**
+     * Opens a batch. Every event raised until the batch is closed is collapsed into a single
+     * composite notification, sent when the outermost open batch closes. Batches nest.
+     * <pre>
+     * Model.Batch batch = model.batch();
+     * try {
+     *     ai.play();
+     *     model.nextTurn();
+     * } finally {
+     *     batch.close();
+     * }
+     * </pre>
+     *
+     * @return the batch, to be closed when the grouped changes are done
+     */
+    public Batch batch() {
+        batchDepth++;
+        return new Batch();
+    }
+
+    /**
+     * Closes one level of batching and sends the collected events once the outermost batch ends.
+     */
+    private void endBatch() {
+        if (--batchDepth > 0 || pendingEvents.isEmpty()) {
+            return;
+        }
+        List<ModelEvent> events = pendingEvents;
+        pendingEvents = new ArrayList<>();
+        notifyObservers(events.size() == 1 ? events.getFirst() : ModelEvent.composite(events));
+    }
+
+    /**
+     * A scope in which model events are collected instead of sent; see {@link #batch()}.
+     */
+    public final class Batch implements AutoCloseable {
+        private boolean closed;
+
+        private Batch() {
+        }
+
+        /**
+         * Ends the batch. Closing a batch more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                endBatch();
+            }
+        }
+    }
+
+    /**
+     * Writes a board cell, remembering the previous letter while a simulation is open.
+     *
+     * @param row  the row of the cell
+     * @param col  the column of the cell
+     * @param tile the letter to write, or '\0' to clear the cell
+     */
+    private void setCell(int row, int col, char tile) {
+        if (!simulations.isEmpty()) {
+            boardLog.record(row, col, board[row][col]);
+        }
+        boardHash ^= cellHash(row, col, board[row][col]) ^ cellHash(row, col, tile);
+        boardIndex.set(row, col, tile != '\0');
+        board[row][col] = tile;
+    }
+
+    /**
+     * Gets a hash of the tiles on the board, placed this turn or before. It is kept up to date
+     * as tiles are placed, removed, undone and redone, so equal boards have equal hashes
+     * whatever order their tiles were laid in.
+     *
+     * @return the hash, 0 for an empty board
+     */
+    public long getBoardHash() {
+        return boardHash;
+    }
+
+    /**
+     * Gets the smallest rectangle holding every tile on the board, placed this turn or before.
+     *
+     * @return the first row, first column, last row and last column, or null if the board is empty
+     */
+    public int[] getTileBounds() {
+        if (boardIndex.getTileCount() == 0) {
+            return null;
+        }
+        return new int[]{boardIndex.getFirst(true), boardIndex.getFirst(false), boardIndex.getLast(true), boardIndex.getLast(false)};
+    }
+
+    /**
+     * Lists every cell with a tile on it, row by row. Only the rows between the first and last
+     * tile are visited, and only the runs of tiles in each, so the cost follows the tiles played
+     * rather than the size of the board.
+     *
+     * @return the occupied cells
+     */
+    public List<Position> getOccupiedCells() {
+        List<Position> cells = new ArrayList<>(boardIndex.getTileCount());
+        for (int row = boardIndex.getFirst(true); row <= boardIndex.getLast(true); row++) {
+            int[] runs = boardIndex.getIntervals(true, row);
+            for (int i = 0; i < runs.length; i += 2) {
+                for (int col = runs[i]; col <= runs[i + 1]; col++) {
+                    cells.add(new Position(row, col));
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Gets the index of which cells hold a tile, kept in step with the board.
+     *
+     * @return the board index
+     */
+    BoardIndex getBoardIndex() {
+        return boardIndex;
+    }
+
+    /**
+     * Gets the part a tile on a cell contributes to the board hash: a random-looking value
+     * for each cell and letter (Zobrist hashing), mixed from the three rather than kept in a
+     * table so that boards of any size need no memory for it.
+     */
+    private static long cellHash(int row, int col, char tile) {
+        if (tile == '\0') {
+            return 0;
+        }
+        long z = ((long) row << 40 | (long) col << 20 | tile) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Opens a simulation. Until it is closed, every change to the board, racks, scores and
+     * tile bag is tentative and no observer is notified. Closing a simulation that was not
+     * committed silently restores the state it started from. Committing keeps the changes and,
+     * once the outermost simulation is committed, sends everything that happened as a single
+     * event. Simulations nest and must be closed in reverse order of opening.
+     * <pre>
+     * try (Model.Simulation simulation = model.simulate()) {
+     *     if (tryMove() &amp;&amp; model.submitWord()) {
+     *         simulation.commit();
+     *     }
+     * }
+     * </pre>
+     *
+     * @return the simulation, to be closed when probing is done
+     */
+    public Simulation simulate() {
+        SimulationFrame frame = new SimulationFrame();
+        simulations.push(frame);
+        return new Simulation(frame);
+    }
+
+    /**
+     * Checks whether a simulation is open.
+     *
+     * @return true while changes are tentative
+     */
+    public boolean isSimulating() {
+        return !simulations.isEmpty();
+    }
+
+    /**
+     * Ends the innermost simulation, keeping or discarding its changes.
+     *
+     * @param frame  the state saved when the simulation was opened
+     * @param commit true to keep the changes, false to restore the saved state
+     */
+    private void endSimulation(SimulationFrame frame, boolean commit) {
+        if (simulations.peek() != frame) {
+            throw new IllegalStateException("Simulations must be closed in reverse order of opening");
+        }
+        simulations.pop();
+        if (!commit) {
+            frame.restore();
+        }
+        if (!simulations.isEmpty()) {
+            return; // an enclosing simulation decides what finally happens
+        }
+
+        boardLog.clear();
+        simulationLatencies.recordAll();
+        for (SubmitWordEvent event : simulationSubmits) {
+            event.commit();
+        }
+        simulationSubmits.clear();
+        if (simulationEvents.isEmpty()) {
+            return;
+        }
+        List<ModelEvent> events = simulationEvents;
+        simulationEvents = new ArrayList<>();
+        notifyObservers(events.size() == 1 ? events.getFirst() : ModelEvent.composite(events));
+    }
+
+    /**
+     * A scope in which model changes are tentative; see {@link #simulate()}.
+     */
+    public final class Simulation implements AutoCloseable {
+        private final SimulationFrame frame;
+        private boolean closed;
+
+        private Simulation(SimulationFrame frame) {
+            this.frame = frame;
+        }
+
+        /**
+         * Keeps the changes made during the simulation and ends it.
+         */
+        public void commit() {
+            if (!closed) {
+                closed = true;
+                endSimulation(frame, true);
+            }
+        }
+
+        /**
+         * Discards the changes made during the simulation, unless it was committed, and ends it.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                endSimulation(frame, false);
+            }
+        }
+    }
+
+    /**
+     * The state a simulation restores when it is rolled back. Board cells are restored from
+     * the board log; everything else is small enough to copy.
+     */
+    private final class SimulationFrame {
+        private final int boardLogMark = boardLog.size();
+        private final int eventMark = simulationEvents.size();
+        private final int latencyMark = simulationLatencies.size();
+        private final int submitMark = simulationSubmits.size();
+        private final int playerIndex = currentPlayerIndex;
+        private final int turn = turnNumber;
+        private final int moveLogMark = moveLog.size();
+        private final boolean firstTurn = isFirstTurn;
+        private final Map<Position, Character> placements = new HashMap<>(currentTurnPlacements);
+        private final List<Character> bag = tileBag.snapshot();
+        private final int[] scores = new int[players.size()];
+        private final List<List<Character>> racks = new ArrayList<>(players.size());
+        private final List<List<Position>> histories = new ArrayList<>(players.size());
+        private final List<List<Position>> undoHistories = new ArrayList<>(players.size());
+
+        private SimulationFrame() {
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                scores[i] = player.getScore();
+                racks.add(new ArrayList<>(player.tiles));
+                histories.add(new ArrayList<>(player.history));
+                undoHistories.add(new ArrayList<>(player.undoHistory));
+            }
+        }
+
+        private void restore() {
+            boardHash ^= boardLog.undoTo(boardLogMark, board, boardIndex);
+            simulationEvents.subList(eventMark, simulationEvents.size()).clear();
+            simulationLatencies.truncate(latencyMark);
+            List<SubmitWordEvent> probes = simulationSubmits.subList(submitMark, simulationSubmits.size());
+            for (SubmitWordEvent event : probes) {
+                event.simulated = true;
+                event.commit();
+            }
+            probes.clear();
+            currentPlayerIndex = playerIndex;
+            turnNumber = turn;
+            moveLog.subList(moveLogMark, moveLog.size()).clear();
+            isFirstTurn = firstTurn;
+            currentTurnPlacements.clear();
+            currentTurnPlacements.putAll(placements);
+            tileBag.restore(bag);
+            for (int i = 0; i < scores.length; i++) {
+                Player player = players.get(i);
+                player.addScore(scores[i] - player.getScore());
+                player.tiles.clear();
+                player.tiles.addAll(racks.get(i));
+                player.history.clear();
+                player.history.addAll(histories.get(i));
+                player.undoHistory.clear();
+                player.undoHistory.addAll(undoHistories.get(i));
+            }
+        }
+    }
+
+    /**
+     * Holds the latencies measured during a simulation until the outermost one ends; like the
+     * board log it grows an array, so holding them allocates nothing once warmed up.
+     */
+    private static final class LatencyLog {
+        private LatencyMetrics.Operation[] operations = new LatencyMetrics.Operation[16];
+        private long[] nanos = new long[16];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private void add(LatencyMetrics.Operation operation, long elapsed) {
+            if (size == nanos.length) {
+                operations = Arrays.copyOf(operations, size * 2);
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            operations[size] = operation;
+            nanos[size] = elapsed;
+            size++;
+        }
+
+        private void truncate(int mark) {
+            size = Math.min(size, mark);
+        }
+
+        private void recordAll() {
+            for (int i = 0; i < size; i++) {
+                LatencyMetrics.get(operations[i]).record(nanos[i]);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Records the previous letter of every board cell written during a simulation, so the
+     * board can be restored without copying it.
+     */
+    private static final class BoardLog {
+        private int[] cells = new int[64];
+        private char[] previous = new char[64];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private void record(int row, int col, char old) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+                previous = Arrays.copyOf(previous, size * 2);
+            }
+            // row and col are packed into one int; boards are far smaller than 65536 squares a side
+            cells[size] = (row << 16) | col;
+            previous[size] = old;
+            size++;
+        }
+
+        /**
+         * Puts back the letters recorded since a mark, and their occupancy in the index.
+         *
+         * @return the change to the board hash
+         */
+        private long undoTo(int mark, char[][] board, BoardIndex index) {
+            long change = 0;
+            while (size > mark) {
+                size--;
+                int row = cells[size] >>> 16;
+                int col = cells[size] & 0xFFFF;
+                change ^= cellHash(row, col, board[row][col]) ^ cellHash(row, col, previous[size]);
+                board[row][col] = previous[size];
+                index.set(row, col, previous[size] != '\0');
+            }
+            return change;
+        }
+
+        private void clear() {
+            size = 0;
         }
     }
 
@@ -820,13 +1235,16 @@ public class Model implements Serializable {
      */
     public void restorePlayerTiles() {
         Player currentPlayer = getCurrentPlayer();
-        for (Position pos : currentTurnPlacements.keySet()) {
-            char tile = board[pos.row][pos.col];
+        List<Position> cells = new ArrayList<>(currentTurnPlacements.keySet());
+        List<Character> restored = new ArrayList<>(cells.size());
+        for (Position pos : cells) {
+            char tile = TileBag.rackTile(board[pos.row][pos.col]);
             currentPlayer.addTile(tile);
-            board[pos.row][pos.col] = '\0'; // Remove the tile from the board
+            restored.add(tile);
+            setCell(pos.row, pos.col, '\0'); // Remove the tile from the board
         }
         clearPlacements();
-        notifyObservers("resetTiles");
+        notifyObservers(ModelEvent.of("resetTiles", currentPlayerIndex, cells, restored, List.of()));
     }
 
     /**
@@ -852,37 +1270,46 @@ public class Model implements Serializable {
     /**
      * Gets the triple word score positions.
      *
-     * @return the triple word score positions
+     * @return the triple word score positions, a read-only view of the premium grid
      */
     public Set<Position> getTripleWordScore() {
-        return TRIPLE_WORD_SCORE;
+        return premiumGrid.positionsOf(PremiumGrid.TRIPLE_WORD);
     }
 
     /**
      * Gets the double word score positions.
      *
-     * @return the double word score positions
+     * @return the double word score positions, a read-only view of the premium grid
      */
     public Set<Position> getDoubleWordScore() {
-        return DOUBLE_WORD_SCORE;
+        return premiumGrid.positionsOf(PremiumGrid.DOUBLE_WORD);
     }
 
     /**
      * Gets the triple letter score positions.
      *
-     * @return the triple letter score positions
+     * @return the triple letter score positions, a read-only view of the premium grid
      */
     public Set<Position> getTripleLetterScore() {
-        return TRIPLE_LETTER_SCORE;
+        return premiumGrid.positionsOf(PremiumGrid.TRIPLE_LETTER);
     }
 
     /**
      * Gets the double letter score positions.
      *
-     * @return the double letter score positions
+     * @return the double letter score positions, a read-only view of the premium grid
      */
     public Set<Position> getDoubleLetterScore() {
-        return DOUBLE_LETTER_SCORE;
+        return premiumGrid.positionsOf(PremiumGrid.DOUBLE_LETTER);
+    }
+
+    /**
+     * Gets the premium grid of the board.
+     *
+     * @return the premium grid
+     */
+    public PremiumGrid getPremiumGrid() {
+        return premiumGrid;
     }
 
     /**
@@ -955,8 +1382,8 @@ public class Model implements Serializable {
      * @param col
      */
     public void removeTileFromBoard(int row, int col) {
-        board[row][col] = '\0';
-        notifyObservers("board");
+        setCell(row, col, '\0');
+        notifyObservers(ModelEvent.of("board", currentPlayerIndex, List.of(new Position(row, col)), List.of(), List.of()));
     }
 
     /**
@@ -967,9 +1394,10 @@ public class Model implements Serializable {
      * @param col
      */
     public void addTileToBoard(Character tile, int row, int col) {
-        board[row][col] = tile;
-        currentTurnPlacements.put(new Position(row, col), tile);
-        notifyObservers("board");
+        Position position = new Position(row, col);
+        setCell(row, col, tile);
+        currentTurnPlacements.put(position, tile);
+        notifyObservers(ModelEvent.of("board", currentPlayerIndex, List.of(position), List.of(), List.of()));
     }
 
 }
\ No newline at end of file
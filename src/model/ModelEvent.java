@@ -0,0 +1,186 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes one change to the model: what kind of change it was and exactly which
+ * board cells, rack tiles and score it touched.
+ * A composite event collapses every event raised inside a {@link Model.Batch} into a
+ * single notification, with the changed cells, rack tiles and score deltas merged.
+ */
+public final class ModelEvent {
+    /**
+     * The type of a composite event.
+     */
+    public static final String BATCH = "batch";
+
+    private final String type;
+    private final int playerIndex;
+    private final List<Position> cells;
+    private final List<Character> rackAdded;
+    private final List<Character> rackRemoved;
+    private final int scoreDelta;
+    private final List<ModelEvent> events;
+
+    private ModelEvent(String type, int playerIndex, List<Position> cells, List<Character> rackAdded,
+                       List<Character> rackRemoved, int scoreDelta, List<ModelEvent> events) {
+        this.type = type;
+        this.playerIndex = playerIndex;
+        this.cells = cells;
+        this.rackAdded = rackAdded;
+        this.rackRemoved = rackRemoved;
+        this.scoreDelta = scoreDelta;
+        this.events = events;
+    }
+
+    /**
+     * Creates an event that carries no cell, rack or score changes.
+     *
+     * @param type        the event type, one of the message names observers already understand
+     * @param playerIndex the index of the player the event concerns
+     * @return the event
+     */
+    public static ModelEvent of(String type, int playerIndex) {
+        return new ModelEvent(type, playerIndex, List.of(), List.of(), List.of(), 0, null);
+    }
+
+    /**
+     * Creates an event for a change to the board and, optionally, the player's rack.
+     *
+     * @param type        the event type
+     * @param playerIndex the index of the player whose rack changed
+     * @param cells       the board cells that changed
+     * @param rackAdded   the tiles added to the player's rack
+     * @param rackRemoved the tiles removed from the player's rack
+     * @return the event
+     */
+    public static ModelEvent of(String type, int playerIndex, List<Position> cells,
+                                List<Character> rackAdded, List<Character> rackRemoved) {
+        return new ModelEvent(type, playerIndex, List.copyOf(cells), List.copyOf(rackAdded), List.copyOf(rackRemoved), 0, null);
+    }
+
+    /**
+     * Creates an event for an accepted word.
+     *
+     * @param type        the event type
+     * @param playerIndex the index of the player who scored
+     * @param rackAdded   the tiles drawn to replenish the rack
+     * @param scoreDelta  the points added to the player's score
+     * @return the event
+     */
+    public static ModelEvent scored(String type, int playerIndex, List<Character> rackAdded, int scoreDelta) {
+        return new ModelEvent(type, playerIndex, List.of(), List.copyOf(rackAdded), List.of(), scoreDelta, null);
+    }
+
+    /**
+     * Collapses a list of events into one composite event.
+     * Changed cells are de-duplicated, rack changes are concatenated and score deltas summed.
+     *
+     * @param events the events to merge, in the order they were raised
+     * @return the composite event
+     */
+    public static ModelEvent composite(List<ModelEvent> events) {
+        Set<Position> cells = new LinkedHashSet<>();
+        List<Character> added = new ArrayList<>();
+        List<Character> removed = new ArrayList<>();
+        List<ModelEvent> flat = new ArrayList<>();
+        int score = 0;
+        int player = -1;
+        for (ModelEvent event : events) {
+            cells.addAll(event.cells);
+            added.addAll(event.rackAdded);
+            removed.addAll(event.rackRemoved);
+            score += event.scoreDelta;
+            player = event.playerIndex;
+            flat.addAll(event.getEvents());
+        }
+        return new ModelEvent(BATCH, player, List.copyOf(cells), Collections.unmodifiableList(added),
+                Collections.unmodifiableList(removed), score, Collections.unmodifiableList(flat));
+    }
+
+    /**
+     * Gets the event type.
+     *
+     * @return the type, or {@link #BATCH} for a composite event
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the index of the player the event concerns.
+     * For a composite event this is the player of the last merged event.
+     *
+     * @return the player index, or -1 if unknown
+     */
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /**
+     * Gets the board cells that changed.
+     *
+     * @return the changed cells, never null
+     */
+    public List<Position> getCells() {
+        return cells;
+    }
+
+    /**
+     * Gets the tiles added to a rack.
+     *
+     * @return the added tiles, never null
+     */
+    public List<Character> getRackAdded() {
+        return rackAdded;
+    }
+
+    /**
+     * Gets the tiles removed from a rack.
+     *
+     * @return the removed tiles, never null
+     */
+    public List<Character> getRackRemoved() {
+        return rackRemoved;
+    }
+
+    /**
+     * Checks if any rack changed.
+     *
+     * @return true if tiles were added to or removed from a rack
+     */
+    public boolean isRackChanged() {
+        return !rackAdded.isEmpty() || !rackRemoved.isEmpty();
+    }
+
+    /**
+     * Gets the points added to the player's score.
+     *
+     * @return the score delta
+     */
+    public int getScoreDelta() {
+        return scoreDelta;
+    }
+
+    /**
+     * Checks if this event is a composite of several events.
+     *
+     * @return true for a composite event
+     */
+    public boolean isComposite() {
+        return events != null;
+    }
+
+    /**
+     * Gets the individual events this event stands for.
+     *
+     * @return the merged events of a composite, or a list holding just this event
+     */
+    public List<ModelEvent> getEvents() {
+        return events != null ? events : List.of(this);
+    }
+}
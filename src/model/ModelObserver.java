@@ -12,4 +12,19 @@ public interface ModelObserver {
      * @param m       the model
      */
     void update(String message, Model m);
+
+    /**
+     * Handles a typed model event. Composite events raised by a {@link Model.Batch} arrive
+     * here once, carrying everything that changed during the batch.
+     * By default each merged event is forwarded to {@link #update(String, Model)}, so
+     * observers that only understand messages keep working.
+     *
+     * @param event the event describing what changed
+     * @param m     the model
+     */
+    default void modelChanged(ModelEvent event, Model m) {
+        for (ModelEvent e : event.getEvents()) {
+            update(e.getType(), m);
+        }
+    }
 }
\ No newline at end of file
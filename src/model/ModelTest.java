@@ -3,6 +3,15 @@ package model;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -121,6 +130,31 @@ public class ModelTest {
         assertTrue(player1.getTiles().contains('A'));
     }
 
+    @Test
+    public void blankScoresNothing() {
+        Model game = Model.create(15, null, 1);
+        Player player = new Player("Blank");
+        game.addPlayer(player);
+        player.getTiles().clear();
+        player.addTile(TileBag.BLANK);
+        player.addTile('A');
+        player.addTile('T');
+        assertFalse(game.placeTile(TileBag.BLANK, 7, 7));
+        assertTrue(game.placeTile('c', 7, 7));
+        game.restorePlayerTiles();
+        assertTrue(player.getTiles().contains(TileBag.BLANK));
+
+        game.placeTile('c', 7, 7);
+        game.placeTile('A', 7, 8);
+        game.placeTile('T', 7, 9);
+        assertTrue(game.submitWord());
+        PremiumGrid grid = game.getPremiumGrid();
+        int letters = grid.letterMultiplier(7, 8) + grid.letterMultiplier(7, 9); // c=0, A=1, T=1
+        int words = grid.wordMultiplier(7, 7) * grid.wordMultiplier(7, 8) * grid.wordMultiplier(7, 9);
+        assertEquals(letters * words, player.getScore());
+        assertEquals('c', game.getBoardState()[7][7]);
+    }
+
     @Test
     public void getBoardSize() {
         assertEquals(15, model.getBoardSize());
@@ -195,9 +229,9 @@ public class ModelTest {
     // Additional Placement Tests (M3)
     @Test
     public void testBlankTilePlacement() {
-        player1.addTile(' ');
-        assertTrue(model.placeTile(' ', 7, 7));
-        assertEquals(' ', model.getBoardState()[7][7]);
+        player1.addTile(TileBag.BLANK);
+        assertTrue(model.placeTile('e', 7, 7)); // a blank is played as the letter it stands for
+        assertEquals('e', model.getBoardState()[7][7]);
     }
 
     @Test
@@ -326,4 +360,266 @@ public class ModelTest {
         Set<Position> TW = model.getTripleWordScore();
         assertTrue("Invalid XML should revert to defaults, expecting TW at (0,0)", TW.contains(new Position(0, 0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPremiumSquaresAreViewsOfTheSharedGrid() {
+        Model first = Model.create(15, "src/model/test_board_valid.xml", 1);
+        Model second = Model.create(15, "src/model/test_board_valid.xml", 2);
+        assertSame(first.getPremiumGrid(), second.getPremiumGrid());
+        Set<Position> TW = first.getTripleWordScore();
+        assertTrue(TW.contains(new Position(0, 7)));
+        assertFalse(TW.contains(new Position(-1, 7)));
+        assertEquals(TW.size(), new HashSet<>(TW).size());
+        for (Position pos : TW) {
+            assertEquals(PremiumGrid.TRIPLE_WORD, first.getPremiumGrid().getType(pos.row, pos.col));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> TW.add(new Position(1, 1)));
+    }
+
+    @Test
+    public void testLoadXMLSharesParsedConfig() {
+        PremiumGrid first = BoardConfigLoader.load("src/model/test_board_valid.xml", 15);
+        PremiumGrid second = BoardConfigLoader.load("src/model/test_board_valid.xml", 15);
+        assertNotNull(first);
+        assertSame("Same unchanged file should reuse the cached grid", first, second);
+        assertEquals(PremiumGrid.TRIPLE_WORD, first.getType(0, 7));
+        assertNull("Size mismatch should fall back to defaults", BoardConfigLoader.load("src/model/test_board_valid.xml", 21));
+    }
+
+    @Test
+    public void testBatchCollapsesEvents() {
+        List<ModelEvent> received = new ArrayList<>();
+        model.addObserver(new ModelObserver() {
+            @Override
+            public void update(String message, Model m) {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event, Model m) {
+                received.add(event);
+            }
+        });
+
+        Model.Batch batch = model.batch();
+        try {
+            model.toggleDisplayMessages();
+            model.toggleDisplayMessages();
+            assertTrue("Events inside a batch should be held back", received.isEmpty());
+        } finally {
+            batch.close();
+        }
+
+        assertEquals(1, received.size());
+        assertTrue(received.getFirst().isComposite());
+        assertEquals(2, received.getFirst().getEvents().size());
+    }
+
+    @Test
+    public void testCompositeEventMergesChanges() {
+        ModelEvent placedA = ModelEvent.of("tilePlaced", 0, List.of(new Position(7, 7)), List.of(), List.of('A'));
+        ModelEvent placedB = ModelEvent.of("tilePlaced", 0, List.of(new Position(7, 8)), List.of(), List.of('B'));
+        ModelEvent scored = ModelEvent.scored("wordSubmitted", 0, List.of('C', 'D'), 5);
+
+        ModelEvent composite = ModelEvent.composite(List.of(placedA, placedB, scored));
+
+        assertEquals(List.of(new Position(7, 7), new Position(7, 8)), composite.getCells());
+        assertEquals(List.of('A', 'B'), composite.getRackRemoved());
+        assertEquals(List.of('C', 'D'), composite.getRackAdded());
+        assertEquals(5, composite.getScoreDelta());
+        assertEquals(3, composite.getEvents().size());
+    }
+
+    @Test
+    public void testSimulationRollsBackSilently() {
+        List<ModelEvent> received = new ArrayList<>();
+        ModelObserver recorder = new ModelObserver() {
+            @Override
+            public void update(String message, Model m) {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event, Model m) {
+                received.add(event);
+            }
+        };
+        model.addObserver(recorder);
+
+        Player current = model.getCurrentPlayer();
+        char[][] boardBefore = copyBoard(model.getBoardState());
+        List<Character> rackBefore = new ArrayList<>(current.getTiles());
+        int scoreBefore = current.getScore();
+        int bagBefore = model.getRemainingTiles();
+
+        Model.Simulation simulation = model.simulate();
+        try {
+            current.addTile('Q');
+            current.addTile('I');
+            int[] cell = firstEmptyRun(model.getBoardState(), 2);
+            assertTrue(model.placeTile('Q', cell[0], cell[1]));
+            assertTrue(model.placeTile('I', cell[0], cell[1] + 1));
+            model.submitWord();
+            assertTrue(model.isSimulating());
+        } finally {
+            simulation.close();
+        }
+
+        assertFalse(model.isSimulating());
+        assertTrue("Rolled back simulation must not notify observers", received.isEmpty());
+        assertArrayEquals(boardBefore, model.getBoardState());
+        assertEquals(rackBefore, current.getTiles());
+        assertEquals(scoreBefore, current.getScore());
+        assertEquals(bagBefore, model.getRemainingTiles());
+        model.removeObserver(recorder);
+    }
+
+    @Test
+    public void testCommittedSimulationSendsOneEvent() {
+        List<ModelEvent> received = new ArrayList<>();
+        ModelObserver recorder = new ModelObserver() {
+            @Override
+            public void update(String message, Model m) {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event, Model m) {
+                received.add(event);
+            }
+        };
+        model.addObserver(recorder);
+
+        Player current = model.getCurrentPlayer();
+        int[] cell = firstEmptyRun(model.getBoardState(), 2);
+        try (Model.Simulation simulation = model.simulate()) {
+            current.addTile('Q');
+            current.addTile('I');
+            model.placeTile('Q', cell[0], cell[1]);
+            model.placeTile('I', cell[0], cell[1] + 1);
+            simulation.commit();
+        }
+
+        assertEquals(1, received.size());
+        assertEquals(2, received.getFirst().getCells().size());
+        assertEquals('Q', model.getBoardState()[cell[0]][cell[1]]);
+        model.restorePlayerTiles();
+        model.removeObserver(recorder);
+    }
+
+    @Test
+    public void testSavedGameReloadsDictionary() throws Exception {
+        Model game = Model.create(15, null, 11);
+        game.addAiPlayers(1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(game);
+        }
+        assertTrue("dictionary should not be saved", bytes.size() < 100_000);
+
+        Model loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (Model) in.readObject();
+        }
+        assertTrue(loaded.validateWord("CAT"));
+        assertTrue(loaded.validateWord("cat"));
+        assertFalse(loaded.validateWord("XQZ"));
+        assertEquals(game.getGameId(), loaded.getGameId());
+    }
+
+    @Test
+    public void testSaveFromBeforeThePremiumGridLoads() throws Exception {
+        // written by the first release: CAT across the centre, Player 1 to move, a three word dictionary
+        Model loaded;
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream("src/model/pre_series_save.ser"))) {
+            loaded = (Model) in.readObject();
+        }
+        assertSame(BoardConfigLoader.defaultGrid(15), loaded.getPremiumGrid());
+        assertEquals(loaded.getPremiumGrid().positionsOf(PremiumGrid.TRIPLE_WORD), loaded.getTripleWordScore());
+        assertTrue(loaded.getTripleWordScore().contains(new Position(0, 0)));
+        assertFalse(loaded.getDoubleLetterScore().isEmpty());
+        assertEquals("CAT", new String(loaded.getBoardState()[7], 6, 3));
+        assertEquals(5, loaded.getCurrentPlayer().getScore());
+
+        Player player = loaded.getCurrentPlayer();
+        player.getTiles().clear();
+        player.addTile('S');
+        assertTrue(loaded.placeTile('S', 7, 9));
+        assertEquals(List.of("CATS"), loaded.getAllNewWords());
+        PremiumGrid grid = loaded.getPremiumGrid();
+        int score = grid.letterMultiplier(7, 9) * grid.wordMultiplier(7, 9); // the S is worth one
+        assertEquals(score, loaded.calculateTotalScore(List.of("CATS")));
+        assertTrue(loaded.submitWord());
+        assertEquals(5 + score, player.getScore());
+    }
+
+    @Test
+    public void testMoveLogReplaysOntoSameSeed() {
+        Model game = Model.create(15, null, 5);
+        game.addAiPlayers(2);
+        // AI players do not open, so the first word comes from the dealt rack
+        String opening = wordFromRack(game, game.getCurrentPlayer().getTiles());
+        for (int i = 0; i < opening.length(); i++) {
+            assertTrue(game.placeTile(opening.charAt(i), 7, 7 + i));
+        }
+        assertTrue(game.submitWord());
+        game.nextTurn();
+        for (int turn = 0; turn < 6; turn++) {
+            ((AiPlayer) game.getCurrentPlayer()).play();
+            game.nextTurn();
+        }
+        List<MoveRecord> moves = game.getMoveLog();
+        assertFalse(moves.isEmpty());
+
+        Model replay = Model.create(15, null, 5);
+        replay.addAiPlayers(2);
+        for (MoveRecord move : moves) {
+            assertTrue(move.toString(), replay.applyMove(move));
+        }
+        assertEquals(moves, replay.getMoveLog());
+        assertTrue(Arrays.deepEquals(game.getBoardState(), replay.getBoardState()));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(game.getPlayers().get(i).getScore(), replay.getPlayers().get(i).getScore());
+            assertEquals(game.getPlayers().get(i).getTiles(), replay.getPlayers().get(i).getTiles());
+        }
+
+        // a move that does not fit this game is refused without changing anything
+        MoveRecord wrongPlayer = MoveRecord.pass(replay.getTurnNumber(), replay.getCurrentPlayerIndex() + 1);
+        assertFalse(replay.applyMove(wrongPlayer));
+        assertEquals(moves.size(), replay.getMoveLog().size());
+    }
+
+    private static String wordFromRack(Model game, List<Character> rack) {
+        for (String word : game.getWordList()) {
+            List<Character> left = new ArrayList<>(rack);
+            boolean fits = word.length() >= 2;
+            for (int i = 0; i < word.length() && fits; i++) {
+                fits = left.remove((Character) word.charAt(i));
+            }
+            if (fits) {
+                return word;
+            }
+        }
+        throw new IllegalStateException("No word in " + rack);
+    }
+
+    private static char[][] copyBoard(char[][] board) {
+        char[][] copy = new char[board.length][];
+        for (int i = 0; i < board.length; i++) {
+            copy[i] = board[i].clone();
+        }
+        return copy;
+    }
+
+    private static int[] firstEmptyRun(char[][] board, int length) {
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col + length <= board[row].length; col++) {
+                boolean empty = true;
+                for (int i = 0; i < length; i++) {
+                    empty &= board[row][col + i] == '\0';
+                }
+                if (empty) {
+                    return new int[]{row, col};
+                }
+            }
+        }
+        throw new IllegalStateException("Board is full");
+    }
+}
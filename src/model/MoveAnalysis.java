@@ -0,0 +1,95 @@
+package model;
+
+/**
+ * The verdict on one move of a finished game: the move played, the best move the generator
+ * found in the same position with the same rack, and the equity the player gave up by not
+ * playing it. Equity here is the points a move scores; the engine has no value for the tiles
+ * a move keeps, so two moves scoring alike are judged equal.
+ */
+public final class MoveAnalysis {
+    private final MoveRecord played;
+    private final MoveRecord best;
+    private final String playerName;
+    private final int candidates;
+
+    /**
+     * Constructs an analysis.
+     *
+     * @param played     the move played
+     * @param best       the best move available, or null if the position had none or the rack is unknown
+     * @param playerName the name of the player who moved
+     * @param candidates the number of legal moves found
+     */
+    MoveAnalysis(MoveRecord played, MoveRecord best, String playerName, int candidates) {
+        this.played = played;
+        // the generator only makes straight plays, so the move played can beat everything it found
+        this.best = best == null || best.getScore() < played.getScore() ? null : best;
+        this.playerName = playerName;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Gets the move played.
+     *
+     * @return the move
+     */
+    public MoveRecord getPlayed() {
+        return played;
+    }
+
+    /**
+     * Gets the best move available in the position.
+     *
+     * @return the best move, or the move played if nothing better was found
+     */
+    public MoveRecord getBest() {
+        return best == null ? played : best;
+    }
+
+    /**
+     * Gets the name of the player who moved.
+     *
+     * @return the name
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Gets the turn number of the move.
+     *
+     * @return the turn number
+     */
+    public int getTurn() {
+        return played.getTurn();
+    }
+
+    /**
+     * Gets the number of legal moves the position offered.
+     *
+     * @return the candidate count
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Gets the points the best move would have scored over the move played.
+     *
+     * @return the equity lost, never negative
+     */
+    public int getEquityLoss() {
+        return getBest().getScore() - played.getScore();
+    }
+
+    /**
+     * Returns the verdict as text, such as {@code turn 3 Ada: played 10, best 24 (lost 14)}.
+     *
+     * @return the verdict as text
+     */
+    @Override
+    public String toString() {
+        return "turn " + getTurn() + " " + playerName + ": played " + played.getScore()
+                + ", best " + getBest().getScore() + " (lost " + getEquityLoss() + ")";
+    }
+}
@@ -0,0 +1,338 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the moves generated for a position, so that AI players, simulations and analysis
+ * that come back to the same board and rack skip the search. AI players and the
+ * {@link GameAnalyzer} share {@link #shared() one cache}, so analysing a game finds the
+ * positions its AI players already searched.
+ * <p>
+ * A position is keyed by the board hash of the {@link Model}, the rack as a multiset, whether
+ * it is the first turn and the premium grid. The board hash follows every tile placed,
+ * removed, undone or redone, so undoing a tile with {@code Controller.onUndoButtonClicked}
+ * gives the key of the board without it, and redoing it the key it had before; nothing has to
+ * be thrown away by hand and no entry can answer for a board it was not made for. Grids are
+ * shared by every game of a layout, so games on different layouts never share entries. A
+ * cache serves the games of one dictionary.
+ * <p>
+ * Every move of a position and only its best move are kept apart: asking for the best move
+ * does not generate the others, which for a rack with blanks costs several times as much, but
+ * is answered from every move if those are already held.
+ * <p>
+ * Entries are weighed by an estimate of the bytes their moves hold and the least recently used
+ * ones are evicted once the cache is over its capacity. The keys are split over independently
+ * locked stripes, so any number of threads can share a cache, each generating on its own
+ * model; two threads missing the same position at once both generate it.
+ */
+public final class MoveCache {
+    private static final int MAX_RACK = 12; // tiles a rack key can hold
+    private static final long ENTRY_BYTES = 96; // key, map node and list
+    private static final long MOVE_BYTES = 160; // a record, its arrays and its slot in the list
+    private static final long TILE_BYTES = 12; // a row, a column and a letter
+    private static MoveCache shared;
+
+    private final Stripe[] stripes;
+    private final long stripeCapacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a cache with 16 stripes.
+     *
+     * @param capacity the most bytes of moves to hold
+     */
+    public MoveCache(long capacity) {
+        this(capacity, 16);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param capacity the most bytes of moves to hold
+     * @param stripes  the number of independently locked parts, rounded up to a power of two
+     */
+    public MoveCache(long capacity, int stripes) {
+        if (capacity < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Bad capacity " + capacity + " or stripes " + stripes);
+        }
+        int count = 1;
+        while (count < stripes) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeCapacity = Math.max(1, capacity / count);
+    }
+
+    /**
+     * Gets the cache AI players and game analyzers share, creating it on first use. It holds
+     * as many megabytes of moves as the {@code scrabble.moveCache.mb} system property says, 64
+     * by default.
+     *
+     * @return the shared cache
+     */
+    public static synchronized MoveCache shared() {
+        if (shared == null) {
+            shared = new MoveCache(Long.getLong("scrabble.moveCache.mb", 64) << 20);
+        }
+        return shared;
+    }
+
+    /**
+     * Gets every legal move for the current player of a model, generating them on a miss. The
+     * current player must not have tiles placed yet.
+     *
+     * @param model the model
+     * @return the moves, made on the model's turn by its current player
+     */
+    public List<MoveRecord> moves(Model model) {
+        Key key = key(model, true);
+        Entry found = key == null ? null : stripe(key).get(key);
+        if (found != null) {
+            hits.increment();
+            return forTurn(found.moves(), model.getTurnNumber(), model.getCurrentPlayerIndex());
+        }
+        misses.increment();
+        List<MoveRecord> generated = Collections.unmodifiableList(new MoveGenerator(model).generate());
+        if (key != null) {
+            stripe(key).put(key, new Entry(generated, weigh(generated), generated.size()));
+        }
+        return generated;
+    }
+
+    /**
+     * Gets the highest scoring move for the current player of a model, searching only for it
+     * on a miss. The current player must not have tiles placed yet.
+     *
+     * @param model the model
+     * @return the best move, or null if there is none
+     */
+    public MoveRecord best(Model model) {
+        return search(model).move();
+    }
+
+    /**
+     * Gets the highest scoring move for the current player of a model and the number of moves
+     * the search for it found, searching on a miss.
+     *
+     * @param model the model
+     * @return the best move and the move count
+     */
+    Best search(Model model) {
+        Key all = key(model, true);
+        Entry found = all == null ? null : stripe(all).get(all);
+        if (found != null) {
+            hits.increment();
+            MoveRecord best = null;
+            for (MoveRecord move : found.moves()) {
+                if (best == null || move.getScore() > best.getScore()) {
+                    best = move;
+                }
+            }
+            return new Best(best == null ? null : best.forTurn(model.getTurnNumber(), model.getCurrentPlayerIndex()),
+                    found.moveCount());
+        }
+        Key one = key(model, false);
+        found = one == null ? null : stripe(one).get(one);
+        if (found != null) {
+            hits.increment();
+            List<MoveRecord> moves = forTurn(found.moves(), model.getTurnNumber(), model.getCurrentPlayerIndex());
+            return new Best(moves.isEmpty() ? null : moves.getFirst(), found.moveCount());
+        }
+        misses.increment();
+        MoveGenerator generator = new MoveGenerator(model);
+        MoveRecord best = generator.best();
+        if (one != null) {
+            List<MoveRecord> moves = best == null ? List.of() : List.of(best);
+            stripe(one).put(one, new Entry(moves, weigh(moves), generator.getMoveCount()));
+        }
+        return new Best(best, generator.getMoveCount());
+    }
+
+    /**
+     * Empties the cache. The counters are kept.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to generate.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries evicted to stay within capacity.
+     *
+     * @return the eviction count
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of positions held.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the estimated bytes held.
+     *
+     * @return the weight
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Stripe stripe : stripes) {
+            weight += stripe.weight();
+        }
+        return weight;
+    }
+
+    /**
+     * Gets the key of a model's position, or null if the rack is too big to key.
+     *
+     * @param all true for the key of every move, false for that of the best move alone
+     */
+    private static Key key(Model model, boolean all) {
+        List<Character> tiles = model.getCurrentPlayer().getTiles();
+        if (tiles.size() > MAX_RACK) {
+            return null;
+        }
+        return new Key(model.getBoardHash(), rackKey(tiles), model.isFirstTurn(), model.getPremiumGrid(), all);
+    }
+
+    private Stripe stripe(Key key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static long weigh(List<MoveRecord> moves) {
+        long weight = ENTRY_BYTES;
+        for (MoveRecord move : moves) {
+            weight += MOVE_BYTES + TILE_BYTES * move.getTileCount();
+        }
+        return weight;
+    }
+
+    /**
+     * Restamps cached moves with the turn and player asking for them.
+     */
+    private static List<MoveRecord> forTurn(List<MoveRecord> moves, int turn, int playerIndex) {
+        if (moves.isEmpty() || moves.getFirst().forTurn(turn, playerIndex) == moves.getFirst()) {
+            return moves;
+        }
+        List<MoveRecord> restamped = new ArrayList<>(moves.size());
+        for (MoveRecord move : moves) {
+            restamped.add(move.forTurn(turn, playerIndex));
+        }
+        return Collections.unmodifiableList(restamped);
+    }
+
+    /**
+     * Packs a rack into its tiles in sorted order, five bits each, so racks holding the same
+     * tiles in any order have the same key.
+     */
+    private static long rackKey(List<Character> tiles) {
+        int[] codes = new int[tiles.size()];
+        for (int i = 0; i < codes.length; i++) {
+            char tile = tiles.get(i);
+            codes[i] = tile == TileBag.BLANK ? 1 : tile >= 'A' && tile <= 'Z' ? tile - 'A' + 2 : 31;
+        }
+        Arrays.sort(codes);
+        long key = 0;
+        for (int code : codes) {
+            key = key << 5 | code;
+        }
+        return key;
+    }
+
+    /**
+     * The highest scoring move of a position and the number of moves the search found.
+     *
+     * @param move      the best move, or null if there is none
+     * @param moveCount the move count
+     */
+    record Best(MoveRecord move, int moveCount) {
+    }
+
+    // grids are compared by identity: every game of a layout shares one
+    private record Key(long board, long rack, boolean firstTurn, PremiumGrid grid, boolean all) {
+    }
+
+    private record Entry(List<MoveRecord> moves, long weight, int moveCount) {
+    }
+
+    /**
+     * One locked part of the cache, in least recently used order.
+     */
+    private final class Stripe {
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        private synchronized Entry get(Key key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(Key key, Entry entry) {
+            if (entry.weight() > stripeCapacity) {
+                return; // would push out everything else and still not fit
+            }
+            Entry old = entries.put(key, entry);
+            weight += entry.weight() - (old == null ? 0 : old.weight());
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (weight > stripeCapacity) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                weight -= evicted.weight();
+                evictions.increment();
+            }
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized long weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class MoveCacheTest {
+
+    @Test
+    public void testRepeatedPositionsAreHits() {
+        Model game = midGame(3);
+        setRack(game, "AEINRST");
+        MoveCache cache = new MoveCache(64 << 20);
+        List<MoveRecord> moves = cache.moves(game);
+        assertEquals(new MoveGenerator(game).generate(), moves);
+        assertSame(moves, cache.moves(game));
+        Collections.reverse(game.getCurrentPlayer().getTiles()); // the same rack in another order
+        assertSame(moves, cache.moves(game));
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+
+        // the same board and rack for the next player is answered for that player
+        List<Character> rack = new ArrayList<>(game.getCurrentPlayer().getTiles());
+        game.nextTurn();
+        setRack(game, rack);
+        MoveRecord best = cache.best(game);
+        assertEquals(3, cache.getHits());
+        assertEquals(game.getCurrentPlayerIndex(), best.getPlayerIndex());
+        assertEquals(game.getTurnNumber(), best.getTurn());
+        assertTrue(game.applyMove(best));
+    }
+
+    @Test
+    public void testUndoAndRedoChangeTheKey() {
+        Model game = midGame(3);
+        setRack(game, "AEINRST");
+        MoveCache cache = new MoveCache(64 << 20);
+        long hash = game.getBoardHash();
+        List<MoveRecord> before = cache.moves(game);
+        MoveRecord best = cache.best(game);
+
+        // what the controller's undo and redo do to the board
+        int row = best.getRow(0);
+        int col = best.getCol(0);
+        game.addTileToBoard(best.getLetter(0), row, col);
+        long redone = game.getBoardHash();
+        assertNotEquals(hash, redone);
+        game.removeCurrentPlacementTile(new Position(row, col));
+        game.removeTileFromBoard(row, col);
+        assertEquals(hash, game.getBoardHash());
+        assertSame(before, cache.moves(game));
+        game.addTileToBoard(best.getLetter(0), row, col);
+        assertEquals(redone, game.getBoardHash());
+        game.removeCurrentPlacementTile(new Position(row, col));
+        game.removeTileFromBoard(row, col);
+
+        // a simulation that is rolled back leaves the hash as it was
+        Model.Simulation simulation = game.simulate();
+        try {
+            assertTrue(game.applyMove(best));
+            assertNotEquals(hash, game.getBoardHash());
+        } finally {
+            simulation.close();
+        }
+        assertEquals(hash, game.getBoardHash());
+
+        // a move that stays gives a new position
+        assertTrue(game.applyMove(best));
+        List<MoveRecord> after = cache.moves(game);
+        assertNotSame(before, after);
+        for (MoveRecord move : after) {
+            Model.Simulation probe = game.simulate();
+            try {
+                assertTrue(move.toString(), game.applyMove(move));
+            } finally {
+                probe.close();
+            }
+        }
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testBestMoveIsKeptWithoutTheOthers() {
+        Model game = midGame(5);
+        setRack(game, "AEINR" + TileBag.BLANK + TileBag.BLANK);
+        MoveCache cache = new MoveCache(64 << 20, 1); // room for every move of this rack
+        MoveRecord best = cache.best(game);
+        assertEquals(new MoveGenerator(game).best(), best);
+        assertEquals(1, cache.getMisses());
+        // one move is held, not the hundred thousand a two-blank rack can make
+        assertTrue(cache.getWeight() + " bytes", cache.getWeight() < 1_000);
+        assertEquals(best, cache.best(game));
+        assertEquals(1, cache.getHits());
+
+        // once every move is held the best one is read from them
+        List<MoveRecord> moves = cache.moves(game);
+        assertEquals(2, cache.getMisses());
+        assertEquals(moves.size(), cache.search(game).moveCount());
+        assertEquals(best.getScore(), cache.best(game).getScore());
+        assertEquals(3, cache.getHits());
+
+        // the same board and rack on another layout is another position
+        Model standard = Model.create(15, null, 5);
+        Model custom = Model.create(15, "src/model/test_board_valid.xml", 5);
+        for (Model opening : List.of(standard, custom)) {
+            opening.addPlayer(new Player("Opener"));
+            setRack(opening, "AEINRST");
+            assertEquals(new MoveGenerator(opening).best().getScore(), cache.best(opening).getScore());
+        }
+        assertEquals(standard.getBoardHash(), custom.getBoardHash());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testAnalyzerFindsTheAiSearches() {
+        Model game = midGame(11); // six AI turns, searched through the shared cache
+        long hits = MoveCache.shared().getHits();
+        try (GameAnalyzer analyzer = new GameAnalyzer(1)) {
+            assertEquals(7, analyzer.analyze(game).size());
+        }
+        assertTrue(MoveCache.shared().getHits() - hits >= 6);
+    }
+
+    @Test
+    public void testEvictsTheLeastRecentlyUsed() {
+        Model game = midGame(3);
+        long a = weight(game, "AEIRST");
+        long l = weight(game, "AEIRSTL");
+        long n = weight(game, "AEIRSTN");
+        long capacity = a + Math.max(l, n);
+        MoveCache cache = new MoveCache(capacity, 1);
+
+        setRack(game, "AEIRST");
+        List<MoveRecord> first = cache.moves(game);
+        setRack(game, "AEIRSTL");
+        cache.moves(game);
+        setRack(game, "AEIRST");
+        assertSame(first, cache.moves(game)); // now the most recently used
+        setRack(game, "AEIRSTN");
+        cache.moves(game); // pushes out AEIRSTL
+        assertEquals(1, cache.getEvictions());
+        assertEquals(a + n, cache.getWeight());
+        setRack(game, "AEIRST");
+        assertSame(first, cache.moves(game));
+        setRack(game, "AEIRSTL");
+        cache.moves(game);
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertTrue(cache.getWeight() <= capacity);
+    }
+
+    @Test
+    public void testWorkersShareOneCache() throws Exception {
+        MoveCache cache = new MoveCache(256 << 20);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> workers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                workers.add(pool.submit(() -> {
+                    Model game = midGame(3);
+                    List<Integer> counts = new ArrayList<>();
+                    for (String rack : new String[]{"AEIRST", "QUIZ", "EEOOU", "AEIRST", "QUIZ"}) {
+                        setRack(game, rack);
+                        counts.add(cache.moves(game).size());
+                    }
+                    return counts;
+                }));
+            }
+            List<Integer> expected = workers.getFirst().get();
+            for (Future<List<Integer>> worker : workers) {
+                assertEquals(expected, worker.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(20, cache.getHits() + cache.getMisses());
+        assertEquals(3, cache.size());
+        assertTrue(cache.getHits() >= 8);
+    }
+
+    private static Model midGame(long seed) {
+        Model game = Model.create(15, null, seed);
+        game.addAiPlayers(2);
+        assertTrue(game.applyMove(new MoveGenerator(game).best()));
+        for (int turn = 0; turn < 6; turn++) {
+            ((AiPlayer) game.getCurrentPlayer()).play();
+            game.nextTurn();
+        }
+        return game;
+    }
+
+    private static long weight(Model game, String rack) {
+        MoveCache cache = new MoveCache(Long.MAX_VALUE, 1);
+        setRack(game, rack);
+        cache.moves(game);
+        return cache.getWeight();
+    }
+
+    private static void setRack(Model game, String tiles) {
+        List<Character> rack = new ArrayList<>();
+        for (char tile : tiles.toCharArray()) {
+            rack.add(tile);
+        }
+        setRack(game, rack);
+    }
+
+    private static void setRack(Model game, List<Character> tiles) {
+        List<Character> rack = game.getCurrentPlayer().getTiles();
+        rack.clear();
+        rack.addAll(tiles);
+    }
+}
@@ -0,0 +1,486 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the moves the current player of a {@link Model} can make. Moves are straight plays:
+ * tiles laid along one row or column that, with the board letters between and around them,
+ * spell a word, and that make a word of every perpendicular run they join.
+ * <p>
+ * The search walks the {@link Lexicon} trie outward from each anchor, an empty cell next to a
+ * tile (or the centre on the first turn). Before a line is searched every empty cell gets a
+ * cross-check, the set of letters that would make a word with the tiles above and below it,
+ * so a letter is only tried where the trie continues with it and the cross-check allows it. A
+ * blank follows the same edges, so it never multiplies the search by 26; it costs only the
+ * letters that could really go there. When only the best move is wanted a blank is not tried
+ * as a letter the rack still holds: a blank scores nothing, so such a move never beats the
+ * same word with the tiles swapped, and the blanks of each word found are put on its least
+ * valuable squares instead. A rack with two blanks then costs in step with the extra words it
+ * can really make, not 26 times as much for each blank.
+ * <p>
+ * Only the lines that hold a tile or lie next to one are searched, and in each only the cells
+ * from one before the first tile of the board to one after the last: nothing outside that box
+ * can be an anchor or have a cross-check, so on a large board the cost follows the tiles
+ * played, not the size of the board.
+ * <p>
+ * Generated moves are legal and their scores are worked out here the way the model scores a
+ * submission. A generator belongs to one model and, like the model, to one thread.
+ */
+final class MoveGenerator {
+    private static final int ALL_LETTERS = (1 << 26) - 1;
+
+    private final Model model;
+    private final Lexicon lexicon;
+
+    // the search in progress
+    private char[][] board;
+    private PremiumGrid grid;
+    private int size;
+    private final int[] rack = new int[26];
+    private int blanks;
+    private int tilesLeft;
+    private char[] rackTiles;
+    private boolean across;
+    private int line;
+    private char[] cells;
+    private int[] crossChecks;
+    private boolean[] hasCross;
+    private boolean[] anchors;
+    private int anchor;
+    private int firstCell; // the cells of a line that can hold an anchor or a cross-check
+    private int lastCell;
+    private char[] left;
+    private boolean leftFromRack;
+    private char[] right;
+    private List<MoveRecord> moves;
+    private boolean allMoves;
+    private int ranked; // how many of the best moves to keep in order, when only those are wanted
+    private MoveRecord best;
+    private int moveCount;
+    private long steps;
+
+    /**
+     * Constructs a generator for the current player of a model.
+     *
+     * @param model the model
+     */
+    MoveGenerator(Model model) {
+        this(model, Model.sharedLexicon());
+    }
+
+    /**
+     * Constructs a generator that looks words up in the given lexicon.
+     *
+     * @param model   the model
+     * @param lexicon the dictionary; should hold the same words as the model's
+     */
+    MoveGenerator(Model model, Lexicon lexicon) {
+        this.model = model;
+        this.lexicon = lexicon;
+    }
+
+    /**
+     * Finds every legal move for the current player, who must not have tiles placed yet. The
+     * model is not changed.
+     *
+     * @return the moves, each with the score it would make
+     */
+    List<MoveRecord> generate() {
+        moves = new ArrayList<>();
+        allMoves = true;
+        search();
+        List<MoveRecord> found = moves;
+        moves = null;
+        allMoves = false;
+        return found;
+    }
+
+    /**
+     * Finds the highest scoring move for the current player without keeping the others.
+     *
+     * @return the best move, or null if there is none
+     */
+    MoveRecord best() {
+        search();
+        return best;
+    }
+
+    /**
+     * Finds the highest scoring moves for the current player, best first. Moves that differ
+     * only in where their blanks go are found once.
+     *
+     * @param count the most moves to return
+     * @return the moves
+     */
+    List<MoveRecord> top(int count) {
+        moves = new ArrayList<>(count + 1);
+        ranked = count;
+        search();
+        List<MoveRecord> found = moves;
+        moves = null;
+        ranked = 0;
+        return found;
+    }
+
+    /**
+     * Gets the number of moves the last search found. A search for the best move counts a word
+     * once however its blanks could be placed.
+     *
+     * @return the move count
+     */
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Gets the number of trie edges the last search followed, a measure of its cost that does
+     * not depend on the machine.
+     *
+     * @return the step count
+     */
+    long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Searches every row and then every column.
+     */
+    private void search() {
+        best = null;
+        moveCount = 0;
+        steps = 0;
+        board = model.getBoardState();
+        grid = model.getPremiumGrid();
+        size = model.getBoardSize();
+        List<Character> tiles = model.getCurrentPlayer().getTiles();
+        rackTiles = new char[tiles.size()];
+        Arrays.fill(rack, 0);
+        blanks = 0;
+        for (int i = 0; i < rackTiles.length; i++) {
+            rackTiles[i] = tiles.get(i);
+            if (rackTiles[i] == TileBag.BLANK) {
+                blanks++;
+            } else if (rackTiles[i] >= 'A' && rackTiles[i] <= 'Z') {
+                rack[rackTiles[i] - 'A']++;
+            }
+        }
+        tilesLeft = rackTiles.length;
+        if (tilesLeft == 0) {
+            return;
+        }
+        cells = new char[size];
+        crossChecks = new int[size];
+        hasCross = new boolean[size];
+        anchors = new boolean[size];
+        left = new char[size];
+        right = new char[size];
+        BoardIndex index = model.getBoardIndex();
+        int center = size / 2;
+        for (int direction = 0; direction < 2; direction++) {
+            across = direction == 0;
+            // the box of the tiles, one cell wider on each side, and the centre on the first turn
+            int firstLine = index.getFirst(across) - 1;
+            int lastLine = index.getLast(across) + 1;
+            firstCell = index.getFirst(!across) - 1;
+            lastCell = index.getLast(!across) + 1;
+            if (model.isFirstTurn()) {
+                firstLine = Math.min(firstLine, center);
+                lastLine = Math.max(lastLine, center);
+                firstCell = Math.min(firstCell, center);
+                lastCell = Math.max(lastCell, center);
+            }
+            firstCell = Math.max(firstCell, 0);
+            lastCell = Math.min(lastCell, size - 1);
+            // cells outside the box stay empty, with no cross-check, for every line
+            Arrays.fill(cells, '\0');
+            Arrays.fill(crossChecks, ALL_LETTERS);
+            Arrays.fill(hasCross, false);
+            Arrays.fill(anchors, false);
+            for (line = Math.max(firstLine, 0); line <= Math.min(lastLine, size - 1); line++) {
+                searchLine();
+            }
+        }
+    }
+
+    /**
+     * Tries every anchor of the current line.
+     */
+    private void searchLine() {
+        boolean firstTurn = model.isFirstTurn();
+        int center = size / 2;
+        for (int i = firstCell; i <= lastCell; i++) {
+            char tile = tileAt(i, 0);
+            cells[i] = Character.toUpperCase(tile);
+            if (tile != '\0') {
+                anchors[i] = false;
+                continue;
+            }
+            anchors[i] = firstTurn
+                    ? line == center && i == center
+                    : tileAt(i - 1, 0) != '\0' || tileAt(i + 1, 0) != '\0' || tileAt(i, -1) != '\0' || tileAt(i, 1) != '\0';
+            crossCheck(i);
+        }
+        for (anchor = firstCell; anchor <= lastCell; anchor++) {
+            if (!anchors[anchor]) {
+                continue;
+            }
+            if (anchor > 0 && cells[anchor - 1] != '\0') {
+                // the word runs on from the tiles just before the anchor
+                int start = anchor - 1;
+                while (start > 0 && cells[start - 1] != '\0') {
+                    start--;
+                }
+                int node = lexicon.root();
+                for (int k = start; k < anchor && node != Lexicon.NONE; k++) {
+                    node = lexicon.child(node, cells[k]);
+                }
+                if (node != Lexicon.NONE) {
+                    leftFromRack = false;
+                    extendRight(node, anchor, start);
+                }
+            } else {
+                // the word may start in the empty cells before the anchor, up to the previous anchor
+                int limit = 0;
+                for (int k = anchor - 1; k >= 0 && !anchors[k] && cells[k] == '\0' && limit < tilesLeft - 1; k--) {
+                    limit++;
+                }
+                leftFromRack = true;
+                leftPart(lexicon.root(), 0, limit);
+            }
+        }
+    }
+
+    /**
+     * Works out which letters may go in an empty cell given the tiles across the line from it.
+     *
+     * @param i the cell
+     */
+    private void crossCheck(int i) {
+        int before = 0;
+        while (tileAt(i, -(before + 1)) != '\0') {
+            before++;
+        }
+        int after = 0;
+        while (tileAt(i, after + 1) != '\0') {
+            after++;
+        }
+        hasCross[i] = before + after > 0;
+        if (!hasCross[i]) {
+            crossChecks[i] = ALL_LETTERS;
+            return;
+        }
+        int node = lexicon.root();
+        for (int k = before; k > 0 && node != Lexicon.NONE; k--) {
+            node = lexicon.child(node, Character.toUpperCase(tileAt(i, -k)));
+        }
+        int allowed = 0;
+        if (node != Lexicon.NONE) {
+            int edges = lexicon.edgeCount(node);
+            for (int edge = 0; edge < edges; edge++) {
+                int end = lexicon.edgeTarget(node, edge);
+                for (int k = 1; k <= after && end != Lexicon.NONE; k++) {
+                    end = lexicon.child(end, Character.toUpperCase(tileAt(i, k)));
+                }
+                if (end != Lexicon.NONE && lexicon.isWord(end)) {
+                    allowed |= 1 << (lexicon.edgeLetter(node, edge) - 'A');
+                }
+            }
+        }
+        crossChecks[i] = allowed;
+    }
+
+    /**
+     * Builds every left part from the rack that the trie allows, extending each to the right.
+     *
+     * @param node   the trie node of the left part
+     * @param length the length of the left part
+     * @param limit  the longest left part that fits
+     */
+    private void leftPart(int node, int length, int limit) {
+        extendRight(node, anchor, anchor - length);
+        if (length == limit) {
+            return;
+        }
+        int edges = lexicon.edgeCount(node);
+        for (int edge = 0; edge < edges; edge++) {
+            char letter = lexicon.edgeLetter(node, edge);
+            int child = lexicon.edgeTarget(node, edge);
+            steps++;
+            if (rack[letter - 'A'] > 0) {
+                rack[letter - 'A']--;
+                tilesLeft--;
+                left[length] = letter;
+                leftPart(child, length + 1, limit);
+                tilesLeft++;
+                rack[letter - 'A']++;
+            }
+            if (blanks > 0 && (allMoves || rack[letter - 'A'] == 0)) {
+                blanks--;
+                tilesLeft--;
+                left[length] = Character.toLowerCase(letter);
+                leftPart(child, length + 1, limit);
+                tilesLeft++;
+                blanks++;
+            }
+        }
+    }
+
+    /**
+     * Extends a word rightward from a cell, through board tiles and with rack tiles the trie
+     * and cross-checks allow, recording every complete word that covers the anchor.
+     *
+     * @param node  the trie node of the letters so far
+     * @param pos   the cell to fill next
+     * @param start the cell the word starts at
+     */
+    private void extendRight(int node, int pos, int start) {
+        if (pos < size && cells[pos] != '\0') {
+            steps++;
+            int child = lexicon.child(node, cells[pos]);
+            if (child != Lexicon.NONE) {
+                extendRight(child, pos + 1, start);
+            }
+            return;
+        }
+        if (pos > anchor && pos - start >= 2 && lexicon.isWord(node)) {
+            record(start, pos);
+        }
+        if (pos == size || tilesLeft == 0) {
+            return;
+        }
+        int allowed = crossChecks[pos];
+        int edges = lexicon.edgeCount(node);
+        for (int edge = 0; edge < edges; edge++) {
+            char letter = lexicon.edgeLetter(node, edge);
+            if ((allowed & (1 << (letter - 'A'))) == 0) {
+                continue;
+            }
+            int child = lexicon.edgeTarget(node, edge);
+            steps++;
+            if (rack[letter - 'A'] > 0) {
+                rack[letter - 'A']--;
+                tilesLeft--;
+                right[pos] = letter;
+                extendRight(child, pos + 1, start);
+                tilesLeft++;
+                rack[letter - 'A']++;
+            }
+            if (blanks > 0 && (allMoves || rack[letter - 'A'] == 0)) {
+                blanks--;
+                tilesLeft--;
+                right[pos] = Character.toLowerCase(letter);
+                extendRight(child, pos + 1, start);
+                tilesLeft++;
+                blanks++;
+            }
+        }
+    }
+
+    /**
+     * Scores and keeps the word from start to end, exclusive.
+     */
+    private void record(int start, int end) {
+        int laid = 0;
+        int single = -1;
+        for (int k = start; k < end; k++) {
+            if (cells[k] == '\0') {
+                laid++;
+                single = k;
+            }
+        }
+        if (!across && laid == 1 && hasCross[single]) {
+            return; // a single tile with neighbours in its row was found when searching rows
+        }
+        int[] rows = new int[laid];
+        int[] cols = new int[laid];
+        char[] letters = new char[laid];
+        int t = 0;
+        boolean blanked = false;
+        for (int k = start; k < end; k++) {
+            if (cells[k] != '\0') {
+                continue;
+            }
+            rows[t] = across ? line : k;
+            cols[t] = across ? k : line;
+            letters[t] = k < anchor && leftFromRack ? left[k - start] : right[k];
+            blanked |= TileBag.isBlank(letters[t]);
+            t++;
+        }
+        if (blanked && !allMoves) {
+            cheapestBlanks(rows, cols, letters);
+        }
+        int letterScore = 0;
+        int wordMultiplier = 1;
+        for (t = 0; t < laid; t++) {
+            // the model credits every tile laid once, to the move as a whole
+            letterScore += Model.getTileScore(letters[t]) * grid.letterMultiplier(rows[t], cols[t]);
+            wordMultiplier *= grid.wordMultiplier(rows[t], cols[t]);
+        }
+        int score = letterScore * wordMultiplier;
+        moveCount++;
+        boolean keep = ranked > 0
+                ? moves.size() < ranked || score > moves.get(moves.size() - 1).getScore()
+                : moves != null;
+        if (keep || best == null || score > best.getScore()) {
+            MoveRecord move = new MoveRecord(model.getTurnNumber(), model.getCurrentPlayerIndex(),
+                    rows, cols, letters, score, rackTiles);
+            if (ranked > 0 && keep) {
+                int at = moves.size();
+                while (at > 0 && moves.get(at - 1).getScore() < score) {
+                    at--;
+                }
+                moves.add(at, move);
+                if (moves.size() > ranked) {
+                    moves.removeLast();
+                }
+            } else if (keep) {
+                moves.add(move);
+            }
+            if (best == null || score > best.getScore()) {
+                best = move;
+            }
+        }
+    }
+
+    /**
+     * Moves the blanks of a word onto the squares where they lose the fewest points: for each
+     * letter a blank stands for, the squares of that letter with the smallest letter premium.
+     */
+    private void cheapestBlanks(int[] rows, int[] cols, char[] letters) {
+        for (int t = 0; t < letters.length; t++) {
+            if (!TileBag.isBlank(letters[t])) {
+                continue;
+            }
+            char upper = Character.toUpperCase(letters[t]);
+            int cheapest = t;
+            for (int u = 0; u < letters.length; u++) {
+                if (letters[u] == upper && grid.letterMultiplier(rows[u], cols[u]) < grid.letterMultiplier(rows[cheapest], cols[cheapest])) {
+                    cheapest = u;
+                }
+            }
+            if (cheapest != t) {
+                letters[cheapest] = letters[t];
+                letters[t] = upper;
+                t--; // look again at this square, which now holds a real tile
+            }
+        }
+    }
+
+    /**
+     * Reads the board relative to the current line.
+     *
+     * @param i      the position along the line
+     * @param offset the distance across the line
+     * @return the tile, or '\0' for an empty cell or one off the board
+     */
+    private char tileAt(int i, int offset) {
+        int row = across ? line + offset : i;
+        int col = across ? i : line + offset;
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return '\0';
+        }
+        return board[row][col];
+    }
+}
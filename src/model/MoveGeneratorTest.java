@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MoveGeneratorTest {
+
+    @Test
+    public void testMovesWithBlanksAreLegal() {
+        Model game = midGame();
+        setRack(game, "AEIN" + TileBag.BLANK + TileBag.BLANK + "R");
+        List<MoveRecord> moves = new MoveGenerator(game).generate();
+        assertTrue(moves.size() > 1000);
+        boolean blanked = false;
+        for (MoveRecord move : moves) {
+            for (int i = 0; i < move.getTileCount(); i++) {
+                blanked |= TileBag.isBlank(move.getLetter(i));
+            }
+            Model.Simulation simulation = game.simulate();
+            try {
+                assertTrue(move.toString(), game.applyMove(move));
+            } finally {
+                simulation.close();
+            }
+        }
+        assertTrue(blanked);
+    }
+
+    @Test
+    public void testBlanksDoNotMultiplyTheSearchByTwentySix() {
+        Model game = midGame();
+        setRack(game, "AEINRST");
+        MoveGenerator generator = new MoveGenerator(game);
+        MoveRecord plain = generator.best();
+        long plainSteps = generator.getSteps();
+
+        setRack(game, "AEINR" + TileBag.BLANK + TileBag.BLANK);
+        MoveRecord blank = generator.best();
+        long blankSteps = generator.getSteps();
+        // two blanks tried as every letter would cost 26 * 26 times as much
+        assertTrue(blankSteps + " against " + plainSteps, blankSteps < 30 * plainSteps);
+        assertTrue(blank.getScore() >= new MoveGenerator(game).generate().stream()
+                .mapToInt(MoveRecord::getScore).max().orElseThrow());
+        Model.Simulation simulation = game.simulate();
+        try {
+            assertTrue(blank.toString(), game.applyMove(blank));
+        } finally {
+            simulation.close();
+        }
+        assertNotNull(plain);
+    }
+
+    @Test
+    public void testAiPlaysTheBestMoveWithOrWithoutBlanks() {
+        for (String rack : List.of("AEINRST", "AEINR" + TileBag.BLANK + "T")) {
+            Model game = midGame();
+            setRack(game, rack);
+            MoveRecord best = new MoveGenerator(game).best();
+            AiPlayer ai = (AiPlayer) game.getCurrentPlayer();
+            int scoreBefore = ai.getScore();
+            assertTrue(rack, ai.play());
+            assertEquals(rack, best.getScore(), ai.getScore() - scoreBefore);
+        }
+    }
+
+    private static Model midGame() {
+        Model game = Model.create(15, null, 3);
+        game.addAiPlayers(2);
+        assertTrue(game.applyMove(new MoveGenerator(game).best()));
+        for (int turn = 0; turn < 10; turn++) {
+            ((AiPlayer) game.getCurrentPlayer()).play();
+            game.nextTurn();
+        }
+        return game;
+    }
+
+    private static void setRack(Model game, String tiles) {
+        List<Character> rack = game.getCurrentPlayer().getTiles();
+        rack.clear();
+        for (char tile : tiles.toCharArray()) {
+            rack.add(tile);
+        }
+    }
+}
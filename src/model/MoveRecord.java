@@ -0,0 +1,260 @@
+package model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One committed turn: the tiles a player laid and the points they scored, or a pass.
+ * The {@link Model} appends a record to its move log for every turn that ends, so a game can
+ * be replayed move by move onto a model created with the same seed. Records made by the model
+ * also hold the rack the player moved from, which with the earlier moves is everything needed
+ * to rebuild the position the move was made in.
+ */
+public final class MoveRecord implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int turn;
+    private final int playerIndex;
+    private final int[] rows;
+    private final int[] cols;
+    private final char[] letters;
+    private final int score;
+    private final char[] rack;
+
+    /**
+     * Constructs a record. A record with no tiles is a pass.
+     *
+     * @param turn        the turn number the move was made on
+     * @param playerIndex the index of the player who moved
+     * @param rows        the row of each tile
+     * @param cols        the column of each tile
+     * @param letters     the letter of each tile
+     * @param score       the points the move scored
+     */
+    public MoveRecord(int turn, int playerIndex, int[] rows, int[] cols, char[] letters, int score) {
+        this(turn, playerIndex, rows, cols, letters, score, new char[0]);
+    }
+
+    /**
+     * Constructs a record that also holds the rack the player moved from.
+     *
+     * @param turn        the turn number the move was made on
+     * @param playerIndex the index of the player who moved
+     * @param rows        the row of each tile
+     * @param cols        the column of each tile
+     * @param letters     the letter of each tile, lower case for a blank
+     * @param score       the points the move scored
+     * @param rack        the player's tiles before the move, including those laid
+     */
+    public MoveRecord(int turn, int playerIndex, int[] rows, int[] cols, char[] letters, int score, char[] rack) {
+        if (rows.length != letters.length || cols.length != letters.length) {
+            throw new IllegalArgumentException("Every tile needs a row, a column and a letter");
+        }
+        this.turn = turn;
+        this.playerIndex = playerIndex;
+        this.rows = rows.clone();
+        this.cols = cols.clone();
+        this.letters = letters.clone();
+        this.score = score;
+        this.rack = rack.clone();
+    }
+
+    /**
+     * Records a play from the placements of a turn.
+     *
+     * @param turn        the turn number
+     * @param playerIndex the index of the player
+     * @param placements  the tiles placed this turn
+     * @param score       the points scored
+     * @param kept        the tiles left on the player's rack
+     * @return the record
+     */
+    static MoveRecord play(int turn, int playerIndex, Map<Position, Character> placements, int score,
+                           List<Character> kept) {
+        int[] rows = new int[placements.size()];
+        int[] cols = new int[placements.size()];
+        char[] letters = new char[placements.size()];
+        int i = 0;
+        for (Map.Entry<Position, Character> placement : placements.entrySet()) {
+            rows[i] = placement.getKey().row;
+            cols[i] = placement.getKey().col;
+            letters[i] = placement.getValue();
+            i++;
+        }
+        return new MoveRecord(turn, playerIndex, rows, cols, letters, score, rackOf(kept, letters));
+    }
+
+    /**
+     * Records a pass.
+     *
+     * @param turn        the turn number
+     * @param playerIndex the index of the player
+     * @return the record
+     */
+    public static MoveRecord pass(int turn, int playerIndex) {
+        return new MoveRecord(turn, playerIndex, new int[0], new int[0], new char[0], 0);
+    }
+
+    /**
+     * Records a pass made holding the given rack.
+     *
+     * @param turn        the turn number
+     * @param playerIndex the index of the player
+     * @param rack        the player's tiles
+     * @return the record
+     */
+    static MoveRecord pass(int turn, int playerIndex, List<Character> rack) {
+        return new MoveRecord(turn, playerIndex, new int[0], new int[0], new char[0], 0, rackOf(rack, new char[0]));
+    }
+
+    /**
+     * Gets the same move made on another turn or by another player.
+     *
+     * @param turn        the turn number
+     * @param playerIndex the index of the player
+     * @return the record, this one if nothing differs
+     */
+    MoveRecord forTurn(int turn, int playerIndex) {
+        if (turn == this.turn && playerIndex == this.playerIndex) {
+            return this;
+        }
+        return new MoveRecord(turn, playerIndex, rows, cols, letters, score, rack);
+    }
+
+    /**
+     * Joins the tiles kept on a rack and the tiles laid into the rack a move was made from.
+     *
+     * @param kept the tiles still on the rack
+     * @param laid the tiles laid
+     * @return the full rack
+     */
+    private static char[] rackOf(List<Character> kept, char[] laid) {
+        char[] rack = new char[kept.size() + laid.length];
+        for (int i = 0; i < kept.size(); i++) {
+            rack[i] = kept.get(i);
+        }
+        for (int i = 0; i < laid.length; i++) {
+            rack[kept.size() + i] = TileBag.rackTile(laid[i]);
+        }
+        return rack;
+    }
+
+    /**
+     * Gets the turn number the move was made on.
+     *
+     * @return the turn number
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the index of the player who moved.
+     *
+     * @return the player index
+     */
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /**
+     * Checks whether the player passed.
+     *
+     * @return true if no tiles were laid
+     */
+    public boolean isPass() {
+        return letters.length == 0;
+    }
+
+    /**
+     * Gets the number of tiles laid.
+     *
+     * @return the tile count
+     */
+    public int getTileCount() {
+        return letters.length;
+    }
+
+    /**
+     * Gets the row of a tile.
+     *
+     * @param i the index of the tile
+     * @return the row
+     */
+    public int getRow(int i) {
+        return rows[i];
+    }
+
+    /**
+     * Gets the column of a tile.
+     *
+     * @param i the index of the tile
+     * @return the column
+     */
+    public int getCol(int i) {
+        return cols[i];
+    }
+
+    /**
+     * Gets the letter of a tile.
+     *
+     * @param i the index of the tile
+     * @return the letter, lower case for a blank
+     */
+    public char getLetter(int i) {
+        return letters[i];
+    }
+
+    /**
+     * Gets the rack the player moved from, including the tiles laid.
+     *
+     * @return the rack, empty if the record was not made by a model
+     */
+    public char[] getRack() {
+        return rack.clone();
+    }
+
+    /**
+     * Gets the points the move scored.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MoveRecord other)) return false;
+        return turn == other.turn && playerIndex == other.playerIndex && score == other.score
+                && Arrays.equals(rows, other.rows) && Arrays.equals(cols, other.cols)
+                && Arrays.equals(letters, other.letters) && Arrays.equals(rack, other.rack);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * turn + playerIndex) + Arrays.hashCode(letters);
+    }
+
+    /**
+     * Returns the move as text, such as {@code turn 3 player 1: C@7,7 A@7,8 T@7,9 for 10}.
+     *
+     * @return the move as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("turn ").append(turn).append(" player ").append(playerIndex).append(':');
+        if (isPass()) {
+            return text.append(" pass").toString();
+        }
+        for (int i = 0; i < letters.length; i++) {
+            text.append(' ').append(letters[i]).append('@').append(rows[i]).append(',').append(cols[i]);
+        }
+        return text.append(" for ").append(score).toString();
+    }
+}
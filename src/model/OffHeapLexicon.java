@@ -0,0 +1,274 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * A {@link Lexicon} whose trie lives outside the Java heap, in a direct buffer or a file
+ * mapped into memory. The garbage collector sees one buffer object however many words there
+ * are, so a process running many games pays nothing for the dictionary in pause times or
+ * old-generation scanning, and every game and AI player shares the same bytes.
+ * <p>
+ * Nodes and edges are fixed size records read at computed offsets, so walking the trie creates
+ * no objects. A node's edges sit side by side, sorted by letter; numbers are little-endian, the
+ * order of the machines the game runs on, so reading them costs no byte swaps:
+ * <pre>
+ * header  magic:int version:short words:int nodes:int edges:int
+ * node    firstEdge:26 bits edgeCount:5 bits word:1 bit
+ * edge    target:27 bits letter:5 bits
+ * </pre>
+ * Node 0 is the root. The buffer is read only with absolute reads, which is what makes one
+ * lexicon safe to share between any number of threads.
+ */
+public final class OffHeapLexicon implements Lexicon {
+    private static final int MAGIC = 0x4C455849; // "LEXI"
+    private static final short VERSION = 1;
+    private static final int HEADER = 4 + 2 + 4 + 4 + 4;
+    private static OffHeapLexicon shared;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int nodeCount;
+    private final int edgeBase; // offset of the first edge record
+
+    private OffHeapLexicon(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IOException("Not a lexicon");
+        }
+        this.size = buffer.getInt(6);
+        this.nodeCount = buffer.getInt(10);
+        int edges = buffer.getInt(14);
+        if (buffer.limit() < HEADER + 4L * nodeCount + 4L * edges) {
+            throw new IOException("Lexicon is truncated");
+        }
+        this.buffer = buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        this.edgeBase = HEADER + 4 * nodeCount;
+    }
+
+    /**
+     * Copies a lexicon into a direct buffer. Nodes are numbered in the order a depth-first walk
+     * meets them.
+     *
+     * @param source the lexicon to copy
+     * @return the copy
+     */
+    public static OffHeapLexicon copyOf(Lexicon source) {
+        int[] counts = new int[2];
+        count(source, source.root(), counts);
+        if (counts[0] >= 1 << 27 || counts[1] >= 1 << 26) {
+            throw new IllegalArgumentException("Too many nodes for a lexicon: " + counts[0]);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER + 4 * counts[0] + 4 * counts[1]).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC).putShort(4, VERSION).putInt(6, source.size()).putInt(10, counts[0]).putInt(14, counts[1]);
+        new Copier(source, buffer, HEADER + 4 * counts[0]).copy(source.root());
+        try {
+            return new OffHeapLexicon(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // the header was just written
+        }
+    }
+
+    /**
+     * Builds the lexicon of a word list in a direct buffer. Empty words and words holding
+     * anything but the letters A to Z are left out.
+     *
+     * @param words the words, upper case
+     * @return the lexicon
+     */
+    public static OffHeapLexicon of(Collection<String> words) {
+        return copyOf(new TrieLexicon(words)); // the heap trie is garbage once copied
+    }
+
+    /**
+     * Maps a lexicon file written by {@link #write(Path)} into memory.
+     *
+     * @param file the file
+     * @return the lexicon
+     * @throws IOException if the file cannot be read or is not a lexicon
+     */
+    public static OffHeapLexicon open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OffHeapLexicon(mapped);
+        }
+    }
+
+    /**
+     * Gets the lexicon of the dictionary every {@link Model} uses. It is mapped from the file
+     * named by the {@code scrabble.lexicon} system property if there is one, and otherwise
+     * built from the word list on first use.
+     *
+     * @return the shared lexicon
+     */
+    public static synchronized OffHeapLexicon shared() {
+        if (shared == null) {
+            String file = System.getProperty("scrabble.lexicon");
+            if (file != null) {
+                try {
+                    shared = open(Path.of(file));
+                } catch (IOException e) {
+                    System.err.println("Lexicon not mapped: " + e.getMessage());
+                }
+            }
+            if (shared == null) {
+                shared = of(Model.loadWordList(Model.WORDLIST_PATH));
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Writes the lexicon to a file that {@link #open(Path)} can map.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer all = buffer.duplicate().clear();
+            while (all.hasRemaining()) {
+                channel.write(all);
+            }
+        }
+    }
+
+    @Override
+    public int root() {
+        return 0;
+    }
+
+    @Override
+    public int edgeCount(int node) {
+        return (buffer.getInt(HEADER + 4 * node) >>> 1) & 0x1F;
+    }
+
+    @Override
+    public char edgeLetter(int node, int edge) {
+        return (char) ('A' + (buffer.getInt(edgeBase + 4 * (firstEdge(node) + edge)) & 0x1F));
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return buffer.getInt(edgeBase + 4 * (firstEdge(node) + edge)) >>> 5;
+    }
+
+    @Override
+    public boolean isWord(int node) {
+        return (buffer.getInt(HEADER + 4 * node) & 1) != 0;
+    }
+
+    @Override
+    public int child(int node, char letter) {
+        int record = buffer.getInt(HEADER + 4 * node);
+        int at = edgeBase + 4 * (record >>> 6);
+        int end = at + 4 * ((record >>> 1) & 0x1F);
+        int wanted = letter - 'A';
+        for (; at < end; at += 4) {
+            int edge = buffer.getInt(at);
+            int found = edge & 0x1F;
+            if (found == wanted) {
+                return edge >>> 5;
+            }
+            if (found > wanted) {
+                break;
+            }
+        }
+        return NONE;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of nodes in the trie.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the number of bytes the lexicon takes outside the heap.
+     *
+     * @return the byte count
+     */
+    public long getByteSize() {
+        return buffer.capacity();
+    }
+
+    private int firstEdge(int node) {
+        return buffer.getInt(HEADER + 4 * node) >>> 6;
+    }
+
+    /**
+     * Counts the nodes and edges under a node, the node included.
+     */
+    private static void count(Lexicon source, int node, int[] counts) {
+        counts[0]++;
+        int edges = source.edgeCount(node);
+        counts[1] += edges;
+        for (int edge = 0; edge < edges; edge++) {
+            count(source, source.edgeTarget(node, edge), counts);
+        }
+    }
+
+    /**
+     * Writes the nodes and edges of a lexicon into a buffer, depth first.
+     */
+    private static final class Copier {
+        private final Lexicon source;
+        private final ByteBuffer buffer;
+        private final int edgeBase;
+        private int nodes;
+        private int edges;
+
+        private Copier(Lexicon source, ByteBuffer buffer, int edgeBase) {
+            this.source = source;
+            this.buffer = buffer;
+            this.edgeBase = edgeBase;
+        }
+
+        /**
+         * Copies a node and its subtrie.
+         *
+         * @return the number the node was given
+         */
+        private int copy(int from) {
+            int node = nodes++;
+            int count = source.edgeCount(from);
+            int first = edges;
+            edges += count;
+            buffer.putInt(HEADER + 4 * node, first << 6 | count << 1 | (source.isWord(from) ? 1 : 0));
+            for (int edge = 0; edge < count; edge++) {
+                int target = copy(source.edgeTarget(from, edge));
+                buffer.putInt(edgeBase + 4 * (first + edge), target << 5 | (source.edgeLetter(from, edge) - 'A'));
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Writes the lexicon of the word list to a file, for {@code -Dscrabble.lexicon}.
+     *
+     * @param args the file to write, {@code lexicon.bin} by default
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : "lexicon.bin");
+        OffHeapLexicon lexicon = of(Model.loadWordList(Model.WORDLIST_PATH));
+        lexicon.write(file);
+        System.out.printf("%d words, %d nodes, %d bytes written to %s%n", lexicon.size(), lexicon.getNodeCount(),
+                lexicon.getByteSize(), file);
+    }
+}
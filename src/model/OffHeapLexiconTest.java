@@ -0,0 +1,89 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class OffHeapLexiconTest {
+
+    @Test
+    public void testHoldsTheWordListOffTheHeap() {
+        Set<String> file = Model.loadWordList(Model.WORDLIST_PATH);
+        file.remove("");
+        OffHeapLexicon lexicon = OffHeapLexicon.shared();
+        assertEquals(file.size(), lexicon.size());
+        // two ints a node: far less than the strings and hash set it replaces
+        assertTrue(lexicon.getByteSize() + " bytes", lexicon.getByteSize() <= 8L * lexicon.getNodeCount() + 64);
+
+        // the game's word set is a view of the lexicon, spelled out in alphabetical order
+        Set<String> words = Model.sharedWordList();
+        assertEquals(new ArrayList<>(new TreeSet<>(file)), new ArrayList<>(words));
+        for (String word : file) {
+            assertTrue(word, words.contains(word));
+            assertFalse(word, words.contains(word + "QX"));
+        }
+        assertFalse(words.contains("cat"));
+        assertFalse(words.contains(""));
+        assertThrows(UnsupportedOperationException.class, () -> words.add("ZZZ"));
+    }
+
+    @Test
+    public void testMatchesTheHeapTrie() {
+        List<String> sample = List.of("CAT", "CAR", "CA", "DOG", "do-g", "", "ZYZZYVA", "AA");
+        TrieLexicon trie = new TrieLexicon(sample);
+        OffHeapLexicon copy = OffHeapLexicon.copyOf(trie);
+        assertEquals(trie.size(), copy.size());
+        assertEquals(trie.getNodeCount(), copy.getNodeCount());
+        assertEquals(List.of("AA", "CA", "CAR", "CAT", "DOG", "ZYZZYVA"), new ArrayList<>(new LexiconWords(copy)));
+        int c = copy.child(copy.root(), 'C');
+        assertEquals(2, copy.edgeCount(copy.child(c, 'A')));
+        assertEquals('R', copy.edgeLetter(copy.child(c, 'A'), 0));
+        assertTrue(copy.isWord(copy.child(c, 'A')));
+        assertEquals(Lexicon.NONE, copy.child(c, 'B'));
+        assertTrue(new LexiconWords(OffHeapLexicon.of(List.of())).isEmpty());
+    }
+
+    @Test
+    public void testMappedFileIsSharedByThreads() throws Exception {
+        Path file = Files.createTempFile("lexicon", ".bin");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            OffHeapLexicon.shared().write(file);
+            OffHeapLexicon mapped = OffHeapLexicon.open(file);
+            assertEquals(OffHeapLexicon.shared().size(), mapped.size());
+            List<String> words = new ArrayList<>(Model.sharedWordList());
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int offset = w;
+                workers.add(pool.submit(() -> {
+                    int found = 0;
+                    for (int i = offset; i < words.size(); i += 2) {
+                        found += mapped.contains(words.get(i)) ? 1 : 0;
+                        found += mapped.contains(words.get(i) + "QX") ? 1000 : 0;
+                    }
+                    return found;
+                }));
+            }
+            for (int w = 0; w < 4; w++) {
+                assertEquals((words.size() - w + 1) / 2, (int) workers.get(w).get());
+            }
+
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18});
+            assertThrows(IOException.class, () -> OffHeapLexicon.open(file));
+        } finally {
+            pool.shutdownNow();
+            Files.delete(file);
+        }
+    }
+}
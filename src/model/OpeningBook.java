@@ -0,0 +1,437 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * The best opening moves for every rack, worked out ahead of time. The first move of a game
+ * depends only on the rack, the board size, the premium squares and the dictionary, so each
+ * rack's ranked openings are generated once, offline and in parallel, and written to a file
+ * that later games map into memory: the first AI move becomes a binary search.
+ * <p>
+ * The file holds a header and one fixed size entry per rack, in the order of their keys:
+ * <pre>
+ * header  magic:int version:short boardSize:short configHash:long ranked:byte entries:int
+ * entry   rack:long moves:byte (score:short row:byte col:byte across:byte letters:7 bytes)*ranked
+ * </pre>
+ * A rack's key is its tiles in sorted order, five bits each, so equal racks in any order share
+ * an entry. Letters are as in a {@link MoveRecord}, lower case for a blank, and zero past the
+ * end of a shorter word. The config hash covers the board size, the premium squares and the
+ * dictionary; a book only answers for games whose hash matches, so one file serves every game
+ * and board with the same layout. A book is read-only and can be shared by any number of
+ * threads.
+ */
+public final class OpeningBook {
+    private static final int MAGIC = 0x4F50454E; // "OPEN"
+    private static final short VERSION = 1;
+    private static final int HEADER = 4 + 2 + 2 + 8 + 1 + 4;
+    private static final int RACK_SIZE = 7;
+    private static final int MOVE_BYTES = 2 + 1 + 1 + 1 + RACK_SIZE;
+    private static final int CHUNK = 2_000; // racks per task when building
+    private static long dictionaryHash;
+    private static OpeningBook shared;
+    private static boolean sharedLoaded;
+
+    private final ByteBuffer entries;
+    private final int boardSize;
+    private final long configHash;
+    private final int ranked;
+    private final int entrySize;
+    private final int count;
+
+    private OpeningBook(ByteBuffer file) throws IOException {
+        if (file.limit() < HEADER || file.getInt(0) != MAGIC || file.getShort(4) != VERSION) {
+            throw new IOException("Not an opening book");
+        }
+        this.boardSize = file.getShort(6);
+        this.configHash = file.getLong(8);
+        this.ranked = file.get(16);
+        this.count = file.getInt(17);
+        this.entrySize = 8 + 1 + ranked * MOVE_BYTES;
+        if (file.limit() < HEADER + (long) count * entrySize) {
+            throw new IOException("Opening book is truncated");
+        }
+        this.entries = file.slice(HEADER, count * entrySize);
+    }
+
+    /**
+     * Maps a book file into memory.
+     *
+     * @param file the file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(mapped);
+        }
+    }
+
+    /**
+     * Gets the book named by the {@code scrabble.openingBook} system property, mapping it on
+     * first use.
+     *
+     * @return the book, or null if none is set or it cannot be read
+     */
+    public static synchronized OpeningBook shared() {
+        if (!sharedLoaded) {
+            sharedLoaded = true;
+            String file = System.getProperty("scrabble.openingBook");
+            if (file != null) {
+                try {
+                    shared = open(Path.of(file));
+                } catch (IOException e) {
+                    System.err.println("Opening book not loaded: " + e.getMessage());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Replaces the shared book, whatever the system property names.
+     *
+     * @param book the book AI players open from, or null for none
+     */
+    static synchronized void setShared(OpeningBook book) {
+        shared = book;
+        sharedLoaded = true;
+    }
+
+    /**
+     * Gets the number of racks in the book.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the hash of the configuration the book was built for.
+     *
+     * @return the config hash
+     */
+    public long getConfigHash() {
+        return configHash;
+    }
+
+    /**
+     * Looks up the ranked openings for the current player of a game.
+     *
+     * @param model the game
+     * @return the moves, best first; empty if it is not the first turn, the game's layout or
+     * dictionary differs from the book's, or the rack is not in the book
+     */
+    public List<MoveRecord> lookup(Model model) {
+        if (!model.isFirstTurn() || model.getBoardSize() != boardSize
+                || configHash(boardSize, model.getPremiumGrid()) != configHash) {
+            return List.of();
+        }
+        List<Character> tiles = model.getCurrentPlayer().getTiles();
+        char[] rack = new char[tiles.size()];
+        for (int i = 0; i < rack.length; i++) {
+            rack[i] = tiles.get(i);
+        }
+        int entry = find(key(rack));
+        if (entry < 0) {
+            return List.of();
+        }
+        int at = entry * entrySize + 8;
+        int moves = entries.get(at++);
+        List<MoveRecord> found = new ArrayList<>(moves);
+        for (int m = 0; m < moves; m++, at += MOVE_BYTES) {
+            int score = entries.getShort(at);
+            int row = entries.get(at + 2);
+            int col = entries.get(at + 3);
+            boolean across = entries.get(at + 4) != 0;
+            int length = 0;
+            while (length < RACK_SIZE && entries.get(at + 5 + length) != 0) {
+                length++;
+            }
+            int[] rows = new int[length];
+            int[] cols = new int[length];
+            char[] letters = new char[length];
+            for (int i = 0; i < length; i++) {
+                rows[i] = across ? row : row + i;
+                cols[i] = across ? col + i : col;
+                letters[i] = (char) entries.get(at + 5 + i);
+            }
+            found.add(new MoveRecord(model.getTurnNumber(), model.getCurrentPlayerIndex(), rows, cols, letters,
+                    score, rack));
+        }
+        return found;
+    }
+
+    /**
+     * Looks up the best opening for the current player of a game.
+     *
+     * @param model the game
+     * @return the move, or null if the book has none for this game
+     */
+    public MoveRecord best(Model model) {
+        List<MoveRecord> moves = lookup(model);
+        return moves.isEmpty() ? null : moves.getFirst();
+    }
+
+    /**
+     * Binary searches the entries for a key.
+     */
+    private int find(long key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long found = entries.getLong(mid * entrySize);
+            if (found < key) {
+                low = mid + 1;
+            } else if (found > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes a book for a board layout.
+     *
+     * @param file      the file to write
+     * @param boardSize the board size
+     * @param grid      the premium squares
+     * @param racks     the rack keys to include, in increasing order, as from {@link #allRacks()}
+     * @param ranked    the most openings to keep per rack
+     * @param threads   the number of racks worked on at once
+     * @throws IOException if the file cannot be written
+     */
+    public static void build(Path file, int boardSize, PremiumGrid grid, long[] racks, int ranked, int threads)
+            throws IOException {
+        if (ranked < 1 || ranked > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Ranked openings must be 1 to 127: " + ranked);
+        }
+        int entrySize = 8 + 1 + ranked * MOVE_BYTES;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putShort(VERSION)
+                    .putShort((short) boardSize).putLong(configHash(boardSize, grid)).put((byte) ranked)
+                    .putInt(racks.length).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            // chunks are written in order as they finish; a few run ahead to keep every thread busy
+            List<Future<ByteBuffer>> pending = new ArrayList<>();
+            int next = 0;
+            while (next < racks.length || !pending.isEmpty()) {
+                while (next < racks.length && pending.size() < threads * 4) {
+                    long[] chunk = Arrays.copyOfRange(racks, next, Math.min(next + CHUNK, racks.length));
+                    pending.add(pool.submit(() -> buildChunk(chunk, boardSize, grid, ranked, entrySize)));
+                    next += chunk.length;
+                }
+                ByteBuffer done = pending.removeFirst().get();
+                while (done.hasRemaining()) {
+                    out.write(done);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted building " + file, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed building " + file, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Works out the entries of some racks.
+     */
+    private static ByteBuffer buildChunk(long[] racks, int boardSize, PremiumGrid grid, int ranked, int entrySize) {
+        ByteBuffer chunk = ByteBuffer.allocate(racks.length * entrySize);
+        for (long key : racks) {
+            List<Character> rack = new ArrayList<>(RACK_SIZE);
+            for (char tile : tiles(key)) {
+                rack.add(tile);
+            }
+            Model position = Model.position(boardSize, grid, List.of(MoveRecord.pass(0, 0, rack)), 0, "Opening");
+            List<MoveRecord> openings = distinct(new MoveGenerator(position).top(ranked * 2), ranked);
+            int start = chunk.position();
+            chunk.putLong(key).put((byte) openings.size());
+            for (MoveRecord move : openings) {
+                boolean across = move.getTileCount() < 2 || move.getRow(0) == move.getRow(1);
+                chunk.putShort((short) move.getScore()).put((byte) move.getRow(0)).put((byte) move.getCol(0))
+                        .put((byte) (across ? 1 : 0));
+                for (int i = 0; i < RACK_SIZE; i++) {
+                    chunk.put((byte) (i < move.getTileCount() ? move.getLetter(i) : 0));
+                }
+            }
+            chunk.position(start + entrySize);
+        }
+        return chunk.flip();
+    }
+
+    /**
+     * Drops the moves that are another move turned on the diagonal for the same score.
+     */
+    private static List<MoveRecord> distinct(List<MoveRecord> moves, int limit) {
+        List<MoveRecord> kept = new ArrayList<>(limit);
+        for (MoveRecord move : moves) {
+            boolean mirrored = false;
+            for (MoveRecord other : kept) {
+                mirrored |= other.getScore() == move.getScore() && isTranspose(other, move);
+            }
+            if (!mirrored && kept.size() < limit) {
+                kept.add(move);
+            }
+        }
+        return kept;
+    }
+
+    private static boolean isTranspose(MoveRecord a, MoveRecord b) {
+        if (a.getTileCount() != b.getTileCount()) {
+            return false;
+        }
+        for (int i = 0; i < a.getTileCount(); i++) {
+            if (a.getRow(i) != b.getCol(i) || a.getCol(i) != b.getRow(i) || a.getLetter(i) != b.getLetter(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lists the key of every distinct seven tile rack a full bag can deal, in increasing order.
+     *
+     * @return the keys
+     */
+    public static long[] allRacks() {
+        int[] available = new int[27];
+        for (int code = 1; code <= 27; code++) {
+            available[code - 1] = TileBag.fullCount(tile(code));
+        }
+        LongStream.Builder keys = LongStream.builder();
+        enumerate(available, 1, 0, 0L, keys);
+        return keys.build().toArray();
+    }
+
+    private static void enumerate(int[] available, int code, int length, long key, LongConsumer found) {
+        if (length == RACK_SIZE) {
+            found.accept(key);
+            return;
+        }
+        for (int c = code; c <= 27; c++) {
+            if (available[c - 1] > 0) {
+                available[c - 1]--;
+                enumerate(available, c, length + 1, key | (long) c << (5 * (RACK_SIZE - 1 - length)), found);
+                available[c - 1]++;
+            }
+        }
+    }
+
+    /**
+     * Gets the key of a rack: its tiles in sorted order, five bits each, the first highest.
+     *
+     * @param rack the tiles, {@link TileBag#BLANK} for a blank
+     * @return the key
+     */
+    public static long key(char[] rack) {
+        int[] codes = new int[Math.min(rack.length, RACK_SIZE)];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = code(rack[i]);
+        }
+        Arrays.sort(codes);
+        long key = 0;
+        for (int i = 0; i < codes.length; i++) {
+            key |= (long) codes[i] << (5 * (RACK_SIZE - 1 - i));
+        }
+        return key;
+    }
+
+    /**
+     * Gets the tiles of a rack key.
+     */
+    static char[] tiles(long key) {
+        char[] tiles = new char[RACK_SIZE];
+        int length = 0;
+        for (int i = 0; i < RACK_SIZE; i++) {
+            int code = (int) (key >>> (5 * (RACK_SIZE - 1 - i))) & 31;
+            if (code != 0) {
+                tiles[length++] = tile(code);
+            }
+        }
+        return Arrays.copyOf(tiles, length);
+    }
+
+    private static int code(char tile) {
+        if (tile == TileBag.BLANK) {
+            return 1;
+        }
+        return tile >= 'A' && tile <= 'Z' ? tile - 'A' + 2 : 0;
+    }
+
+    private static char tile(int code) {
+        return code == 1 ? TileBag.BLANK : (char) ('A' + code - 2);
+    }
+
+    /**
+     * Hashes what the openings of a game depend on: the board size, the premium squares and
+     * the dictionary.
+     *
+     * @param boardSize the board size
+     * @param grid      the premium squares
+     * @return the hash
+     */
+    public static long configHash(int boardSize, PremiumGrid grid) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a
+        hash = (hash ^ boardSize) * 0x100000001b3L;
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                hash = (hash ^ grid.getType(row, col)) * 0x100000001b3L;
+            }
+        }
+        return (hash ^ dictionaryHash()) * 0x100000001b3L;
+    }
+
+    private static synchronized long dictionaryHash() {
+        if (dictionaryHash == 0) {
+            long hash = Model.sharedWordList().size();
+            for (String word : Model.sharedWordList()) {
+                hash += word.hashCode() * 0x9E3779B97F4A7C15L; // in any order
+            }
+            dictionaryHash = hash == 0 ? 1 : hash;
+        }
+        return dictionaryHash;
+    }
+
+    /**
+     * Builds the book for the standard board, every rack, offline.
+     *
+     * @param args the file to write, {@code opening_book.bin} by default, then the number of
+     *             openings per rack (5) and of threads (one per core)
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : "opening_book.bin");
+        int ranked = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Model standard = Model.create(15, null, 0);
+        long[] racks = allRacks();
+        long start = System.nanoTime();
+        build(file, standard.getBoardSize(), standard.getPremiumGrid(), racks, ranked, threads);
+        System.out.printf("%d racks written to %s in %d s%n", racks.length, file, (System.nanoTime() - start) / 1_000_000_000);
+    }
+}
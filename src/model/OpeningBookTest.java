@@ -0,0 +1,131 @@
+package model;
+
+import Game.HeadlessGame;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OpeningBookTest {
+
+    @Test
+    public void testAllRacksAreEveryDistinctDeal() {
+        long[] racks = OpeningBook.allRacks();
+        assertEquals(3_199_724, racks.length);
+        for (int i = 1; i < racks.length; i++) {
+            assertTrue(racks[i - 1] < racks[i]);
+        }
+        for (int i = 0; i < racks.length; i += 9_973) {
+            assertEquals(racks[i], OpeningBook.key(OpeningBook.tiles(racks[i])));
+        }
+        assertEquals(OpeningBook.key("RETAINS".toCharArray()), OpeningBook.key("STAINER".toCharArray()));
+    }
+
+    @Test
+    public void testBookMatchesTheGenerator() throws Exception {
+        Model standard = Model.create(15, null, 0);
+        char[][] racks = new char[30][];
+        for (int i = 0; i < racks.length - 1; i++) {
+            TileBag bag = new TileBag(new Random(i));
+            racks[i] = new char[7];
+            for (int t = 0; t < 7; t++) {
+                racks[i][t] = bag.drawTile();
+            }
+        }
+        racks[racks.length - 1] = ("AEINR" + TileBag.BLANK + TileBag.BLANK).toCharArray();
+        long[] keys = Arrays.stream(racks).mapToLong(OpeningBook::key).sorted().distinct().toArray();
+
+        Path file = Files.createTempFile("opening", ".bin");
+        try {
+            OpeningBook.build(file, 15, standard.getPremiumGrid(), keys, 4, 2);
+            OpeningBook book = OpeningBook.open(file);
+            assertEquals(keys.length, book.size());
+            long lookups = 0;
+            long searches = 0;
+            for (char[] rack : racks) {
+                Model game = gameWithRack(15, rack);
+                long start = System.nanoTime();
+                List<MoveRecord> openings = book.lookup(game);
+                lookups += System.nanoTime() - start;
+                start = System.nanoTime();
+                MoveRecord best = new MoveGenerator(game).best();
+                searches += System.nanoTime() - start;
+
+                assertFalse(openings.isEmpty());
+                assertEquals(best.getScore(), openings.get(0).getScore());
+                for (int i = 1; i < openings.size(); i++) {
+                    assertTrue(openings.get(i - 1).getScore() >= openings.get(i).getScore());
+                }
+                for (MoveRecord opening : openings) {
+                    Model.Simulation simulation = game.simulate();
+                    try {
+                        assertTrue(opening.toString(), game.applyMove(opening));
+                    } finally {
+                        simulation.close();
+                    }
+                }
+            }
+            assertTrue(lookups + " ns against " + searches + " ns", lookups * 10 < searches);
+
+            assertTrue(book.lookup(gameWithRack(15, "QQQQQQQ".toCharArray())).isEmpty()); // not in the book
+            assertTrue(book.lookup(gameWithRack(11, racks[0])).isEmpty()); // another layout
+            Model played = gameWithRack(15, racks[0]);
+            assertTrue(played.applyMove(book.best(played)));
+            assertTrue(book.lookup(played).isEmpty()); // no longer the first turn
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testAiOpensTheGameFromTheBook() throws Exception {
+        Model game = Model.create(15, null, 11);
+        game.addAiPlayers(1);
+        game.addPlayer(new Player("Player 1"));
+        List<Character> tiles = game.getPlayers().getFirst().getTiles();
+        char[] rack = new char[tiles.size()];
+        for (int i = 0; i < rack.length; i++) {
+            rack[i] = tiles.get(i);
+        }
+
+        Path file = Files.createTempFile("opening", ".bin");
+        try {
+            OpeningBook.build(file, 15, game.getPremiumGrid(), new long[]{OpeningBook.key(rack)}, 4, 1);
+            OpeningBook book = OpeningBook.open(file);
+            MoveRecord expected = book.best(gameWithRack(15, rack));
+            OpeningBook.setShared(book);
+
+            // the AI has the first seat, so it opens as soon as the headless session starts
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new HeadlessGame(game, new PrintStream(out, true)).run(new BufferedReader(new StringReader("")));
+            assertTrue(out.toString(), out.toString().startsWith("ai AI 1 scored " + expected.getScore()));
+            assertFalse(game.isFirstTurn());
+            for (int i = 0; i < expected.getTileCount(); i++) {
+                assertEquals(expected.getLetter(i), game.getBoardState()[expected.getRow(i)][expected.getCol(i)]);
+            }
+        } finally {
+            OpeningBook.setShared(null);
+            Files.delete(file);
+        }
+    }
+
+    private static Model gameWithRack(int boardSize, char[] rack) {
+        Model game = Model.create(boardSize, null, 0);
+        Player player = new Player("Opener");
+        game.addPlayer(player);
+        player.getTiles().clear();
+        for (char tile : rack) {
+            player.addTile(tile);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,164 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides whether the tiles placed this turn make a legal play, and if they do, which words
+ * it makes.
+ * <p>
+ * The rules are checked in order of cost, all of them from the board's occupancy bits: the
+ * tiles must lie in one row or column, fill the stretch between the first and the last with
+ * the help of tiles already there, and touch an earlier tile, or cover the centre square on the
+ * first turn. Only a play that passes all of them has its words read off the board: one main
+ * word along the line of the play and a cross-word for each tile that has neighbours across it.
+ * Nothing is looked up in the dictionary here, so an illegal play never costs a lookup.
+ */
+final class Placement {
+    /**
+     * The problem of tiles that are not in one row or column, or leave a gap.
+     */
+    static final String NOT_IN_ONE_LINE = "notInOneLine";
+    /**
+     * The problem of tiles that touch none already on the board.
+     */
+    static final String NOT_CONNECTED = "noAdjacentTiles";
+    /**
+     * The problem of a first play that misses the centre square.
+     */
+    static final String CENTER_NOT_COVERED = "centerNotCovered";
+    /**
+     * The problem of a play that makes no word of two letters or more.
+     */
+    static final String NO_WORD = "noWordFound";
+
+    private final String problem;
+    private final List<String> words;
+
+    private Placement(String problem, List<String> words) {
+        this.problem = problem;
+        this.words = words;
+    }
+
+    /**
+     * Checks the tiles placed this turn, which are already on the board and in the index.
+     *
+     * @param board     the board
+     * @param index     the occupancy of the board
+     * @param placed    the cells of the tiles placed this turn
+     * @param firstTurn true if no play has been made yet
+     * @return the outcome
+     */
+    static Placement check(char[][] board, BoardIndex index, Collection<Position> placed, boolean firstTurn) {
+        if (placed.isEmpty()) {
+            return illegal(NO_WORD);
+        }
+        int minRow = Integer.MAX_VALUE;
+        int maxRow = -1;
+        int minCol = Integer.MAX_VALUE;
+        int maxCol = -1;
+        boolean center = false;
+        int middle = index.getSize() / 2;
+        for (Position pos : placed) {
+            minRow = Math.min(minRow, pos.row);
+            maxRow = Math.max(maxRow, pos.row);
+            minCol = Math.min(minCol, pos.col);
+            maxCol = Math.max(maxCol, pos.col);
+            center |= pos.row == middle && pos.col == middle;
+        }
+
+        boolean across;
+        if (minRow != maxRow && minCol != maxCol) {
+            return illegal(NOT_IN_ONE_LINE);
+        } else if (minRow != maxRow) {
+            across = false;
+        } else if (minCol != maxCol) {
+            across = true;
+        } else {
+            // one tile: it plays along whichever line it makes a word in, across if both
+            across = index.runStart(true, minRow, minCol) < minCol || index.runEnd(true, minRow, minCol) > minCol
+                    || index.runStart(false, minCol, minRow) == minRow && index.runEnd(false, minCol, minRow) == minRow;
+        }
+        int line = across ? minRow : minCol;
+        int from = across ? minCol : minRow;
+        int to = across ? maxCol : maxRow;
+        if (!index.isFilled(across, line, from, to)) {
+            return illegal(NOT_IN_ONE_LINE);
+        }
+
+        if (firstTurn) {
+            if (!center) {
+                return illegal(CENTER_NOT_COVERED);
+            }
+        } else if (index.count(across, line, from - 1, to + 1) == placed.size()
+                && index.count(across, line - 1, from, to) == 0
+                && index.count(across, line + 1, from, to) == 0) {
+            return illegal(NOT_CONNECTED);
+        }
+
+        List<String> words = new ArrayList<>(placed.size() + 1);
+        addWord(words, board, across, line, index.runStart(across, line, from), index.runEnd(across, line, to));
+        int[] crosses = new int[placed.size()];
+        int n = 0;
+        for (Position pos : placed) {
+            crosses[n++] = across ? pos.col : pos.row;
+        }
+        Arrays.sort(crosses); // cross-words in the order of the line, not of the map
+        for (int cross : crosses) {
+            addWord(words, board, !across, cross, index.runStart(!across, cross, line), index.runEnd(!across, cross, line));
+        }
+        if (words.isEmpty()) {
+            return illegal(NO_WORD);
+        }
+        return new Placement(null, Collections.unmodifiableList(words));
+    }
+
+    /**
+     * Checks whether the play is legal.
+     *
+     * @return true if it is
+     */
+    boolean isLegal() {
+        return problem == null;
+    }
+
+    /**
+     * Gets what makes the play illegal, named as the event the model notifies its observers of.
+     *
+     * @return the problem, or null if the play is legal
+     */
+    String getProblem() {
+        return problem;
+    }
+
+    /**
+     * Gets the words the play makes: the main word first, then the cross-words from left to
+     * right or top to bottom.
+     *
+     * @return the words, empty if the play is illegal
+     */
+    List<String> getWords() {
+        return words;
+    }
+
+    private static Placement illegal(String problem) {
+        return new Placement(problem, List.of());
+    }
+
+    /**
+     * Adds the word in a stretch of a row or column, if it is longer than one letter.
+     */
+    private static void addWord(List<String> words, char[][] board, boolean across, int line, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        char[] letters = new char[to - from + 1];
+        for (int i = from; i <= to; i++) {
+            letters[i - from] = across ? board[line][i] : board[i][line];
+        }
+        words.add(new String(letters));
+    }
+}
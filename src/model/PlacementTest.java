@@ -0,0 +1,132 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlacementTest {
+
+    @Test
+    public void testIllegalPlaysNeverReachTheDictionary() {
+        Model game = game();
+        long lookups = LatencyMetrics.get(LatencyMetrics.Operation.VALIDATE_WORD).getCount();
+
+        place(game, 'E', 7, 7);
+        assertRejected(game, Placement.NO_WORD);
+        placeWord(game, "CAT", 3, 3, true);
+        assertRejected(game, Placement.CENTER_NOT_COVERED);
+        place(game, 'C', 7, 6);
+        place(game, 'A', 8, 7);
+        assertRejected(game, Placement.NOT_IN_ONE_LINE);
+        place(game, 'C', 7, 6);
+        place(game, 'T', 7, 8);
+        assertRejected(game, Placement.NOT_IN_ONE_LINE); // a gap at the centre
+
+        placeWord(game, "CAT", 7, 6, true);
+        assertTrue(game.submitWord());
+        lookups++;
+        placeWord(game, "DOG", 1, 1, true);
+        assertRejected(game, Placement.NOT_CONNECTED);
+        place(game, 'S', 7, 9);
+        place(game, 'O', 8, 10);
+        assertRejected(game, Placement.NOT_IN_ONE_LINE);
+        place(game, 'S', 6, 5);
+        place(game, 'S', 6, 9);
+        assertRejected(game, Placement.NOT_IN_ONE_LINE);
+
+        assertEquals(lookups, LatencyMetrics.get(LatencyMetrics.Operation.VALIDATE_WORD).getCount());
+    }
+
+    @Test
+    public void testMainWordAndCrossWords() {
+        Model game = game();
+        placeWord(game, "CAT", 7, 6, true);
+        assertTrue(game.submitWord());
+        placeWord(game, "OW", 8, 6, false);
+        assertEquals(List.of("COW"), game.getAllNewWords());
+        assertTrue(game.submitWord());
+        // C A T
+        // O
+        // W
+
+        place(game, 'S', 7, 9);
+        assertWords(game, "CATS");
+        place(game, 'X', 8, 7); // a word both ways; the one across is the main word
+        assertWords(game, "OX", "AX");
+        place(game, 'E', 8, 7);
+        place(game, 'E', 8, 8);
+        assertWords(game, "OEE", "AE", "TE");
+        place(game, 'B', 6, 7); // the A on the board fills the gap
+        place(game, 'T', 8, 7);
+        assertWords(game, "BAT", "OT");
+    }
+
+    @Test
+    public void testGeneratedMovesStayLegal() {
+        Model game = Model.create(15, null, 5);
+        game.addAiPlayers(2);
+        for (int turn = 0; turn < 8; turn++) {
+            MoveRecord best = null;
+            for (MoveRecord move : new MoveGenerator(game).generate()) {
+                Model.Simulation simulation = game.simulate();
+                try {
+                    assertTrue(move.toString(), game.applyMove(move));
+                } finally {
+                    simulation.close();
+                }
+                if (best == null || move.getScore() > best.getScore()) {
+                    best = move;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            assertTrue(game.applyMove(best));
+        }
+    }
+
+    private static Model game() {
+        Model game = Model.create(15, null, 1);
+        game.addPlayer(new Player("Player 1"));
+        game.getCurrentPlayer().getTiles().clear();
+        return game;
+    }
+
+    private static void place(Model game, char tile, int row, int col) {
+        game.getCurrentPlayer().addTile(tile);
+        assertTrue(game.placeTile(tile, row, col));
+    }
+
+    private static void placeWord(Model game, String word, int row, int col, boolean across) {
+        for (int i = 0; i < word.length(); i++) {
+            place(game, word.charAt(i), across ? row : row + i, across ? col + i : col);
+        }
+    }
+
+    /**
+     * Checks that the placed tiles are turned down for a reason, and go back to the rack.
+     */
+    private static void assertRejected(Model game, String problem) {
+        Placement placement = game.checkPlacement();
+        assertEquals(problem, placement.getProblem());
+        assertEquals(List.of(), placement.getWords());
+        long hash = game.getBoardHash();
+        assertFalse(game.submitWord());
+        assertNotEquals(hash, game.getBoardHash()); // the tiles came off the board
+        assertEquals(Placement.NO_WORD, game.checkPlacement().getProblem());
+        game.getCurrentPlayer().getTiles().clear();
+    }
+
+    /**
+     * Checks the words the placed tiles make, then takes them back.
+     */
+    private static void assertWords(Model game, String... words) {
+        Placement placement = game.checkPlacement();
+        assertTrue(placement.getProblem(), placement.isLegal());
+        assertEquals(List.of(words), placement.getWords());
+        game.restorePlayerTiles();
+        game.getCurrentPlayer().getTiles().clear();
+    }
+}
@@ -0,0 +1,144 @@
+package model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Represents the premium square layout of a board.
+ * A grid is immutable once built, so a single instance can be shared by every game
+ * that uses the same board configuration.
+ */
+public final class PremiumGrid implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final byte NONE = 0;
+    public static final byte DOUBLE_LETTER = 1;
+    public static final byte TRIPLE_LETTER = 2;
+    public static final byte DOUBLE_WORD = 3;
+    public static final byte TRIPLE_WORD = 4;
+
+    private final int size;
+    private final byte[] cells;
+
+    /**
+     * Constructs a premium grid from a row-major array of square types.
+     * The array is owned by the grid afterwards and must not be modified by the caller.
+     *
+     * @param size  the size of the board
+     * @param cells the square types, one per cell, in row-major order
+     */
+    PremiumGrid(int size, byte[] cells) {
+        if (cells.length != size * size) {
+            throw new IllegalArgumentException("Expected " + (size * size) + " cells but got " + cells.length);
+        }
+        this.size = size;
+        this.cells = cells;
+    }
+
+    /**
+     * Gets the size of the board this grid describes.
+     *
+     * @return the size of the board
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the premium type of the square at the specified position.
+     *
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return one of {@link #NONE}, {@link #DOUBLE_LETTER}, {@link #TRIPLE_LETTER},
+     * {@link #DOUBLE_WORD} or {@link #TRIPLE_WORD}
+     */
+    public byte getType(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * Gets the letter multiplier of the square at the specified position.
+     *
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return 3 for a triple letter square, 2 for a double letter square, 1 otherwise
+     */
+    public int letterMultiplier(int row, int col) {
+        byte type = cells[row * size + col];
+        return type == TRIPLE_LETTER ? 3 : type == DOUBLE_LETTER ? 2 : 1;
+    }
+
+    /**
+     * Gets the word multiplier of the square at the specified position.
+     *
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return 3 for a triple word square, 2 for a double word square, 1 otherwise
+     */
+    public int wordMultiplier(int row, int col) {
+        byte type = cells[row * size + col];
+        return type == TRIPLE_WORD ? 3 : type == DOUBLE_WORD ? 2 : 1;
+    }
+
+    /**
+     * Gets the positions of every square of the given type, as a read-only view of the grid.
+     * Nothing is copied: membership is one lookup in the grid, and iterating scans it.
+     *
+     * @param type the premium type to collect
+     * @return the positions of the squares of that type
+     */
+    public Set<Position> positionsOf(byte type) {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Position pos && pos.row >= 0 && pos.row < size && pos.col >= 0 && pos.col < size
+                        && cells[pos.row * size + pos.col] == type;
+            }
+
+            @Override
+            public int size() {
+                int count = 0;
+                for (byte cell : cells) {
+                    if (cell == type) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            public Iterator<Position> iterator() {
+                return new Iterator<>() {
+                    private int next = find(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < cells.length;
+                    }
+
+                    @Override
+                    public Position next() {
+                        if (next >= cells.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Position pos = new Position(next / size, next % size);
+                        next = find(next + 1);
+                        return pos;
+                    }
+
+                    private int find(int from) {
+                        while (from < cells.length && cells[from] != type) {
+                            from++;
+                        }
+                        return from;
+                    }
+                };
+            }
+        };
+    }
+}
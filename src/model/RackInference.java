@@ -0,0 +1,444 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Infers what the other players hold from what one player, the viewer, can see: the board,
+ * their own rack and the moves everyone made.
+ * <p>
+ * The unseen tiles, those in the bag or on another player's rack, are known exactly: a full
+ * bag less the tiles on the board and on the viewer's rack. What each opponent holds is
+ * estimated with weighted samples. A sample is a guess at the tiles the opponent kept after
+ * their last move, as a count of each tile; the tiles they drew since are unknown and are
+ * drawn from the unseen pool when needed. Each move an opponent makes narrows the guesses:
+ * <ul>
+ *     <li>the tiles laid were on the rack, so each guess is completed with the ones it lacks
+ *     and weighted by how likely drawing them was;</li>
+ *     <li>a rack that spelled a seven letter word is unlikely to have been kept from it, so a
+ *     guess whose rack held a bingo the player didn't play counts for far less. Not playing
+ *     an S bingo makes an S less likely.</li>
+ * </ul>
+ * The guesses are then redrawn in proportion to their weights. Opponents are estimated one
+ * at a time from the same pool, so a tile can be guessed onto two racks at once.
+ * <p>
+ * Sampling a rack takes a few dozen array reads, cheap enough to give every simulation
+ * rollout racks of its own. An inference follows one model and, like the model, belongs to
+ * one thread.
+ */
+public final class RackInference {
+    private static final int KINDS = 27; // A to Z, then the blank
+    private static final int RACK_SIZE = 7;
+    private static final double MISSED_BINGO = 0.05; // how likely a player is to pass up a bingo
+    private static final double[] LOG_FACTORIAL = new double[128];
+
+    static {
+        for (int i = 1; i < LOG_FACTORIAL.length; i++) {
+            LOG_FACTORIAL[i] = LOG_FACTORIAL[i - 1] + Math.log(i);
+        }
+    }
+
+    private final Model model;
+    private final int viewer;
+    private final int samples;
+    private final Random random;
+    private final WordFinder finder;
+
+    private int observed; // moves of the log taken into account
+    private final int[] laidCounts = new int[KINDS]; // tiles on the board after those moves
+    private int bag; // tiles left in the bag after those moves
+    private final int[] rackSizes;
+    private final byte[][][] leaves; // per player, per sample: the count of each tile kept
+
+    /**
+     * Constructs an inference with a thousand samples per opponent.
+     *
+     * @param model  the game
+     * @param viewer the index of the player whose view is taken
+     */
+    public RackInference(Model model, int viewer) {
+        this(model, viewer, 1000, new Random());
+    }
+
+    /**
+     * Constructs an inference.
+     *
+     * @param model   the game
+     * @param viewer  the index of the player whose view is taken
+     * @param samples the number of guesses kept per opponent
+     * @param random  the random source for guesses and sampled racks
+     */
+    public RackInference(Model model, int viewer, int samples, Random random) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("Need at least one sample: " + samples);
+        }
+        this.model = model;
+        this.viewer = viewer;
+        this.samples = samples;
+        this.random = random;
+        this.finder = WordFinder.shared();
+        int players = model.getPlayers().size();
+        rackSizes = new int[players];
+        leaves = new byte[players][][];
+        bag = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            bag += TileBag.fullCount(tile(kind));
+        }
+        for (int p = 0; p < players; p++) {
+            rackSizes[p] = Math.min(RACK_SIZE, bag);
+            bag -= rackSizes[p];
+            leaves[p] = new byte[samples][KINDS];
+        }
+        update();
+    }
+
+    /**
+     * Takes into account the moves made since the last update. Call it between turns, with no
+     * tiles placed on the board.
+     */
+    public void update() {
+        List<MoveRecord> log = model.getMoveLog();
+        while (observed < log.size()) {
+            observe(log.get(observed++));
+        }
+        int[] unseen = unseenCounts();
+        for (int p = 0; p < leaves.length; p++) {
+            if (p != viewer) {
+                prune(p, unseen);
+            }
+        }
+    }
+
+    /**
+     * Gets how many of a tile are unseen, in the bag or on another player's rack.
+     *
+     * @param tile the tile, {@link TileBag#BLANK} for a blank
+     * @return the count
+     */
+    public int getUnseen(char tile) {
+        int kind = kind(tile);
+        return kind < 0 ? 0 : unseenCounts()[kind];
+    }
+
+    /**
+     * Estimates the chance that a player holds at least one of a tile.
+     *
+     * @param player the player's index
+     * @param tile   the tile, {@link TileBag#BLANK} for a blank
+     * @return the probability
+     */
+    public double probabilityOfHolding(int player, char tile) {
+        int kind = kind(tile);
+        if (kind < 0) {
+            return 0;
+        }
+        int[] unseen = unseenCounts();
+        int total = sum(unseen);
+        double sum = 0;
+        for (byte[] leave : leaves(player)) {
+            if (leave[kind] > 0) {
+                sum++;
+                continue;
+            }
+            int left = total - sum(leave);
+            int draws = draws(player, leave);
+            // chance that none of the draws is the tile
+            int others = left - Math.max(0, unseen[kind] - leave[kind]);
+            sum += 1 - Math.exp(logChoose(others, draws) - logChoose(left, draws));
+        }
+        return sum / samples;
+    }
+
+    /**
+     * Estimates how many of a tile a player holds.
+     *
+     * @param player the player's index
+     * @param tile   the tile, {@link TileBag#BLANK} for a blank
+     * @return the expected count
+     */
+    public double expectedCount(int player, char tile) {
+        int kind = kind(tile);
+        if (kind < 0) {
+            return 0;
+        }
+        int[] unseen = unseenCounts();
+        int total = sum(unseen);
+        double sum = 0;
+        for (byte[] leave : leaves(player)) {
+            int left = total - sum(leave);
+            sum += leave[kind];
+            if (left > 0) {
+                sum += (double) draws(player, leave) * Math.max(0, unseen[kind] - leave[kind]) / left;
+            }
+        }
+        return sum / samples;
+    }
+
+    /**
+     * Draws a rack a player might hold, as many tiles as the player has.
+     *
+     * @param player the player's index
+     * @param random the random source
+     * @return the tiles, with {@link TileBag#BLANK} for a blank
+     */
+    public List<Character> sampleRack(int player, Random random) {
+        byte[] leave = leaves(player)[random.nextInt(samples)];
+        int[] pool = unseenCounts();
+        int left = 0;
+        List<Character> rack = new ArrayList<>(RACK_SIZE);
+        for (int kind = 0; kind < KINDS; kind++) {
+            for (int i = 0; i < leave[kind]; i++) {
+                rack.add(tile(kind));
+            }
+            pool[kind] = Math.max(0, pool[kind] - leave[kind]);
+            left += pool[kind];
+        }
+        for (int i = draws(player, leave); i > 0 && left > 0; i--, left--) {
+            int kind = pick(pool, left, random);
+            pool[kind]--;
+            rack.add(tile(kind));
+        }
+        return rack;
+    }
+
+    /**
+     * Updates the guesses and the tile counts for one move.
+     */
+    private void observe(MoveRecord move) {
+        int player = move.getPlayerIndex();
+        int[] laid = new int[KINDS];
+        for (int i = 0; i < move.getTileCount(); i++) {
+            laid[kind(TileBag.rackTile(move.getLetter(i)))]++;
+        }
+        if (player < 0 || player >= leaves.length) {
+            addLaid(laid);
+            return;
+        }
+        if (player != viewer) {
+            reweigh(player, laid, move.getTileCount());
+        }
+        addLaid(laid);
+        int kept = Math.max(0, rackSizes[player] - move.getTileCount());
+        int drawn = Math.min(Math.max(0, RACK_SIZE - kept), bag);
+        bag -= drawn;
+        rackSizes[player] = kept + drawn;
+        int[] unseen = unseenCounts();
+        for (int p = 0; p < leaves.length; p++) {
+            if (p != viewer && p != player) {
+                prune(p, unseen);
+            }
+        }
+    }
+
+    /**
+     * Completes each guess of a player's rack with the tiles they just laid and keeps what is
+     * left of it, weighted by how likely the rack was and how likely the move was from it.
+     */
+    private void reweigh(int player, int[] laid, int tileCount) {
+        int[] pool = unseenCounts(); // the laid tiles are not on the board yet
+        byte[][] guesses = leaves[player];
+        byte[][] next = new byte[samples][KINDS];
+        double[] weights = new double[samples];
+        double total = 0;
+        for (int attempt = 0; attempt < 2 && total == 0; attempt++) {
+            boolean fromScratch = attempt == 1; // no guess fits: forget what was kept and start over
+            for (int s = 0; s < samples; s++) {
+                weights[s] = complete(fromScratch ? new byte[KINDS] : guesses[s], player, pool, laid, tileCount, next[s]);
+                total += weights[s];
+            }
+        }
+        if (total == 0) {
+            leaves[player] = new byte[samples][KINDS];
+            return;
+        }
+        leaves[player] = resample(next, weights, total);
+    }
+
+    /**
+     * Completes one guess into a rack the move could have been made from, writes what the
+     * move leaves of it, and returns its weight.
+     */
+    private double complete(byte[] leave, int player, int[] pool, int[] laid, int tileCount, byte[] kept) {
+        int draws = rackSizes[player] - sum(leave);
+        int[] rest = new int[KINDS];
+        int[] rack = new int[KINDS];
+        int restTotal = 0;
+        int required = 0;
+        double logWeight = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            rest[kind] = pool[kind] - leave[kind];
+            int missing = Math.max(0, laid[kind] - leave[kind]);
+            if (rest[kind] < missing) {
+                return 0; // the guess kept a tile that is no longer unseen, or the move needs too many
+            }
+            rack[kind] = leave[kind] + missing;
+            restTotal += rest[kind];
+            required += missing;
+        }
+        if (required > draws) {
+            return 0;
+        }
+        // draw the rest freely; the weight corrects for having forced the missing tiles
+        int[] free = new int[KINDS];
+        int freeTotal = restTotal - required;
+        for (int kind = 0; kind < KINDS; kind++) {
+            free[kind] = rest[kind] - (rack[kind] - leave[kind]);
+        }
+        for (int i = draws - required; i > 0 && freeTotal > 0; i--, freeTotal--) {
+            int kind = pick(free, freeTotal, random);
+            free[kind]--;
+            rack[kind]++;
+        }
+        for (int kind = 0; kind < KINDS; kind++) {
+            int drawn = rack[kind] - leave[kind];
+            int missing = Math.max(0, laid[kind] - leave[kind]);
+            logWeight += logChoose(rest[kind], drawn) - logChoose(rest[kind] - missing, drawn - missing);
+            kept[kind] = (byte) (rack[kind] - laid[kind]);
+        }
+        logWeight += logChoose(restTotal - required, draws - required) - logChoose(restTotal, draws);
+        double likelihood = tileCount < RACK_SIZE && sum(rack) == RACK_SIZE && spellsBingo(rack) ? MISSED_BINGO : 1;
+        return Math.exp(logWeight) * likelihood;
+    }
+
+    /**
+     * Checks whether a full rack is an anagram of a word.
+     */
+    private boolean spellsBingo(int[] rack) {
+        StringBuilder letters = new StringBuilder(RACK_SIZE);
+        for (int kind = 0; kind < KINDS; kind++) {
+            for (int i = 0; i < rack[kind]; i++) {
+                letters.append(kind == KINDS - 1 ? '?' : (char) ('A' + kind));
+            }
+        }
+        return finder.anagrams(letters.toString(), 0, 1).getTotal() > 0;
+    }
+
+    /**
+     * Drops the guesses of a player that keep tiles no longer unseen, redrawing from the rest.
+     */
+    private void prune(int player, int[] unseen) {
+        byte[][] guesses = leaves[player];
+        double[] weights = new double[samples];
+        double total = 0;
+        for (int s = 0; s < samples; s++) {
+            weights[s] = 1;
+            for (int kind = 0; kind < KINDS; kind++) {
+                if (guesses[s][kind] > unseen[kind]) {
+                    weights[s] = 0;
+                    break;
+                }
+            }
+            total += weights[s];
+        }
+        if (total == samples) {
+            return;
+        }
+        if (total == 0) {
+            leaves[player] = new byte[samples][KINDS];
+            return;
+        }
+        leaves[player] = resample(guesses, weights, total);
+    }
+
+    /**
+     * Redraws guesses in proportion to their weights, with one random offset for all of them.
+     */
+    private byte[][] resample(byte[][] guesses, double[] weights, double total) {
+        byte[][] drawn = new byte[samples][];
+        double step = total / samples;
+        double target = random.nextDouble() * step;
+        double cumulative = weights[0];
+        int s = 0;
+        for (int i = 0; i < samples; i++) {
+            while (cumulative < target && s < samples - 1) {
+                cumulative += weights[++s];
+            }
+            drawn[i] = guesses[s].clone();
+            target += step;
+        }
+        return drawn;
+    }
+
+    /**
+     * Gets the unseen tiles now: a full bag less the board and the viewer's rack.
+     */
+    private int[] unseenCounts() {
+        int[] unseen = new int[KINDS];
+        for (int kind = 0; kind < KINDS; kind++) {
+            unseen[kind] = TileBag.fullCount(tile(kind)) - laidCounts[kind];
+        }
+        if (viewer >= 0 && viewer < model.getPlayers().size()) {
+            for (char tile : model.getPlayers().get(viewer).getTiles()) {
+                int kind = kind(tile);
+                if (kind >= 0) {
+                    unseen[kind] = Math.max(0, unseen[kind] - 1);
+                }
+            }
+        }
+        return unseen;
+    }
+
+    private void addLaid(int[] laid) {
+        for (int kind = 0; kind < KINDS; kind++) {
+            laidCounts[kind] += laid[kind];
+        }
+    }
+
+    private byte[][] leaves(int player) {
+        if (player < 0 || player >= leaves.length || player == viewer) {
+            throw new IllegalArgumentException("Not an opponent: " + player);
+        }
+        return leaves[player];
+    }
+
+    /**
+     * Gets how many tiles a player holds beyond a guess at what they kept.
+     */
+    private int draws(int player, byte[] leave) {
+        return Math.max(0, model.getPlayers().get(player).getTiles().size() - sum(leave));
+    }
+
+    private static int pick(int[] counts, int total, Random random) {
+        int r = random.nextInt(total);
+        int kind = 0;
+        while (r >= counts[kind]) {
+            r -= counts[kind++];
+        }
+        return kind;
+    }
+
+    private static double logChoose(int n, int k) {
+        if (k < 0 || k > n) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return LOG_FACTORIAL[n] - LOG_FACTORIAL[k] - LOG_FACTORIAL[n - k];
+    }
+
+    private static int sum(byte[] counts) {
+        int sum = 0;
+        for (byte count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static int kind(char tile) {
+        if (tile == TileBag.BLANK) {
+            return KINDS - 1;
+        }
+        return tile >= 'A' && tile <= 'Z' ? tile - 'A' : -1;
+    }
+
+    private static char tile(int kind) {
+        return kind == KINDS - 1 ? TileBag.BLANK : (char) ('A' + kind);
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RackInferenceTest {
+    private static final String TILES = "ABCDEFGHIJKLMNOPQRSTUVWXYZ" + TileBag.BLANK;
+
+    @Test
+    public void testUnseenTilesAreExactAndSamplesComeFromThem() {
+        Model game = Model.create(15, null, 5);
+        game.addAiPlayers(2);
+        assertTrue(game.applyMove(new MoveGenerator(game).best()));
+        for (int turn = 0; turn < 8; turn++) {
+            ((AiPlayer) game.getCurrentPlayer()).play();
+            game.nextTurn();
+        }
+        RackInference inference = new RackInference(game, 0, 500, new Random(1));
+        List<Character> opponent = game.getPlayers().get(1).getTiles();
+        int unseen = 0;
+        for (char tile : TILES.toCharArray()) {
+            unseen += inference.getUnseen(tile);
+            assertTrue(inference.getUnseen(tile) >= count(opponent, tile));
+        }
+        assertEquals(opponent.size() + game.getRemainingTiles(), unseen);
+
+        Random random = new Random(2);
+        for (int i = 0; i < 1_000; i++) {
+            List<Character> rack = inference.sampleRack(1, random);
+            assertEquals(opponent.size(), rack.size());
+            for (char tile : TILES.toCharArray()) {
+                assertTrue(count(rack, tile) <= inference.getUnseen(tile));
+            }
+        }
+        int rollouts = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rollouts; i++) {
+            inference.sampleRack(1, random);
+        }
+        long average = (System.nanoTime() - start) / rollouts;
+        assertTrue("average " + average + " ns", average < 20_000);
+        assertThrows(IllegalArgumentException.class, () -> inference.sampleRack(0, random));
+    }
+
+    @Test
+    public void testPassingUpABingoMakesItsTilesLessLikely() {
+        Model game = Model.create(15, null, 7);
+        Player opponent = new Player("Opponent");
+        Player viewer = new Player("Viewer");
+        game.addPlayer(opponent);
+        game.addPlayer(viewer);
+        RackInference inference = new RackInference(game, 1, 4_000, new Random(3));
+
+        // RETAIN and one more tile: an S would have made RETAINS or NASTIER
+        opponent.getTiles().clear();
+        for (char tile : "RETAINQ".toCharArray()) {
+            opponent.addTile(tile);
+        }
+        String word = "RETAIN";
+        for (int i = 0; i < word.length(); i++) {
+            assertTrue(game.placeTile(word.charAt(i), 7, 4 + i));
+        }
+        assertTrue(game.submitWord());
+        game.nextTurn();
+        inference.update();
+
+        int unseen = 0;
+        for (char tile : TILES.toCharArray()) {
+            unseen += inference.getUnseen(tile);
+        }
+        double blind = 7.0 / unseen; // each unseen tile is on a rack drawn blind with this chance
+        double s = inference.expectedCount(0, 'S') / inference.getUnseen('S');
+        double q = inference.expectedCount(0, 'Q') / inference.getUnseen('Q');
+        assertTrue("S " + s + " blind " + blind, s < blind);
+        assertTrue("Q " + q + " blind " + blind, q > blind);
+    }
+
+    private static int count(List<Character> tiles, char tile) {
+        int count = 0;
+        for (char c : tiles) {
+            if (c == tile) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.List;
+
+/**
+ * Recorded for every call to {@link Model#submitWord()}. A submission inside a simulation is
+ * committed when the simulation ends, so it is known whether the move was kept.
+ */
+@Name("scrabble.SubmitWord")
+@Label("Submit Word")
+@Description("Validation and scoring of the tiles placed in a turn")
+class SubmitWordEvent extends GameFlightEvent {
+    @Label("Words")
+    String words;
+
+    @Label("Tiles Placed")
+    int tilesPlaced;
+
+    @Label("Valid")
+    boolean valid;
+
+    @Label("Outcome")
+    @Description("wordSubmitted, or the reason the move was rejected")
+    String outcome;
+
+    @Label("Score")
+    int score;
+
+    @Label("Simulated")
+    @Description("True when the move was made inside a simulation that was rolled back")
+    boolean simulated;
+
+    // kept as a list until commit, so nothing is joined when the event is disabled
+    transient List<String> wordList = List.of();
+}
@@ -4,55 +4,80 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 /**
  * The TileBag class represents the bag of tiles that players draw from.
- * The bag contains 100 tiles, each with a letter from A to Z.
+ * The bag contains 100 tiles: 98 with a letter from A to Z and two blanks.
  * The number of each tile is based on the official Scrabble tile distribution.
  * The bag is shuffled at the start of the game to randomize the draw order.
+ * <p>
+ * A blank is held on a rack as {@link #BLANK}. Once played it stands for a letter the player
+ * chooses and is written on the board as that letter in lower case, which scores nothing.
  */
 public class TileBag implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    /**
+     * The blank tile as it is held on a rack.
+     */
+    public static final char BLANK = ' ';
+
+    // A to Z, then the blank
+    private static final int[] COUNTS = {9, 2, 2, 4, 12, 2, 3, 2, 9, 1, 1, 4, 2, 6, 8, 2, 1, 6, 4, 6, 4, 2, 2, 1, 2, 1, 2};
+
     private List<Character> tiles;
 
     public TileBag() {
+        this(new Random());
+    }
+
+    /**
+     * @param random The random source used to shuffle the bag
+     */
+    public TileBag(Random random) {
         tiles = new ArrayList<>();
         initializeBag();
-        Collections.shuffle(tiles); // Shuffle the tiles to randomize the draw order
+        Collections.shuffle(tiles, random); // Shuffle the tiles to randomize the draw order
     }
 
     /**
      * The number of each tile is based on the official Scrabble tile distribution.
      * The number of each tile is as follows:
-     * A: 9, B: 2, C: 2, D: 4, E: 12, F: 2, G: 3, H: 2, I: 9, J: 1, K: 1, L: 4, M: 2, N: 6, O: 8, P: 2, Q: 1, R: 6, S: 4, T: 6, U: 4, V: 2, W: 2, X: 1, Y: 2, Z: 1
+     * A: 9, B: 2, C: 2, D: 4, E: 12, F: 2, G: 3, H: 2, I: 9, J: 1, K: 1, L: 4, M: 2, N: 6, O: 8, P: 2, Q: 1, R: 6, S: 4, T: 6, U: 4, V: 2, W: 2, X: 1, Y: 2, Z: 1, blank: 2
      */
     private void initializeBag() {
-        addTiles('A', 9);
-        addTiles('B', 2);
-        addTiles('C', 2);
-        addTiles('D', 4);
-        addTiles('E', 12);
-        addTiles('F', 2);
-        addTiles('G', 3);
-        addTiles('H', 2);
-        addTiles('I', 9);
-        addTiles('J', 1);
-        addTiles('K', 1);
-        addTiles('L', 4);
-        addTiles('M', 2);
-        addTiles('N', 6);
-        addTiles('O', 8);
-        addTiles('P', 2);
-        addTiles('Q', 1);
-        addTiles('R', 6);
-        addTiles('S', 4);
-        addTiles('T', 6);
-        addTiles('U', 4);
-        addTiles('V', 2);
-        addTiles('W', 2);
-        addTiles('X', 1);
-        addTiles('Y', 2);
-        addTiles('Z', 1);
+        for (char letter = 'A'; letter <= 'Z'; letter++) {
+            addTiles(letter, COUNTS[letter - 'A']);
+        }
+        addTiles(BLANK, COUNTS[26]);
+    }
+
+    /**
+     * @param tile A tile as held on a rack
+     * @return How many of the tile a full bag holds
+     */
+    public static int fullCount(char tile) {
+        if (tile == BLANK) {
+            return COUNTS[26];
+        }
+        return tile >= 'A' && tile <= 'Z' ? COUNTS[tile - 'A'] : 0;
+    }
+
+    /**
+     * @param tile A tile as written on the board
+     * @return True if the tile is a blank standing for a letter
+     */
+    public static boolean isBlank(char tile) {
+        return tile >= 'a' && tile <= 'z';
+    }
+
+    /**
+     * @param tile A tile as written on the board
+     * @return The tile as held on a rack: {@link #BLANK} for a blank, otherwise the tile itself
+     */
+    public static char rackTile(char tile) {
+        return isBlank(tile) ? BLANK : tile;
     }
 
     /**
@@ -82,6 +107,21 @@ public class TileBag implements Serializable {
         return tiles.size();
     }
 
+    /**
+     * @return A copy of the tiles left in the bag, in draw order
+     */
+    List<Character> snapshot() {
+        return new ArrayList<>(tiles);
+    }
+
+    /**
+     * @param snapshot The tiles to put back in the bag, as returned by {@link #snapshot()}
+     */
+    void restore(List<Character> snapshot) {
+        tiles.clear();
+        tiles.addAll(snapshot);
+    }
+
     /**
      * @return True if the bag is empty, false otherwise
      */
@@ -0,0 +1,148 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link Lexicon} held as a trie in flat arrays: the edges of each node sit side by side,
+ * sorted by letter, so a node is just the index of its first edge and its edge count. The
+ * trie is built in one pass over the sorted words and never changes afterwards.
+ */
+public final class TrieLexicon implements Lexicon {
+    private final int[] firstEdge;
+    private final byte[] edgeCounts;
+    private final BitSet words = new BitSet();
+    private final char[] letters;
+    private final int[] targets;
+    private int nodeCount;
+    private int edgeTotal;
+    private int size;
+
+    /**
+     * Builds the trie of a word list. Empty words and words holding anything but the letters A
+     * to Z are left out.
+     *
+     * @param wordList the words, upper case
+     */
+    public TrieLexicon(Collection<String> wordList) {
+        List<String> plain = new ArrayList<>(wordList.size());
+        int letterTotal = 0;
+        for (String word : wordList) {
+            if (isPlain(word)) {
+                plain.add(word);
+                letterTotal += word.length();
+            }
+        }
+        String[] sorted = plain.toArray(new String[0]);
+        Arrays.sort(sorted);
+        // every letter of every word adds at most one node and one edge
+        this.firstEdge = new int[letterTotal + 1];
+        this.edgeCounts = new byte[letterTotal + 1];
+        this.letters = new char[letterTotal];
+        this.targets = new int[letterTotal];
+        if (sorted.length == 0) {
+            nodeCount = 1;
+        } else {
+            build(sorted, 0, sorted.length, 0);
+        }
+    }
+
+    /**
+     * Adds the node for the prefix shared by a run of sorted words, and its subtrie.
+     *
+     * @param sorted the sorted words
+     * @param from   the first word of the run
+     * @param to     the end of the run, exclusive
+     * @param depth  the length of the shared prefix
+     * @return the node
+     */
+    private int build(String[] sorted, int from, int to, int depth) {
+        int node = nodeCount++;
+        if (sorted[from].length() == depth) {
+            words.set(node);
+            size++;
+            from++; // a prefix sorts before the words it starts
+        }
+        int count = 0;
+        for (int i = from; i < to; i = endOfRun(sorted, i, to, depth)) {
+            count++;
+        }
+        int edge = edgeTotal;
+        firstEdge[node] = edge;
+        edgeCounts[node] = (byte) count;
+        edgeTotal += count;
+        for (int i = from; i < to; edge++) {
+            int end = endOfRun(sorted, i, to, depth);
+            letters[edge] = sorted[i].charAt(depth);
+            targets[edge] = build(sorted, i, end, depth + 1);
+            i = end;
+        }
+        return node;
+    }
+
+    /**
+     * Finds the end of the run of words sharing the letter at a depth.
+     */
+    private static int endOfRun(String[] sorted, int from, int to, int depth) {
+        char letter = sorted[from].charAt(depth);
+        int end = from + 1;
+        while (end < to && sorted[end].charAt(depth) == letter) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isPlain(String word) {
+        if (word.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) < 'A' || word.charAt(i) > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int root() {
+        return 0;
+    }
+
+    @Override
+    public int edgeCount(int node) {
+        return edgeCounts[node];
+    }
+
+    @Override
+    public char edgeLetter(int node, int edge) {
+        return letters[firstEdge[node] + edge];
+    }
+
+    @Override
+    public int edgeTarget(int node, int edge) {
+        return targets[firstEdge[node] + edge];
+    }
+
+    @Override
+    public boolean isWord(int node) {
+        return words.get(node);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of nodes in the trie.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+}
@@ -0,0 +1,323 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Answers word queries over the dictionary: the anagrams of some letters, every word that can
+ * be made from some of them, and the words matching a pattern such as {@code A?E*}.
+ * <p>
+ * Anagrams are looked up by signature, the letters of a word in sorted order: the words are
+ * sorted by signature once, so the anagrams of some letters are one binary search away, and
+ * the words a rack can make are the anagrams of each of its distinct sub-racks, at most 127
+ * lookups for seven different tiles. A {@code ?} in a rack stands for a blank; racks with
+ * blanks and patterns are answered by walking the {@link Lexicon} trie instead, pruning every
+ * branch the query can no longer match.
+ * <p>
+ * Results come in pages. A finder is read-only and can be shared by any number of threads;
+ * {@link #shared()} builds one over the dictionary every {@link Model} already uses.
+ */
+public final class WordFinder {
+    // a rack and its sub-racks; longest words first, then alphabetical
+    private static final Comparator<String> LONGEST_FIRST =
+            Comparator.comparingInt(String::length).reversed().thenComparing(Comparator.naturalOrder());
+    private static WordFinder shared;
+
+    private final Lexicon lexicon;
+    // distinct signatures in order, and the words of signature i at grouped[groupStart[i]..groupStart[i + 1])
+    private final String[] signatures;
+    private final int[] groupStart;
+    private final String[] grouped;
+
+    /**
+     * Builds a finder over a word list.
+     *
+     * @param lexicon the word list as a trie, for pattern and blank queries
+     * @param words   the same words, for the signature index
+     */
+    public WordFinder(Lexicon lexicon, Collection<String> words) {
+        this.lexicon = lexicon;
+        String[][] keyed = new String[words.size()][];
+        int count = 0;
+        for (String word : words) {
+            if (lexicon.contains(word)) {
+                keyed[count++] = new String[]{signature(word), word};
+            }
+        }
+        keyed = Arrays.copyOf(keyed, count);
+        Arrays.sort(keyed, Comparator.<String[], String>comparing(entry -> entry[0]).thenComparing(entry -> entry[1]));
+        this.grouped = new String[count];
+        List<String> distinct = new ArrayList<>();
+        int[] starts = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            grouped[i] = keyed[i][1];
+            if (i == 0 || !keyed[i][0].equals(keyed[i - 1][0])) {
+                starts[distinct.size()] = i;
+                distinct.add(keyed[i][0]);
+            }
+        }
+        starts[distinct.size()] = count;
+        this.signatures = distinct.toArray(new String[0]);
+        this.groupStart = Arrays.copyOf(starts, signatures.length + 1);
+    }
+
+    /**
+     * Gets the finder over the game's dictionary, building it on first use.
+     *
+     * @return the shared finder
+     */
+    public static synchronized WordFinder shared() {
+        if (shared == null) {
+            shared = new WordFinder(Model.sharedLexicon(), Model.sharedWordList());
+        }
+        return shared;
+    }
+
+    /**
+     * Gets the letters of a word in sorted order, upper case.
+     *
+     * @param letters the letters
+     * @return the signature
+     */
+    public static String signature(CharSequence letters) {
+        char[] sorted = letters.toString().toUpperCase(Locale.ROOT).toCharArray();
+        Arrays.sort(sorted);
+        return new String(sorted);
+    }
+
+    /**
+     * Gets the trie the finder walks.
+     *
+     * @return the lexicon
+     */
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    /**
+     * Finds the words that use exactly the given letters, in alphabetical order.
+     *
+     * @param letters  the letters; {@code ?} is a blank
+     * @param page     the page number, from 0
+     * @param pageSize the most words per page
+     * @return the page
+     */
+    public WordPage anagrams(String letters, int page, int pageSize) {
+        checkPage(page, pageSize);
+        String key = signature(letters);
+        List<String> found = new ArrayList<>();
+        if (key.indexOf('?') < 0) {
+            addGroup(key, found);
+        } else {
+            walkRack(key, key.length(), found);
+        }
+        return page(found, page, pageSize);
+    }
+
+    /**
+     * Finds the words of two letters or more that can be made from some of the given letters,
+     * longest first and then in alphabetical order.
+     *
+     * @param letters  the letters; {@code ?} is a blank
+     * @param page     the page number, from 0
+     * @param pageSize the most words per page
+     * @return the page
+     */
+    public WordPage subAnagrams(String letters, int page, int pageSize) {
+        checkPage(page, pageSize);
+        String key = signature(letters);
+        List<String> found = new ArrayList<>();
+        if (key.indexOf('?') < 0) {
+            char[] sorted = key.toCharArray();
+            subRacks(sorted, 0, new char[sorted.length], 0, found);
+        } else {
+            walkRack(key, -1, found);
+        }
+        found.sort(LONGEST_FIRST);
+        return page(found, page, pageSize);
+    }
+
+    /**
+     * Finds the words matching a pattern, in alphabetical order. {@code ?} matches any one
+     * letter and {@code *} any run of letters, including none.
+     *
+     * @param pattern  the pattern, such as {@code A?E*}
+     * @param page     the page number, from 0
+     * @param pageSize the most words per page
+     * @return the page
+     * @throws IllegalArgumentException if the pattern holds anything else or is over 63 characters
+     */
+    public WordPage matching(String pattern, int page, int pageSize) {
+        checkPage(page, pageSize);
+        String upper = pattern.toUpperCase(Locale.ROOT);
+        if (upper.length() > 63) {
+            throw new IllegalArgumentException("Pattern longer than 63 characters: " + pattern);
+        }
+        // the pattern runs as a set of positions, one bit each; bit i means "i characters matched"
+        long[] advance = new long[26];
+        long stars = 0;
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c == '*') {
+                stars |= 1L << i;
+            } else if (c == '?') {
+                for (int letter = 0; letter < 26; letter++) {
+                    advance[letter] |= 1L << i;
+                }
+            } else if (c >= 'A' && c <= 'Z') {
+                advance[c - 'A'] |= 1L << i;
+            } else {
+                throw new IllegalArgumentException("Patterns hold letters, ? and *: " + pattern);
+            }
+        }
+        PatternWalk walk = new PatternWalk(advance, stars, 1L << upper.length(), (long) page * pageSize, pageSize);
+        walk.visit(lexicon.root(), closeStars(1L, stars), new char[64], 0);
+        return new WordPage(walk.found, page, pageSize, walk.total);
+    }
+
+    /**
+     * Walks the trie for a pattern, counting every match and keeping one page of them.
+     */
+    private final class PatternWalk {
+        private final long[] advance;
+        private final long stars;
+        private final long accept;
+        private final long skip;
+        private final int limit;
+        private final List<String> found = new ArrayList<>();
+        private int total;
+
+        private PatternWalk(long[] advance, long stars, long accept, long skip, int limit) {
+            this.advance = advance;
+            this.stars = stars;
+            this.accept = accept;
+            this.skip = skip;
+            this.limit = limit;
+        }
+
+        private void visit(int node, long positions, char[] prefix, int depth) {
+            if ((positions & accept) != 0 && lexicon.isWord(node)) {
+                if (total >= skip && found.size() < limit) {
+                    found.add(new String(prefix, 0, depth));
+                }
+                total++;
+            }
+            if (depth == prefix.length) {
+                return;
+            }
+            int edges = lexicon.edgeCount(node);
+            for (int edge = 0; edge < edges; edge++) {
+                char letter = lexicon.edgeLetter(node, edge);
+                long next = ((positions & advance[letter - 'A']) << 1) | (positions & stars);
+                if (next != 0) {
+                    prefix[depth] = letter;
+                    visit(lexicon.edgeTarget(node, edge), closeStars(next, stars), prefix, depth + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the positions reachable by letting stars match nothing.
+     */
+    private static long closeStars(long positions, long stars) {
+        long closed = positions;
+        long previous;
+        do {
+            previous = closed;
+            closed |= (closed & stars) << 1;
+        } while (closed != previous);
+        return closed;
+    }
+
+    /**
+     * Adds the anagrams of every distinct sub-rack of at least two letters.
+     */
+    private void subRacks(char[] sorted, int from, char[] chosen, int length, List<String> found) {
+        if (from == sorted.length) {
+            if (length >= 2) {
+                addGroup(new String(chosen, 0, length), found);
+            }
+            return;
+        }
+        int end = from;
+        while (end < sorted.length && sorted[end] == sorted[from]) {
+            end++;
+        }
+        // take 0, 1, ... up to all of the copies of this letter
+        for (int copies = 0; copies <= end - from; copies++) {
+            subRacks(sorted, end, chosen, length + copies, found);
+            if (copies < end - from) {
+                chosen[length + copies] = sorted[from];
+            }
+        }
+    }
+
+    /**
+     * Adds the words with a signature.
+     */
+    private void addGroup(String signature, List<String> found) {
+        int i = Arrays.binarySearch(signatures, signature);
+        if (i >= 0) {
+            found.addAll(Arrays.asList(grouped).subList(groupStart[i], groupStart[i + 1]));
+        }
+    }
+
+    /**
+     * Walks the trie spending rack letters, with {@code ?} standing for any letter.
+     *
+     * @param key    the sorted rack
+     * @param length the exact word length wanted, or -1 for any of two letters or more
+     * @param found  the words found, in alphabetical order
+     */
+    private void walkRack(String key, int length, List<String> found) {
+        int[] counts = new int[26];
+        int blanks = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '?') {
+                blanks++;
+            } else if (c >= 'A' && c <= 'Z') {
+                counts[c - 'A']++;
+            }
+        }
+        walkRack(lexicon.root(), counts, blanks, length, new char[key.length()], 0, found);
+    }
+
+    private void walkRack(int node, int[] counts, int blanks, int length, char[] prefix, int depth, List<String> found) {
+        if (lexicon.isWord(node) && (length < 0 ? depth >= 2 : depth == length)) {
+            found.add(new String(prefix, 0, depth));
+        }
+        if (depth == prefix.length) {
+            return;
+        }
+        int edges = lexicon.edgeCount(node);
+        for (int edge = 0; edge < edges; edge++) {
+            char letter = lexicon.edgeLetter(node, edge);
+            prefix[depth] = letter;
+            if (counts[letter - 'A'] > 0) {
+                counts[letter - 'A']--;
+                walkRack(lexicon.edgeTarget(node, edge), counts, blanks, length, prefix, depth + 1, found);
+                counts[letter - 'A']++;
+            } else if (blanks > 0) {
+                walkRack(lexicon.edgeTarget(node, edge), counts, blanks - 1, length, prefix, depth + 1, found);
+            }
+        }
+    }
+
+    private static WordPage page(List<String> found, int page, int pageSize) {
+        int from = (int) Math.min((long) page * pageSize, found.size());
+        int to = (int) Math.min((long) from + pageSize, found.size());
+        return new WordPage(found.subList(from, to), page, pageSize, found.size());
+    }
+
+    private static void checkPage(int page, int pageSize) {
+        if (page < 0 || pageSize < 1) {
+            throw new IllegalArgumentException("Bad page " + page + " of size " + pageSize);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class WordFinderTest {
+    private final WordFinder finder = WordFinder.shared();
+
+    @Test
+    public void testTrieHoldsTheDictionary() {
+        Set<String> words = Model.sharedWordList();
+        Lexicon lexicon = finder.getLexicon();
+        assertEquals(words.size(), lexicon.size());
+        for (String word : words) {
+            assertTrue(word, lexicon.contains(word));
+        }
+        assertFalse(lexicon.contains("QZXJ"));
+        assertFalse(lexicon.contains(""));
+
+        TrieLexicon small = new TrieLexicon(List.of("CAT", "CAR", "CA", "DOG", "do-g", ""));
+        assertEquals(4, small.size());
+        assertTrue(small.contains("CA"));
+        assertFalse(small.contains("C"));
+        assertFalse(small.contains("CART"));
+        int c = small.child(small.root(), 'C');
+        assertEquals('R', small.edgeLetter(small.child(c, 'A'), 0)); // edges in alphabetical order
+    }
+
+    @Test
+    public void testAnagrams() {
+        List<String> words = finder.anagrams("listen", 0, 50).getWords();
+        assertTrue(words.containsAll(List.of("ENLIST", "LISTEN", "SILENT", "TINSEL")));
+        assertEquals(sorted(words), words);
+        assertTrue(finder.anagrams("QQQQ", 0, 10).getWords().isEmpty());
+
+        // a blank stands for any letter
+        List<String> blank = finder.anagrams("LISTE?", 0, 500).getWords();
+        assertTrue(blank.containsAll(words));
+        assertTrue(blank.contains("TOILES") || blank.contains("STOLEN") || blank.contains("ELITES"));
+        for (String word : blank) {
+            assertEquals(6, word.length());
+        }
+    }
+
+    @Test
+    public void testSubAnagramsUseOnlyTheRack() {
+        String rack = "RETAINS";
+        WordPage all = finder.subAnagrams(rack, 0, 10_000);
+        assertFalse(all.hasNext());
+        assertTrue(all.getWords().containsAll(List.of("RETAINS", "NASTIER", "STAIR", "AT")));
+        for (String word : all.getWords()) {
+            assertTrue(word.length() >= 2);
+            assertTrue(word, fromRack(word, rack));
+            assertTrue(Model.sharedWordList().contains(word));
+        }
+        // longest first
+        assertEquals(7, all.getWords().get(0).length());
+        assertEquals(2, all.getWords().get(all.getWords().size() - 1).length());
+
+        // a blank reaches words the rack alone cannot make
+        List<String> blank = finder.subAnagrams("RETAIN?", 0, 100_000).getWords();
+        assertTrue(blank.containsAll(all.getWords().stream().filter(word -> fromRack(word, "RETAIN")).toList()));
+        assertTrue(blank.contains("RETAINS"));
+    }
+
+    @Test
+    public void testPatterns() {
+        WordPage page = finder.matching("A?E*", 0, 20);
+        assertEquals(20, page.getWords().size());
+        assertTrue(page.hasNext());
+        assertEquals(sorted(page.getWords()), page.getWords());
+        List<String> all = finder.matching("A?E*", 0, 100_000).getWords();
+        assertEquals(page.getTotal(), all.size());
+        for (String word : all) {
+            assertTrue(word, word.matches("A.E.*"));
+        }
+        long expected = Model.sharedWordList().stream().filter(word -> word.matches("A.E.*")).count();
+        assertEquals(expected, all.size());
+
+        assertEquals(List.of("QUIZ"), finder.matching("QUIZ", 0, 10).getWords());
+        assertTrue(finder.matching("*ING", 0, 5).getTotal() > 1000);
+        long stars = Model.sharedWordList().stream().filter(word -> word.matches("C.*T.*S")).count();
+        assertEquals(stars, finder.matching("C*T**S", 0, 10).getTotal());
+        assertThrows(IllegalArgumentException.class, () -> finder.matching("A-B", 0, 10));
+    }
+
+    @Test
+    public void testPagesTileTheResults() {
+        List<String> all = finder.matching("*ZZ*", 0, 100_000).getWords();
+        List<String> paged = new ArrayList<>();
+        WordPage page = finder.matching("*ZZ*", 0, 7);
+        paged.addAll(page.getWords());
+        while (page.hasNext()) {
+            page = finder.matching("*ZZ*", page.getPage() + 1, 7);
+            paged.addAll(page.getWords());
+        }
+        assertEquals(all, paged);
+        assertEquals((all.size() + 6) / 7, page.getPageCount());
+        assertTrue(finder.matching("*ZZ*", 10_000, 7).getWords().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> finder.subAnagrams("ABC", -1, 7));
+    }
+
+    @Test
+    public void testSevenTileQueriesTakeUnderAMillisecond() {
+        String[] racks = {"RETAINS", "AEIOURS", "QUIZTEN", "BANANAS", "STRENGT", "PLAYERS", "JOKEXYZ"};
+        for (int i = 0; i < 2_000; i++) {
+            finder.subAnagrams(racks[i % racks.length], 0, 50); // warm up
+        }
+        int queries = 7_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            finder.subAnagrams(racks[i % racks.length], 0, 50);
+        }
+        long average = (System.nanoTime() - start) / queries;
+        assertTrue("average " + average + " ns", average < 1_000_000);
+    }
+
+    private static boolean fromRack(String word, String rack) {
+        List<Character> left = new ArrayList<>();
+        for (char c : rack.toCharArray()) {
+            left.add(c);
+        }
+        for (char c : word.toCharArray()) {
+            if (!left.remove((Character) c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> sorted(List<String> words) {
+        List<String> copy = new ArrayList<>(words);
+        copy.sort(null);
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of the words answering a {@link WordFinder} query.
+ */
+public final class WordPage {
+    private final List<String> words;
+    private final int page;
+    private final int pageSize;
+    private final int total;
+
+    /**
+     * Constructs a page.
+     *
+     * @param words    the words on this page
+     * @param page     the page number, from 0
+     * @param pageSize the most words a page holds
+     * @param total    the number of words answering the query, on every page
+     */
+    WordPage(List<String> words, int page, int pageSize, int total) {
+        this.words = List.copyOf(words);
+        this.page = page;
+        this.pageSize = pageSize;
+        this.total = total;
+    }
+
+    /**
+     * Gets the words on this page.
+     *
+     * @return the words
+     */
+    public List<String> getWords() {
+        return words;
+    }
+
+    /**
+     * Gets the page number.
+     *
+     * @return the page number, from 0
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the number of words answering the query.
+     *
+     * @return the total
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of pages the query fills.
+     *
+     * @return the page count
+     */
+    public int getPageCount() {
+        return (total + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * Checks whether a later page has words.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return (long) (page + 1) * pageSize < total;
+    }
+
+    @Override
+    public String toString() {
+        return "page " + (page + 1) + " of " + getPageCount() + ": " + words;
+    }
+}
@@ -0,0 +1,233 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * One client connection, owned by a single {@link EventLoop} and only touched on its thread.
+ * Incoming bytes are split into frames; outgoing frames are written straight away when the
+ * socket accepts them and queued otherwise, with write interest set until the queue drains.
+ * <p>
+ * A connection can move to another loop, to sit at a table that lives there; see
+ * {@link #moveTo(EventLoop, Runnable)}.
+ */
+final class Connection {
+    // a client that lets this much pile up unread is dropped rather than buffered forever
+    private static final int MAX_QUEUED_BYTES = 1 << 20;
+
+    private EventLoop loop;
+    private final SocketChannel channel;
+    private SelectionKey key;
+    private ByteBuffer in = ByteBuffer.allocate(512);
+    private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean closed;
+    private EventLoop movingTo;
+    private Runnable afterMove;
+
+    GameTable table;
+    int seat = -1;
+    GameTable watching;
+
+    /**
+     * Constructs a connection and registers it for reading.
+     *
+     * @param loop    the event loop that owns it
+     * @param channel the accepted channel, already non-blocking
+     * @throws IOException if the channel cannot be registered
+     */
+    Connection(EventLoop loop, SocketChannel channel) throws IOException {
+        this.loop = loop;
+        this.channel = channel;
+        this.key = loop.register(channel, this);
+    }
+
+    /**
+     * Reads what the socket has and handles every complete frame.
+     */
+    void onReadable() {
+        try {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+        } catch (IOException e) {
+            close();
+            return;
+        }
+
+        in.flip();
+        handleFrames();
+    }
+
+    /**
+     * Handles every complete frame in the input buffer, which is ready for reading, and
+     * compacts it for the next read.
+     */
+    private void handleFrames() {
+        while (!closed && movingTo == null && in.remaining() >= Protocol.LENGTH_BYTES) {
+            int length = in.getInt(in.position());
+            if (length < 1 || length > Protocol.MAX_FRAME) {
+                close(); // not our protocol, or hostile
+                return;
+            }
+            if (in.remaining() < Protocol.LENGTH_BYTES + length) {
+                if (in.capacity() < Protocol.LENGTH_BYTES + length) {
+                    ByteBuffer bigger = ByteBuffer.allocate(Protocol.LENGTH_BYTES + length);
+                    bigger.put(in);
+                    in = bigger;
+                    return;
+                }
+                break;
+            }
+            int end = in.position() + Protocol.LENGTH_BYTES + length;
+            in.position(in.position() + Protocol.LENGTH_BYTES);
+            byte type = in.get();
+            ByteBuffer payload = in.slice(in.position(), end - in.position());
+            in.position(end);
+            try {
+                loop.dispatch(this, type, payload);
+            } catch (RuntimeException e) {
+                send(Protocol.error("malformed message"));
+            }
+        }
+        if (!closed) {
+            in.compact();
+        }
+        if (!closed && movingTo != null) {
+            handOff();
+        }
+    }
+
+    /**
+     * Moves the connection to another loop once the frame being handled is done. Frames
+     * already read but not handled follow it and are handled there, after the given action.
+     * Called on the current loop's thread, from {@link EventLoop#dispatch}.
+     *
+     * @param target the loop to move to
+     * @param then   what to run on the target loop once the connection is there
+     */
+    void moveTo(EventLoop target, Runnable then) {
+        movingTo = target;
+        afterMove = then;
+    }
+
+    /**
+     * Leaves this loop's selector and registers with the target loop's.
+     */
+    private void handOff() {
+        EventLoop target = movingTo;
+        Runnable then = afterMove;
+        key.cancel();
+        loop.connectionLeft();
+        loop = target;
+        target.connectionArrived();
+        target.execute(() -> {
+            if (closed) {
+                return;
+            }
+            try {
+                key = target.register(channel, this);
+            } catch (IOException e) {
+                movingTo = null;
+                close();
+                return;
+            }
+            if (!out.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            movingTo = null;
+            afterMove = null;
+            then.run();
+            in.flip();
+            handleFrames();
+        });
+    }
+
+    /**
+     * Writes queued frames until the queue is empty or the socket is full.
+     */
+    void onWritable() {
+        try {
+            while (!out.isEmpty()) {
+                ByteBuffer head = out.peekFirst();
+                int written = channel.write(head);
+                queuedBytes -= written;
+                if (head.hasRemaining()) {
+                    return;
+                }
+                out.pollFirst();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Sends a frame. The buffer must not be changed afterwards.
+     *
+     * @param frame the frame, positioned at its start
+     */
+    void send(ByteBuffer frame) {
+        if (closed) {
+            return;
+        }
+        if (out.isEmpty() && movingTo == null) {
+            try {
+                channel.write(frame);
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            if (!frame.hasRemaining()) {
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        out.addLast(frame);
+        queuedBytes += frame.remaining();
+        if (queuedBytes > MAX_QUEUED_BYTES) {
+            close();
+        }
+    }
+
+    /**
+     * Closes the connection and gives up its seat.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing more to do with a channel that failed to close
+        }
+        out.clear();
+        loop.closed(this);
+    }
+
+    /**
+     * Gets the loop that owns this connection.
+     *
+     * @return the loop
+     */
+    EventLoop getLoop() {
+        return loop;
+    }
+
+    /**
+     * Checks whether the connection has been closed.
+     *
+     * @return true once closed
+     */
+    boolean isClosed() {
+        return closed;
+    }
+}
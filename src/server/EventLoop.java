@@ -0,0 +1,380 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A selector thread that owns a share of the server's connections and the tables they sit
+ * at. Everything a connection or table does happens on this thread, so models need no
+ * locking and one loop per core keeps every core busy.
+ */
+final class EventLoop implements Runnable {
+    private final GameServer server;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<SocketChannel> adopted = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger games = new AtomicInteger();
+    private GameTable filling;
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a loop. Its thread runs once {@link #start()} is called.
+     *
+     * @param server the server the loop belongs to
+     * @param index  the loop's index, used in the thread name
+     * @throws IOException if the selector cannot be opened
+     */
+    EventLoop(GameServer server, int index) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.thread = new Thread(this, "game-server-loop-" + index);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Makes this loop accept new connections for the whole server. Called before {@link #start()}.
+     *
+     * @param acceptor the bound server channel
+     * @throws IOException if the channel cannot be registered
+     */
+    void listen(ServerSocketChannel acceptor) throws IOException {
+        acceptor.configureBlocking(false);
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Starts the loop's thread.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Hands an accepted connection to this loop. Safe to call from any thread.
+     *
+     * @param channel the accepted channel
+     */
+    void adopt(SocketChannel channel) {
+        adopted.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs a task on this loop's thread. Safe to call from any thread.
+     *
+     * @param task the task
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Registers a channel with this loop's selector. Called on the loop thread.
+     *
+     * @param channel    the channel
+     * @param connection the connection to attach to its key
+     * @return the selection key
+     * @throws IOException if the channel cannot be registered
+     */
+    SelectionKey register(SocketChannel channel, Connection connection) throws IOException {
+        return channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Gets the number of open connections on this loop.
+     *
+     * @return the connection count
+     */
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Gets the number of tables created on this loop.
+     *
+     * @return the table count
+     */
+    int getGameCount() {
+        return games.get();
+    }
+
+    /**
+     * Stops the loop, closes its connections and waits for its thread to end.
+     */
+    void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the selector until stopped.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                adoptPending();
+                runTasks();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                System.err.println("Event loop failed: " + e.getMessage());
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    connection.close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // the loop is gone either way
+            }
+        }
+    }
+
+    /**
+     * Handles a ready key.
+     *
+     * @param key the key
+     */
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            acceptAll((ServerSocketChannel) key.channel());
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        if (key.isWritable()) {
+            connection.onWritable();
+        }
+        if (key.isValid() && key.isReadable()) {
+            connection.onReadable();
+        }
+    }
+
+    /**
+     * Accepts every pending connection and spreads them over the server's loops.
+     *
+     * @param acceptor the server channel
+     */
+    private void acceptAll(ServerSocketChannel acceptor) {
+        try {
+            SocketChannel channel;
+            while ((channel = acceptor.accept()) != null) {
+                server.nextLoop().adopt(channel);
+            }
+        } catch (IOException e) {
+            System.err.println("Accept failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the connections handed to this loop since the last pass.
+     */
+    private void adoptPending() {
+        SocketChannel channel;
+        while ((channel = adopted.poll()) != null) {
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                new Connection(this, channel);
+                connections.incrementAndGet();
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already failed
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks handed to this loop since the last pass.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Handles one frame from a connection.
+     *
+     * @param connection the connection
+     * @param type       the message type
+     * @param payload    the payload, valid only during this call
+     */
+    void dispatch(Connection connection, byte type, ByteBuffer payload) {
+        if (type == Protocol.JOIN) {
+            String name = Protocol.readString(payload);
+            if (connection.table != null) {
+                connection.send(Protocol.error("already seated"));
+                return;
+            }
+            if (filling == null || filling.isFull() || filling.isFinished()) {
+                filling = new GameTable(this, server.nextGameId(), server.getBoardSize(),
+                        server.getPlayersPerGame(), server.nextSeed(), server.getReplicator());
+                server.addTable(filling);
+                games.incrementAndGet();
+            }
+            filling.join(connection, name.isBlank() ? "Player" : name);
+            return;
+        }
+
+        if (type == Protocol.WATCH) {
+            watch(connection, payload.getLong());
+            return;
+        }
+        if (type == Protocol.RESUME) {
+            resume(connection, payload.getLong(), payload.get());
+            return;
+        }
+
+        GameTable table = connection.table;
+        if (table == null) {
+            connection.send(Protocol.error("join a game first"));
+            return;
+        }
+        switch (type) {
+            case Protocol.PLACE:
+                char letter = (char) (payload.get() & 0xFF);
+                int row = payload.getShort();
+                int col = payload.getShort();
+                table.place(connection, letter, row, col);
+                break;
+            case Protocol.SUBMIT:
+                table.submit(connection);
+                break;
+            case Protocol.SKIP:
+                table.skip(connection);
+                break;
+            default:
+                connection.send(Protocol.error("unknown message type " + type));
+                break;
+        }
+    }
+
+    /**
+     * Seats a connection at a game in progress, first moving it to the table's loop if needed.
+     *
+     * @param connection the connection
+     * @param gameId     the game
+     * @param seat       the seat to take
+     */
+    private void resume(Connection connection, long gameId, int seat) {
+        GameTable table = server.findTable(gameId);
+        if (table == null) {
+            connection.send(Protocol.error("no such game " + gameId));
+        } else if (table.getLoop() == this) {
+            table.resume(connection, seat);
+        } else {
+            connection.moveTo(table.getLoop(), () -> table.resume(connection, seat));
+        }
+    }
+
+    /**
+     * Takes over a table restored from a standby, before the loop starts.
+     *
+     * @param table the table
+     */
+    void restore(GameTable table) {
+        server.addTable(table);
+        games.incrementAndGet();
+    }
+
+    /**
+     * Counts a connection that moved here from another loop.
+     */
+    void connectionArrived() {
+        connections.incrementAndGet();
+    }
+
+    /**
+     * Stops counting a connection that is moving to another loop.
+     */
+    void connectionLeft() {
+        connections.decrementAndGet();
+    }
+
+    /**
+     * Subscribes a connection to a game's spectator channel, which may live on another loop.
+     *
+     * @param connection the spectator
+     * @param gameId     the game to watch
+     */
+    private void watch(Connection connection, long gameId) {
+        GameTable table = server.findTable(gameId);
+        if (table == null) {
+            connection.send(Protocol.error("no such game " + gameId));
+            return;
+        }
+        unwatch(connection);
+        connection.watching = table;
+        table.getLoop().execute(() -> table.getSpectators().subscribe(connection));
+    }
+
+    /**
+     * Unsubscribes a connection from the game it is watching, if any.
+     *
+     * @param connection the spectator
+     */
+    private void unwatch(Connection connection) {
+        GameTable table = connection.watching;
+        if (table != null) {
+            connection.watching = null;
+            table.getLoop().execute(() -> table.getSpectators().unsubscribe(connection));
+        }
+    }
+
+    /**
+     * Called by a table on this loop once its game has ended.
+     *
+     * @param table the finished table
+     */
+    void tableFinished(GameTable table) {
+        server.removeTable(table);
+    }
+
+    /**
+     * Called by a connection once it has closed.
+     *
+     * @param connection the closed connection
+     */
+    void closed(Connection connection) {
+        connections.decrementAndGet();
+        unwatch(connection);
+        if (connection.table != null) {
+            connection.table.leave(connection);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A blocking client for {@link GameServer}. Each call writes one request; replies are read
+ * with {@link #receive()}. Cheap enough to run one per virtual thread.
+ */
+public class GameClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(Protocol.LENGTH_BYTES + 1);
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server's address
+     * @throws IOException if the connection fails
+     */
+    public GameClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Asks to be seated at the next table with a free seat.
+     *
+     * @param name the player's name
+     * @throws IOException if the request cannot be written
+     */
+    public void join(String name) throws IOException {
+        write(Protocol.join(name));
+    }
+
+    /**
+     * Asks to place a tile from the rack.
+     *
+     * @param letter the tile
+     * @param row    the row of the cell
+     * @param col    the column of the cell
+     * @throws IOException if the request cannot be written
+     */
+    public void place(char letter, int row, int col) throws IOException {
+        write(Protocol.place(letter, row, col));
+    }
+
+    /**
+     * Asks to submit the tiles placed this turn.
+     *
+     * @throws IOException if the request cannot be written
+     */
+    public void submit() throws IOException {
+        write(Protocol.submit());
+    }
+
+    /**
+     * Asks to pass the turn.
+     *
+     * @throws IOException if the request cannot be written
+     */
+    public void skip() throws IOException {
+        write(Protocol.skip());
+    }
+
+    /**
+     * Asks to watch a game as a spectator.
+     *
+     * @param gameId the id of the game, as sent in WELCOME
+     * @throws IOException if the request cannot be written
+     */
+    public void watch(long gameId) throws IOException {
+        write(Protocol.watch(gameId));
+    }
+
+    /**
+     * Asks to take a seat at a game in progress, after reconnecting to a standby that took over.
+     *
+     * @param gameId the id of the game, as sent in WELCOME
+     * @param seat   the seat to take back
+     * @throws IOException if the request cannot be written
+     */
+    public void resume(long gameId, int seat) throws IOException {
+        write(Protocol.resume(gameId, seat));
+    }
+
+    /**
+     * Writes raw bytes, for exercising the server with malformed input.
+     *
+     * @param bytes the bytes
+     * @throws IOException if they cannot be written
+     */
+    void writeRaw(ByteBuffer bytes) throws IOException {
+        write(bytes);
+    }
+
+    /**
+     * Reads the next message.
+     *
+     * @return the message
+     * @throws IOException  if the read fails
+     * @throws EOFException if the server closed the connection
+     */
+    public ServerMessage receive() throws IOException {
+        header.clear();
+        readFully(header);
+        header.flip();
+        int length = header.getInt();
+        byte type = header.get();
+        if (length < 1 || length > Protocol.MAX_FRAME) {
+            throw new IOException("Bad frame length " + length);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length - 1);
+        readFully(payload);
+        return ServerMessage.decode(type, payload.flip());
+    }
+
+    /**
+     * Reads messages until one of the given type arrives, dropping the others.
+     *
+     * @param type the wanted message type
+     * @return the message
+     * @throws IOException if the read fails or the connection closes first
+     */
+    public ServerMessage receive(byte type) throws IOException {
+        ServerMessage message;
+        do {
+            message = receive();
+        } while (message.getType() != type);
+        return message;
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException if the channel fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+    }
+}
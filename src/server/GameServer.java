@@ -0,0 +1,317 @@
+package server;
+
+import model.LatencyMetrics;
+import model.Model;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A multiplayer server. Clients connect over TCP, speak {@link Protocol} and are seated at
+ * tables of a fixed size in the order they join; each table's {@link model.Model} decides
+ * every move.
+ * <p>
+ * The server runs a small number of {@link EventLoop}s, one per core by default. Each loop is
+ * a single thread multiplexing thousands of non-blocking sockets with a selector, so the
+ * number of connections is bounded by file descriptors rather than threads.
+ * <p>
+ * With {@link #replicateTo(InetSocketAddress)} every game is streamed to a
+ * {@link StandbyServer}, which can take over if this process dies.
+ */
+public final class GameServer implements AutoCloseable {
+    private final int boardSize;
+    private final int playersPerGame;
+    private final long seed;
+    private final EventLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private final AtomicLong seedOffset = new AtomicLong();
+    private final AtomicLong nextGameId = new AtomicLong(1);
+    private final Map<Long, GameTable> tables = new ConcurrentHashMap<>();
+    private ServerSocketChannel acceptor;
+    private Replicator replicator;
+
+    /**
+     * Constructs a server. Nothing is bound until {@link #start(InetSocketAddress)}.
+     *
+     * @param boardSize      the size of every board, made odd if needed
+     * @param playersPerGame the number of players seated at each table
+     * @param loopCount      the number of event loop threads
+     * @param seed           the seed the tables' tile bags are derived from
+     * @throws IOException if a selector cannot be opened
+     */
+    public GameServer(int boardSize, int playersPerGame, int loopCount, long seed) throws IOException {
+        if (playersPerGame < 1 || playersPerGame > 6) {
+            throw new IllegalArgumentException("Players per game must be between 1 and 6");
+        }
+        this.boardSize = boardSize % 2 == 0 ? boardSize + 1 : boardSize;
+        this.playersPerGame = playersPerGame;
+        this.seed = seed;
+        this.loops = new EventLoop[Math.max(1, loopCount)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(this, i);
+        }
+    }
+
+    /**
+     * Streams every game created from now on to a standby. Call before {@link #start}.
+     *
+     * @param standby the standby's replication address
+     * @throws IOException if the standby cannot be reached
+     */
+    public void replicateTo(InetSocketAddress standby) throws IOException {
+        replicator = new Replicator(standby);
+    }
+
+    /**
+     * Waits until the standby has applied everything replicated so far.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if the standby caught up in time, false if not or if there is no standby
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitReplicated(long timeoutMillis) throws InterruptedException {
+        return replicator != null && replicator.awaitAcknowledged(timeoutMillis);
+    }
+
+    /**
+     * Hosts a game already in progress under its existing id; its players take their seats
+     * back with RESUME. Call before {@link #start}.
+     *
+     * @param gameId the game's id
+     * @param model  the game
+     */
+    public void restoreGame(long gameId, Model model) {
+        EventLoop loop = loops[(int) Math.floorMod(gameId, (long) loops.length)];
+        loop.restore(new GameTable(loop, gameId, model));
+        nextGameId.accumulateAndGet(gameId + 1, Math::max);
+    }
+
+    /**
+     * Binds the server and starts its loops.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public void start(InetSocketAddress address) throws IOException {
+        acceptor = ServerSocketChannel.open();
+        acceptor.bind(address, 4096);
+        loops[0].listen(acceptor);
+        for (EventLoop loop : loops) {
+            loop.start();
+        }
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @return the port
+     * @throws IOException if the server has not been started
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) acceptor.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the number of open connections across all loops.
+     *
+     * @return the connection count
+     */
+    public int getConnectionCount() {
+        int count = 0;
+        for (EventLoop loop : loops) {
+            count += loop.getConnectionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of tables created since the server started.
+     *
+     * @return the table count
+     */
+    public int getGameCount() {
+        int count = 0;
+        for (EventLoop loop : loops) {
+            count += loop.getGameCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the ids of the games in progress or waiting for players, which spectators can watch.
+     *
+     * @return the game ids
+     */
+    public Set<Long> getGameIds() {
+        return Set.copyOf(tables.keySet());
+    }
+
+    /**
+     * Stops accepting, closes every connection and stops the loops. The link to the standby is
+     * dropped first, so the games this ends live on there, as they would after a crash.
+     */
+    @Override
+    public void close() {
+        if (replicator != null) {
+            replicator.close();
+        }
+        if (acceptor != null) {
+            try {
+                acceptor.close();
+            } catch (IOException e) {
+                // the loops are stopped regardless
+            }
+        }
+        for (EventLoop loop : loops) {
+            loop.stop();
+        }
+    }
+
+    /**
+     * Picks the loop that receives the next accepted connection. Players are matched with
+     * others on the same loop, so connections are handed out a table's worth at a time and
+     * players who connect together are seated together.
+     *
+     * @return the loop
+     */
+    EventLoop nextLoop() {
+        int block = Math.floorMod(nextLoop.getAndIncrement() / playersPerGame, loops.length);
+        return loops[block];
+    }
+
+    /**
+     * Gets an id for a new game.
+     *
+     * @return the game id
+     */
+    long nextGameId() {
+        return nextGameId.getAndIncrement();
+    }
+
+    /**
+     * Gets the link to the standby.
+     *
+     * @return the replicator, or null if there is no standby
+     */
+    Replicator getReplicator() {
+        return replicator;
+    }
+
+    /**
+     * Makes a table findable by spectators and resuming players.
+     *
+     * @param table the new table
+     */
+    void addTable(GameTable table) {
+        tables.put(table.getGameId(), table);
+    }
+
+    /**
+     * Forgets a finished table.
+     *
+     * @param table the table
+     */
+    void removeTable(GameTable table) {
+        tables.remove(table.getGameId());
+    }
+
+    /**
+     * Finds a table by its game id, from any loop.
+     *
+     * @param gameId the game id
+     * @return the table, or null if there is no such game
+     */
+    GameTable findTable(long gameId) {
+        return tables.get(gameId);
+    }
+
+    /**
+     * Gets the size of every board.
+     *
+     * @return the board size
+     */
+    int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Gets the number of players seated at each table.
+     *
+     * @return the players per game
+     */
+    int getPlayersPerGame() {
+        return playersPerGame;
+    }
+
+    /**
+     * Gets the seed for a new table. Each table gets a different bag, but a server started
+     * with the same seed deals the same sequence of bags.
+     *
+     * @return the seed
+     */
+    long nextSeed() {
+        return seed + seedOffset.getAndIncrement();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = 7777;
+        int boardSize = 15;
+        int players = 2;
+        int loopCount = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--size":
+                    boardSize = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--players":
+                    players = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--loops":
+                    loopCount = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(require(args[i], value));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                    return;
+            }
+            i++;
+        }
+
+        LatencyMetrics.install();
+        GameServer server = new GameServer(boardSize, players, loopCount, seed);
+        server.start(new InetSocketAddress(port));
+        System.err.println("Listening on port " + server.getPort() + " with " + loopCount + " loops");
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Checks that an option has a value.
+     *
+     * @param option the option name
+     * @param value  the value, or null if the arguments ended
+     * @return the value
+     */
+    static String require(String option, String value) {
+        if (value == null) {
+            System.err.println("Missing value for " + option);
+            System.exit(2);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,216 @@
+package server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class GameServerTest {
+    private GameServer server;
+    private InetSocketAddress address;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GameServer(15, 2, 2, 42L);
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testTwoPlayerGame() throws IOException {
+        try (GameClient first = new GameClient(address); GameClient second = new GameClient(address)) {
+            first.join("Ada");
+            ServerMessage welcome = first.receive();
+            assertEquals(Protocol.WELCOME, welcome.getType());
+            assertEquals(0, welcome.getSeat());
+            assertEquals(2, welcome.getSeats());
+            assertEquals(15, welcome.getBoardSize());
+
+            second.join("Grace");
+            assertEquals(1, second.receive(Protocol.WELCOME).getSeat());
+
+            ServerMessage state = first.receive(Protocol.STATE);
+            assertEquals(0, state.getCurrentSeat());
+            assertEquals(7, state.getRack().length());
+            assertEquals(0, state.getCellCount());
+            assertEquals(7, second.receive(Protocol.STATE).getRack().length());
+
+            second.submit();
+            ServerMessage refused = second.receive();
+            assertEquals(Protocol.ERROR, refused.getType());
+            assertEquals("not your turn", refused.getMessage());
+
+            // a single tile is not a word
+            String rack = state.getRack();
+            first.place(rack.charAt(0), 7, 7);
+            ServerMessage placed = second.receive(Protocol.STATE);
+            assertEquals(1, placed.getCellCount());
+            assertEquals(rack.charAt(0), placed.getCellLetter(0));
+            assertEquals(6, first.receive(Protocol.STATE).getRack().length());
+            first.submit();
+            ServerMessage rejected = first.receive(Protocol.RESULT);
+            assertFalse(rejected.isAccepted());
+            first.skip();
+            assertEquals(Protocol.ERROR, first.receive(Protocol.ERROR).getType());
+
+            String word = findWord(rack);
+            assertNotNull("no playable word in " + rack, word);
+            // the failed submit returned the tile to the rack
+            for (int i = 0; i < word.length(); i++) {
+                first.place(word.charAt(i), 7, 7 + i);
+            }
+            first.submit();
+            ServerMessage result = first.receive(Protocol.RESULT);
+            assertTrue(result.getMessage(), result.isAccepted());
+            assertTrue(result.getScore() > 0);
+
+            ServerMessage next = second.receive(Protocol.STATE);
+            while (next.getCurrentSeat() != 1) {
+                next = second.receive(Protocol.STATE);
+            }
+            assertEquals(result.getScore(), next.getScores()[0]);
+            assertEquals(2, next.getTurn());
+        }
+    }
+
+    @Test
+    public void testSpectatorCatchesUpFromKeyframe() throws IOException {
+        try (GameClient first = new GameClient(address); GameClient second = new GameClient(address);
+             GameClient spectator = new GameClient(address)) {
+            first.join("Ada");
+            long gameId = first.receive(Protocol.WELCOME).getGameId();
+            second.join("Grace");
+            String rack = first.receive(Protocol.STATE).getRack();
+
+            // three rejected turns off the centre: 7 placements and a submit each
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < rack.length(); i++) {
+                    first.place(rack.charAt(i), 0, i);
+                    first.receive(Protocol.STATE);
+                }
+                first.submit();
+                assertFalse(first.receive(Protocol.RESULT).isAccepted());
+                first.receive(Protocol.STATE);
+            }
+            first.place(rack.charAt(0), 7, 7);
+            first.receive(Protocol.STATE);
+            first.place(rack.charAt(1), 7, 8);
+            first.receive(Protocol.STATE);
+            int published = 1 + 3 * (rack.length() + 1) + 2;
+
+            spectator.watch(gameId);
+            ServerMessage keyframe = spectator.receive();
+            assertEquals(Protocol.KEYFRAME, keyframe.getType());
+            assertEquals(15, keyframe.getBoardSize());
+            int sequence = keyframe.getSequence();
+            assertEquals(published - published % SpectatorChannel.KEYFRAME_INTERVAL, sequence);
+            char[][] board = new char[15][15];
+            apply(keyframe, board);
+            while (sequence < published) {
+                ServerMessage delta = spectator.receive();
+                assertEquals(Protocol.DELTA, delta.getType());
+                assertEquals(++sequence, delta.getSequence());
+                apply(delta, board);
+            }
+            assertEquals(rack.charAt(0), board[7][7]);
+            assertEquals(rack.charAt(1), board[7][8]);
+            assertEquals('\0', board[0][0]);
+
+            first.place(rack.charAt(2), 7, 9);
+            ServerMessage live = spectator.receive();
+            assertEquals(published + 1, live.getSequence());
+            assertEquals(1, live.getCellCount());
+            assertEquals(rack.charAt(2), live.getCellLetter(0));
+        }
+    }
+
+    @Test
+    public void testWatchUnknownGame() throws IOException {
+        try (GameClient spectator = new GameClient(address)) {
+            spectator.watch(-1);
+            ServerMessage reply = spectator.receive();
+            assertEquals(Protocol.ERROR, reply.getType());
+        }
+    }
+
+    @Test
+    public void testThousandConnections() throws Exception {
+        int count = 1000;
+        List<GameClient> clients = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                GameClient client = new GameClient(address);
+                clients.add(client);
+                client.join("p" + i);
+            }
+            for (GameClient client : clients) {
+                assertEquals(Protocol.WELCOME, client.receive(Protocol.WELCOME).getType());
+            }
+            assertEquals(count, server.getConnectionCount());
+            assertEquals(count / 2, server.getGameCount());
+        } finally {
+            for (GameClient client : clients) {
+                client.close();
+            }
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void testOversizedFrameClosesConnection() throws IOException {
+        try (GameClient client = new GameClient(address)) {
+            client.writeRaw(ByteBuffer.allocate(5).putInt(Protocol.MAX_FRAME + 1).put(Protocol.JOIN).flip());
+            client.receive();
+        }
+    }
+
+    private static void apply(ServerMessage message, char[][] board) {
+        for (int i = 0; i < message.getCellCount(); i++) {
+            board[message.getCellRow(i)][message.getCellCol(i)] = message.getCellLetter(i);
+        }
+    }
+
+    /**
+     * Finds a dictionary word of two or more letters that can be made from a rack.
+     *
+     * @param rack the rack
+     * @return the word, or null if there is none
+     */
+    static String findWord(String rack) throws IOException {
+        for (String line : Files.readAllLines(Paths.get("src/model/wordlist.txt"))) {
+            String word = line.trim().toUpperCase(Locale.ROOT);
+            if (word.length() < 2 || word.length() > rack.length()) {
+                continue;
+            }
+            StringBuilder left = new StringBuilder(rack);
+            boolean fits = true;
+            for (int i = 0; i < word.length() && fits; i++) {
+                int at = left.indexOf(String.valueOf(word.charAt(i)));
+                fits = at >= 0;
+                if (fits) {
+                    left.deleteCharAt(at);
+                }
+            }
+            if (fits) {
+                return word;
+            }
+        }
+        return null;
+    }
+}
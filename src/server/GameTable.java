@@ -0,0 +1,419 @@
+package server;
+
+import model.Model;
+import model.ModelEvent;
+import model.ModelObserver;
+import model.MoveRecord;
+import model.Player;
+import model.Position;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One game hosted by the server: a {@link Model}, which is the authority on every rule, and
+ * the connections seated at it. A table lives on one {@link EventLoop} and its model is only
+ * touched on that loop's thread.
+ * <p>
+ * The table observes its model and collects the cells each event reports, so after every
+ * request it can send each player a STATE delta holding only what changed. The same delta,
+ * encoded once, goes to the table's {@link SpectatorChannel}.
+ * <p>
+ * When the server has a standby, the table also hands every seated player and committed move
+ * to its {@link Replicator}.
+ */
+final class GameTable implements ModelObserver {
+    private final EventLoop loop;
+    private final long gameId;
+    private final Model model;
+    private final Replicator replicator;
+    private final SpectatorChannel spectators;
+    private final Connection[] seats;
+    private final Set<Position> changedCells = new LinkedHashSet<>();
+    private int joined;
+    private boolean finished;
+    private String lastMessage = "";
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param loop       the loop the table lives on
+     * @param gameId     the id the server gives the game
+     * @param boardSize  the size of the board
+     * @param seatCount  the number of players the game starts with
+     * @param seed       the seed for the game's tile bag
+     * @param replicator where to send the game's records, or null if there is no standby
+     */
+    GameTable(EventLoop loop, long gameId, int boardSize, int seatCount, long seed, Replicator replicator) {
+        this.loop = loop;
+        this.gameId = gameId;
+        this.model = Model.create(boardSize, null, seed);
+        this.replicator = replicator;
+        this.spectators = new SpectatorChannel(this, loop);
+        this.seats = new Connection[seatCount];
+        model.addObserver(this);
+        replicate(Replication.gameCreated(gameId, boardSize, seatCount, seed));
+    }
+
+    /**
+     * Constructs a table for a game already in progress, such as one rebuilt by a standby.
+     * Every seat is empty until its player resumes it.
+     *
+     * @param loop   the loop the table lives on
+     * @param gameId the game's id
+     * @param model  the game
+     */
+    GameTable(EventLoop loop, long gameId, Model model) {
+        this.loop = loop;
+        this.gameId = gameId;
+        this.model = model;
+        this.replicator = null;
+        this.spectators = new SpectatorChannel(this, loop);
+        this.seats = new Connection[model.getPlayers().size()];
+        this.joined = seats.length;
+        model.addObserver(this);
+    }
+
+    /**
+     * Seats a connection. The game starts, and everyone receives the first STATE, when the
+     * last seat is taken.
+     *
+     * @param connection the joining connection
+     * @param name       the player's name
+     */
+    void join(Connection connection, String name) {
+        int seat = joined++;
+        seats[seat] = connection;
+        connection.table = this;
+        connection.seat = seat;
+        model.addPlayer(new Player(name));
+        replicate(Replication.playerJoined(gameId, name));
+        connection.send(Protocol.welcome(gameId, seat, seats.length, model.getBoardSize()));
+        if (isFull()) {
+            broadcastState();
+        }
+    }
+
+    /**
+     * Seats a connection at an empty seat of a game in progress and sends it the whole board.
+     *
+     * @param connection the connection, already on this table's loop
+     * @param seat       the seat to take
+     */
+    void resume(Connection connection, int seat) {
+        if (connection.table != null) {
+            connection.send(Protocol.error("already seated"));
+            return;
+        }
+        if (finished || seat < 0 || seat >= seats.length || seats[seat] != null) {
+            connection.send(Protocol.error("seat " + seat + " is not free"));
+            return;
+        }
+        seats[seat] = connection;
+        connection.table = this;
+        connection.seat = seat;
+        connection.send(Protocol.welcome(gameId, seat, seats.length, model.getBoardSize()));
+        sendState(seat, encodeState(occupiedCells()));
+    }
+
+    /**
+     * Handles a PLACE request.
+     *
+     * @param connection the requesting connection
+     * @param letter     the tile to place
+     * @param row        the row of the cell
+     * @param col        the column of the cell
+     */
+    void place(Connection connection, char letter, int row, int col) {
+        if (!checkTurn(connection)) {
+            return;
+        }
+        if (!model.placeTile(letter, row, col)) {
+            connection.send(Protocol.error("cannot place " + letter + " at " + row + " " + col));
+            return;
+        }
+        broadcastState();
+    }
+
+    /**
+     * Handles a SUBMIT request. An accepted move ends the turn.
+     *
+     * @param connection the requesting connection
+     */
+    void submit(Connection connection) {
+        if (!checkTurn(connection)) {
+            return;
+        }
+        Player player = model.getCurrentPlayer();
+        int scoreBefore = player.getScore();
+        boolean accepted = model.submitWord();
+        connection.send(Protocol.result(accepted, player.getScore() - scoreBefore, lastMessage));
+        if (accepted) {
+            model.nextTurn();
+            replicateLastMove();
+        }
+        afterMove();
+    }
+
+    /**
+     * Handles a SKIP request: returns placed tiles and passes the turn.
+     *
+     * @param connection the requesting connection
+     */
+    void skip(Connection connection) {
+        if (!checkTurn(connection)) {
+            return;
+        }
+        if (model.isFirstTurn()) {
+            connection.send(Protocol.error("the first word must be played before skipping"));
+            return;
+        }
+        model.restorePlayerTiles();
+        model.nextTurn();
+        replicateLastMove();
+        connection.send(Protocol.result(true, 0, "skipped"));
+        afterMove();
+    }
+
+    /**
+     * Ends the game because a player left.
+     *
+     * @param connection the connection that closed
+     */
+    void leave(Connection connection) {
+        seats[connection.seat] = null;
+        finish("player left");
+    }
+
+    /**
+     * Checks whether every seat is taken.
+     *
+     * @return true once the game has started
+     */
+    boolean isFull() {
+        return joined == seats.length;
+    }
+
+    /**
+     * Checks whether the game has ended.
+     *
+     * @return true once finished
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the id of the game, unique on this server and its standby.
+     *
+     * @return the game id
+     */
+    long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Gets the table's model.
+     *
+     * @return the model
+     */
+    Model getModel() {
+        return model;
+    }
+
+    /**
+     * Gets the loop the table lives on.
+     *
+     * @return the loop
+     */
+    EventLoop getLoop() {
+        return loop;
+    }
+
+    /**
+     * Gets the table's spectators. Only used on the table's loop.
+     *
+     * @return the spectator channel
+     */
+    SpectatorChannel getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Records the last message for RESULT replies.
+     *
+     * @param message the message
+     * @param m       the model
+     */
+    @Override
+    public void update(String message, Model m) {
+        lastMessage = message;
+    }
+
+    /**
+     * Collects the changed cells of an event for the next STATE delta.
+     *
+     * @param event the event
+     * @param m     the model
+     */
+    @Override
+    public void modelChanged(ModelEvent event, Model m) {
+        changedCells.addAll(event.getCells());
+        List<ModelEvent> events = event.getEvents();
+        lastMessage = events.get(events.size() - 1).getType();
+    }
+
+    /**
+     * Checks that the game is running and it is the connection's turn, replying with an
+     * error otherwise.
+     *
+     * @param connection the requesting connection
+     * @return true if the connection may move
+     */
+    private boolean checkTurn(Connection connection) {
+        if (!isFull()) {
+            connection.send(Protocol.error("waiting for players"));
+            return false;
+        }
+        if (finished) {
+            connection.send(Protocol.error("game over"));
+            return false;
+        }
+        if (model.getCurrentPlayerIndex() != connection.seat) {
+            connection.send(Protocol.error("not your turn"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hands a record to the standby, if there is one.
+     *
+     * @param record the framed record
+     */
+    private void replicate(ByteBuffer record) {
+        if (replicator != null) {
+            replicator.replicate(record);
+        }
+    }
+
+    /**
+     * Replicates the move that ended the turn.
+     */
+    private void replicateLastMove() {
+        List<MoveRecord> moves = model.getMoveLog();
+        if (!moves.isEmpty()) {
+            replicate(Replication.move(gameId, moves.getLast()));
+        }
+    }
+
+    /**
+     * Sends the new state to everyone and ends the game if the move finished it.
+     */
+    private void afterMove() {
+        broadcastState();
+        if (model.isGameOver()) {
+            finish("game over");
+        }
+    }
+
+    /**
+     * Encodes the state fields every player and spectator shares: turn, current seat, bag,
+     * scores and the given cells with their current letters.
+     *
+     * @param cells the cells to include
+     * @return the encoded fields, flipped for reading
+     */
+    ByteBuffer encodeState(Collection<Position> cells) {
+        char[][] board = model.getBoardState();
+        List<Player> players = model.getPlayers();
+        ByteBuffer state = ByteBuffer.allocate(4 + 1 + 2 + 1 + 4 * players.size() + 2 + 5 * cells.size());
+        state.putInt(model.getTurnNumber());
+        state.put((byte) model.getCurrentPlayerIndex());
+        state.putShort((short) model.getRemainingTiles());
+        state.put((byte) players.size());
+        for (Player player : players) {
+            state.putInt(player.getScore());
+        }
+        state.putShort((short) cells.size());
+        for (Position cell : cells) {
+            state.putShort((short) cell.row).putShort((short) cell.col).put((byte) board[cell.row][cell.col]);
+        }
+        return state.flip();
+    }
+
+    /**
+     * Lists every cell with a tile on it, for keyframes.
+     *
+     * @return the occupied cells
+     */
+    List<Position> occupiedCells() {
+        return model.getOccupiedCells();
+    }
+
+    /**
+     * Sends each seated player a STATE delta with the cells changed since the last one and
+     * their own rack, and publishes the same delta to spectators.
+     */
+    private void broadcastState() {
+        ByteBuffer shared = encodeState(changedCells);
+        changedCells.clear();
+        spectators.publish(shared);
+
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (seats[seat] != null) {
+                sendState(seat, shared);
+            }
+        }
+    }
+
+    /**
+     * Sends one seated player a STATE made of the shared fields and their own rack.
+     *
+     * @param seat   the player's seat
+     * @param shared the encoded shared fields; not modified
+     */
+    private void sendState(int seat, ByteBuffer shared) {
+        List<Character> rack = model.getPlayers().get(seat).getTiles();
+        ByteBuffer frame = Protocol.frame(Protocol.STATE, shared.remaining() + 1 + rack.size());
+        frame.put(shared.duplicate()).put((byte) rack.size());
+        for (char tile : rack) {
+            frame.put((byte) tile);
+        }
+        seats[seat].send(frame.flip());
+    }
+
+    /**
+     * Ends the game, tells everyone still seated and unseats them so they can join again.
+     *
+     * @param reason why the game ended
+     */
+    private void finish(String reason) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        int[] scores = new int[seats.length];
+        List<Player> players = model.getPlayers();
+        for (int i = 0; i < scores.length && i < players.size(); i++) {
+            scores[i] = players.get(i).getScore();
+        }
+        ByteBuffer message = Protocol.gameOver(reason, scores);
+        for (int seat = 0; seat < seats.length; seat++) {
+            Connection connection = seats[seat];
+            if (connection != null) {
+                connection.table = null;
+                connection.seat = -1;
+                connection.send(message.duplicate());
+                seats[seat] = null;
+            }
+        }
+        spectators.close(message);
+        replicate(Replication.gameEnded(gameId));
+        model.removeObserver(this);
+        loop.tableFinished(this);
+    }
+}
@@ -0,0 +1,123 @@
+package server;
+
+import model.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a {@link GameServer} over loopback with many concurrent clients, one virtual thread
+ * each, and reports request round-trip latency.
+ * <p>
+ * Every client joins, then sends SUBMIT requests back to back, waiting for the RESULT or ERROR
+ * each one gets. Off-turn clients are refused with an error, on-turn clients have nothing
+ * placed and are refused by the model, so the load exercises framing, dispatch and the turn
+ * checks without the game ever ending. With no {@code --port}, a server is started in this
+ * process on a free port.
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int clients = 1000;
+        int requests = 100;
+        int port = 0;
+        int players = 2;
+        int loopCount = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--clients":
+                    clients = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--requests":
+                    requests = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--port":
+                    port = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--players":
+                    players = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--loops":
+                    loopCount = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                    return;
+            }
+            i++;
+        }
+
+        GameServer server = null;
+        if (port == 0) {
+            server = new GameServer(15, players, loopCount, 1L);
+            server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            port = server.getPort();
+        }
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+
+        LatencyHistogram roundTrips = new LatencyHistogram("roundTrip");
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch seated = new CountDownLatch(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+        int perClient = requests;
+        for (int i = 0; i < clients; i++) {
+            String name = "load-" + i;
+            threads.add(Thread.ofVirtual().start(() -> {
+                try (GameClient client = new GameClient(address)) {
+                    client.join(name);
+                    client.receive(Protocol.WELCOME);
+                    seated.countDown();
+                    seated.await();
+                    for (int r = 0; r < perClient; r++) {
+                        long start = System.nanoTime();
+                        client.submit();
+                        awaitReply(client);
+                        roundTrips.recordSince(start);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failures.incrementAndGet();
+                    seated.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d clients, %d requests each, %d failed clients%n", clients, requests, failures.get());
+        System.out.printf("%.0f requests/s over %.2f s%n", roundTrips.getCount() / seconds, seconds);
+        System.out.println(roundTrips);
+        if (server != null) {
+            System.out.println(server.getGameCount() + " games hosted");
+            server.close();
+        }
+    }
+
+    /**
+     * Reads until the answer to a request arrives, skipping the STATE deltas in between.
+     *
+     * @param client the client
+     * @throws IOException if the connection fails
+     */
+    private static void awaitReply(GameClient client) throws IOException {
+        while (true) {
+            byte type = client.receive().getType();
+            if (type == Protocol.RESULT || type == Protocol.ERROR) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary protocol spoken between {@link GameServer} and its clients.
+ * <p>
+ * Every message is a frame: a 4 byte big-endian length, then a 1 byte message type, then the
+ * payload. The length counts the type byte and the payload. Strings are a 2 byte length
+ * followed by UTF-8 bytes; letters are single ASCII bytes, 0 meaning an empty cell. A blank
+ * is a space on a rack and, once placed, the lower case letter it stands for; to play a blank,
+ * PLACE the lower case letter.
+ * <pre>
+ * client to server
+ *   JOIN      name:string
+ *   PLACE     letter:byte row:short col:short
+ *   SUBMIT
+ *   SKIP
+ *   WATCH     gameId:long
+ *   RESUME    gameId:long seat:byte
+ * server to client
+ *   WELCOME   gameId:long seat:byte seats:byte boardSize:short
+ *   STATE     turn:int currentSeat:byte bag:short seats:byte score:int*seats
+ *             cells:short (row:short col:short letter:byte)*cells rack:byte letter:byte*rack
+ *   RESULT    accepted:byte score:int message:string
+ *   ERROR     message:string
+ *   GAME_OVER reason:string seats:byte score:int*seats
+ *   DELTA     sequence:int turn:int currentSeat:byte bag:short seats:byte score:int*seats
+ *             cells:short (row:short col:short letter:byte)*cells
+ *   KEYFRAME  sequence:int boardSize:short, then the fields of DELTA after sequence
+ * </pre>
+ * STATE is a delta: it lists only the cells that changed since the previous STATE, plus the
+ * scores, whose turn it is and the receiving player's own rack.
+ * <p>
+ * WATCH subscribes a spectator to a game. The spectator first receives a KEYFRAME, which lists
+ * every occupied cell as of delta {@code sequence}, followed by the DELTAs published since,
+ * and from then on one DELTA per change. A DELTA is STATE without a rack; applying the deltas
+ * numbered above a keyframe's sequence to the keyframe gives the current board.
+ * <p>
+ * RESUME takes an empty seat at a game already in progress, such as one a standby restored
+ * after taking over from its primary; the reply is WELCOME and a STATE of the whole board.
+ */
+public final class Protocol {
+    /**
+     * The size of the length prefix.
+     */
+    public static final int LENGTH_BYTES = 4;
+    /**
+     * The largest accepted frame, not counting the length prefix.
+     */
+    public static final int MAX_FRAME = 64 * 1024;
+
+    // client to server
+    public static final byte JOIN = 1;
+    public static final byte PLACE = 2;
+    public static final byte SUBMIT = 3;
+    public static final byte SKIP = 4;
+    public static final byte WATCH = 5;
+    public static final byte RESUME = 6;
+
+    // server to client
+    public static final byte WELCOME = 65;
+    public static final byte STATE = 66;
+    public static final byte RESULT = 67;
+    public static final byte ERROR = 68;
+    public static final byte GAME_OVER = 69;
+    public static final byte DELTA = 70;
+    public static final byte KEYFRAME = 71;
+
+    private Protocol() {
+    }
+
+    /**
+     * Starts a frame: allocates a buffer and writes the length and type.
+     *
+     * @param type          the message type
+     * @param payloadLength the exact number of payload bytes that will follow
+     * @return the buffer, positioned at the start of the payload
+     */
+    static ByteBuffer frame(byte type, int payloadLength) {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH_BYTES + 1 + payloadLength);
+        buffer.putInt(1 + payloadLength);
+        buffer.put(type);
+        return buffer;
+    }
+
+    /**
+     * Encodes a JOIN message.
+     *
+     * @param name the player's name
+     * @return the frame, ready to write
+     */
+    public static ByteBuffer join(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return frame(JOIN, 2 + bytes.length).putShort((short) bytes.length).put(bytes).flip();
+    }
+
+    /**
+     * Encodes a PLACE message.
+     *
+     * @param letter the tile to place
+     * @param row    the row of the cell
+     * @param col    the column of the cell
+     * @return the frame, ready to write
+     */
+    public static ByteBuffer place(char letter, int row, int col) {
+        return frame(PLACE, 5).put((byte) letter).putShort((short) row).putShort((short) col).flip();
+    }
+
+    /**
+     * Encodes a SUBMIT message.
+     *
+     * @return the frame, ready to write
+     */
+    public static ByteBuffer submit() {
+        return frame(SUBMIT, 0).flip();
+    }
+
+    /**
+     * Encodes a SKIP message.
+     *
+     * @return the frame, ready to write
+     */
+    public static ByteBuffer skip() {
+        return frame(SKIP, 0).flip();
+    }
+
+    /**
+     * Encodes a WATCH message.
+     *
+     * @param gameId the id of the game to watch
+     * @return the frame, ready to write
+     */
+    public static ByteBuffer watch(long gameId) {
+        return frame(WATCH, 8).putLong(gameId).flip();
+    }
+
+    /**
+     * Encodes a RESUME message.
+     *
+     * @param gameId the id of the game
+     * @param seat   the seat to take
+     * @return the frame, ready to write
+     */
+    public static ByteBuffer resume(long gameId, int seat) {
+        return frame(RESUME, 9).putLong(gameId).put((byte) seat).flip();
+    }
+
+    /**
+     * Encodes a WELCOME message.
+     *
+     * @param gameId    the id of the game joined
+     * @param seat      the player's seat
+     * @param seats     the number of seats at the table
+     * @param boardSize the size of the board
+     * @return the frame, ready to write
+     */
+    static ByteBuffer welcome(long gameId, int seat, int seats, int boardSize) {
+        return frame(WELCOME, 12).putLong(gameId).put((byte) seat).put((byte) seats).putShort((short) boardSize).flip();
+    }
+
+    /**
+     * Encodes a RESULT message, the answer to SUBMIT and SKIP.
+     *
+     * @param accepted whether the move was accepted
+     * @param score    the points scored
+     * @param message  the model's message, such as {@code invalidWord}
+     * @return the frame, ready to write
+     */
+    static ByteBuffer result(boolean accepted, int score, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return frame(RESULT, 7 + bytes.length).put((byte) (accepted ? 1 : 0)).putInt(score)
+                .putShort((short) bytes.length).put(bytes).flip();
+    }
+
+    /**
+     * Encodes an ERROR message.
+     *
+     * @param message what went wrong
+     * @return the frame, ready to write
+     */
+    static ByteBuffer error(String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return frame(ERROR, 2 + bytes.length).putShort((short) bytes.length).put(bytes).flip();
+    }
+
+    /**
+     * Encodes a GAME_OVER message.
+     *
+     * @param reason why the game ended
+     * @param scores the final score of each seat
+     * @return the frame, ready to write
+     */
+    static ByteBuffer gameOver(String reason, int[] scores) {
+        byte[] bytes = reason.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = frame(GAME_OVER, 2 + bytes.length + 1 + 4 * scores.length)
+                .putShort((short) bytes.length).put(bytes).put((byte) scores.length);
+        for (int score : scores) {
+            buffer.putInt(score);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Reads a string written as a 2 byte length and UTF-8 bytes.
+     *
+     * @param buffer the buffer to read from
+     * @return the string
+     */
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
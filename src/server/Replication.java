@@ -0,0 +1,120 @@
+package server;
+
+import model.MoveRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The records a primary {@link GameServer} streams to its {@link StandbyServer}, framed like
+ * {@link Protocol} messages: a 4 byte length, a type byte and a payload.
+ * <pre>
+ * primary to standby
+ *   GAME_CREATED  gameId:long boardSize:short seats:byte seed:long
+ *   PLAYER_JOINED gameId:long name:string
+ *   MOVE          gameId:long turn:int player:byte score:int tiles:byte (row:short col:short letter:byte)*tiles
+ *   GAME_ENDED    gameId:long
+ * standby to primary
+ *   ACK           applied:long
+ * </pre>
+ * Records are numbered by their position in the stream, starting at 1. ACK carries the number
+ * of the last record the standby has applied, so everything up to it survives a takeover.
+ * A standby rebuilds each game by creating a model with the same size and seed, seating the
+ * same players and replaying the moves, which draws the same tiles from the bag.
+ */
+final class Replication {
+    static final byte GAME_CREATED = 16;
+    static final byte PLAYER_JOINED = 17;
+    static final byte MOVE = 18;
+    static final byte GAME_ENDED = 19;
+    static final byte ACK = 80;
+
+    private Replication() {
+    }
+
+    /**
+     * Encodes a GAME_CREATED record.
+     *
+     * @param gameId    the id of the game on the primary
+     * @param boardSize the size of the board
+     * @param seats     the number of seats
+     * @param seed      the seed of the game's tile bag
+     * @return the frame, ready to write
+     */
+    static ByteBuffer gameCreated(long gameId, int boardSize, int seats, long seed) {
+        return Protocol.frame(GAME_CREATED, 19).putLong(gameId).putShort((short) boardSize)
+                .put((byte) seats).putLong(seed).flip();
+    }
+
+    /**
+     * Encodes a PLAYER_JOINED record.
+     *
+     * @param gameId the id of the game on the primary
+     * @param name   the player's name
+     * @return the frame, ready to write
+     */
+    static ByteBuffer playerJoined(long gameId, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return Protocol.frame(PLAYER_JOINED, 10 + bytes.length).putLong(gameId)
+                .putShort((short) bytes.length).put(bytes).flip();
+    }
+
+    /**
+     * Encodes a MOVE record.
+     *
+     * @param gameId the id of the game on the primary
+     * @param move   the committed move
+     * @return the frame, ready to write
+     */
+    static ByteBuffer move(long gameId, MoveRecord move) {
+        ByteBuffer buffer = Protocol.frame(MOVE, 18 + 5 * move.getTileCount()).putLong(gameId)
+                .putInt(move.getTurn()).put((byte) move.getPlayerIndex()).putInt(move.getScore())
+                .put((byte) move.getTileCount());
+        for (int i = 0; i < move.getTileCount(); i++) {
+            buffer.putShort((short) move.getRow(i)).putShort((short) move.getCol(i)).put((byte) move.getLetter(i));
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes the move of a MOVE record, after its game id.
+     *
+     * @param payload the payload, positioned after the game id
+     * @return the move
+     */
+    static MoveRecord readMove(ByteBuffer payload) {
+        int turn = payload.getInt();
+        int player = payload.get();
+        int score = payload.getInt();
+        int tiles = payload.get();
+        int[] rows = new int[tiles];
+        int[] cols = new int[tiles];
+        char[] letters = new char[tiles];
+        for (int i = 0; i < tiles; i++) {
+            rows[i] = payload.getShort();
+            cols[i] = payload.getShort();
+            letters[i] = (char) (payload.get() & 0xFF);
+        }
+        return new MoveRecord(turn, player, rows, cols, letters, score);
+    }
+
+    /**
+     * Encodes a GAME_ENDED record.
+     *
+     * @param gameId the id of the game on the primary
+     * @return the frame, ready to write
+     */
+    static ByteBuffer gameEnded(long gameId) {
+        return Protocol.frame(GAME_ENDED, 8).putLong(gameId).flip();
+    }
+
+    /**
+     * Encodes an ACK.
+     *
+     * @param applied the number of the last record applied
+     * @return the frame, ready to write
+     */
+    static ByteBuffer ack(long applied) {
+        return Protocol.frame(ACK, 8).putLong(applied).flip();
+    }
+}
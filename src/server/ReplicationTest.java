@@ -0,0 +1,141 @@
+package server;
+
+import model.Model;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ReplicationTest {
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    @Test
+    public void testStandbyMirrorsAndTakesOver() throws Exception {
+        StandbyServer standby = new StandbyServer(new InetSocketAddress(LOOPBACK, 0));
+        GameServer primary = new GameServer(15, 2, 2, 7L);
+        primary.replicateTo(new InetSocketAddress(LOOPBACK, standby.getPort()));
+        primary.start(new InetSocketAddress(LOOPBACK, 0));
+        InetSocketAddress address = new InetSocketAddress(LOOPBACK, primary.getPort());
+
+        long gameId;
+        String word;
+        try (GameClient first = new GameClient(address); GameClient second = new GameClient(address)) {
+            first.join("Ada");
+            gameId = first.receive(Protocol.WELCOME).getGameId();
+            second.join("Grace");
+            word = playOpening(first);
+            second.receive(Protocol.WELCOME);
+            second.skip();
+            assertTrue(second.receive(Protocol.RESULT).isAccepted());
+
+            assertTrue(primary.awaitReplicated(5_000));
+            Model original = primary.findTable(gameId).getModel();
+            Model copy = standby.getReplica(gameId);
+            assertNotNull(copy);
+            assertTrue(Arrays.deepEquals(original.getBoardState(), copy.getBoardState()));
+            assertEquals(original.getMoveLog(), copy.getMoveLog());
+            assertEquals(original.getTurnNumber(), copy.getTurnNumber());
+            for (int i = 0; i < 2; i++) {
+                assertEquals(original.getPlayers().get(i).getScore(), copy.getPlayers().get(i).getScore());
+                assertEquals(original.getPlayers().get(i).getTiles(), copy.getPlayers().get(i).getTiles());
+            }
+        } finally {
+            primary.close();
+        }
+
+        assertTrue(standby.awaitPrimaryLost(5, TimeUnit.SECONDS));
+        try (GameServer promoted = standby.promote(new InetSocketAddress(LOOPBACK, 0), 15, 2, 2)) {
+            assertResumes(new InetSocketAddress(LOOPBACK, promoted.getPort()), gameId, word);
+        }
+    }
+
+    @Test
+    public void testTakeoverInSecondJvm() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "server.StandbyServer", "--replication-port", "0", "--port", "0", "--loops", "2")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            int replicationPort = portIn(out.readLine());
+
+            GameServer primary = new GameServer(15, 2, 2, 11L);
+            primary.replicateTo(new InetSocketAddress(LOOPBACK, replicationPort));
+            primary.start(new InetSocketAddress(LOOPBACK, 0));
+            InetSocketAddress address = new InetSocketAddress(LOOPBACK, primary.getPort());
+            long gameId;
+            String word;
+            try (GameClient first = new GameClient(address); GameClient second = new GameClient(address)) {
+                first.join("Ada");
+                gameId = first.receive(Protocol.WELCOME).getGameId();
+                second.join("Grace");
+                word = playOpening(first);
+                assertTrue(primary.awaitReplicated(5_000));
+            } finally {
+                primary.close();
+            }
+
+            assertTrue(out.readLine().startsWith("Primary lost"));
+            int port = portIn(out.readLine());
+            assertResumes(new InetSocketAddress(LOOPBACK, port), gameId, word);
+        } finally {
+            process.destroy();
+            process.waitFor(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Plays a dictionary word from seat 0's opening rack across the centre.
+     *
+     * @param client the client in seat 0, after JOIN
+     * @return the word played
+     */
+    private static String playOpening(GameClient client) throws IOException {
+        String rack = client.receive(Protocol.STATE).getRack();
+        String word = GameServerTest.findWord(rack);
+        assertNotNull(word);
+        for (int i = 0; i < word.length(); i++) {
+            client.place(word.charAt(i), 7, 7 + i);
+        }
+        client.submit();
+        assertTrue(client.receive(Protocol.RESULT).isAccepted());
+        return word;
+    }
+
+    /**
+     * Checks that both players can take their seats back after a takeover and find the opening
+     * word on the board, and that the game goes on.
+     */
+    private static void assertResumes(InetSocketAddress address, long gameId, String word) throws IOException {
+        try (GameClient first = new GameClient(address); GameClient second = new GameClient(address)) {
+            first.resume(gameId, 0);
+            ServerMessage welcome = first.receive();
+            assertEquals(welcome.getMessage(), Protocol.WELCOME, welcome.getType());
+            assertEquals(0, welcome.getSeat());
+            ServerMessage state = first.receive(Protocol.STATE);
+            assertEquals(word.length(), state.getCellCount());
+            assertTrue(state.getScores()[0] > 0);
+
+            second.resume(gameId, 1);
+            assertEquals(1, second.receive(Protocol.WELCOME).getSeat());
+            ServerMessage resumed = second.receive(Protocol.STATE);
+            GameClient mover = resumed.getCurrentSeat() == 0 ? first : second;
+            mover.skip();
+            assertTrue(mover.receive(Protocol.RESULT).isAccepted());
+            assertEquals(1 - resumed.getCurrentSeat(), second.receive(Protocol.STATE).getCurrentSeat());
+        }
+    }
+
+    private static int portIn(String line) {
+        assertNotNull("standby exited", line);
+        return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+    }
+}
@@ -0,0 +1,179 @@
+package server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * The primary's end of a replication link. Tables hand it {@link Replication} records from
+ * their loops without waiting; a sender thread writes whatever has queued up since its last
+ * write as one gathering write, and keeps writing without waiting for the standby, whose ACKs
+ * are read by a second thread. A slow link therefore costs the game loops nothing, and the
+ * busier the server the larger the batches.
+ * <p>
+ * If the link fails the primary carries on unreplicated and says so on standard error.
+ */
+final class Replicator implements AutoCloseable {
+    private static final int MAX_BATCH = 1024;
+
+    private final SocketChannel channel;
+    private final BlockingQueue<ByteBuffer> queue = new LinkedBlockingQueue<>();
+    private final Thread sender;
+    private final Thread receiver;
+    private final Object acks = new Object();
+    private long enqueued;
+    private long acknowledged;
+    private volatile boolean running = true;
+
+    /**
+     * Connects to a standby and starts replicating.
+     *
+     * @param standby the standby's replication address
+     * @throws IOException if the standby cannot be reached
+     */
+    Replicator(InetSocketAddress standby) throws IOException {
+        this.channel = SocketChannel.open(standby);
+        channel.socket().setTcpNoDelay(true);
+        this.sender = new Thread(this::send, "replication-sender");
+        this.receiver = new Thread(this::receive, "replication-acks");
+        sender.setDaemon(true);
+        receiver.setDaemon(true);
+        sender.start();
+        receiver.start();
+    }
+
+    /**
+     * Queues a record. Safe to call from any thread; records from one thread keep their order.
+     *
+     * @param record the framed record
+     */
+    synchronized void replicate(ByteBuffer record) {
+        if (running) {
+            enqueued++;
+            queue.add(record);
+        }
+    }
+
+    /**
+     * Gets the number of records the standby has applied.
+     *
+     * @return the acknowledged record count
+     */
+    long getAcknowledged() {
+        synchronized (acks) {
+            return acknowledged;
+        }
+    }
+
+    /**
+     * Waits until the standby has applied every record queued before this call.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if the standby caught up in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitAcknowledged(long timeoutMillis) throws InterruptedException {
+        long target;
+        synchronized (this) {
+            target = enqueued;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (acks) {
+            while (acknowledged < target) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0 || !running) {
+                    return false;
+                }
+                acks.wait(left);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stops replicating and closes the link.
+     */
+    @Override
+    public void close() {
+        running = false;
+        sender.interrupt();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the link is gone either way
+        }
+        synchronized (acks) {
+            acks.notifyAll();
+        }
+    }
+
+    /**
+     * Writes queued records in batches until closed.
+     */
+    private void send() {
+        List<ByteBuffer> batch = new ArrayList<>();
+        try {
+            while (running) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+                long remaining = 0;
+                for (ByteBuffer buffer : buffers) {
+                    remaining += buffer.remaining();
+                }
+                while (remaining > 0) {
+                    remaining -= channel.write(buffers);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // closed
+        } catch (IOException e) {
+            lost(e);
+        }
+    }
+
+    /**
+     * Reads ACKs until the link closes.
+     */
+    private void receive() {
+        ByteBuffer frame = ByteBuffer.allocate(Protocol.LENGTH_BYTES + 1 + 8);
+        try {
+            while (running) {
+                frame.clear();
+                while (frame.hasRemaining()) {
+                    if (channel.read(frame) < 0) {
+                        throw new EOFException("standby closed the link");
+                    }
+                }
+                if (frame.get(Protocol.LENGTH_BYTES) != Replication.ACK) {
+                    throw new IOException("unexpected message from standby");
+                }
+                synchronized (acks) {
+                    acknowledged = frame.getLong(Protocol.LENGTH_BYTES + 1);
+                    acks.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            lost(e);
+        }
+    }
+
+    /**
+     * Gives up on the link after a failure.
+     *
+     * @param cause what went wrong
+     */
+    private void lost(IOException cause) {
+        if (running) {
+            System.err.println("Replication to standby lost: " + cause.getMessage());
+            close();
+        }
+    }
+}
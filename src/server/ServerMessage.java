@@ -0,0 +1,283 @@
+package server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A decoded message from the server, as seen by a {@link GameClient}.
+ * Only the fields of the message's type are filled in; see {@link Protocol} for which.
+ */
+public final class ServerMessage {
+    private final byte type;
+    private int sequence;
+    private long gameId;
+    private int seat;
+    private int seats;
+    private int boardSize;
+    private int turn;
+    private int currentSeat;
+    private int bagRemaining;
+    private int[] scores = new int[0];
+    private int[] cellRows = new int[0];
+    private int[] cellCols = new int[0];
+    private char[] cellLetters = new char[0];
+    private String rack = "";
+    private boolean accepted;
+    private int score;
+    private String message = "";
+
+    private ServerMessage(byte type) {
+        this.type = type;
+    }
+
+    /**
+     * Decodes a message.
+     *
+     * @param type    the message type
+     * @param payload the payload, positioned at its start
+     * @return the message
+     * @throws IllegalArgumentException if the type is not a server message type
+     */
+    static ServerMessage decode(byte type, ByteBuffer payload) {
+        ServerMessage m = new ServerMessage(type);
+        switch (type) {
+            case Protocol.WELCOME:
+                m.gameId = payload.getLong();
+                m.seat = payload.get();
+                m.seats = payload.get();
+                m.boardSize = payload.getShort();
+                break;
+            case Protocol.STATE:
+                m.readState(payload);
+                char[] rack = new char[payload.get()];
+                for (int i = 0; i < rack.length; i++) {
+                    rack[i] = (char) (payload.get() & 0xFF);
+                }
+                m.rack = new String(rack);
+                break;
+            case Protocol.DELTA:
+                m.sequence = payload.getInt();
+                m.readState(payload);
+                break;
+            case Protocol.KEYFRAME:
+                m.sequence = payload.getInt();
+                m.boardSize = payload.getShort();
+                m.readState(payload);
+                break;
+            case Protocol.RESULT:
+                m.accepted = payload.get() != 0;
+                m.score = payload.getInt();
+                m.message = Protocol.readString(payload);
+                break;
+            case Protocol.ERROR:
+                m.message = Protocol.readString(payload);
+                break;
+            case Protocol.GAME_OVER:
+                m.message = Protocol.readString(payload);
+                m.scores = readScores(payload);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown message type " + type);
+        }
+        return m;
+    }
+
+    /**
+     * Reads the fields STATE, DELTA and KEYFRAME share: turn, seat, bag, scores and cells.
+     *
+     * @param payload the payload
+     */
+    private void readState(ByteBuffer payload) {
+        turn = payload.getInt();
+        currentSeat = payload.get();
+        bagRemaining = payload.getShort();
+        scores = readScores(payload);
+        int cells = payload.getShort() & 0xFFFF;
+        cellRows = new int[cells];
+        cellCols = new int[cells];
+        cellLetters = new char[cells];
+        for (int i = 0; i < cells; i++) {
+            cellRows[i] = payload.getShort();
+            cellCols[i] = payload.getShort();
+            cellLetters[i] = (char) (payload.get() & 0xFF);
+        }
+    }
+
+    /**
+     * Reads a seat count followed by one score per seat.
+     *
+     * @param payload the payload
+     * @return the scores
+     */
+    private static int[] readScores(ByteBuffer payload) {
+        int[] scores = new int[payload.get()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = payload.getInt();
+        }
+        return scores;
+    }
+
+    /**
+     * Gets the message type, one of the server constants in {@link Protocol}.
+     *
+     * @return the type
+     */
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Gets the sequence number of a DELTA, or the last delta a KEYFRAME includes.
+     *
+     * @return the sequence number
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the id of the game joined (WELCOME).
+     *
+     * @return the game id
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Gets the receiving player's seat (WELCOME).
+     *
+     * @return the seat index
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Gets the number of seats at the table (WELCOME).
+     *
+     * @return the seat count
+     */
+    public int getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets the size of the board (WELCOME, KEYFRAME).
+     *
+     * @return the board size
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Gets the turn number (STATE, DELTA, KEYFRAME).
+     *
+     * @return the turn number
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the seat whose turn it is (STATE, DELTA, KEYFRAME).
+     *
+     * @return the current seat
+     */
+    public int getCurrentSeat() {
+        return currentSeat;
+    }
+
+    /**
+     * Gets the number of tiles left in the bag (STATE, DELTA, KEYFRAME).
+     *
+     * @return the tiles remaining
+     */
+    public int getBagRemaining() {
+        return bagRemaining;
+    }
+
+    /**
+     * Gets the score of every seat (STATE, DELTA, KEYFRAME, GAME_OVER).
+     *
+     * @return the scores, indexed by seat
+     */
+    public int[] getScores() {
+        return scores.clone();
+    }
+
+    /**
+     * Gets the number of changed cells (STATE, DELTA, KEYFRAME).
+     *
+     * @return the cell count
+     */
+    public int getCellCount() {
+        return cellRows.length;
+    }
+
+    /**
+     * Gets the row of a changed cell (STATE, DELTA, KEYFRAME).
+     *
+     * @param i the index of the cell in the message
+     * @return the row
+     */
+    public int getCellRow(int i) {
+        return cellRows[i];
+    }
+
+    /**
+     * Gets the column of a changed cell (STATE, DELTA, KEYFRAME).
+     *
+     * @param i the index of the cell in the message
+     * @return the column
+     */
+    public int getCellCol(int i) {
+        return cellCols[i];
+    }
+
+    /**
+     * Gets the new letter of a changed cell (STATE, DELTA, KEYFRAME).
+     *
+     * @param i the index of the cell in the message
+     * @return the letter, or '\0' if the cell was emptied
+     */
+    public char getCellLetter(int i) {
+        return cellLetters[i];
+    }
+
+    /**
+     * Gets the receiving player's rack (STATE).
+     *
+     * @return the rack, one character per tile
+     */
+    public String getRack() {
+        return rack;
+    }
+
+    /**
+     * Checks whether the move was accepted (RESULT).
+     *
+     * @return true if accepted
+     */
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Gets the points scored by the move (RESULT).
+     *
+     * @return the points
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the message of a RESULT, ERROR or GAME_OVER.
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+}
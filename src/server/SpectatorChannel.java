@@ -0,0 +1,171 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The spectators of one {@link GameTable}. Every change to the table is encoded once as a
+ * DELTA frame, and that one read-only buffer is handed to every subscriber; each connection
+ * only takes a {@link ByteBuffer#duplicate()} of it to track its own write position.
+ * <p>
+ * Every {@link #KEYFRAME_INTERVAL} deltas the channel encodes a KEYFRAME of the whole board.
+ * A spectator who subscribes late is sent the latest keyframe and the deltas published since,
+ * all at once, so it catches up in a single round trip however long the game has run.
+ * <p>
+ * The channel lives on its table's loop. Spectators may sit on any loop, so frames for them
+ * are handed to their own loop, which does the writing; the table's loop never blocks on a
+ * slow spectator.
+ */
+final class SpectatorChannel {
+    /**
+     * The number of deltas between keyframes, which bounds how much a late joiner replays.
+     */
+    static final int KEYFRAME_INTERVAL = 16;
+
+    private final GameTable table;
+    private final EventLoop loop;
+    // copy-on-write, since other loops read the arrays while sending
+    private final Map<EventLoop, Connection[]> subscribers = new HashMap<>();
+    private final List<ByteBuffer> sinceKeyframe = new ArrayList<>();
+    private ByteBuffer keyframe;
+    private int sequence;
+    private int count;
+
+    /**
+     * Constructs the channel for a table.
+     *
+     * @param table the table being watched
+     * @param loop  the loop the table lives on
+     */
+    SpectatorChannel(GameTable table, EventLoop loop) {
+        this.table = table;
+        this.loop = loop;
+    }
+
+    /**
+     * Adds a spectator and sends it the latest keyframe and the deltas since.
+     *
+     * @param connection the spectator's connection
+     */
+    void subscribe(Connection connection) {
+        if (keyframe == null) {
+            encodeKeyframe();
+        }
+        List<ByteBuffer> catchUp = new ArrayList<>(1 + sinceKeyframe.size());
+        catchUp.add(keyframe);
+        catchUp.addAll(sinceKeyframe);
+        deliver(connection.getLoop(), new Connection[] {connection}, catchUp);
+
+        Connection[] current = subscribers.getOrDefault(connection.getLoop(), new Connection[0]);
+        Connection[] updated = new Connection[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = connection;
+        subscribers.put(connection.getLoop(), updated);
+        count++;
+    }
+
+    /**
+     * Removes a spectator. Does nothing if it is not subscribed.
+     *
+     * @param connection the spectator's connection
+     */
+    void unsubscribe(Connection connection) {
+        Connection[] current = subscribers.get(connection.getLoop());
+        if (current == null) {
+            return;
+        }
+        List<Connection> kept = new ArrayList<>(List.of(current));
+        if (!kept.remove(connection)) {
+            return;
+        }
+        count--;
+        if (kept.isEmpty()) {
+            subscribers.remove(connection.getLoop());
+        } else {
+            subscribers.put(connection.getLoop(), kept.toArray(new Connection[0]));
+        }
+    }
+
+    /**
+     * Publishes a change as the next DELTA.
+     *
+     * @param state the table's encoded state fields, positioned at their start; not modified
+     */
+    void publish(ByteBuffer state) {
+        sequence++;
+        ByteBuffer delta = Protocol.frame(Protocol.DELTA, 4 + state.remaining())
+                .putInt(sequence).put(state.duplicate()).flip().asReadOnlyBuffer();
+        broadcast(List.of(delta));
+        sinceKeyframe.add(delta);
+        if (sinceKeyframe.size() >= KEYFRAME_INTERVAL) {
+            encodeKeyframe();
+        }
+    }
+
+    /**
+     * Sends a last frame to every spectator and drops them all.
+     *
+     * @param frame the frame, usually GAME_OVER
+     */
+    void close(ByteBuffer frame) {
+        broadcast(List.of(frame.asReadOnlyBuffer()));
+        subscribers.clear();
+        count = 0;
+    }
+
+    /**
+     * Gets the number of spectators.
+     *
+     * @return the spectator count
+     */
+    int getSubscriberCount() {
+        return count;
+    }
+
+    /**
+     * Encodes a keyframe of the board as it is now, which replaces the deltas kept so far.
+     */
+    private void encodeKeyframe() {
+        ByteBuffer state = table.encodeState(table.occupiedCells());
+        keyframe = Protocol.frame(Protocol.KEYFRAME, 6 + state.remaining())
+                .putInt(sequence).putShort((short) table.getModel().getBoardSize()).put(state)
+                .flip().asReadOnlyBuffer();
+        sinceKeyframe.clear();
+    }
+
+    /**
+     * Sends frames to every spectator, each loop writing to its own connections.
+     *
+     * @param frames the shared frames
+     */
+    private void broadcast(List<ByteBuffer> frames) {
+        for (Map.Entry<EventLoop, Connection[]> entry : subscribers.entrySet()) {
+            deliver(entry.getKey(), entry.getValue(), frames);
+        }
+    }
+
+    /**
+     * Sends frames to connections on one loop.
+     *
+     * @param target      the loop the connections live on
+     * @param connections the connections
+     * @param frames      the shared frames
+     */
+    private void deliver(EventLoop target, Connection[] connections, List<ByteBuffer> frames) {
+        Runnable send = () -> {
+            for (Connection connection : connections) {
+                for (ByteBuffer frame : frames) {
+                    connection.send(frame.duplicate());
+                }
+            }
+        };
+        if (target == loop) {
+            send.run();
+        } else {
+            target.execute(send);
+        }
+    }
+}
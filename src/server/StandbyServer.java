@@ -0,0 +1,300 @@
+package server;
+
+import model.LatencyMetrics;
+import model.Model;
+import model.MoveRecord;
+import model.Player;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A warm standby for a {@link GameServer}. It accepts the primary's replication link, rebuilds
+ * every game from the {@link Replication} records on its own {@link Model} copies and
+ * acknowledges what it has applied. When the primary is gone, {@link #promote} turns the
+ * copies into a running server whose players take their seats back with RESUME, at the last
+ * move the standby acknowledged.
+ * <p>
+ * ACKs are batched: the standby applies every complete record it has read and then
+ * acknowledges the last one, so a burst of records costs one ACK.
+ */
+public class StandbyServer implements AutoCloseable {
+    private final ServerSocketChannel acceptor;
+    private final Map<Long, Replica> replicas = new ConcurrentHashMap<>();
+    private final CountDownLatch primaryLost = new CountDownLatch(1);
+    private final Thread thread;
+    private volatile SocketChannel link;
+    private volatile long applied;
+    private volatile boolean running = true;
+
+    /**
+     * A game as rebuilt from the primary's records.
+     */
+    private static final class Replica {
+        private final int seats;
+        private final Model model;
+
+        private Replica(int seats, Model model) {
+            this.seats = seats;
+            this.model = model;
+        }
+    }
+
+    /**
+     * Starts listening for a primary.
+     *
+     * @param address the replication address; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public StandbyServer(InetSocketAddress address) throws IOException {
+        this.acceptor = ServerSocketChannel.open();
+        acceptor.bind(address);
+        this.thread = new Thread(this::run, "standby-link");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the port the standby listens on for its primary.
+     *
+     * @return the port
+     * @throws IOException if the port cannot be read
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) acceptor.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the number of records applied, which is also the last number acknowledged.
+     *
+     * @return the applied record count
+     */
+    public long getApplied() {
+        return applied;
+    }
+
+    /**
+     * Gets the number of games being mirrored.
+     *
+     * @return the game count
+     */
+    public int getGameCount() {
+        return replicas.size();
+    }
+
+    /**
+     * Gets the copy of a game. Only safe to read once replication has stopped.
+     *
+     * @param gameId the game's id on the primary
+     * @return the model, or null if the game is not mirrored
+     */
+    Model getReplica(long gameId) {
+        Replica replica = replicas.get(gameId);
+        return replica == null ? null : replica.model;
+    }
+
+    /**
+     * Waits for the primary's link to drop.
+     *
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the primary was lost
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitPrimaryLost(long timeout, TimeUnit unit) throws InterruptedException {
+        return primaryLost.await(timeout, unit);
+    }
+
+    /**
+     * Stops replicating and starts serving the mirrored games. Games still waiting for players
+     * are dropped; their players simply join again.
+     *
+     * @param address        the address to serve clients on
+     * @param boardSize      the board size for new games
+     * @param playersPerGame the players seated at each new game
+     * @param loopCount      the number of event loops
+     * @return the running server
+     * @throws IOException if the server cannot start
+     */
+    public GameServer promote(InetSocketAddress address, int boardSize, int playersPerGame, int loopCount)
+            throws IOException {
+        close();
+        try {
+            thread.join(5_000); // the link thread may be applying its last batch
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        GameServer server = new GameServer(boardSize, playersPerGame, loopCount, System.nanoTime());
+        for (Map.Entry<Long, Replica> entry : replicas.entrySet()) {
+            Replica replica = entry.getValue();
+            if (replica.model.getPlayers().size() == replica.seats) {
+                server.restoreGame(entry.getKey(), replica.model);
+            }
+        }
+        server.start(address);
+        return server;
+    }
+
+    /**
+     * Stops listening and drops the link to the primary.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            acceptor.close();
+            SocketChannel current = link;
+            if (current != null) {
+                current.close();
+            }
+        } catch (IOException e) {
+            // closing anyway
+        }
+    }
+
+    /**
+     * Serves one primary at a time until closed.
+     */
+    private void run() {
+        while (running) {
+            try (SocketChannel channel = acceptor.accept()) {
+                link = channel;
+                channel.socket().setTcpNoDelay(true);
+                mirror(channel);
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Replication link failed: " + e.getMessage());
+                }
+            } finally {
+                link = null;
+                primaryLost.countDown();
+            }
+        }
+    }
+
+    /**
+     * Applies records from the primary until the link closes.
+     *
+     * @param channel the link
+     * @throws IOException if the link fails
+     */
+    private void mirror(SocketChannel channel) throws IOException {
+        ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        while (channel.read(in) >= 0) {
+            in.flip();
+            long before = applied;
+            while (in.remaining() >= Protocol.LENGTH_BYTES) {
+                int length = in.getInt(in.position());
+                if (length < 1 || length > Protocol.MAX_FRAME) {
+                    throw new IOException("bad record length " + length);
+                }
+                if (in.remaining() < Protocol.LENGTH_BYTES + length) {
+                    break;
+                }
+                int end = in.position() + Protocol.LENGTH_BYTES + length;
+                byte type = in.get(in.position() + Protocol.LENGTH_BYTES);
+                apply(type, in.slice(in.position() + Protocol.LENGTH_BYTES + 1, length - 1));
+                in.position(end);
+                applied++;
+            }
+            in.compact();
+            if (applied != before) {
+                ByteBuffer ack = Replication.ack(applied);
+                while (ack.hasRemaining()) {
+                    channel.write(ack);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies one record to the mirrored games.
+     *
+     * @param type    the record type
+     * @param payload the payload
+     */
+    private void apply(byte type, ByteBuffer payload) {
+        long gameId = payload.getLong();
+        switch (type) {
+            case Replication.GAME_CREATED:
+                int boardSize = payload.getShort();
+                int seats = payload.get();
+                long seed = payload.getLong();
+                replicas.put(gameId, new Replica(seats, Model.create(boardSize, null, seed)));
+                break;
+            case Replication.PLAYER_JOINED:
+                Replica joined = replicas.get(gameId);
+                if (joined != null) {
+                    joined.model.addPlayer(new Player(Protocol.readString(payload)));
+                }
+                break;
+            case Replication.MOVE:
+                Replica replica = replicas.get(gameId);
+                MoveRecord move = Replication.readMove(payload);
+                if (replica != null && !replica.model.applyMove(move)) {
+                    // the copy can no longer be trusted; better no standby for this game than a wrong one
+                    System.err.println("Game " + gameId + " diverged at " + move + "; no longer mirrored");
+                    replicas.remove(gameId);
+                }
+                break;
+            case Replication.GAME_ENDED:
+                replicas.remove(gameId);
+                break;
+            default:
+                System.err.println("Unknown replication record " + type);
+                break;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int replicationPort = 7778;
+        int port = 7777;
+        int boardSize = 15;
+        int players = 2;
+        int loopCount = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--replication-port":
+                    replicationPort = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--port":
+                    port = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--size":
+                    boardSize = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--players":
+                    players = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                case "--loops":
+                    loopCount = Integer.parseInt(GameServer.require(args[i], value));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                    return;
+            }
+            i++;
+        }
+
+        LatencyMetrics.install();
+        StandbyServer standby = new StandbyServer(new InetSocketAddress(replicationPort));
+        System.out.println("Standby replicating on port " + standby.getPort());
+        standby.primaryLost.await();
+        System.out.println("Primary lost after " + standby.getApplied() + " records; taking over "
+                + standby.getGameCount() + " games");
+        GameServer server = standby.promote(new InetSocketAddress(port), boardSize, players, loopCount);
+        System.out.println("Serving on port " + server.getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,461 @@
+package view;
+
+import model.LatencyMetrics;
+import model.Position;
+import model.PremiumGrid;
+import model.TileBag;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A single component that paints the whole game board.
+ * The board is drawn from a copy of the model's letters, only the cells inside the clip
+ * are painted, and letters are drawn from glyph images cached for the current zoom level.
+ * Clicks are mapped back to a (row, col) pair and forwarded to the registered listeners.
+ * Holding Ctrl while turning the mouse wheel zooms, and dragging with the right or middle
+ * mouse button pans the enclosing scroll pane.
+ */
+public final class BoardComponent extends JComponent {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_CELL_SIZE = 8;
+    private static final int MAX_CELL_SIZE = 96;
+    private static final int FIT_SIZE = 700; // pixels the board should fit in at start
+
+    private static final Color DARK_RED = new Color(139, 0, 0); // Dark Red
+    private static final Color DARK_PINK = new Color(255, 182, 193); // Light Pink
+    private static final Color DARK_BLUE = new Color(173, 216, 230); // Light Blue
+    private static final Color DARK_CYAN = new Color(0, 139, 139); // Dark Cyan
+    private static final Color DARK_ORANGE = new Color(255, 140, 0); // Dark Orange
+    private static final Color GRID_LINE = new Color(120, 120, 120);
+    private static final Color BLANK_LETTER = new Color(110, 110, 110);
+
+    private final int boardSize;
+    private final int center;
+    private final char[] tiles;
+    private final Color[] premiumColors;
+    private PremiumGrid renderedGrid;
+    private int cellSize;
+    // the box that holds every tile shown, empty (first after last) when none is
+    private int shownFirstRow;
+    private int shownLastRow = -1;
+    private int shownFirstCol;
+    private int shownLastCol = -1;
+
+    // glyph images for the current cell size, indexed by character
+    private final transient BufferedImage[] glyphCache = new BufferedImage[128];
+    private int glyphCellSize;
+
+    private final transient List<CellClickListener> listeners = new ArrayList<>();
+    private Point panAnchor;
+
+    /**
+     * Receives clicks on board cells.
+     */
+    public interface CellClickListener {
+        /**
+         * Called when a board cell is clicked.
+         *
+         * @param row the row of the clicked cell
+         * @param col the column of the clicked cell
+         */
+        void cellClicked(int row, int col);
+    }
+
+    /**
+     * Constructs a board component for a board of the given size.
+     *
+     * @param boardSize the size of the board
+     */
+    public BoardComponent(int boardSize) {
+        this.boardSize = boardSize;
+        this.center = boardSize / 2;
+        this.tiles = new char[boardSize * boardSize];
+        this.premiumColors = new Color[boardSize * boardSize];
+        this.cellSize = Math.max(MIN_CELL_SIZE, Math.min(48, FIT_SIZE / boardSize));
+        this.shownFirstRow = boardSize;
+        this.shownFirstCol = boardSize;
+        Arrays.fill(premiumColors, Color.WHITE);
+
+        setOpaque(true);
+        setDoubleBuffered(true);
+        updatePreferredSize();
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    fireCellClicked(e.getX(), e.getY());
+                } else {
+                    panAnchor = e.getPoint();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                panAnchor = null;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                pan(e.getPoint());
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown()) {
+                    zoom(e.getWheelRotation() < 0 ? 1 : -1, e.getPoint());
+                } else if (getParent() != null) {
+                    getParent().dispatchEvent(SwingUtilities.convertMouseEvent(BoardComponent.this, e, getParent()));
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * Adds a listener notified when a cell is clicked.
+     *
+     * @param listener the listener to add
+     */
+    public void addCellClickListener(CellClickListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Copies the board state into the component and repaints only the cells that changed.
+     * Every cell is repainted when the premium grid differs from the one last shown.
+     *
+     * @param board the board state
+     * @param grid  the premium grid of the board
+     * @return the number of cells scheduled for repaint
+     */
+    public int setBoard(char[][] board, PremiumGrid grid) {
+        return setBoard(board, grid, new int[]{0, 0, boardSize - 1, boardSize - 1});
+    }
+
+    /**
+     * Copies the board state into the component and repaints only the cells that changed,
+     * comparing only the cells inside the given box and the box of the tiles shown before.
+     * Every cell is repainted when the premium grid differs from the one last shown.
+     *
+     * @param board  the board state
+     * @param grid   the premium grid of the board
+     * @param bounds the first row, first column, last row and last column of a box holding
+     *               every tile on the board, or null if the board is empty
+     * @return the number of cells scheduled for repaint
+     */
+    public int setBoard(char[][] board, PremiumGrid grid, int[] bounds) {
+        boolean gridChanged = grid != renderedGrid;
+        if (gridChanged) {
+            applyPremiumColors(grid);
+            repaint();
+        }
+
+        // tiles can only have changed where there are tiles now or where there were before
+        int firstRow = shownFirstRow;
+        int lastRow = shownLastRow;
+        int firstCol = shownFirstCol;
+        int lastCol = shownLastCol;
+        if (bounds != null) {
+            firstRow = Math.min(firstRow, bounds[0]);
+            firstCol = Math.min(firstCol, bounds[1]);
+            lastRow = Math.max(lastRow, bounds[2]);
+            lastCol = Math.max(lastCol, bounds[3]);
+        }
+        int repainted = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            char[] boardRow = board[row];
+            int offset = row * boardSize;
+            for (int col = firstCol; col <= lastCol; col++) {
+                char c = boardRow[col];
+                if (tiles[offset + col] != c) {
+                    tiles[offset + col] = c;
+                    repaint(col * cellSize, row * cellSize, cellSize, cellSize);
+                    repainted++;
+                }
+            }
+        }
+        if (bounds == null) {
+            shownFirstRow = shownFirstCol = boardSize;
+            shownLastRow = shownLastCol = -1;
+        } else {
+            shownFirstRow = bounds[0];
+            shownFirstCol = bounds[1];
+            shownLastRow = bounds[2];
+            shownLastCol = bounds[3];
+        }
+        return gridChanged ? boardSize * boardSize : repainted;
+    }
+
+    /**
+     * Copies only the given cells from the board state and repaints them.
+     * Used when the model reports exactly which cells changed.
+     *
+     * @param board the board state
+     * @param grid  the premium grid of the board
+     * @param cells the cells that changed
+     * @return the number of cells scheduled for repaint
+     */
+    public int updateCells(char[][] board, PremiumGrid grid, List<Position> cells) {
+        if (grid != renderedGrid) {
+            return setBoard(board, grid);
+        }
+        int repainted = 0;
+        for (Position cell : cells) {
+            int index = cell.row * boardSize + cell.col;
+            char c = board[cell.row][cell.col];
+            if (tiles[index] != c) {
+                tiles[index] = c;
+                repaint(cell.col * cellSize, cell.row * cellSize, cellSize, cellSize);
+                repainted++;
+            }
+            if (c != '\0') {
+                shownFirstRow = Math.min(shownFirstRow, cell.row);
+                shownLastRow = Math.max(shownLastRow, cell.row);
+                shownFirstCol = Math.min(shownFirstCol, cell.col);
+                shownLastCol = Math.max(shownLastCol, cell.col);
+            }
+        }
+        return repainted;
+    }
+
+    /**
+     * Gets the letter currently shown in a cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the letter, or '\0' if the cell is empty
+     */
+    public char getTileAt(int row, int col) {
+        return tiles[row * boardSize + col];
+    }
+
+    /**
+     * Gets the size in pixels of one cell at the current zoom level.
+     *
+     * @return the cell size
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Sets the size in pixels of one cell, keeping it within the supported zoom range.
+     *
+     * @param size the new cell size
+     */
+    public void setCellSize(int size) {
+        int clamped = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+        if (clamped != cellSize) {
+            cellSize = clamped;
+            updatePreferredSize();
+            revalidate();
+            repaint();
+        }
+    }
+
+    /**
+     * Paints the cells that intersect the clip.
+     *
+     * @param g the graphics context
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getParent() != null ? getParent().getBackground() : Color.LIGHT_GRAY);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int firstRow = Math.max(0, clip.y / cellSize);
+        int lastRow = Math.min(boardSize - 1, (clip.y + clip.height - 1) / cellSize);
+        int firstCol = Math.max(0, clip.x / cellSize);
+        int lastCol = Math.min(boardSize - 1, (clip.x + clip.width - 1) / cellSize);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            int y = row * cellSize;
+            for (int col = firstCol; col <= lastCol; col++) {
+                int x = col * cellSize;
+                int index = row * boardSize + col;
+                g.setColor(premiumColors[index]);
+                g.fillRect(x, y, cellSize, cellSize);
+                g.setColor(GRID_LINE);
+                g.drawRect(x, y, cellSize - 1, cellSize - 1);
+
+                char c = tiles[index];
+                if (c != '\0') {
+                    g.drawImage(glyph(c), x, y, null);
+                }
+            }
+        }
+        LatencyMetrics.record(LatencyMetrics.Operation.REPAINT, start);
+    }
+
+    /**
+     * Gets the cached image of a letter for the current cell size, rendering it if needed.
+     *
+     * @param c the letter
+     * @return the glyph image
+     */
+    private BufferedImage glyph(char c) {
+        if (glyphCellSize != cellSize) {
+            Arrays.fill(glyphCache, null);
+            glyphCellSize = cellSize;
+        }
+        int slot = c < glyphCache.length ? c : '?';
+        BufferedImage image = glyphCache[slot];
+        if (image == null) {
+            image = renderGlyph(c);
+            glyphCache[slot] = image;
+        }
+        return image;
+    }
+
+    /**
+     * Renders a letter centered in a transparent cell-sized image.
+     *
+     * @param c the letter
+     * @return the rendered image
+     */
+    private BufferedImage renderGlyph(char c) {
+        BufferedImage image = new BufferedImage(cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font("Arial", Font.BOLD, Math.max(6, cellSize * 3 / 5)));
+            // a blank shows the letter it stands for, in a lighter colour since it scores nothing
+            g.setColor(TileBag.isBlank(c) ? BLANK_LETTER : Color.BLACK);
+            FontMetrics metrics = g.getFontMetrics();
+            String text = String.valueOf(Character.toUpperCase(c));
+            int x = (cellSize - metrics.stringWidth(text)) / 2;
+            int y = (cellSize - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.drawString(text, x, y);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Precomputes the background color of every cell from a premium grid.
+     *
+     * @param grid the premium grid to color the board with
+     */
+    private void applyPremiumColors(PremiumGrid grid) {
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                Color color;
+                switch (grid == null ? PremiumGrid.NONE : grid.getType(row, col)) {
+                    case PremiumGrid.TRIPLE_WORD:
+                        color = DARK_RED;
+                        break;
+                    case PremiumGrid.DOUBLE_WORD:
+                        color = DARK_PINK;
+                        break;
+                    case PremiumGrid.TRIPLE_LETTER:
+                        color = DARK_BLUE;
+                        break;
+                    case PremiumGrid.DOUBLE_LETTER:
+                        color = DARK_CYAN;
+                        break;
+                    default:
+                        color = (row == center && col == center) ? DARK_ORANGE : Color.WHITE;
+                        break;
+                }
+                premiumColors[row * boardSize + col] = color;
+            }
+        }
+        renderedGrid = grid;
+    }
+
+    /**
+     * Maps a click to a cell and notifies the listeners.
+     *
+     * @param x the x coordinate of the click
+     * @param y the y coordinate of the click
+     */
+    private void fireCellClicked(int x, int y) {
+        int row = y / cellSize;
+        int col = x / cellSize;
+        if (x < 0 || y < 0 || row >= boardSize || col >= boardSize) {
+            return;
+        }
+        for (CellClickListener listener : listeners) {
+            listener.cellClicked(row, col);
+        }
+    }
+
+    /**
+     * Zooms in or out by one step, keeping the cell under the cursor in place.
+     *
+     * @param direction 1 to zoom in, -1 to zoom out
+     * @param anchor    the point, in component coordinates, that should stay under the cursor
+     */
+    private void zoom(int direction, Point anchor) {
+        int oldSize = cellSize;
+        int step = Math.max(1, cellSize / 8);
+        setCellSize(cellSize + direction * step);
+        if (cellSize == oldSize) {
+            return;
+        }
+        JViewport viewport = viewport();
+        if (viewport != null) {
+            Point view = viewport.getViewPosition();
+            int offsetX = anchor.x - view.x;
+            int offsetY = anchor.y - view.y;
+            int newX = anchor.x * cellSize / oldSize - offsetX;
+            int newY = anchor.y * cellSize / oldSize - offsetY;
+            viewport.setViewPosition(new Point(Math.max(0, newX), Math.max(0, newY)));
+        }
+    }
+
+    /**
+     * Pans the enclosing viewport while a drag is in progress.
+     *
+     * @param point the current drag point, in component coordinates
+     */
+    private void pan(Point point) {
+        JViewport viewport = viewport();
+        if (panAnchor == null || viewport == null) {
+            return;
+        }
+        Point view = viewport.getViewPosition();
+        int maxX = Math.max(0, getWidth() - viewport.getWidth());
+        int maxY = Math.max(0, getHeight() - viewport.getHeight());
+        int x = Math.max(0, Math.min(maxX, view.x + panAnchor.x - point.x));
+        int y = Math.max(0, Math.min(maxY, view.y + panAnchor.y - point.y));
+        viewport.setViewPosition(new Point(x, y));
+    }
+
+    /**
+     * Gets the viewport this component is shown in, if any.
+     *
+     * @return the enclosing viewport, or null
+     */
+    private JViewport viewport() {
+        return getParent() instanceof JViewport ? (JViewport) getParent() : null;
+    }
+
+    /**
+     * Sets the preferred size to fit the whole board at the current zoom level.
+     */
+    private void updatePreferredSize() {
+        Dimension size = new Dimension(boardSize * cellSize, boardSize * cellSize);
+        setPreferredSize(size);
+    }
+}
@@ -0,0 +1,22 @@
+package view;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import model.GameFlightEvent;
+
+/**
+ * Recorded when the view copies model changes into the board component.
+ * The actual painting happens later on the event dispatch thread.
+ */
+@Name("scrabble.BoardRepaint")
+@Label("Board Repaint")
+@Description("Cells of the board scheduled for repaint after a model change")
+class BoardRepaintEvent extends GameFlightEvent {
+    @Label("Cells Repainted")
+    int cells;
+
+    @Label("Full Scan")
+    @Description("True when the whole board was compared, false when the model named the changed cells")
+    boolean fullScan;
+}
@@ -2,15 +2,15 @@ package view;
 
 
 import model.Model;
+import model.ModelEvent;
 import model.ModelObserver;
 import model.Player;
-import model.Position;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Locale;
 
 
 /**
@@ -19,7 +19,7 @@ import java.util.Set;
  * It also handles user input and forwards it to the controller.
  */
 public class View extends JFrame implements ModelObserver {
-    private JPanel boardPanel;
+    private BoardComponent boardComponent;
     private JPanel tileRackPanel;
     private JLabel statusLabel;
     private JLabel timerLabel;
@@ -47,11 +47,6 @@ public class View extends JFrame implements ModelObserver {
 
     private boolean displayMessages = true;
 
-    private final Color DARK_RED = new Color(139, 0, 0); // Dark Red
-    private final Color DARK_PINK = new Color(255, 182, 193); // Light Pink
-    private final Color DARK_BLUE = new Color(173, 216, 230); // Light Blue
-    private final Color DARK_CYAN = new Color(0, 139, 139); // Dark Cyan
-    private final Color DARK_ORANGE = new Color(255, 140, 0); // Dark Orange
 
     /**
      * Constructs a View with the specified board size.
@@ -70,18 +65,12 @@ public class View extends JFrame implements ModelObserver {
         setLayout(new BorderLayout());
 
 
-        // Board panel
-        boardPanel = new JPanel();
-        boardPanel.setLayout(new GridLayout(boardSize, boardSize));
-        add(boardPanel, BorderLayout.CENTER);
-
-        // Initialize board
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                JButton cellButton = initializeEachBoardCell(row, col);
-                boardPanel.add(cellButton);
-            }
-        }
+        // Board component, scrollable so large boards can be panned and zoomed
+        boardComponent = new BoardComponent(boardSize);
+        JScrollPane boardScrollPane = new JScrollPane(boardComponent);
+        boardScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        boardScrollPane.getHorizontalScrollBar().setUnitIncrement(16);
+        add(boardScrollPane, BorderLayout.CENTER);
 
 
         // Tile rack panel
@@ -158,58 +147,6 @@ public class View extends JFrame implements ModelObserver {
         setVisible(false);
     }
 
-    /**
-     * Initializes each cell of the game board with the appropriate color.
-     *
-     * @param row the row of the cell
-     * @param col the column of the cell
-     * @return the JButton representing the cell
-     */
-    private JButton initializeEachBoardCell(int row, int col) {
-        JButton cellButton = new JButton();
-        cellButton.setFont(new Font("Arial", Font.PLAIN, 12));
-        cellButton.setFocusable(false);
-        cellButton.setOpaque(true);
-
-        // Triple Word Score (3×WS) - Red
-        if ((row == 0 && (col == 0 || col == 7 || col == 14)) ||
-                (row == 7 && (col == 0 || col == 14)) ||
-
-                (row == 14 && (col == 0 || col == 7 || col == 14))) {
-            cellButton.setBackground(DARK_RED);
-        }
-        // Double Word Score (2×WS) - Pink
-        else {
-            if ((row == col && (row == 1 || row == 2 || row == 3 || row == 4 || row == 10 || row == 11 || row == 12 || row == 13)) ||
-                    ((row + col == 14) && (row == 1 || row == 2 || row == 3 || row == 4 || row == 10 || row == 11 || row == 12 || row == 13))) {
-                cellButton.setBackground(DARK_PINK);
-            }
-            // Triple Letter Score (3×LS) - Blue
-            else if (((row == 1 || row == 13) && (col == 5 || col == 9)) ||
-                    ((row == 5 || row == 9) && (col == 1 || col == 13)) ||
-                    (row == 5 && col == 5) || (row == 5 && col == 9) ||
-                    (row == 9 && col == 5) || (row == 9 && col == 9)) {
-                cellButton.setBackground(DARK_BLUE);
-            }
-            // Double Letter Score (2×LS) - Cyan
-            else if (((row == 0 || row == 14) && (col == 3 || col == 11)) ||
-                    ((row == 2 || row == 12) && (col == 6 || col == 8)) ||
-                    ((row == 3 || row == 11) && (col == 0 || col == 14)) ||
-                    ((row == 6 || row == 8) && (col == 2 || col == 12)) ||
-                    ((row == 6 || row == 8) && (col == 6 || col == 8))) {
-                cellButton.setBackground(DARK_CYAN);
-            }
-            // Center Tile - Orange
-            else if (row == 7 && col == 7) {
-                cellButton.setBackground(DARK_ORANGE);
-            } else {
-                cellButton.setBackground(Color.WHITE);
-            }
-        }
-
-        return cellButton;
-    }
-
     /**
      * Returns the save button.
      *
@@ -238,15 +175,12 @@ public class View extends JFrame implements ModelObserver {
     }
 
     /**
-     * Returns the JButton representing the cell at the specified row and column.
+     * Returns the component that paints the game board.
      *
-     * @param row the row of the cell
-     * @param col the column of the cell
-     * @return the JButton representing the cell
+     * @return the board component
      */
-
-    public JButton getBoardCellButton(int row, int col) {
-        return (JButton) boardPanel.getComponent(row * boardSize + col);
+    public BoardComponent getBoardComponent() {
+        return boardComponent;
     }
 
     /**
@@ -287,40 +221,22 @@ public class View extends JFrame implements ModelObserver {
 
     /**
      * Updates the game board with the given board state.
+     * Only cells whose letter changed since the last update are repainted, and only the cells
+     * around the tiles are compared.
      *
      * @param board the board state to update
+     * @param m     the model holding the premium grid
      */
     public void updateBoard(char[][] board, Model m) {
-        // Assume you have a reference to the model:
-        Set<Position> TW = m.getTripleWordScore();
-        Set<Position> DW = m.getDoubleWordScore();
-        Set<Position> TL = m.getTripleLetterScore();
-        Set<Position> DL = m.getDoubleLetterScore();
-
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                JButton cell = getBoardCellButton(row, col);
-                char c = board[row][col];
-                cell.setText(c == '\0' ? "" : String.valueOf(c));
-
-                Position pos = new Position(row, col);
-                if (TW.contains(pos)) {
-                    cell.setBackground(DARK_RED);
-                } else if (DW.contains(pos)) {
-                    cell.setBackground(DARK_PINK);
-                } else if (TL.contains(pos)) {
-                    cell.setBackground(DARK_BLUE);
-                } else if (DL.contains(pos)) {
-                    cell.setBackground(DARK_CYAN);
-                } else if (row == center && col == center) {
-                    cell.setBackground(DARK_ORANGE);
-                } else {
-                    cell.setBackground(Color.WHITE);
-                }
-            }
+        BoardRepaintEvent event = new BoardRepaintEvent();
+        event.begin();
+        int repainted = boardComponent.setBoard(board, m.getPremiumGrid(), m.getTileBounds());
+        if (event.shouldCommit()) {
+            event.setGame(m);
+            event.cells = repainted;
+            event.fullScan = true;
+            event.commit();
         }
-        boardPanel.revalidate();
-        boardPanel.repaint();
     }
 
 
@@ -354,6 +270,24 @@ public class View extends JFrame implements ModelObserver {
         statusLabel.setText(status);
     }
 
+    /**
+     * Asks the player which letter a blank tile stands for.
+     *
+     * @return the letter in upper case, or null if the player cancelled
+     */
+    public Character askBlankLetter() {
+        while (true) {
+            String answer = JOptionPane.showInputDialog(this, "Which letter should the blank be?");
+            if (answer == null) {
+                return null;
+            }
+            answer = answer.trim().toUpperCase(Locale.ROOT);
+            if (answer.length() == 1 && answer.charAt(0) >= 'A' && answer.charAt(0) <= 'Z') {
+                return answer.charAt(0);
+            }
+        }
+    }
+
     /**
      * Displays a message to the user.
      *
@@ -399,6 +333,9 @@ public class View extends JFrame implements ModelObserver {
             case "noAdjacentTiles":
                 handleAdjacentWord(m);
                 break;
+            case "notInOneLine":
+                handleNotInOneLine(m);
+                break;
             case "tilePlaced":
                 handleBoardUpdate(m);
                 break;
@@ -427,6 +364,77 @@ public class View extends JFrame implements ModelObserver {
     }
 
 
+    /**
+     * Handles a typed model event. The board is repainted only at the cells the event names,
+     * and the rack and status line are refreshed at most once, however many changes a
+     * composite event merges.
+     *
+     * @param event the event describing what changed
+     * @param m     the model
+     */
+    @Override
+    public void modelChanged(ModelEvent event, Model m) {
+        boolean refreshRack = event.isRackChanged();
+        boolean refreshStatus = event.getScoreDelta() != 0;
+
+        for (ModelEvent e : event.getEvents()) {
+            switch (e.getType()) {
+                case "tilePlaced":
+                case "board":
+                    break; // cells are repainted below
+                case "updatePlayerTiles":
+                case "resetTiles":
+                    refreshRack = true;
+                    break;
+                case "centerNotCovered":
+                    showMessage("First word must be placed covering the center square.");
+                    refreshRack = refreshStatus = true;
+                    break;
+                case "invalidWord":
+                    showMessage("Invalid word! Please try again.");
+                    refreshRack = refreshStatus = true;
+                    break;
+                case "noWordFound":
+                    showMessage("No new word found! Please try again.");
+                    break;
+                case "noAdjacentTiles":
+                    showMessage("Word not adjacent! Please try again.");
+                    break;
+                case "notInOneLine":
+                    showMessage("Tiles must be in one row or column, with no gaps! Please try again.");
+                    break;
+                case "wordSubmitted":
+                    showMessage("Word accepted! Your score has been updated.");
+                    refreshRack = refreshStatus = true;
+                    break;
+                case "nextTurn":
+                    showRackFor(m.getCurrentPlayer());
+                    refreshRack = refreshStatus = true;
+                    break;
+                default:
+                    update(e.getType(), m);
+                    break;
+            }
+        }
+
+        if (!event.getCells().isEmpty()) {
+            BoardRepaintEvent repaint = new BoardRepaintEvent();
+            repaint.begin();
+            int repainted = boardComponent.updateCells(m.getBoardState(), m.getPremiumGrid(), event.getCells());
+            if (repaint.shouldCommit()) {
+                repaint.setGame(m);
+                repaint.cells = repainted;
+                repaint.commit();
+            }
+        }
+        if (refreshRack) {
+            loadPlayerTiles(m.getCurrentPlayer().getTiles());
+        }
+        if (refreshStatus) {
+            updateStatus(m.getCurrentPlayer(), m.getRemainingTiles());
+        }
+    }
+
     private void handleResetTimer() {
         timerLabel.setText("Timer: 30s");
     }
@@ -505,6 +513,16 @@ public class View extends JFrame implements ModelObserver {
 
     }
 
+    /**
+     * Handles the message of tiles not placed in one line.
+     *
+     * @param m the model to update
+     */
+    private void handleNotInOneLine(Model m) {
+        showMessage("Tiles must be in one row or column, with no gaps! Please try again.");
+        updateBoard(m.getBoardState(), m);
+    }
+
     /**
      * Handles the word submitted message.
      *
@@ -523,21 +541,22 @@ public class View extends JFrame implements ModelObserver {
      * @param m the model to update
      */
     private void handleNextTurn(Model m) {
-        // hide player tiles
-        if (m.getCurrentPlayer().isAi()) {
-            for (JButton tileButton : playerTiles) {
-                tileButton.setVisible(false);
-            }
-        } else {
-            for (JButton tileButton : playerTiles) {
-                tileButton.setVisible(true);
-            }
-        }
-
+        showRackFor(m.getCurrentPlayer());
         updateStatus(m.getCurrentPlayer(), m.getRemainingTiles());
         loadPlayerTiles(m.getCurrentPlayer().getTiles());
     }
 
+    /**
+     * Shows the tile rack for human players and hides it for AI players.
+     *
+     * @param p the player whose turn it is
+     */
+    private void showRackFor(Player p) {
+        for (JButton tileButton : playerTiles) {
+            tileButton.setVisible(!p.isAi());
+        }
+    }
+
     /**
      * Handles the game over message.
      */